@@ -20,17 +20,31 @@ public final class NullnessContractResolver implements ContractResolver {
   private static final ValueContract NON_NULL_CONTRACT =
       ValueContract.of(PropertyRequirement.of(PropertyId.NON_NULL));
   private final TypeMetadataResolver typeMetadata;
+  private final NullnessSummaries summaries;
 
   public NullnessContractResolver() {
     this(new NullnessTypeMetadataResolver());
   }
 
   public NullnessContractResolver(TypeMetadataResolver typeMetadata) {
+    this(typeMetadata, NullnessSummaries.empty());
+  }
+
+  public NullnessContractResolver(TypeMetadataResolver typeMetadata, NullnessSummaries summaries) {
     this.typeMetadata = Objects.requireNonNull(typeMetadata, "typeMetadata");
+    this.summaries = Objects.requireNonNull(summaries, "summaries");
   }
 
   @Override
   public ValueContract resolve(TargetRef target, ResolutionContext context) {
+    // A summarized non-null return already satisfies the contract, so there is nothing to check.
+    if (target instanceof TargetRef.InvokedMethod invoked
+        && summaries.returnsNonNull(
+            invoked.ownerInternalName(),
+            invoked.methodName(),
+            invoked.descriptor().descriptorString())) {
+      return ValueContract.none();
+    }
     return resolveMetadata(typeMetadata.resolve(target, context));
   }
 
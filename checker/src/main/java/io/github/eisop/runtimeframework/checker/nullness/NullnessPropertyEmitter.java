@@ -8,6 +8,7 @@ import io.github.eisop.runtimeframework.runtime.AttributionKind;
 import io.github.eisop.runtimeframework.semantics.PropertyEmitter;
 import java.lang.classfile.CodeBuilder;
 import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
 import java.lang.constant.MethodTypeDesc;
 
 /** Emits nullness checks for planner-native value actions. */
@@ -19,6 +20,10 @@ public final class NullnessPropertyEmitter implements PropertyEmitter {
       MethodTypeDesc.ofDescriptor(
           "(Ljava/lang/Object;Ljava/lang/String;Lio/github/eisop/runtimeframework/runtime/AttributionKind;)V");
 
+  private static final MethodTypeDesc CHECK_ELEMENTS_DESCRIPTOR =
+      MethodTypeDesc.ofDescriptor(
+          "([Ljava/lang/Object;Ljava/lang/String;Lio/github/eisop/runtimeframework/runtime/AttributionKind;)V");
+
   @Override
   public void emitCheck(
       CodeBuilder builder,
@@ -26,46 +31,110 @@ public final class NullnessPropertyEmitter implements PropertyEmitter {
       ValueAccess access,
       AttributionKind attribution,
       DiagnosticSpec diagnostic) {
+    requireNonNullProperty(property);
+    emitWithValue(builder, access, attribution, diagnostic, "checkNotNull", CHECK_DESCRIPTOR);
+  }
+
+  @Override
+  public boolean supports(PropertyRequirement property) {
+    return property.propertyId() == PropertyId.NON_NULL;
+  }
+
+  @Override
+  public boolean supportsElementsCheck(PropertyRequirement property) {
+    return property.propertyId() == PropertyId.NON_NULL;
+  }
+
+  @Override
+  public void emitElementsCheck(
+      CodeBuilder builder,
+      PropertyRequirement property,
+      ValueAccess access,
+      AttributionKind attribution,
+      DiagnosticSpec diagnostic) {
+    requireNonNullProperty(property);
+    emitWithValue(
+        builder,
+        access,
+        attribution,
+        diagnostic,
+        "checkElementsNotNull",
+        CHECK_ELEMENTS_DESCRIPTOR);
+  }
+
+  private void requireNonNullProperty(PropertyRequirement property) {
     if (property.propertyId() != PropertyId.NON_NULL) {
       throw new IllegalArgumentException("Unsupported nullness property: " + property.propertyId());
     }
+  }
 
+  private void emitWithValue(
+      CodeBuilder builder,
+      ValueAccess access,
+      AttributionKind attribution,
+      DiagnosticSpec diagnostic,
+      String verifierMethod,
+      MethodTypeDesc verifierDescriptor) {
     switch (access) {
       case ValueAccess.LocalSlot localSlot -> {
         builder.aload(localSlot.slot());
-        emitVerifierCall(builder, attribution, diagnostic);
+        emitVerifierCall(builder, attribution, diagnostic, verifierMethod, verifierDescriptor);
       }
       case ValueAccess.ThisReference ignored -> {
         builder.aload(0);
-        emitVerifierCall(builder, attribution, diagnostic);
+        emitVerifierCall(builder, attribution, diagnostic, verifierMethod, verifierDescriptor);
       }
       case ValueAccess.OperandStack operandStack -> {
         if (operandStack.depthFromTop() != 0) {
           throw new IllegalStateException("Only top-of-stack access is currently supported");
         }
         builder.dup();
-        emitVerifierCall(builder, attribution, diagnostic);
+        emitVerifierCall(builder, attribution, diagnostic, verifierMethod, verifierDescriptor);
       }
       case ValueAccess.FieldWriteValue fieldWriteValue -> {
         if (fieldWriteValue.isStaticAccess()) {
           builder.dup();
-          emitVerifierCall(builder, attribution, diagnostic);
+          emitVerifierCall(builder, attribution, diagnostic, verifierMethod, verifierDescriptor);
         } else {
           builder.dup_x1();
-          emitVerifierCall(builder, attribution, diagnostic);
+          emitVerifierCall(builder, attribution, diagnostic, verifierMethod, verifierDescriptor);
           builder.swap();
         }
       }
+      case ValueAccess.FieldValue fieldValue -> {
+        ClassDesc owner = ClassDesc.ofInternalName(fieldValue.ownerInternalName());
+        ClassDesc type = ClassDesc.ofDescriptor(fieldValue.descriptor());
+        if (fieldValue.isStaticAccess()) {
+          builder.getstatic(owner, fieldValue.fieldName(), type);
+        } else {
+          builder.aload(0);
+          builder.getfield(owner, fieldValue.fieldName(), type);
+        }
+        emitVerifierCall(builder, attribution, diagnostic, verifierMethod, verifierDescriptor);
+      }
     }
   }
 
   private void emitVerifierCall(
-      CodeBuilder builder, AttributionKind attribution, DiagnosticSpec diagnostic) {
+      CodeBuilder builder,
+      AttributionKind attribution,
+      DiagnosticSpec diagnostic,
+      String verifierMethod,
+      MethodTypeDesc verifierDescriptor) {
     builder.ldc(diagnostic.displayName() + " must be NonNull");
     builder.getstatic(
         ATTRIBUTION_KIND,
         attribution.name(),
         ClassDesc.ofDescriptor("Lio/github/eisop/runtimeframework/runtime/AttributionKind;"));
-    builder.invokestatic(VERIFIER, "checkNotNull", CHECK_DESCRIPTOR);
+    if (diagnostic.hasSite()) {
+      builder.loadConstant(diagnostic.siteId());
+      builder.invokestatic(
+          VERIFIER,
+          verifierMethod,
+          verifierDescriptor.insertParameterTypes(
+              verifierDescriptor.parameterCount(), ConstantDescs.CD_int));
+    } else {
+      builder.invokestatic(VERIFIER, verifierMethod, verifierDescriptor);
+    }
   }
 }
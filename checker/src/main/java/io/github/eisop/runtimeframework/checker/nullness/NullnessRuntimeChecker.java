@@ -20,6 +20,7 @@ public class NullnessRuntimeChecker extends RuntimeChecker {
 
   @Override
   public CheckerSemantics getSemantics(RuntimeOptions options) {
-    return new NullnessSemantics(options.trustExplicitQualifiers());
+    return new NullnessSemantics(
+        options.trustExplicitQualifiers(), NullnessSummaries.forOptions(options));
   }
 }
@@ -34,4 +34,63 @@ public class NullnessRuntimeVerifier extends RuntimeVerifier {
       reportViolation("Nullness", message, attribution);
     }
   }
+
+  /**
+   * Verifies that the given object is not null at a sampled check site.
+   *
+   * @param o The object to check
+   * @param message The error message to report if the object is null
+   * @param attribution The attribution strategy
+   * @param siteId The sampled check site, escalated to full checking on a violation
+   */
+  public static void checkNotNull(
+      Object o, String message, AttributionKind attribution, int siteId) {
+    if (o == null) {
+      reportViolation("Nullness", message, attribution, siteId);
+    }
+  }
+
+  /**
+   * Verifies that every element of the given array is not null.
+   *
+   * <p>The array reference itself is checked separately, so a null array is ignored here. Only the
+   * first null element is reported.
+   *
+   * @param array The array whose elements to check
+   * @param message The error message to report if an element is null
+   * @param attribution The attribution strategy
+   */
+  public static void checkElementsNotNull(
+      Object[] array, String message, AttributionKind attribution) {
+    if (array == null) {
+      return;
+    }
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == null) {
+        reportElementViolation("Nullness", message, attribution, -1, i);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Verifies that every element of the given array is not null at a sampled check site.
+   *
+   * @param array The array whose elements to check
+   * @param message The error message to report if an element is null
+   * @param attribution The attribution strategy
+   * @param siteId The sampled check site, escalated to full checking on a violation
+   */
+  public static void checkElementsNotNull(
+      Object[] array, String message, AttributionKind attribution, int siteId) {
+    if (array == null) {
+      return;
+    }
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == null) {
+        reportElementViolation("Nullness", message, attribution, siteId, i);
+        return;
+      }
+    }
+  }
 }
@@ -17,8 +17,12 @@ public final class NullnessSemantics implements CheckerSemantics {
   }
 
   public NullnessSemantics(boolean trustExplicitQualifiers) {
+    this(trustExplicitQualifiers, NullnessSummaries.empty());
+  }
+
+  public NullnessSemantics(boolean trustExplicitQualifiers, NullnessSummaries summaries) {
     this.typeMetadata = new NullnessTypeMetadataResolver(trustExplicitQualifiers);
-    this.contracts = new NullnessContractResolver(typeMetadata);
+    this.contracts = new NullnessContractResolver(typeMetadata, summaries);
   }
 
   @Override
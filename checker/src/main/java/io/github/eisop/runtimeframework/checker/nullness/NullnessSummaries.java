@@ -0,0 +1,118 @@
+package io.github.eisop.runtimeframework.checker.nullness;
+
+import io.github.eisop.runtimeframework.checker.nullness.NullnessSummaryFormat.Key;
+import io.github.eisop.runtimeframework.checker.nullness.NullnessSummaryFormat.MethodSummary;
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read-only index of method nullness summaries consulted when planning boundary checks.
+ *
+ * <p>The index combines the JDK summaries bundled with the checker, when {@link
+ * RuntimeOptions#BUNDLED_SUMMARIES_PROPERTY} opts in to them, and any user summary files named by
+ * {@link RuntimeOptions#SUMMARY_FILES_PROPERTY}, with later files overriding earlier ones. It is
+ * loaded on the first lookup, so runs that never plan a boundary return do not pay for it. A source
+ * that is missing or fails to load is reported and skipped. Messages go to standard error, so the
+ * application's standard output is left alone.
+ */
+public final class NullnessSummaries {
+
+  static final String BUNDLED_RESOURCE = "jdk.nsum";
+
+  private static final NullnessSummaries EMPTY = new NullnessSummaries(false, List.of());
+
+  private final boolean includeBundled;
+  private final List<String> summaryFiles;
+  private volatile Map<Key, MethodSummary> index;
+
+  private NullnessSummaries(boolean includeBundled, List<String> summaryFiles) {
+    this.includeBundled = includeBundled;
+    this.summaryFiles = List.copyOf(summaryFiles);
+  }
+
+  public static NullnessSummaries empty() {
+    return EMPTY;
+  }
+
+  public static NullnessSummaries forOptions(RuntimeOptions options) {
+    Objects.requireNonNull(options, "options");
+    if (!options.bundledSummariesEnabled() && options.summaryFileList().isEmpty()) {
+      return EMPTY;
+    }
+    return new NullnessSummaries(options.bundledSummariesEnabled(), options.summaryFileList());
+  }
+
+  public Optional<MethodSummary> lookup(
+      String ownerInternalName, String methodName, String descriptor) {
+    if (this == EMPTY) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(index().get(new Key(ownerInternalName, methodName, descriptor)));
+  }
+
+  /** Returns whether the summarized method is known to never return null. */
+  public boolean returnsNonNull(String ownerInternalName, String methodName, String descriptor) {
+    return lookup(ownerInternalName, methodName, descriptor)
+        .map(MethodSummary::returnsNonNull)
+        .orElse(false);
+  }
+
+  private Map<Key, MethodSummary> index() {
+    Map<Key, MethodSummary> loaded = index;
+    if (loaded == null) {
+      synchronized (this) {
+        loaded = index;
+        if (loaded == null) {
+          loaded = load();
+          index = loaded;
+        }
+      }
+    }
+    return loaded;
+  }
+
+  private Map<Key, MethodSummary> load() {
+    Map<Key, MethodSummary> merged = new HashMap<>();
+    if (includeBundled) {
+      try (InputStream in = NullnessSummaries.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+        if (in == null) {
+          System.err.println(
+              "[RuntimeFramework] Bundled nullness summaries "
+                  + BUNDLED_RESOURCE
+                  + " are missing from the checker; boundary returns of JDK methods stay checked");
+        } else {
+          merged.putAll(NullnessSummaryFormat.read(in));
+        }
+      } catch (IOException | IllegalArgumentException e) {
+        System.err.println(
+            "[RuntimeFramework] Failed to load bundled nullness summaries; boundary returns of JDK"
+                + " methods stay checked: "
+                + e);
+      }
+    }
+    for (String file : summaryFiles) {
+      try (InputStream in = Files.newInputStream(Path.of(file))) {
+        Map<Key, MethodSummary> summaries = NullnessSummaryFormat.read(in);
+        merged.putAll(summaries);
+        System.err.println(
+            "[RuntimeFramework] Loaded nullness summaries "
+                + file
+                + " ("
+                + summaries.size()
+                + " methods)");
+      } catch (IOException | IllegalArgumentException e) {
+        System.err.println(
+            "[RuntimeFramework] Failed to load nullness summaries " + file + "; skipped: " + e);
+      }
+    }
+    return Map.copyOf(merged);
+  }
+}
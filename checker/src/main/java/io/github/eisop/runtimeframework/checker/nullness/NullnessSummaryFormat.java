@@ -0,0 +1,208 @@
+package io.github.eisop.runtimeframework.checker.nullness;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.constant.MethodTypeDesc;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reads and writes method nullness summaries.
+ *
+ * <p>Summaries are authored in a line-oriented text form, one method per line:
+ *
+ * <pre>
+ * # owner                 name       descriptor                                return  parameters
+ * java/util/Objects       requireNonNull (Ljava/lang/Object;)Ljava/lang/Object; nonnull N
+ * java/lang/StringBuilder toString   ()Ljava/lang/String;                       nonnull -
+ * </pre>
+ *
+ * <p>The return column is {@code nonnull} or {@code nullable}. The parameter column has one
+ * character per parameter, {@code N} for a parameter the method rejects when null and {@code ?}
+ * otherwise, or {@code -} for a method without parameters. A {@code nonnull} return claims that
+ * every implementation the call can dispatch to returns non-null, so instance methods should only
+ * be summarized for final classes or final methods.
+ *
+ * <p>{@link NullnessSummaryGenerator} compiles text summaries into a compact binary form with a
+ * shared owner table. {@link #read(InputStream)} accepts either form.
+ */
+public final class NullnessSummaryFormat {
+
+  static final int MAGIC = 0x4E53554D; // "NSUM"
+  static final int VERSION = 1;
+
+  private static final int RETURNS_NON_NULL = 1;
+  private static final int MAX_SUMMARIZED_PARAMETERS = Long.SIZE;
+
+  private NullnessSummaryFormat() {}
+
+  /** Identifies a summarized method by its declaring owner, name and descriptor. */
+  public record Key(String ownerInternalName, String methodName, String descriptor) {
+    public Key {
+      Objects.requireNonNull(ownerInternalName, "ownerInternalName");
+      Objects.requireNonNull(methodName, "methodName");
+      Objects.requireNonNull(descriptor, "descriptor");
+    }
+  }
+
+  /**
+   * The nullness summary of one method. Bit {@code i} of {@code nonNullParameters} is set when
+   * parameter {@code i} is rejected when null; parameters past the 64th are never summarized.
+   */
+  public record MethodSummary(boolean returnsNonNull, long nonNullParameters) {
+    public boolean isParameterNonNull(int parameterIndex) {
+      return parameterIndex >= 0
+          && parameterIndex < MAX_SUMMARIZED_PARAMETERS
+          && (nonNullParameters & (1L << parameterIndex)) != 0;
+    }
+  }
+
+  /** Reads summaries in text or binary form, detected from the leading magic number. */
+  public static Map<Key, MethodSummary> read(InputStream in) throws IOException {
+    Objects.requireNonNull(in, "in");
+    BufferedInputStream buffered = new BufferedInputStream(in);
+    buffered.mark(Integer.BYTES);
+    byte[] header = buffered.readNBytes(Integer.BYTES);
+    buffered.reset();
+    if (header.length == Integer.BYTES
+        && new DataInputStream(new ByteArrayInputStream(header)).readInt() == MAGIC) {
+      return readBinary(buffered);
+    }
+    String text = new String(buffered.readAllBytes(), StandardCharsets.UTF_8);
+    return parseText(text.lines().toList());
+  }
+
+  public static Map<Key, MethodSummary> parseText(List<String> lines) {
+    Map<Key, MethodSummary> summaries = new LinkedHashMap<>();
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] columns = line.split("\\s+");
+      if (columns.length != 5) {
+        throw new IllegalArgumentException(
+            "Malformed summary line " + (i + 1) + ": expected 5 columns");
+      }
+      Key key = new Key(columns[0].replace('.', '/'), columns[1], columns[2]);
+      summaries.put(key, parseSummary(key, columns[3], columns[4], i + 1));
+    }
+    return summaries;
+  }
+
+  private static MethodSummary parseSummary(
+      Key key, String returnColumn, String parameterColumn, int lineNumber) {
+    boolean returnsNonNull =
+        switch (returnColumn) {
+          case "nonnull" -> true;
+          case "nullable" -> false;
+          default ->
+              throw new IllegalArgumentException(
+                  "Malformed summary line " + lineNumber + ": unknown return " + returnColumn);
+        };
+    int parameterCount;
+    try {
+      parameterCount = MethodTypeDesc.ofDescriptor(key.descriptor()).parameterCount();
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Malformed summary line " + lineNumber + ": bad descriptor " + key.descriptor(), e);
+    }
+    String parameters = "-".equals(parameterColumn) ? "" : parameterColumn;
+    if (parameters.length() != parameterCount) {
+      throw new IllegalArgumentException(
+          "Malformed summary line "
+              + lineNumber
+              + ": expected "
+              + parameterCount
+              + " parameter flags");
+    }
+    long nonNullParameters = 0;
+    for (int p = 0; p < parameters.length(); p++) {
+      switch (parameters.charAt(p)) {
+        case 'N' -> {
+          if (p < MAX_SUMMARIZED_PARAMETERS) {
+            nonNullParameters |= 1L << p;
+          }
+        }
+        case '?' -> {}
+        default ->
+            throw new IllegalArgumentException(
+                "Malformed summary line " + lineNumber + ": unknown parameter flag");
+      }
+    }
+    return new MethodSummary(returnsNonNull, nonNullParameters);
+  }
+
+  /** Writes summaries in binary form, sorted so that the output is reproducible. */
+  public static void writeBinary(Map<Key, MethodSummary> summaries, OutputStream out)
+      throws IOException {
+    Map<Key, MethodSummary> sorted =
+        new TreeMap<>(
+            Comparator.comparing(Key::ownerInternalName)
+                .thenComparing(Key::methodName)
+                .thenComparing(Key::descriptor));
+    sorted.putAll(summaries);
+
+    Map<String, Integer> owners = new LinkedHashMap<>();
+    for (Key key : sorted.keySet()) {
+      owners.putIfAbsent(key.ownerInternalName(), owners.size());
+    }
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeShort(VERSION);
+    data.writeInt(owners.size());
+    for (String owner : owners.keySet()) {
+      data.writeUTF(owner);
+    }
+    data.writeInt(sorted.size());
+    for (Map.Entry<Key, MethodSummary> entry : sorted.entrySet()) {
+      Key key = entry.getKey();
+      MethodSummary summary = entry.getValue();
+      data.writeInt(owners.get(key.ownerInternalName()));
+      data.writeUTF(key.methodName());
+      data.writeUTF(key.descriptor());
+      data.writeByte(summary.returnsNonNull() ? RETURNS_NON_NULL : 0);
+      data.writeLong(summary.nonNullParameters());
+    }
+    data.flush();
+  }
+
+  private static Map<Key, MethodSummary> readBinary(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    data.readInt();
+    int version = data.readUnsignedShort();
+    if (version != VERSION) {
+      throw new IOException("Unsupported summary version " + version);
+    }
+    int ownerCount = data.readInt();
+    List<String> owners = new ArrayList<>(ownerCount);
+    for (int i = 0; i < ownerCount; i++) {
+      owners.add(data.readUTF());
+    }
+    int entryCount = data.readInt();
+    Map<Key, MethodSummary> summaries = new HashMap<>(entryCount * 2);
+    for (int i = 0; i < entryCount; i++) {
+      int ownerIndex = data.readInt();
+      if (ownerIndex < 0 || ownerIndex >= owners.size()) {
+        throw new IOException("Summary entry " + i + " has bad owner index " + ownerIndex);
+      }
+      Key key = new Key(owners.get(ownerIndex), data.readUTF(), data.readUTF());
+      boolean returnsNonNull = (data.readUnsignedByte() & RETURNS_NON_NULL) != 0;
+      summaries.put(key, new MethodSummary(returnsNonNull, data.readLong()));
+    }
+    return summaries;
+  }
+}
@@ -0,0 +1,47 @@
+package io.github.eisop.runtimeframework.checker.nullness;
+
+import io.github.eisop.runtimeframework.checker.nullness.NullnessSummaryFormat.Key;
+import io.github.eisop.runtimeframework.checker.nullness.NullnessSummaryFormat.MethodSummary;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compiles nullness summary files into the binary summary format.
+ *
+ * <p>Usage: {@code NullnessSummaryGenerator <output> <input>...}. Inputs may be text or binary
+ * summaries and are merged in order, so a later input overrides an earlier summary of the same
+ * method. The build uses it to produce the bundled JDK summaries; third-party libraries can ship
+ * their own text or binary summaries and pass them with {@code -Druntime.summaries}.
+ */
+public final class NullnessSummaryGenerator {
+
+  private NullnessSummaryGenerator() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: NullnessSummaryGenerator <output> <input>...");
+      System.exit(2);
+    }
+    Map<Key, MethodSummary> merged = new LinkedHashMap<>();
+    for (int i = 1; i < args.length; i++) {
+      try (InputStream in = Files.newInputStream(Path.of(args[i]))) {
+        merged.putAll(NullnessSummaryFormat.read(in));
+      }
+    }
+    Path output = Path.of(args[0]);
+    Path parent = output.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    try (OutputStream out = Files.newOutputStream(output)) {
+      NullnessSummaryFormat.writeBinary(merged, out);
+    }
+    System.out.println(
+        "[RuntimeFramework] Wrote " + merged.size() + " nullness summaries to " + output);
+  }
+}
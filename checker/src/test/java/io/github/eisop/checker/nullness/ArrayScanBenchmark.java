@@ -0,0 +1,49 @@
+package io.github.eisop.checker.nullness;
+
+import io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeVerifier;
+import io.github.eisop.runtimeframework.runtime.AttributionKind;
+import io.github.eisop.testutils.MicroBenchmark;
+import java.util.Arrays;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Compares the whole-array boundary scan with checking every element on load. */
+@Tag(MicroBenchmark.TAG)
+public class ArrayScanBenchmark {
+
+  private static final String MESSAGE = "Array Element Read must be NonNull";
+
+  @Test
+  public void scanVersusPerLoadChecks() {
+    for (int length : new int[] {10, 1_000, 1_000_000}) {
+      String[] array = new String[length];
+      Arrays.fill(array, "value");
+      long ops = Math.max(1, 10_000_000 / length);
+
+      MicroBenchmark.report(
+          "boundary scan, then unchecked loads, length " + length,
+          MicroBenchmark.nanosPerOp(ops, () -> scanThenLoad(array)));
+      MicroBenchmark.report(
+          "per-load checks, length " + length,
+          MicroBenchmark.nanosPerOp(ops, () -> checkEachLoad(array)));
+    }
+  }
+
+  private static long scanThenLoad(String[] array) {
+    NullnessRuntimeVerifier.checkElementsNotNull(array, MESSAGE, AttributionKind.LOCAL);
+    long length = 0;
+    for (String element : array) {
+      length += element.length();
+    }
+    return length;
+  }
+
+  private static long checkEachLoad(String[] array) {
+    long length = 0;
+    for (String element : array) {
+      NullnessRuntimeVerifier.checkNotNull(element, MESSAGE, AttributionKind.LOCAL);
+      length += element.length();
+    }
+    return length;
+  }
+}
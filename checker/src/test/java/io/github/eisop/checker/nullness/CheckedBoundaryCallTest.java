@@ -0,0 +1,161 @@
+package io.github.eisop.checker.nullness;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.eisop.runtimeframework.agent.RuntimeAgent;
+import io.github.eisop.runtimeframework.agent.RuntimeTransformer;
+import io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker;
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.testutils.AgentTestHarness;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.instruction.InvokeDynamicInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+/** Transforms a checked caller and inspects how it calls checked final methods. */
+public class CheckedBoundaryCallTest extends AgentTestHarness {
+
+  @Test
+  public void callsTheSafeEntryOfACheckedFinalClassDirectly() throws Exception {
+    setup();
+    try {
+      compileFixtures();
+      try (URLClassLoader loader =
+          new URLClassLoader("app", new URL[] {tempDir.toUri().toURL()}, null)) {
+        List<String> calls = callsOfRun(transformCaller(new Properties(), loader));
+
+        assertTrue(
+            calls.contains("invokevirtual LocalTarget.accept$runtimeframework$safe"),
+            calls.toString());
+        assertTrue(
+            calls.contains("invokevirtual SharedTarget.accept$runtimeframework$safe"),
+            calls.toString());
+      }
+    } finally {
+      cleanup();
+    }
+  }
+
+  @Test
+  public void callsAClassThatIsNotSplitWhereItIsDefinedByItsOriginalName() throws Exception {
+    setup();
+    try {
+      compileFixtures();
+      Path shared = Files.createDirectories(tempDir.resolve("shared"));
+      Files.move(tempDir.resolve("SharedTarget.class"), shared.resolve("SharedTarget.class"));
+      Path profiles = tempDir.resolve("profiles.txt");
+      Files.writeString(profiles, "loader shared off\nloader app standard\n");
+      Properties properties = new Properties();
+      properties.setProperty(RuntimeOptions.POLICY_PROFILES_PROPERTY, profiles.toString());
+
+      try (URLClassLoader parent =
+              new URLClassLoader("shared", new URL[] {shared.toUri().toURL()}, null);
+          URLClassLoader loader =
+              new URLClassLoader("app", new URL[] {tempDir.toUri().toURL()}, parent)) {
+        List<String> calls = callsOfRun(transformCaller(properties, loader));
+
+        assertTrue(
+            calls.contains("invokevirtual LocalTarget.accept$runtimeframework$safe"),
+            calls.toString());
+        assertTrue(calls.contains("invokevirtual SharedTarget.accept"), calls.toString());
+        assertFalse(
+            calls.contains("invokevirtual SharedTarget.accept$runtimeframework$safe"),
+            calls.toString());
+        assertFalse(calls.contains("invokedynamic accept"), calls.toString());
+      }
+    } finally {
+      cleanup();
+    }
+  }
+
+  private void compileFixtures() throws Exception {
+    writeSource(
+        "Caller.java",
+        """
+        import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+        @AnnotatedFor("nullness")
+        public class Caller {
+            public static void run(LocalTarget local, SharedTarget shared) {
+                local.accept("local");
+                shared.accept("shared");
+            }
+        }
+        """);
+    writeSource(
+        "LocalTarget.java",
+        """
+        import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+        @AnnotatedFor("nullness")
+        public final class LocalTarget {
+            public void accept(Object value) {}
+        }
+        """);
+    writeSource(
+        "SharedTarget.java",
+        """
+        import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+        @AnnotatedFor("nullness")
+        public final class SharedTarget {
+            public void accept(Object value) {}
+        }
+        """);
+    compile("Caller.java", "LocalTarget.java", "SharedTarget.java");
+  }
+
+  private byte[] transformCaller(Properties properties, ClassLoader loader) throws Exception {
+    properties.setProperty(
+        RuntimeOptions.CHECKER_CLASS_PROPERTY, NullnessRuntimeChecker.class.getName());
+    properties.setProperty(RuntimeOptions.TRUST_ANNOTATED_FOR_PROPERTY, "true");
+    RuntimeTransformer transformer =
+        RuntimeAgent.createTransformer(RuntimeOptions.fromProperties(properties));
+    assertNotNull(transformer);
+    byte[] transformed =
+        transformer.transform(
+            loader.getUnnamedModule(),
+            loader,
+            "Caller",
+            null,
+            null,
+            Files.readAllBytes(tempDir.resolve("Caller.class")));
+    assertNotNull(transformed);
+    return transformed;
+  }
+
+  /** Returns the calls made by {@code run} and the methods split from it. */
+  private static List<String> callsOfRun(byte[] classBytes) {
+    List<String> calls = new ArrayList<>();
+    for (MethodModel method : ClassFile.of().parse(classBytes).methods()) {
+      if (!method.methodName().stringValue().startsWith("run") || method.code().isEmpty()) {
+        continue;
+      }
+      for (CodeElement element : method.code().get()) {
+        if (element instanceof InvokeInstruction invoke) {
+          calls.add(
+              invoke.opcode().name().toLowerCase(Locale.ROOT)
+                  + " "
+                  + invoke.owner().asInternalName()
+                  + "."
+                  + invoke.name().stringValue());
+        } else if (element instanceof InvokeDynamicInstruction indy) {
+          calls.add("invokedynamic " + indy.name().stringValue());
+        }
+      }
+    }
+    return calls;
+  }
+}
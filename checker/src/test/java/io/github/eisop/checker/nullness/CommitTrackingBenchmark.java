@@ -0,0 +1,75 @@
+package io.github.eisop.checker.nullness;
+
+import io.github.eisop.runtimeframework.runtime.CommitState;
+import io.github.eisop.testutils.MicroBenchmark;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares constructing objects with and without the commit tracking of checked classes. The
+ * tracked classes spell out by hand what the instrumentation emits with {@code
+ * runtime.init.commitTracking=true}.
+ */
+@Tag(MicroBenchmark.TAG)
+public class CommitTrackingBenchmark {
+
+  private static final long OPS = 10_000_000;
+
+  @Test
+  public void constructionThroughput() {
+    MicroBenchmark.report(
+        "construction, untracked", MicroBenchmark.nanosPerOp(OPS, () -> new Plain(1).value));
+    MicroBenchmark.report(
+        "construction, tracked", MicroBenchmark.nanosPerOp(OPS, () -> new Tracked(1).value));
+    MicroBenchmark.report(
+        "construction, tracked checked subclass",
+        MicroBenchmark.nanosPerOp(OPS, () -> new TrackedChild(1).value));
+
+    Tracked committed = new Tracked(1);
+    MicroBenchmark.report(
+        "receiver check, committed object",
+        MicroBenchmark.nanosPerOp(OPS, () -> committed.receiverChecked()));
+  }
+
+  static class Plain {
+    final long value;
+
+    Plain(long value) {
+      this.value = value;
+    }
+  }
+
+  static class Tracked {
+    private transient boolean $runtimeframework$constructing;
+    final long value;
+
+    Tracked(long value) {
+      $runtimeframework$constructing = true;
+      super();
+      this.value = value;
+      if (getClass() == Tracked.class || CommitState.commitSubclass(this, Tracked.class)) {
+        $runtimeframework$constructing = false;
+      }
+    }
+
+    long receiverChecked() {
+      if ($runtimeframework$constructing) {
+        CommitState.checkReceiver(this, Tracked.class, "Receiver must be Committed");
+      }
+      return value;
+    }
+  }
+
+  static class TrackedChild extends Tracked {
+    private transient boolean $runtimeframework$constructing;
+
+    TrackedChild(long value) {
+      $runtimeframework$constructing = true;
+      super(value);
+      if (getClass() == TrackedChild.class
+          || CommitState.commitSubclass(this, TrackedChild.class)) {
+        $runtimeframework$constructing = false;
+      }
+    }
+  }
+}
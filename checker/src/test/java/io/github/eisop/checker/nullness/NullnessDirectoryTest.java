@@ -1,7 +1,14 @@
 package io.github.eisop.checker.nullness;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.runtimeframework.runtime.CheckSiteProfile;
 import io.github.eisop.testutils.RuntimeTestRunner;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -15,6 +22,15 @@ public class NullnessDirectoryTest extends RuntimeTestRunner {
         false);
   }
 
+  @Test
+  public void testComposedCheckerScenarios() throws Exception {
+    runDirectoryTest(
+        "composed-checkers",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker,"
+            + "io.github.eisop.testutils.StrictParameterRuntimeChecker",
+        false);
+  }
+
   @Test
   public void testUntrustedExplicitQualifierScenarios() throws Exception {
     runDirectoryTest(
@@ -32,6 +48,31 @@ public class NullnessDirectoryTest extends RuntimeTestRunner {
         false);
   }
 
+  @Test
+  public void testInvokeCheckedMarkerInterfaceScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-invoke",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(systemProperty(RuntimeOptions.CHECKED_MARKER_INTERFACE_PROPERTY, true)));
+  }
+
+  @Test
+  public void testCheckedMarkerInterfaceWithoutIndyBoundary() throws Exception {
+    runDirectoryTest(
+        "nullness-checked-marker",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(
+            systemProperty(RuntimeOptions.CHECKED_MARKER_INTERFACE_PROPERTY, true),
+            systemProperty(RuntimeOptions.INDY_BOUNDARY_PROPERTY, false)),
+        (directory, results) -> {
+          String stdout = results.get("CheckedMarkerPresence").stdout();
+          assertTrue(stdout.contains("checked marker: true"), stdout);
+          assertTrue(stdout.contains("unchecked marker: false"), stdout);
+        });
+  }
+
   @Test
   public void testInterfaceScenarios() throws Exception {
     runDirectoryTest(
@@ -56,6 +97,88 @@ public class NullnessDirectoryTest extends RuntimeTestRunner {
         false);
   }
 
+  @Test
+  public void testArrayBoundaryScanScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-array-boundary-scan",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(systemProperty(RuntimeOptions.ARRAY_BOUNDARY_SCAN_PROPERTY, true)));
+  }
+
+  @Test
+  public void testSamplingScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-sampling",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(systemProperty(RuntimeOptions.SAMPLING_PERIOD_PROPERTY, "1000")));
+  }
+
+  @Test
+  public void testSiteProfileScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-site-profile",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(
+            systemProperty(RuntimeOptions.SITE_PROFILE_PROPERTY, true),
+            systemProperty(RuntimeOptions.SITE_PROFILE_OUTPUT_PROPERTY, "sites.tsv")),
+        (directory, results) -> {
+          List<String> profile = Files.readAllLines(directory.resolve("sites.tsv"));
+          assertEquals(CheckSiteProfile.HEADER, profile.get(0));
+          assertTrue(
+              profile.contains(
+                  "100\t0\tProfiledSites\thot\t(Ljava/lang/String;)V\t-1\tParameter 0"),
+              String.join("\n", profile));
+          assertTrue(
+              profile.stream()
+                  .anyMatch(
+                      line ->
+                          line.startsWith("1\t1\tProfiledSites\tmain\t")
+                              && line.endsWith("\tReturn value of provide (Boundary)")),
+              String.join("\n", profile));
+          assertTrue(
+              profile.stream().noneMatch(line -> line.contains("\tmaybe\t")),
+              String.join("\n", profile));
+        });
+  }
+
+  @Test
+  public void testProfileGuidedScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-profile-guided",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(
+            systemProperty(RuntimeOptions.HOT_SITE_PERIOD_PROPERTY, "1000"),
+            systemProperty(
+                RuntimeOptions.SITE_PROFILE_INPUT_PROPERTY,
+                testCaseFile("nullness-profile-guided", "sites.tsv"))));
+  }
+
+  @Test
+  public void testLazyInstrumentationScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-lazy",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        true,
+        List.of(systemProperty(RuntimeOptions.LAZY_INSTRUMENTATION_PROPERTY, true)));
+  }
+
+  @Test
+  public void testSummaryScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-summaries",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(
+            systemProperty(RuntimeOptions.BUNDLED_SUMMARIES_PROPERTY, true),
+            systemProperty(
+                RuntimeOptions.SUMMARY_FILES_PROPERTY,
+                testCaseFile("nullness-summaries", "summaries.txt"))));
+  }
+
   @Test
   public void testGradualArrayScenarios() throws Exception {
     runDirectoryTest(
@@ -80,6 +203,47 @@ public class NullnessDirectoryTest extends RuntimeTestRunner {
         true);
   }
 
+  @Test
+  public void testFinalFieldCommitScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-final-field-commit",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(systemProperty(RuntimeOptions.FINAL_FIELD_COMMIT_PROPERTY, true)));
+  }
+
+  @Test
+  public void testReturnSummaryScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-return-summaries",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(systemProperty(RuntimeOptions.RETURN_SUMMARIES_PROPERTY, true)));
+  }
+
+  @Test
+  public void testOutliningScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-outlining",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(systemProperty(RuntimeOptions.OUTLINE_THRESHOLD_PROPERTY, "1")),
+        (directory, results) -> {
+          String stdout = results.get("OutlinedChecks").stdout();
+          assertTrue(stdout.contains("outlined helpers: "), stdout);
+          assertFalse(stdout.contains("outlined helpers: 0"), stdout);
+        });
+  }
+
+  @Test
+  public void testCommitTrackingScenarios() throws Exception {
+    runDirectoryTest(
+        "nullness-commit-tracking",
+        "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
+        false,
+        List.of(systemProperty(RuntimeOptions.COMMIT_TRACKING_PROPERTY, true)));
+  }
+
   @Test
   public void testFieldWriteScenarios() throws Exception {
     runDirectoryTest(
@@ -111,4 +275,12 @@ public class NullnessDirectoryTest extends RuntimeTestRunner {
         "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker",
         true);
   }
+
+  private static String testCaseFile(String dirName, String fileName) {
+    Path file = Path.of("src/test/resources/test-cases", dirName, fileName);
+    if (!Files.exists(file)) {
+      file = Path.of("checker/src/test/resources/test-cases", dirName, fileName);
+    }
+    return file.toAbsolutePath().toString();
+  }
 }
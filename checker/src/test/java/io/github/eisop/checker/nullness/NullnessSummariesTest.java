@@ -0,0 +1,55 @@
+package io.github.eisop.checker.nullness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.eisop.runtimeframework.checker.nullness.NullnessSummaries;
+import io.github.eisop.runtimeframework.checker.nullness.NullnessSummaryFormat;
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+public class NullnessSummariesTest {
+
+  @Test
+  public void bundledSummariesMatchTheirSource() throws Exception {
+    Path source = Path.of("src/main/summaries/jdk.nsum.txt");
+    if (!Files.exists(source)) {
+      source = Path.of("checker/src/main/summaries/jdk.nsum.txt");
+    }
+
+    try (InputStream bundled = NullnessSummaries.class.getResourceAsStream("jdk.nsum")) {
+      assertNotNull(bundled, "the build bundles jdk.nsum with the checker");
+      assertEquals(
+          NullnessSummaryFormat.parseText(Files.readAllLines(source)),
+          NullnessSummaryFormat.read(bundled));
+    }
+  }
+
+  @Test
+  public void bundledSummariesAnswerLookups() {
+    Properties properties = new Properties();
+    properties.setProperty(RuntimeOptions.BUNDLED_SUMMARIES_PROPERTY, "true");
+    NullnessSummaries summaries =
+        NullnessSummaries.forOptions(RuntimeOptions.fromProperties(properties));
+
+    assertTrue(summaries.returnsNonNull("java/lang/String", "trim", "()Ljava/lang/String;"));
+    assertTrue(
+        summaries.returnsNonNull("java/lang/StringBuilder", "toString", "()Ljava/lang/String;"));
+    assertFalse(
+        summaries.returnsNonNull(
+            "java/lang/System", "getProperty", "(Ljava/lang/String;)Ljava/lang/String;"));
+  }
+
+  @Test
+  public void bundledSummariesAreOffByDefault() {
+    NullnessSummaries summaries = NullnessSummaries.forOptions(RuntimeOptions.defaults());
+
+    assertFalse(summaries.returnsNonNull("java/lang/String", "trim", "()Ljava/lang/String;"));
+  }
+}
@@ -0,0 +1,322 @@
+package io.github.eisop.checker.nullness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.eisop.runtimeframework.agent.PlanReport;
+import io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker;
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.runtimeframework.planning.FlowKind;
+import io.github.eisop.runtimeframework.policy.ClassClassification;
+import io.github.eisop.testutils.AgentTestHarness;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.Test;
+
+/** Plans a small fixture jar and checks the counts of the report and its JSON form. */
+public class PlanReportTest extends AgentTestHarness {
+
+  @Test
+  public void reportsChecksSplitsBridgesAndIndySites() throws Exception {
+    setup();
+    try {
+      writeSource(
+          "UncheckedParent.java",
+          """
+          public class UncheckedParent {
+              public void act(String input) {}
+
+              public String produce() {
+                  return "produced";
+              }
+          }
+          """);
+      writeSource(
+          "PlannedChild.java",
+          """
+          import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+          @AnnotatedFor("nullness")
+          public class PlannedChild extends UncheckedParent {
+              public static String echo(String value) {
+                  return value;
+              }
+
+              public String name() {
+                  return "child";
+              }
+
+              public static int call(PlannedChild child) {
+                  return child.name().length();
+              }
+          }
+          """);
+      compile("UncheckedParent.java", "PlannedChild.java");
+      Path jar = tempDir.resolve("fixture.jar");
+      writeJar(jar, "UncheckedParent.class", "PlannedChild.class");
+
+      Properties properties = new Properties();
+      properties.setProperty(RuntimeOptions.TRUST_ANNOTATED_FOR_PROPERTY, "true");
+      PlanReport.Report report =
+          PlanReport.plan(
+              jar,
+              "",
+              new NullnessRuntimeChecker(),
+              RuntimeOptions.fromProperties(properties),
+              2);
+
+      assertEquals(2, report.scannedClasses());
+      assertEquals(1, report.classes().size(), "the unchecked parent is skipped");
+      PlanReport.ClassReport child = report.classes().get(0);
+      assertEquals("PlannedChild", child.className());
+      assertEquals(ClassClassification.CHECKED, child.classification());
+      assertNull(child.error());
+
+      Map<FlowKind, Integer> checks = checksByKind(child);
+      assertEquals(2, checks.getOrDefault(FlowKind.METHOD_PARAMETER, 0), checks.toString());
+      assertEquals(1, checks.getOrDefault(FlowKind.BRIDGE_PARAMETER, 0), checks.toString());
+      assertEquals(1, checks.getOrDefault(FlowKind.BRIDGE_RETURN, 0), checks.toString());
+      assertEquals(3, child.splitMethods(), "echo, name and call are split");
+      assertEquals(2, child.bridges(), "act and produce are bridged");
+      assertEquals(1, child.indySites(), "the call of the overridable name() is dispatched");
+      assertEquals(1, method(child, "echo").checks().get(FlowKind.METHOD_PARAMETER));
+      assertEquals(1, method(child, "call").indySites());
+
+      StringWriter json = new StringWriter();
+      PlanReport.writeJson(report, json);
+      Map<?, ?> root = (Map<?, ?>) new JsonParser(json.toString()).parse();
+      assertEquals(2L, root.get("scannedClasses"));
+      List<?> classes = (List<?>) root.get("classes");
+      assertEquals(1, classes.size());
+      Map<?, ?> childJson = (Map<?, ?>) classes.get(0);
+      assertEquals("PlannedChild", childJson.get("class"));
+      assertEquals("CHECKED", childJson.get("classification"));
+      assertEquals((long) child.checkCount(), childJson.get("checks"));
+      assertEquals(3L, childJson.get("splitMethods"));
+      assertEquals(2L, childJson.get("bridges"));
+      assertEquals(1L, childJson.get("indySites"));
+      long parameterChecks = 0;
+      for (Object method : (List<?>) childJson.get("methods")) {
+        Object count = ((Map<?, ?>) ((Map<?, ?>) method).get("checks")).get("METHOD_PARAMETER");
+        parameterChecks += count == null ? 0 : (Long) count;
+      }
+      assertEquals(2L, parameterChecks);
+
+      ByteArrayOutputStream text = new ByteArrayOutputStream();
+      PlanReport.write(report, new PrintStream(text, true, StandardCharsets.UTF_8), 10);
+      String summary = text.toString(StandardCharsets.UTF_8);
+      assertTrue(summary.startsWith("# classes 2 in "), summary);
+      assertTrue(summary.contains("# split methods 3, bridges 2, indy boundary sites 1"), summary);
+    } finally {
+      cleanup();
+    }
+  }
+
+  private static Map<FlowKind, Integer> checksByKind(PlanReport.ClassReport classReport) {
+    Map<FlowKind, Integer> checks = new LinkedHashMap<>();
+    for (PlanReport.MethodReport method : classReport.methods()) {
+      method.checks().forEach((kind, count) -> checks.merge(kind, count, Integer::sum));
+    }
+    return checks;
+  }
+
+  private static PlanReport.MethodReport method(PlanReport.ClassReport classReport, String name) {
+    return classReport.methods().stream()
+        .filter(method -> method.name().equals(name))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("no method " + name));
+  }
+
+  private void writeJar(Path jar, String... classFiles) throws IOException {
+    try (OutputStream file = Files.newOutputStream(jar);
+        JarOutputStream out = new JarOutputStream(file)) {
+      for (String classFile : classFiles) {
+        out.putNextEntry(new JarEntry(classFile));
+        out.write(Files.readAllBytes(tempDir.resolve(classFile)));
+        out.closeEntry();
+      }
+    }
+  }
+
+  /** Parses strict JSON into maps, lists, strings, longs, booleans and nulls. */
+  private static final class JsonParser {
+    private final String text;
+    private int position;
+
+    JsonParser(String text) {
+      this.text = text;
+    }
+
+    Object parse() {
+      Object value = value();
+      skipWhitespace();
+      if (position != text.length()) {
+        throw error("trailing content");
+      }
+      return value;
+    }
+
+    private Object value() {
+      skipWhitespace();
+      if (position >= text.length()) {
+        throw error("unexpected end");
+      }
+      char c = text.charAt(position);
+      switch (c) {
+        case '{' -> {
+          return object();
+        }
+        case '[' -> {
+          return array();
+        }
+        case '"' -> {
+          return string();
+        }
+        default -> {
+          if (text.startsWith("true", position)) {
+            position += 4;
+            return true;
+          }
+          if (text.startsWith("false", position)) {
+            position += 5;
+            return false;
+          }
+          if (text.startsWith("null", position)) {
+            position += 4;
+            return null;
+          }
+          return number();
+        }
+      }
+    }
+
+    private Map<String, Object> object() {
+      Map<String, Object> object = new LinkedHashMap<>();
+      expect('{');
+      skipWhitespace();
+      if (peek() == '}') {
+        position++;
+        return object;
+      }
+      do {
+        skipWhitespace();
+        String key = string();
+        skipWhitespace();
+        expect(':');
+        if (object.put(key, value()) != null) {
+          throw error("duplicate key " + key);
+        }
+        skipWhitespace();
+      } while (consume(','));
+      expect('}');
+      return object;
+    }
+
+    private List<Object> array() {
+      List<Object> array = new ArrayList<>();
+      expect('[');
+      skipWhitespace();
+      if (peek() == ']') {
+        position++;
+        return array;
+      }
+      do {
+        array.add(value());
+        skipWhitespace();
+      } while (consume(','));
+      expect(']');
+      return array;
+    }
+
+    private String string() {
+      expect('"');
+      StringBuilder value = new StringBuilder();
+      while (true) {
+        char c = text.charAt(position++);
+        if (c == '"') {
+          return value.toString();
+        }
+        if (c < 0x20) {
+          throw error("control character in string");
+        }
+        if (c != '\\') {
+          value.append(c);
+          continue;
+        }
+        char escape = text.charAt(position++);
+        switch (escape) {
+          case '"', '\\', '/' -> value.append(escape);
+          case 'n' -> value.append('\n');
+          case 'r' -> value.append('\r');
+          case 't' -> value.append('\t');
+          case 'b' -> value.append('\b');
+          case 'f' -> value.append('\f');
+          case 'u' -> {
+            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+            position += 4;
+          }
+          default -> throw error("bad escape " + escape);
+        }
+      }
+    }
+
+    private Object number() {
+      int start = position;
+      if (peek() == '-') {
+        position++;
+      }
+      while (position < text.length() && "0123456789.eE+-".indexOf(text.charAt(position)) >= 0) {
+        position++;
+      }
+      String number = text.substring(start, position);
+      if (number.isEmpty() || number.equals("-")) {
+        throw error("unexpected character");
+      }
+      return number.matches("-?(0|[1-9][0-9]*)")
+          ? (Object) Long.parseLong(number)
+          : (Object) Double.parseDouble(number);
+    }
+
+    private void skipWhitespace() {
+      while (position < text.length() && " \t\r\n".indexOf(text.charAt(position)) >= 0) {
+        position++;
+      }
+    }
+
+    private char peek() {
+      return position < text.length() ? text.charAt(position) : '\0';
+    }
+
+    private boolean consume(char c) {
+      if (peek() == c) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(char c) {
+      if (!consume(c)) {
+        throw error("expected '" + c + "'");
+      }
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException(message + " at " + position);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package io.github.eisop.checker.nullness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.testutils.AgentTestHarness;
+import io.github.eisop.testutils.MicroBenchmark;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Links many boundary calls to one method whose receiver may be unchecked, each on its own line,
+ * and reports how many return filters the caller got, the time to link the call sites and the heap
+ * they retain, once with shared filters and once with a filter per call site as the baseline.
+ */
+@Tag(MicroBenchmark.TAG)
+public class ReturnFilterSharingBenchmark extends AgentTestHarness {
+
+  private static final int CALL_SITES = 1_000;
+  private static final String VARIANT_PROPERTY = "benchmark.variant";
+
+  @Test
+  public void linkageAndFilters() throws Exception {
+    run("shared", false);
+  }
+
+  /**
+   * The unshared baseline. Counting site hits registers every check as its own site, so each call
+   * gets its own return filter, as before filters were shared. The counters add a little to every
+   * filter call but nothing to linkage.
+   */
+  @Test
+  public void linkageAndFiltersPerSite() throws Exception {
+    run("per site", true);
+  }
+
+  private void run(String variant, boolean filterPerSite) throws Exception {
+    setup();
+    try {
+      writeSource("SharedFilters.java", source());
+      compile("SharedFilters.java");
+      List<String> properties =
+          new ArrayList<>(
+              List.of(
+                  systemProperty(
+                      RuntimeOptions.CHECKER_CLASS_PROPERTY,
+                      "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker"),
+                  systemProperty(RuntimeOptions.TRUST_ANNOTATED_FOR_PROPERTY, true),
+                  systemProperty(VARIANT_PROPERTY, variant)));
+      if (filterPerSite) {
+        properties.add(systemProperty(RuntimeOptions.SITE_PROFILE_PROPERTY, true));
+        properties.add(
+            systemProperty(
+                RuntimeOptions.SITE_PROFILE_OUTPUT_PROPERTY,
+                tempDir.resolve("sites.tsv").toString()));
+      }
+      TestResult result = runAgent("SharedFilters", properties.toArray(String[]::new));
+      assertEquals(0, result.exitCode(), result.stderr());
+      result
+          .stdout()
+          .lines()
+          .filter(line -> line.startsWith("[BENCHMARK]"))
+          .forEach(System.out::println);
+    } finally {
+      cleanup();
+    }
+  }
+
+  private static String source() {
+    StringBuilder calls = new StringBuilder();
+    for (int i = 0; i < CALL_SITES; i++) {
+      calls.append("        n += producer.produce().hashCode();\n");
+    }
+    return """
+        import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+        import java.lang.reflect.Method;
+
+        @AnnotatedFor("nullness")
+        public class SharedFilters {
+            static long calls(Producer producer) {
+                long n = 0;
+        %s        return n;
+            }
+
+            public static void main(String[] args) {
+                Producer producer = new UncheckedProducer();
+                Runtime runtime = Runtime.getRuntime();
+                System.gc();
+                long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+                long start = System.nanoTime();
+                long n = calls(producer);
+                long linked = System.nanoTime() - start;
+                System.gc();
+                long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+                start = System.nanoTime();
+                n += calls(producer);
+                long relinked = System.nanoTime() - start;
+
+                int filters = 0;
+                for (Method method : SharedFilters.class.getDeclaredMethods()) {
+                    if (method.getName().startsWith("$runtimeframework$check$return$")) {
+                        filters++;
+                    }
+                }
+                report("return filters for %d call sites", filters, "methods");
+                report("first run, linking every call site", linked / %d, "ns/site");
+                report("second run, linked", relinked / %d, "ns/site");
+                report("heap retained by linking", (heapAfter - heapBefore) / %d, "bytes/site");
+                if (n == 42) {
+                    System.out.println();
+                }
+            }
+
+            private static void report(String name, long value, String unit) {
+                String variant = System.getProperty("%s");
+                System.out.println(
+                    String.format(
+                        "[BENCHMARK] %%-64s %%12d %%s", variant + ": " + name, value, unit));
+            }
+        }
+
+        @AnnotatedFor("nullness")
+        class Producer {
+            public Object produce() {
+                return "checked";
+            }
+        }
+
+        class UncheckedProducer extends Producer {
+            public Object produce() {
+                return "unchecked";
+            }
+        }
+        """
+        .formatted(calls, CALL_SITES, CALL_SITES, CALL_SITES, CALL_SITES, VARIANT_PROPERTY);
+  }
+}
@@ -0,0 +1,91 @@
+package io.github.eisop.checker.nullness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.eisop.runtimeframework.agent.RuntimeAgent;
+import io.github.eisop.runtimeframework.agent.RuntimeTransformer;
+import io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker;
+import io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeVerifier;
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.testutils.AgentTestHarness;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+/** Transforms the return-summaries fixture and counts the checks its methods emit. */
+public class ReturnSummariesTest extends AgentTestHarness {
+
+  private static final String VERIFIER = NullnessRuntimeVerifier.class.getName().replace('.', '/');
+
+  @Test
+  public void provenReturnsAndTheLocalsTheyInitializeEmitNoCheck() throws Exception {
+    setup();
+    try {
+      copyTestFile("nullness-return-summaries/ProvenReturns.java");
+      compile("nullness-return-summaries/ProvenReturns.java");
+      byte[] original = Files.readAllBytes(tempDir.resolve("ProvenReturns.class"));
+
+      byte[] summarized = transform(original, true);
+      byte[] unsummarized = transform(original, false);
+
+      assertEquals(0, checks(summarized, "fresh"));
+      assertEquals(0, checks(summarized, "viaFresh"));
+      assertTrue(checks(unsummarized, "fresh") > 0, "fresh is checked without summaries");
+      assertTrue(checks(unsummarized, "viaFresh") > 0, "viaFresh is checked without summaries");
+      assertTrue(checks(summarized, "maybe") > 0, "a return that may be null keeps its check");
+      assertTrue(checks(summarized, "merged") > 0, "a merged return keeps its check");
+      assertEquals(
+          checks(unsummarized, "main") - 2,
+          checks(summarized, "main"),
+          "only the stores of fresh() and viaFresh() lose their checks");
+    } finally {
+      cleanup();
+    }
+  }
+
+  private byte[] transform(byte[] original, boolean returnSummaries) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(
+        RuntimeOptions.CHECKER_CLASS_PROPERTY, NullnessRuntimeChecker.class.getName());
+    properties.setProperty(RuntimeOptions.TRUST_ANNOTATED_FOR_PROPERTY, "true");
+    properties.setProperty(
+        RuntimeOptions.RETURN_SUMMARIES_PROPERTY, Boolean.toString(returnSummaries));
+    RuntimeTransformer transformer =
+        RuntimeAgent.createTransformer(RuntimeOptions.fromProperties(properties));
+    assertNotNull(transformer);
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {tempDir.toUri().toURL()})) {
+      byte[] transformed =
+          transformer.transform(
+              loader.getUnnamedModule(), loader, "ProvenReturns", null, null, original);
+      assertNotNull(transformed);
+      return transformed;
+    }
+  }
+
+  /** Counts the verifier calls of {@code name} and of the methods split from it. */
+  private static int checks(byte[] classBytes, String name) {
+    int checks = 0;
+    for (MethodModel method : ClassFile.of().parse(classBytes).methods()) {
+      String methodName = method.methodName().stringValue();
+      if (!(methodName.equals(name) || methodName.startsWith(name + "$"))
+          || method.code().isEmpty()) {
+        continue;
+      }
+      for (CodeElement element : method.code().get()) {
+        if (element instanceof InvokeInstruction invoke
+            && invoke.owner().asInternalName().equals(VERIFIER)) {
+          checks++;
+        }
+      }
+    }
+    return checks;
+  }
+}
@@ -0,0 +1,70 @@
+package io.github.eisop.checker.nullness;
+
+import io.github.eisop.runtimeframework.runtime.AttributionKind;
+import io.github.eisop.runtimeframework.runtime.CheckSites;
+import io.github.eisop.runtimeframework.runtime.RuntimeViolationException;
+import io.github.eisop.runtimeframework.runtime.ThrowingViolationHandler;
+import io.github.eisop.testutils.MicroBenchmark;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures throwing and catching a violation with {@link ThrowingViolationHandler}, with and
+ * without stack traces, at several stack depths on platform and virtual threads.
+ */
+@Tag(MicroBenchmark.TAG)
+public class ViolationExceptionBenchmark {
+
+  private static final long OPS = 20_000;
+  private static final String MESSAGE = "Parameter 0 must be NonNull";
+
+  @Test
+  public void throwAndCatch() throws Exception {
+    int site =
+        CheckSites.register(
+            "bench/Violations", "Violations.java", "run", "()V", 1, "Parameter 0", "ENTRY@-1");
+    ThrowingViolationHandler withStack = new ThrowingViolationHandler(false);
+    ThrowingViolationHandler stackless = new ThrowingViolationHandler(true);
+
+    for (int depth : new int[] {10, 100, 1_000}) {
+      for (boolean virtual : new boolean[] {false, true}) {
+        String thread = virtual ? "virtual" : "platform";
+        report(
+            "stack trace, depth " + depth + ", " + thread,
+            virtual,
+            () -> MicroBenchmark.nanosPerOp(OPS, () -> atDepth(depth, withStack, -1)));
+        report(
+            "stackless site, depth " + depth + ", " + thread,
+            virtual,
+            () -> MicroBenchmark.nanosPerOp(OPS, () -> atDepth(depth, stackless, site)));
+      }
+    }
+  }
+
+  private static void report(String name, boolean virtual, Measurement measurement)
+      throws InterruptedException {
+    AtomicReference<Double> result = new AtomicReference<>();
+    Runnable run = () -> result.set(measurement.nanosPerOp());
+    Thread thread = virtual ? Thread.ofVirtual().start(run) : Thread.ofPlatform().start(run);
+    thread.join();
+    MicroBenchmark.report(name, result.get());
+  }
+
+  private static long atDepth(int depth, ThrowingViolationHandler handler, int site) {
+    if (depth > 0) {
+      return atDepth(depth - 1, handler, site) + 1;
+    }
+    try {
+      handler.handleViolation("nullness", MESSAGE, AttributionKind.LOCAL, site);
+      return 0;
+    } catch (RuntimeViolationException e) {
+      return e.getLocation().length();
+    }
+  }
+
+  @FunctionalInterface
+  private interface Measurement {
+    double nanosPerOp();
+  }
+}
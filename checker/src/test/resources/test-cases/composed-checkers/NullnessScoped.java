@@ -0,0 +1,19 @@
+import org.checkerframework.checker.nullness.qual.Nullable;
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class NullnessScoped {
+    public static void main(String[] args) {
+        // Only nullness applies here, and it allows null for a @Nullable parameter.
+        checkNullable(null);
+
+        // :: error: (Parameter 0 must be NonNull)
+        checkImplicit(null);
+    }
+
+    public static void checkNullable(@Nullable String s) {
+    }
+
+    public static void checkImplicit(String s) {
+    }
+}
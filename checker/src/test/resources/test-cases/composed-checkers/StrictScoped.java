@@ -0,0 +1,14 @@
+import org.checkerframework.checker.nullness.qual.Nullable;
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("strictparams")
+public class StrictScoped {
+    public static void main(String[] args) {
+        // Only strictparams applies here, and it ignores the @Nullable qualifier.
+        // :: error: (Parameter 0 must be NonNull)
+        checkNullable(null);
+    }
+
+    public static void checkNullable(@Nullable String s) {
+    }
+}
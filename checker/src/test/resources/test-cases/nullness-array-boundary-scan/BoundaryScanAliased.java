@@ -0,0 +1,41 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import java.lang.reflect.Array;
+import java.util.concurrent.CountDownLatch;
+
+@AnnotatedFor("nullness")
+public class BoundaryScanAliased {
+
+    static final CountDownLatch entered = new CountDownLatch(1);
+    static final CountDownLatch written = new CountDownLatch(1);
+
+    public static boolean firstIsNull(String[] values) throws InterruptedException {
+        entered.countDown();
+        written.await();
+        return values[0] == null;
+        // :: error: (Array Element Read must be NonNull)
+    }
+
+    static class UncheckedCaller {
+        static void invoke() throws InterruptedException {
+            String[] values = new String[] {"first"};
+            Thread writer =
+                    new Thread(
+                            () -> {
+                                try {
+                                    entered.await();
+                                } catch (InterruptedException e) {
+                                    throw new IllegalStateException(e);
+                                }
+                                Array.set(values, 0, null);
+                                written.countDown();
+                            });
+            writer.start();
+            BoundaryScanAliased.firstIsNull(values);
+            writer.join();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        UncheckedCaller.invoke();
+    }
+}
@@ -0,0 +1,23 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@AnnotatedFor("nullness")
+public class BoundaryScanParameter {
+
+    public static void consume(String[] values) {}
+
+    public static void consumeNullable(@Nullable String[] values) {}
+
+    static class UncheckedCaller {
+        static void invoke() {
+            BoundaryScanParameter.consume(new String[] {null, "second"});
+            // :: error: (Parameter 0 element must be NonNull (index 0))
+
+            BoundaryScanParameter.consumeNullable(new String[] {null});
+        }
+    }
+
+    public static void main(String[] args) {
+        UncheckedCaller.invoke();
+    }
+}
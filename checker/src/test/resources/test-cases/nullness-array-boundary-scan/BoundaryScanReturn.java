@@ -0,0 +1,29 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@AnnotatedFor("nullness")
+public class BoundaryScanReturn {
+
+    static class UncheckedLib {
+        static String[] withNullElement() {
+            return new String[] {"first", null};
+        }
+
+        static String[] withoutNullElement() {
+            return new String[] {"first", "second"};
+        }
+
+        static @Nullable String[] withNullableElements() {
+            return new String[] {null};
+        }
+    }
+
+    public static void main(String[] args) {
+        String[] poisoned = UncheckedLib.withNullElement();
+        // :: error: (Return value of withNullElement (Boundary) element must be NonNull (index 1))
+
+        String[] clean = UncheckedLib.withoutNullElement();
+
+        @Nullable String[] nullable = UncheckedLib.withNullableElements();
+    }
+}
@@ -0,0 +1,22 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class CheckedMarkerPresence {
+    public static void main(String[] args) throws Exception {
+        Class<?> marker = Class.forName("io.github.eisop.runtimeframework.runtime.CheckedMarker");
+        System.out.println("checked marker: " + marker.isInstance(new CheckedMarkerPresence()));
+        System.out.println("unchecked marker: " + marker.isInstance(new UncheckedMarkerAbsence()));
+
+        UncheckedMarkerAbsence.call(new CheckedMarkerPresence());
+    }
+
+    public void accept(Object value) {
+    }
+}
+
+class UncheckedMarkerAbsence {
+    static void call(CheckedMarkerPresence checked) {
+        // :: error: (Parameter 0 must be NonNull)
+        checked.accept(null);
+    }
+}
@@ -0,0 +1,74 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+@AnnotatedFor("nullness")
+public class CommitTracking extends UncheckedTemplate {
+    String name;
+
+    public CommitTracking(String name, boolean early) {
+        super(early);
+        this.name = name;
+    }
+
+    @Override
+    protected void init() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new CommitTracking("early", true);
+
+        UncheckedTemplate.run(new CommitTracking("committed", false));
+        UncheckedTemplate.run(new CommittedChild("child"));
+        UncheckedTemplate.restoreAndTouch(new Restored());
+    }
+}
+
+@AnnotatedFor("nullness")
+class CommittedChild extends CommitTracking {
+    String suffix;
+
+    CommittedChild(String suffix) {
+        super(suffix, false);
+        this.suffix = suffix;
+    }
+}
+
+@AnnotatedFor("nullness")
+class Restored implements Serializable {
+    String value = "restored";
+
+    public void touch() {
+    }
+}
+
+class UncheckedTemplate {
+    UncheckedTemplate(boolean early) {
+        if (early) {
+            // :: error: (Receiver of init must be Committed)
+            init();
+        }
+    }
+
+    protected void init() {
+    }
+
+    static void run(UncheckedTemplate template) {
+        template.init();
+    }
+
+    // Deserialization runs no constructor of Restored, so the copy counts as committed.
+    static void restoreAndTouch(Serializable value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            ((Restored) in.readObject()).touch();
+        }
+    }
+}
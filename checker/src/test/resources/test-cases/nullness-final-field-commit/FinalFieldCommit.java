@@ -0,0 +1,60 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@AnnotatedFor("nullness")
+public class FinalFieldCommit {
+    private static final Object SHARED = nothing();
+    // :: error: (Static Final Field 'SHARED' must be NonNull)
+
+    private final Object value;
+    private final @Nullable Object optional;
+
+    FinalFieldCommit(boolean poison) {
+        this.value = poison ? nothing() : new Object();
+        this.optional = null;
+    }
+    // :: error: (Final Field 'value' must be NonNull)
+
+    FinalFieldCommit() {
+        this(false);
+    }
+
+    static @Nullable Object nothing() {
+        return null;
+    }
+
+    Object read() {
+        return value;
+    }
+
+    static Object readShared() {
+        return SHARED;
+    }
+
+    public static void main(String[] args) {
+        FinalFieldCommit poisoned = new FinalFieldCommit(true);
+        poisoned.read();
+        poisoned.read();
+        readShared();
+
+        FinalFieldCommit clean = new FinalFieldCommit();
+        clean.read();
+
+        new EarlyFinalFieldRead();
+    }
+}
+
+@AnnotatedFor("nullness")
+class EarlyFinalFieldRead {
+    private final Object early;
+
+    EarlyFinalFieldRead() {
+        peek();
+        this.early = new Object();
+    }
+
+    Object peek() {
+        return early;
+        // :: error: (Read Field 'early' must be NonNull)
+    }
+}
@@ -0,0 +1,37 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class CheckedSafeNameCollisionDispatch {
+    public static void main(String[] args) {
+        CheckedCollidingFinal value = new CheckedCollidingFinal();
+        // :: error: (Parameter 0 must be NonNull)
+        value.accept(null);
+
+        CheckedCollidingSealed shape = new CheckedCollidingSealedChild();
+        // :: error: (Parameter 0 must be NonNull)
+        shape.accept(null);
+    }
+}
+
+@AnnotatedFor("nullness")
+final class CheckedCollidingFinal {
+    public void accept(Object value) {
+    }
+
+    public void accept$runtimeframework$safe(Object value) {
+    }
+}
+
+@AnnotatedFor("nullness")
+abstract sealed class CheckedCollidingSealed permits CheckedCollidingSealedChild {
+    public abstract void accept(Object value);
+}
+
+@AnnotatedFor("nullness")
+final class CheckedCollidingSealedChild extends CheckedCollidingSealed {
+    public void accept(Object value) {
+    }
+
+    public void accept$runtimeframework$safe(Object value) {
+    }
+}
@@ -0,0 +1,67 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class CheckedSealedVirtualDispatch {
+    public static void main(String[] args) {
+        CheckedSealedShape shape = new CheckedSealedSquare();
+        shape.describe();
+        shape = new CheckedSealedCircle();
+        shape.describe();
+
+        CheckedFinalValue value = new CheckedFinalValue();
+        value.get();
+
+        CheckedOpenSealedShape open = new UncheckedOpenSealedChild();
+        open.describe();
+        // :: error: (Return value of describe (Boundary) must be NonNull)
+
+        UncheckedSealedCaller.call(new CheckedSealedSquare());
+    }
+}
+
+@AnnotatedFor("nullness")
+abstract sealed class CheckedSealedShape permits CheckedSealedSquare, CheckedSealedCircle {
+    public abstract Object describe();
+
+    public void accept(Object value) {
+    }
+}
+
+@AnnotatedFor("nullness")
+final class CheckedSealedSquare extends CheckedSealedShape {
+    public Object describe() {
+        return "square";
+    }
+}
+
+@AnnotatedFor("nullness")
+final class CheckedSealedCircle extends CheckedSealedShape {
+    public Object describe() {
+        return "circle";
+    }
+}
+
+@AnnotatedFor("nullness")
+final class CheckedFinalValue {
+    public Object get() {
+        return "value";
+    }
+}
+
+@AnnotatedFor("nullness")
+abstract sealed class CheckedOpenSealedShape permits UncheckedOpenSealedChild {
+    public abstract Object describe();
+}
+
+non-sealed class UncheckedOpenSealedChild extends CheckedOpenSealedShape {
+    public Object describe() {
+        return null;
+    }
+}
+
+class UncheckedSealedCaller {
+    static void call(CheckedSealedShape shape) {
+        // :: error: (Parameter 0 must be NonNull)
+        shape.accept(null);
+    }
+}
@@ -0,0 +1,27 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class CheckedSharedReturnFilter {
+    public static void main(String[] args) {
+        CheckedSharedProducer unchecked = new UncheckedSharedProducer();
+        Object first = unchecked.produce(); Object second = unchecked.produce();
+        // :: error: (Return value of produce (Boundary) must be NonNull)
+        // :: error: (Return value of produce (Boundary) must be NonNull)
+
+        unchecked.produce();
+        // :: error: (Return value of produce (Boundary) must be NonNull)
+    }
+}
+
+@AnnotatedFor("nullness")
+class CheckedSharedProducer {
+    public Object produce() {
+        return new Object();
+    }
+}
+
+class UncheckedSharedProducer extends CheckedSharedProducer {
+    public Object produce() {
+        return null;
+    }
+}
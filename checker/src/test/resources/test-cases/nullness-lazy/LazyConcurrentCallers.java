@@ -0,0 +1,45 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import java.util.concurrent.CountDownLatch;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+@AnnotatedFor("nullness")
+public class LazyConcurrentCallers {
+
+    public static @NonNull String shared = "safe";
+
+    static class UncheckedWriter {
+        static void poison(String value) {
+            LazyConcurrentCallers.shared = value;
+            // :: error: (Static Field 'shared' must be NonNull)
+            // :: error: (Static Field 'shared' must be NonNull)
+            // :: error: (Static Field 'shared' must be NonNull)
+            // :: error: (Static Field 'shared' must be NonNull)
+        }
+
+        static void race() throws InterruptedException {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] callers = new Thread[4];
+            for (int i = 0; i < callers.length; i++) {
+                callers[i] =
+                        new Thread(
+                                () -> {
+                                    try {
+                                        start.await();
+                                    } catch (InterruptedException e) {
+                                        return;
+                                    }
+                                    poison(null);
+                                });
+                callers[i].start();
+            }
+            start.countDown();
+            for (Thread caller : callers) {
+                caller.join();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        UncheckedWriter.race();
+    }
+}
@@ -0,0 +1,42 @@
+import org.checkerframework.checker.nullness.qual.NonNull;
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class LazyWriters {
+
+    public @NonNull String data = "safe";
+    public static @NonNull String shared = "safe";
+
+    static class UncheckedWriter {
+        private final LazyWriters target;
+
+        UncheckedWriter(LazyWriters target) {
+            this.target = target;
+        }
+
+        void poison(String value) {
+            target.data = value;
+            // :: error: (Field 'data' must be NonNull)
+            // :: error: (Field 'data' must be NonNull)
+        }
+
+        static String poisonShared(String value) {
+            LazyWriters.shared = value;
+            // :: error: (Static Field 'shared' must be NonNull)
+            // :: error: (Static Field 'shared' must be NonNull)
+            return value;
+        }
+
+        static void neverCalled() {
+            LazyWriters.shared = null;
+        }
+    }
+
+    public static void main(String[] args) {
+        UncheckedWriter writer = new UncheckedWriter(new LazyWriters());
+        writer.poison(null);
+        writer.poison(null);
+        UncheckedWriter.poisonShared(null);
+        UncheckedWriter.poisonShared(null);
+    }
+}
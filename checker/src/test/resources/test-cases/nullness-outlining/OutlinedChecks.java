@@ -0,0 +1,35 @@
+import org.checkerframework.checker.nullness.qual.Nullable;
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import java.lang.reflect.Method;
+
+@AnnotatedFor("nullness")
+public class OutlinedChecks {
+
+    public OutlinedChecks(String first, @Nullable String second, long count, String third) {
+    }
+
+    static String maybe(boolean present) {
+        return present ? "value" : null;
+        // :: error: (Return value of maybe must be NonNull)
+    }
+
+    public static void main(String[] args) {
+        // :: error: (Parameter 0 must be NonNull)
+        new OutlinedChecks(null, null, 1L, "third");
+
+        // :: error: (Parameter 3 must be NonNull)
+        new OutlinedChecks("first", null, 2L, null);
+
+        String present = maybe(true);
+
+        int outlined = 0;
+        for (Method method : OutlinedChecks.class.getDeclaredMethods()) {
+            String name = method.getName();
+            if (name.startsWith("$runtimeframework$check$")
+                    && !name.startsWith("$runtimeframework$check$return$")) {
+                outlined++;
+            }
+        }
+        System.out.println("outlined helpers: " + outlined);
+    }
+}
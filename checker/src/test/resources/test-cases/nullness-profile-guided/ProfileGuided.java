@@ -0,0 +1,30 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class ProfileGuided {
+
+    public static void hot(String value) {}
+
+    public static void failed(String value) {}
+
+    public static void cold(String value) {}
+
+    static class UncheckedCaller {
+        static void invoke() {
+            ProfileGuided.hot("first");
+            ProfileGuided.hot(null);
+
+            ProfileGuided.failed("first");
+            // :: error: (Parameter 0 must be NonNull)
+            ProfileGuided.failed(null);
+
+            ProfileGuided.cold("first");
+            // :: error: (Parameter 0 must be NonNull)
+            ProfileGuided.cold(null);
+        }
+    }
+
+    public static void main(String[] args) {
+        UncheckedCaller.invoke();
+    }
+}
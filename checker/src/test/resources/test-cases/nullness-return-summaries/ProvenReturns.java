@@ -0,0 +1,62 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class ProvenReturns {
+
+    static String fresh() {
+        return new String("fresh");
+    }
+
+    static String viaFresh() {
+        return fresh();
+    }
+
+    static String maybe(boolean present) {
+        return present ? "value" : null;
+        // :: error: (Return value of maybe must be NonNull)
+    }
+
+    static String merged(boolean clear) {
+        String value = "value";
+        if (clear) {
+            value = null;
+        }
+        return value;
+        // :: error: (Return value of merged must be NonNull)
+    }
+
+    static Object relay(ProvenMaker maker) {
+        return maker.make();
+        // :: error: (Return value of relay must be NonNull)
+    }
+
+    public static void main(String[] args) {
+        String a = fresh();
+        String b = viaFresh();
+
+        String c = maybe(false);
+        // :: error: (Local Variable Assignment (Slot 3) must be NonNull)
+
+        String d = merged(true);
+        // :: error: (Local Variable Assignment (Slot 4) must be NonNull)
+
+        Object e = relay(new ProvenNullMaker());
+        // :: error: (Local Variable Assignment (Slot 5) must be NonNull)
+    }
+
+}
+
+@AnnotatedFor("nullness")
+class ProvenMaker {
+    Object make() {
+        return new Object();
+    }
+}
+
+@AnnotatedFor("nullness")
+class ProvenNullMaker extends ProvenMaker {
+    Object make() {
+        return null;
+        // :: error: (Return value of make must be NonNull)
+    }
+}
@@ -0,0 +1,26 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class SampledParameters {
+
+    public static void cleanFirst(String value) {}
+
+    public static void violatingFirst(String value) {}
+
+    static class UncheckedCaller {
+        static void invoke() {
+            SampledParameters.cleanFirst("first");
+            SampledParameters.cleanFirst(null);
+
+            // :: error: (Parameter 0 must be NonNull)
+            SampledParameters.violatingFirst(null);
+
+            // :: error: (Parameter 0 must be NonNull)
+            SampledParameters.violatingFirst(null);
+        }
+    }
+
+    public static void main(String[] args) {
+        UncheckedCaller.invoke();
+    }
+}
@@ -0,0 +1,30 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@AnnotatedFor("nullness")
+public class ProfiledSites {
+
+    public static void hot(String value) {}
+
+    public static void maybe(@Nullable String value) {}
+
+    static class UncheckedLib {
+        static void invoke() {
+            for (int i = 0; i < 100; i++) {
+                ProfiledSites.hot("value");
+                ProfiledSites.maybe(null);
+            }
+        }
+
+        static String provide() {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) {
+        UncheckedLib.invoke();
+
+        // :: error: (Return value of provide (Boundary) must be NonNull)
+        String provided = UncheckedLib.provide();
+    }
+}
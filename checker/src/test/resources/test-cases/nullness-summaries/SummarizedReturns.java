@@ -0,0 +1,29 @@
+import io.github.eisop.runtimeframework.qual.AnnotatedFor;
+
+@AnnotatedFor("nullness")
+public class SummarizedReturns {
+
+    static class UncheckedLib {
+        public static String summarized() {
+            return null;
+        }
+
+        public static String unsummarized() {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) {
+        StringBuilder builder = new StringBuilder();
+        String text = builder.append("value").toString();
+        String trimmed = text.trim();
+
+        String s = UncheckedLib.summarized();
+        // :: error: (Local Variable Assignment (Slot 4) must be NonNull)
+
+        String t = UncheckedLib.unsummarized();
+        // :: error: (Return value of unsummarized (Boundary) must be NonNull)
+        // :: error: (Local Variable Assignment (Slot 5) must be NonNull)
+    }
+
+}
@@ -0,0 +1,832 @@
+package io.github.eisop.runtimeframework.agent;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.runtimeframework.core.RuntimeChecker;
+import io.github.eisop.runtimeframework.filter.ClassInfo;
+import io.github.eisop.runtimeframework.instrumentation.RuntimeInstrumenter;
+import io.github.eisop.runtimeframework.planning.BridgePlan;
+import io.github.eisop.runtimeframework.planning.BytecodeLocation;
+import io.github.eisop.runtimeframework.planning.ClassContext;
+import io.github.eisop.runtimeframework.planning.ContractEnforcementPlanner;
+import io.github.eisop.runtimeframework.planning.EnforcementPlanner;
+import io.github.eisop.runtimeframework.planning.FlowEvent;
+import io.github.eisop.runtimeframework.planning.FlowKind;
+import io.github.eisop.runtimeframework.planning.InjectionPoint;
+import io.github.eisop.runtimeframework.planning.InstrumentationAction;
+import io.github.eisop.runtimeframework.planning.MethodContext;
+import io.github.eisop.runtimeframework.planning.MethodPlan;
+import io.github.eisop.runtimeframework.planning.ProfileGuidance;
+import io.github.eisop.runtimeframework.planning.TargetRef;
+import io.github.eisop.runtimeframework.policy.ClassClassification;
+import io.github.eisop.runtimeframework.policy.RuntimePolicy;
+import io.github.eisop.runtimeframework.resolution.ParentMethod;
+import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
+import io.github.eisop.runtimeframework.runtime.BoundaryBootstraps;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeModel;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.attribute.CodeAttribute;
+import java.lang.classfile.instruction.InvokeDynamicInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.constant.ClassDesc;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Reports the instrumentation the agent would add to the classes of a jar, without running or
+ * writing them.
+ *
+ * <p>Usage: {@code PlanReport [--output <file>] [--json <file>] [--classpath <path>] [--threads
+ * <n>] [--top <n>] <jar>}. The checkers and the policy are configured with the same system
+ * properties as the agent, and the classes of the jar and of {@code --classpath} are resolved
+ * through one class loader. They are planned in the unnamed module of that loader, as classes on
+ * the class path, so {@code module} policy profiles do not select them. Every class is classified
+ * and transformed in memory, in parallel, while the plans of the planner are recorded.
+ *
+ * <p>For each class and method the report counts the planned value checks by {@link FlowKind}, the
+ * bytecode bytes added, the split safe methods and bridges generated and the {@code invokedynamic}
+ * boundary sites. A check site that is planned more than once, for example to estimate the size of
+ * a method before outlining, counts once. The text summary goes to standard output, sorted by check
+ * count, or to {@code --output}; {@code --json} also writes every class and method as JSON.
+ * Diagnostics of the checkers and the planner go to standard error.
+ */
+public final class PlanReport {
+
+  public static final int DEFAULT_TOP = 25;
+
+  private static final String RUNTIME_PREFIX = "$runtimeframework$";
+  private static final String SAFE_SUFFIX = "$runtimeframework$safe";
+  private static final ClassDesc BOUNDARY_BOOTSTRAPS =
+      ClassDesc.of(BoundaryBootstraps.class.getName());
+
+  private PlanReport() {}
+
+  /** The instrumentation planned for a method, including its generated safe variant. */
+  public record MethodReport(
+      String name,
+      String descriptor,
+      boolean bridge,
+      boolean split,
+      Map<FlowKind, Integer> checks,
+      int arrayChecks,
+      int originalBytes,
+      int instrumentedBytes,
+      int indySites) {
+    public MethodReport {
+      Objects.requireNonNull(name, "name");
+      Objects.requireNonNull(descriptor, "descriptor");
+      checks = Map.copyOf(checks);
+    }
+
+    public int checkCount() {
+      return checks.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public int addedBytes() {
+      return instrumentedBytes - originalBytes;
+    }
+  }
+
+  /**
+   * The instrumentation planned for a class. Helpers are generated methods that are neither safe
+   * variants nor bridges, such as outlined checks; a class that failed to transform has an error.
+   */
+  public record ClassReport(
+      String className,
+      ClassClassification classification,
+      int originalSize,
+      int instrumentedSize,
+      List<MethodReport> methods,
+      int helpers,
+      int helperBytes,
+      String error) {
+    public ClassReport {
+      Objects.requireNonNull(className, "className");
+      Objects.requireNonNull(classification, "classification");
+      methods = List.copyOf(methods);
+    }
+
+    public int checkCount() {
+      return methods.stream().mapToInt(MethodReport::checkCount).sum();
+    }
+
+    public int arrayChecks() {
+      return methods.stream().mapToInt(MethodReport::arrayChecks).sum();
+    }
+
+    public int addedBytes() {
+      return methods.stream().mapToInt(MethodReport::addedBytes).sum() + helperBytes;
+    }
+
+    public int splitMethods() {
+      return (int) methods.stream().filter(MethodReport::split).count();
+    }
+
+    public int bridges() {
+      return (int) methods.stream().filter(MethodReport::bridge).count();
+    }
+
+    public int indySites() {
+      return methods.stream().mapToInt(MethodReport::indySites).sum();
+    }
+  }
+
+  /** The report of a jar; classes the policy skips are only counted. */
+  public record Report(
+      String jar,
+      long elapsedMillis,
+      int scannedClasses,
+      List<ClassReport> classes,
+      Optional<ProfileGuidance.OverheadEstimate> overheadEstimate) {
+    public Report {
+      Objects.requireNonNull(jar, "jar");
+      classes = List.copyOf(classes);
+      Objects.requireNonNull(overheadEstimate, "overheadEstimate");
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Path output = null;
+    Path json = null;
+    String classpath = "";
+    int threads = Runtime.getRuntime().availableProcessors();
+    int top = DEFAULT_TOP;
+    Path jar = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--output" -> output = Path.of(args[++i]);
+          case "--json" -> json = Path.of(args[++i]);
+          case "--classpath" -> classpath = args[++i];
+          case "--threads" -> threads = Integer.parseInt(args[++i]);
+          case "--top" -> top = Integer.parseInt(args[++i]);
+          default -> {
+            if (jar != null || args[i].startsWith("--")) {
+              throw new IllegalArgumentException(args[i]);
+            }
+            jar = Path.of(args[i]);
+          }
+        }
+      }
+    } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+      jar = null;
+    }
+    if (jar == null || threads < 1 || top < 0) {
+      System.err.println(
+          "Usage: PlanReport [--output <file>] [--json <file>] [--classpath <path>]"
+              + " [--threads <n>] [--top <n>] <jar>\n"
+              + "Classes are planned in the unnamed module; module policy profiles do not apply.");
+      System.exit(2);
+    }
+
+    RuntimeOptions options = RuntimeOptions.fromSystemProperties();
+    RuntimeChecker checker = RuntimeAgent.loadChecker(options);
+    if (checker == null) {
+      System.exit(1);
+    }
+    Report report = plan(jar, classpath, checker, options, threads);
+    if (output == null) {
+      write(report, System.out, top);
+    } else {
+      try (PrintStream out =
+          new PrintStream(Files.newOutputStream(output), false, StandardCharsets.UTF_8)) {
+        write(report, out, top);
+      }
+    }
+    if (json != null) {
+      try (Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+        writeJson(report, out);
+      }
+    }
+  }
+
+  /**
+   * Plans the classes of {@code jar} on {@code threads} threads, resolving classes from the jar and
+   * the {@code classpath}, separated by the path separator.
+   */
+  public static Report plan(
+      Path jar, String classpath, RuntimeChecker checker, RuntimeOptions options, int threads)
+      throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    ResolutionEnvironment resolutionEnvironment = ResolutionEnvironment.system();
+    RuntimePolicy policy = RuntimeAgent.createPolicy(options, checker, resolutionEnvironment);
+    RecordingPlanner recorder = new RecordingPlanner();
+    RuntimeInstrumenter instrumenter =
+        checker.createInstrumenter(policy, resolutionEnvironment, options, recorder::wrap);
+
+    List<URL> urls = new ArrayList<>();
+    urls.add(jar.toUri().toURL());
+    for (String entry : classpath.split(File.pathSeparator)) {
+      if (!entry.isEmpty()) {
+        urls.add(Path.of(entry).toUri().toURL());
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (JarFile jarFile = new JarFile(jar.toFile());
+        URLClassLoader loader =
+            new URLClassLoader(
+                "plan-report", urls.toArray(URL[]::new), PlanReport.class.getClassLoader())) {
+      List<JarEntry> entries =
+          jarFile.stream()
+              .filter(entry -> entry.getName().endsWith(".class"))
+              .filter(entry -> !entry.getName().startsWith("META-INF/"))
+              .filter(entry -> !entry.getName().endsWith("module-info.class"))
+              .toList();
+      ClassFile cf =
+          ClassFile.of(
+              ClassFile.ClassHierarchyResolverOption.of(
+                  resolutionEnvironment.classHierarchyResolver(loader)));
+      List<Future<ClassReport>> futures = new ArrayList<>(entries.size());
+      for (JarEntry entry : entries) {
+        futures.add(
+            executor.submit(
+                () -> planClass(jarFile, entry, loader, cf, policy, instrumenter, recorder)));
+      }
+      List<ClassReport> classes = new ArrayList<>();
+      for (Future<ClassReport> future : futures) {
+        ClassReport report = future.get();
+        if (report != null) {
+          classes.add(report);
+        }
+      }
+      classes.sort(Comparator.comparing(ClassReport::className));
+      Optional<ProfileGuidance.OverheadEstimate> estimate =
+          recorder.delegate instanceof ContractEnforcementPlanner contractPlanner
+              ? contractPlanner.overheadEstimate()
+              : Optional.empty();
+      return new Report(
+          jar.toString(),
+          (System.nanoTime() - start) / 1_000_000,
+          entries.size(),
+          classes,
+          estimate);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Planning failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Returns the report of one class, or {@code null} when the policy skips it. */
+  private static ClassReport planClass(
+      JarFile jarFile,
+      JarEntry entry,
+      ClassLoader loader,
+      ClassFile cf,
+      RuntimePolicy policy,
+      RuntimeInstrumenter instrumenter,
+      RecordingPlanner recorder)
+      throws IOException {
+    byte[] bytes;
+    try (InputStream in = jarFile.getInputStream(entry)) {
+      bytes = in.readAllBytes();
+    }
+    String entryName = entry.getName();
+    String className = entryName.substring(0, entryName.length() - ".class".length());
+    ClassInfo info = new ClassInfo(className, loader, loader.getUnnamedModule());
+    if (policy.rejects(info)) {
+      return null;
+    }
+    ClassClassification classification = ClassClassification.SKIP;
+    try {
+      ClassModel model = cf.parse(bytes);
+      classification = policy.classify(info, model);
+      if (classification == ClassClassification.SKIP) {
+        return null;
+      }
+      ClassPlans plans = new ClassPlans();
+      byte[] transformed;
+      recorder.current.set(plans);
+      try {
+        transformed =
+            cf.transformClass(
+                model,
+                instrumenter.asClassTransform(
+                    model, loader, classification == ClassClassification.CHECKED));
+      } finally {
+        recorder.current.remove();
+      }
+      return report(
+          model, bytes.length, cf.parse(transformed), transformed.length, classification, plans);
+    } catch (RuntimeException | LinkageError e) {
+      return new ClassReport(
+          className, classification, bytes.length, bytes.length, List.of(), 0, 0, e.toString());
+    }
+  }
+
+  private static ClassReport report(
+      ClassModel original,
+      int originalSize,
+      ClassModel transformed,
+      int transformedSize,
+      ClassClassification classification,
+      ClassPlans plans) {
+    Map<String, MethodStats> methods = new LinkedHashMap<>();
+    for (MethodModel method : original.methods()) {
+      MethodStats stats = new MethodStats(method, false);
+      stats.originalBytes = codeSize(method);
+      methods.put(methodKey(method), stats);
+    }
+    int helpers = 0;
+    int helperBytes = 0;
+    for (MethodModel method : transformed.methods()) {
+      String name = method.methodName().stringValue();
+      boolean safe = name.endsWith(SAFE_SUFFIX);
+      String key =
+          (safe ? name.substring(0, name.length() - SAFE_SUFFIX.length()) : name)
+              + method.methodType().stringValue();
+      MethodStats stats = methods.get(key);
+      if (stats == null && name.startsWith(RUNTIME_PREFIX)) {
+        helpers++;
+        helperBytes += codeSize(method);
+        continue;
+      }
+      if (stats == null) {
+        stats = new MethodStats(method, true);
+        methods.put(key, stats);
+      }
+      stats.split |= safe;
+      stats.instrumentedBytes += codeSize(method);
+      stats.indySites += indySites(method);
+    }
+    List<MethodReport> reports = new ArrayList<>(methods.size());
+    for (Map.Entry<String, MethodStats> entry : methods.entrySet()) {
+      MethodStats stats = entry.getValue();
+      MethodStats planned = plans.methods.get(entry.getKey());
+      reports.add(
+          new MethodReport(
+              stats.name,
+              stats.descriptor,
+              stats.bridge,
+              stats.split,
+              planned == null ? Map.of() : planned.checks,
+              planned == null ? 0 : planned.arrayChecks,
+              stats.originalBytes,
+              stats.instrumentedBytes,
+              stats.indySites));
+    }
+    return new ClassReport(
+        original.thisClass().asInternalName(),
+        classification,
+        originalSize,
+        transformedSize,
+        reports,
+        helpers,
+        helperBytes,
+        null);
+  }
+
+  /** Prints the totals of {@code report} and its classes and methods with the most checks. */
+  public static void write(Report report, PrintStream out, int top) {
+    Map<FlowKind, Integer> checks = new EnumMap<>(FlowKind.class);
+    Map<ClassClassification, Integer> classifications = new EnumMap<>(ClassClassification.class);
+    List<ClassReport> failed = new ArrayList<>();
+    int arrayChecks = 0;
+    long addedBytes = 0;
+    long addedClassBytes = 0;
+    int splitMethods = 0;
+    int bridges = 0;
+    int indySites = 0;
+    for (ClassReport classReport : report.classes()) {
+      if (classReport.error() != null) {
+        failed.add(classReport);
+        continue;
+      }
+      classifications.merge(classReport.classification(), 1, Integer::sum);
+      for (MethodReport method : classReport.methods()) {
+        method.checks().forEach((kind, count) -> checks.merge(kind, count, Integer::sum));
+      }
+      arrayChecks += classReport.arrayChecks();
+      addedBytes += classReport.addedBytes();
+      addedClassBytes += classReport.instrumentedSize() - classReport.originalSize();
+      splitMethods += classReport.splitMethods();
+      bridges += classReport.bridges();
+      indySites += classReport.indySites();
+    }
+    int planned = report.classes().size() - failed.size();
+    out.println(
+        "# classes "
+            + report.scannedClasses()
+            + " in "
+            + report.jar()
+            + ": "
+            + classifications.getOrDefault(ClassClassification.CHECKED, 0)
+            + " checked, "
+            + classifications.getOrDefault(ClassClassification.UNCHECKED, 0)
+            + " unchecked, "
+            + (report.scannedClasses() - planned - failed.size())
+            + " skipped, "
+            + failed.size()
+            + " failed, in "
+            + report.elapsedMillis()
+            + " ms");
+    out.println(
+        "# checks "
+            + checks.values().stream().mapToInt(Integer::intValue).sum()
+            + ", array element checks "
+            + arrayChecks
+            + ", added code bytes "
+            + addedBytes
+            + ", added class file bytes "
+            + addedClassBytes);
+    out.println(
+        "# split methods "
+            + splitMethods
+            + ", bridges "
+            + bridges
+            + ", indy boundary sites "
+            + indySites);
+    if (report.overheadEstimate().isPresent()) {
+      out.println("# overhead estimate: " + report.overheadEstimate().get().describe());
+    }
+    List<Map.Entry<FlowKind, Integer>> kinds = new ArrayList<>(checks.entrySet());
+    kinds.sort(Map.Entry.<FlowKind, Integer>comparingByValue().reversed());
+    out.println("# checks\tflow kind");
+    for (Map.Entry<FlowKind, Integer> kind : kinds) {
+      out.println(kind.getValue() + "\t" + kind.getKey());
+    }
+
+    List<ClassReport> classes =
+        new ArrayList<>(
+            report.classes().stream().filter(classReport -> classReport.error() == null).toList());
+    classes.sort(
+        Comparator.comparingInt(ClassReport::checkCount)
+            .thenComparingInt(ClassReport::addedBytes)
+            .reversed()
+            .thenComparing(ClassReport::className));
+    out.println("# checks\tarray\tadded-bytes\tsplit\tbridges\tindy\tclass");
+    for (ClassReport classReport : classes.subList(0, Math.min(top, classes.size()))) {
+      out.println(
+          classReport.checkCount()
+              + "\t"
+              + classReport.arrayChecks()
+              + "\t"
+              + classReport.addedBytes()
+              + "\t"
+              + classReport.splitMethods()
+              + "\t"
+              + classReport.bridges()
+              + "\t"
+              + classReport.indySites()
+              + "\t"
+              + classReport.className().replace('/', '.'));
+    }
+
+    List<Map.Entry<ClassReport, MethodReport>> methods = new ArrayList<>();
+    for (ClassReport classReport : classes) {
+      for (MethodReport method : classReport.methods()) {
+        if (method.checkCount() > 0 || method.arrayChecks() > 0 || method.addedBytes() != 0) {
+          methods.add(Map.entry(classReport, method));
+        }
+      }
+    }
+    methods.sort(
+        Comparator.<Map.Entry<ClassReport, MethodReport>>comparingInt(
+                entry -> entry.getValue().checkCount())
+            .thenComparingInt(entry -> entry.getValue().addedBytes())
+            .reversed()
+            .thenComparing(entry -> entry.getKey().className())
+            .thenComparing(entry -> entry.getValue().name()));
+    out.println("# checks\tarray\tadded-bytes\tsplit\tindy\tmethod");
+    for (Map.Entry<ClassReport, MethodReport> entry :
+        methods.subList(0, Math.min(top, methods.size()))) {
+      MethodReport method = entry.getValue();
+      out.println(
+          method.checkCount()
+              + "\t"
+              + method.arrayChecks()
+              + "\t"
+              + method.addedBytes()
+              + "\t"
+              + (method.split() ? "yes" : "no")
+              + "\t"
+              + method.indySites()
+              + "\t"
+              + entry.getKey().className().replace('/', '.')
+              + "."
+              + method.name()
+              + method.descriptor()
+              + (method.bridge() ? " (bridge)" : ""));
+    }
+
+    if (!failed.isEmpty()) {
+      out.println("# failed\tclass\terror");
+      for (ClassReport classReport : failed) {
+        out.println(
+            "failed\t" + classReport.className().replace('/', '.') + "\t" + classReport.error());
+      }
+    }
+  }
+
+  /** Writes every class and method of {@code report} as one JSON object. */
+  public static void writeJson(Report report, Writer writer) throws IOException {
+    Writer out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+    out.write("{\"jar\":");
+    writeString(out, report.jar());
+    out.write(",\"elapsedMillis\":" + report.elapsedMillis());
+    out.write(",\"scannedClasses\":" + report.scannedClasses());
+    if (report.overheadEstimate().isPresent()) {
+      ProfileGuidance.OverheadEstimate estimate = report.overheadEstimate().get();
+      out.write(",\"overheadEstimate\":{\"profiledSites\":" + estimate.profiledSites());
+      out.write(",\"sampledSites\":" + estimate.sampledSites());
+      out.write(",\"failedSites\":" + estimate.failedSites());
+      out.write(",\"unprofiledSites\":" + estimate.unprofiledSites());
+      out.write(",\"fullCheckExecutions\":" + estimate.fullCheckExecutions());
+      out.write(",\"plannedCheckExecutions\":" + estimate.plannedCheckExecutions() + "}");
+    }
+    out.write(",\"classes\":[");
+    boolean firstClass = true;
+    for (ClassReport classReport : report.classes()) {
+      out.write(firstClass ? "\n" : ",\n");
+      firstClass = false;
+      out.write("{\"class\":");
+      writeString(out, classReport.className().replace('/', '.'));
+      out.write(",\"classification\":\"" + classReport.classification() + "\"");
+      if (classReport.error() != null) {
+        out.write(",\"error\":");
+        writeString(out, classReport.error());
+      }
+      out.write(",\"originalSize\":" + classReport.originalSize());
+      out.write(",\"instrumentedSize\":" + classReport.instrumentedSize());
+      out.write(",\"checks\":" + classReport.checkCount());
+      out.write(",\"addedBytes\":" + classReport.addedBytes());
+      out.write(",\"splitMethods\":" + classReport.splitMethods());
+      out.write(",\"bridges\":" + classReport.bridges());
+      out.write(",\"helpers\":" + classReport.helpers());
+      out.write(",\"indySites\":" + classReport.indySites());
+      out.write(",\"methods\":[");
+      boolean firstMethod = true;
+      for (MethodReport method : classReport.methods()) {
+        if (!firstMethod) {
+          out.write(",");
+        }
+        firstMethod = false;
+        out.write("{\"name\":");
+        writeString(out, method.name());
+        out.write(",\"descriptor\":");
+        writeString(out, method.descriptor());
+        out.write(",\"bridge\":" + method.bridge());
+        out.write(",\"split\":" + method.split());
+        out.write(",\"checks\":{");
+        boolean firstKind = true;
+        for (FlowKind kind : FlowKind.values()) {
+          Integer count = method.checks().get(kind);
+          if (count != null) {
+            out.write((firstKind ? "\"" : ",\"") + kind + "\":" + count);
+            firstKind = false;
+          }
+        }
+        out.write("},\"arrayChecks\":" + method.arrayChecks());
+        out.write(",\"originalBytes\":" + method.originalBytes());
+        out.write(",\"instrumentedBytes\":" + method.instrumentedBytes());
+        out.write(",\"indySites\":" + method.indySites() + "}");
+      }
+      out.write("]}");
+    }
+    out.write("\n]}\n");
+    out.flush();
+  }
+
+  private static void writeString(Writer out, String value) throws IOException {
+    out.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> out.write("\\\"");
+        case '\\' -> out.write("\\\\");
+        case '\n' -> out.write("\\n");
+        case '\r' -> out.write("\\r");
+        case '\t' -> out.write("\\t");
+        default -> {
+          if (c < 0x20) {
+            out.write(String.format("\\u%04x", (int) c));
+          } else {
+            out.write(c);
+          }
+        }
+      }
+    }
+    out.write('"');
+  }
+
+  private static String methodKey(MethodModel method) {
+    return method.methodName().stringValue() + method.methodType().stringValue();
+  }
+
+  private static int codeSize(MethodModel method) {
+    Optional<CodeModel> code = method.code();
+    return code.isPresent() && code.get() instanceof CodeAttribute attribute
+        ? attribute.codeLength()
+        : 0;
+  }
+
+  private static int indySites(MethodModel method) {
+    Optional<CodeModel> code = method.code();
+    if (code.isEmpty()) {
+      return 0;
+    }
+    int sites = 0;
+    for (CodeElement element : code.get()) {
+      if (element instanceof InvokeDynamicInstruction invoke
+          && invoke.bootstrapMethod().owner().equals(BOUNDARY_BOOTSTRAPS)) {
+        sites++;
+      }
+    }
+    return sites;
+  }
+
+  /** Byte and check counts of one method while a class report is assembled. */
+  private static final class MethodStats {
+    private final String name;
+    private final String descriptor;
+    private final boolean bridge;
+    private final Map<FlowKind, Integer> checks = new EnumMap<>(FlowKind.class);
+    private int arrayChecks;
+    private int originalBytes;
+    private int instrumentedBytes;
+    private int indySites;
+    private boolean split;
+
+    MethodStats(MethodModel method, boolean bridge) {
+      this.name = method.methodName().stringValue();
+      this.descriptor = method.methodType().stringValue();
+      this.bridge = bridge;
+    }
+
+    MethodStats(String name, String descriptor) {
+      this.name = name;
+      this.descriptor = descriptor;
+      this.bridge = false;
+    }
+  }
+
+  /** The actions planned while one class is transformed, by method and check site. */
+  private static final class ClassPlans {
+    private final Map<String, MethodStats> methods = new HashMap<>();
+    private final Set<Object> sites = new HashSet<>();
+
+    void record(Object site, String name, String descriptor, FlowKind kind, MethodPlan plan) {
+      if (plan.isEmpty() || !sites.add(site)) {
+        return;
+      }
+      MethodStats stats =
+          methods.computeIfAbsent(name + descriptor, key -> new MethodStats(name, descriptor));
+      for (InstrumentationAction action : plan.actions()) {
+        switch (action) {
+          case InstrumentationAction.ValueCheckAction ignored ->
+              stats.checks.merge(kind, 1, Integer::sum);
+          case InstrumentationAction.ArrayElementsCheckAction ignored -> stats.arrayChecks++;
+          case InstrumentationAction.LifecycleHookAction ignored -> {}
+        }
+      }
+    }
+  }
+
+  /**
+   * A planner that returns the plans of its delegate and records the actions of the class
+   * transformed on the current thread. The delegate reports the actions of each event, so each
+   * action is attributed to the kind of its event.
+   */
+  private static final class RecordingPlanner implements EnforcementPlanner {
+    private final ThreadLocal<ClassPlans> current = new ThreadLocal<>();
+    private EnforcementPlanner delegate;
+
+    /** Records the plans of {@code planner}; called once, before anything is planned. */
+    EnforcementPlanner wrap(EnforcementPlanner planner) {
+      this.delegate = planner;
+      return this;
+    }
+
+    @Override
+    public MethodPlan planMethod(MethodContext methodContext, List<? extends FlowEvent> events) {
+      ClassPlans plans = current.get();
+      if (plans == null) {
+        return delegate.planMethod(methodContext, events);
+      }
+      return delegate.planMethod(
+          methodContext,
+          events,
+          (event, plan) -> record(plans, methodContext, event, event.kind(), plan));
+    }
+
+    @Override
+    public MethodPlan planMethod(
+        MethodContext methodContext,
+        List<? extends FlowEvent> events,
+        BiConsumer<? super FlowEvent, ? super MethodPlan> eventPlans) {
+      ClassPlans plans = current.get();
+      if (plans == null) {
+        return delegate.planMethod(methodContext, events, eventPlans);
+      }
+      return delegate.planMethod(
+          methodContext,
+          events,
+          (event, plan) -> {
+            record(plans, methodContext, event, event.kind(), plan);
+            eventPlans.accept(event, plan);
+          });
+    }
+
+    @Override
+    public MethodPlan planUncheckedReceiverFallbackReturn(
+        MethodContext methodContext, BytecodeLocation location, TargetRef.InvokedMethod target) {
+      MethodPlan plan =
+          delegate.planUncheckedReceiverFallbackReturn(methodContext, location, target);
+      ClassPlans plans = current.get();
+      if (plans != null) {
+        record(
+            plans,
+            methodContext,
+            List.of(methodContext, location, target),
+            FlowKind.BOUNDARY_CALL_RETURN,
+            plan);
+      }
+      return plan;
+    }
+
+    @Override
+    public boolean provesNonNullResult(MethodContext methodContext, InvokeInstruction invoke) {
+      return delegate.provesNonNullResult(methodContext, invoke);
+    }
+
+    @Override
+    public boolean shouldGenerateBridge(ClassContext classContext, ParentMethod parentMethod) {
+      return delegate.shouldGenerateBridge(classContext, parentMethod);
+    }
+
+    @Override
+    public BridgePlan planBridge(ClassContext classContext, ParentMethod parentMethod) {
+      BridgePlan plan = delegate.planBridge(classContext, parentMethod);
+      ClassPlans plans = current.get();
+      if (plans != null) {
+        MethodModel method = parentMethod.method();
+        String name = method.methodName().stringValue();
+        String descriptor = method.methodType().stringValue();
+        List<InstrumentationAction> entry = new ArrayList<>();
+        List<InstrumentationAction> exit = new ArrayList<>();
+        for (InstrumentationAction action : plan.actions()) {
+          (action.injectionPoint().kind() == InjectionPoint.Kind.BRIDGE_ENTRY ? entry : exit)
+              .add(action);
+        }
+        Object site = List.of("bridge", name, descriptor);
+        plans.record(
+            List.of(site, FlowKind.BRIDGE_PARAMETER),
+            name,
+            descriptor,
+            FlowKind.BRIDGE_PARAMETER,
+            new MethodPlan(entry));
+        plans.record(
+            List.of(site, FlowKind.BRIDGE_RETURN),
+            name,
+            descriptor,
+            FlowKind.BRIDGE_RETURN,
+            new MethodPlan(exit));
+      }
+      return plan;
+    }
+
+    private static void record(
+        ClassPlans plans,
+        MethodContext methodContext,
+        Object site,
+        FlowKind kind,
+        MethodPlan plan) {
+      MethodModel method = methodContext.methodModel();
+      String name = method.methodName().stringValue();
+      if (name.endsWith(SAFE_SUFFIX)) {
+        name = name.substring(0, name.length() - SAFE_SUFFIX.length());
+      }
+      plans.record(site, name, method.methodType().stringValue(), kind, plan);
+    }
+  }
+}
@@ -1,29 +1,36 @@
 package io.github.eisop.runtimeframework.agent;
 
 import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.runtimeframework.core.CompositeRuntimeChecker;
 import io.github.eisop.runtimeframework.core.RuntimeChecker;
 import io.github.eisop.runtimeframework.filter.ClassInfo;
 import io.github.eisop.runtimeframework.filter.ClassListFilter;
 import io.github.eisop.runtimeframework.filter.Filter;
 import io.github.eisop.runtimeframework.filter.FrameworkSafetyFilter;
+import io.github.eisop.runtimeframework.policy.ClassificationCache;
+import io.github.eisop.runtimeframework.policy.ProfiledRuntimePolicy;
 import io.github.eisop.runtimeframework.policy.RuntimePolicy;
 import io.github.eisop.runtimeframework.policy.ScopeAwareRuntimePolicy;
 import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
+import io.github.eisop.runtimeframework.runtime.CheckSiteProfile;
+import io.github.eisop.runtimeframework.runtime.LazyInstrumentation;
+import io.github.eisop.runtimeframework.runtime.MetricsEndpoint;
 import io.github.eisop.runtimeframework.runtime.RuntimeVerifier;
 import io.github.eisop.runtimeframework.runtime.ViolationHandler;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.lang.instrument.Instrumentation;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 public final class RuntimeAgent {
 
   public static void premain(String args, Instrumentation inst) {
     RuntimeOptions options = RuntimeOptions.fromSystemProperties();
-    Filter<ClassInfo> safeFilter = new FrameworkSafetyFilter();
-
-    Filter<ClassInfo> checkedScopeFilter =
-        options.hasCheckedClasses()
-            ? new ClassListFilter(Arrays.asList(options.checkedClasses().split(",")))
-            : Filter.rejectAll();
 
     // Configure ViolationHandler before instrumented checks can run.
     if (options.hasHandlerClassName()) {
@@ -40,26 +47,98 @@ public final class RuntimeAgent {
       }
     }
 
-    RuntimeChecker checker;
-    try {
-      System.out.println("[RuntimeAgent] Loading checker: " + options.checkerClassName());
-      Class<?> clazz = Class.forName(options.checkerClassName());
-      checker = (RuntimeChecker) clazz.getConstructor().newInstance();
-    } catch (Exception e) {
-      System.err.println(
-          "[RuntimeAgent] FATAL: Could not instantiate checker: " + options.checkerClassName());
-      e.printStackTrace();
+    RuntimeTransformer transformer = createTransformer(options);
+    if (transformer == null) {
       return;
     }
 
-    RuntimePolicy policy =
-        new ScopeAwareRuntimePolicy(
-            safeFilter,
-            checkedScopeFilter,
-            options.globalMode(),
-            options.trustAnnotatedFor(),
-            checker.getName(),
-            ResolutionEnvironment.system());
+    if (options.siteProfileEnabled()) {
+      System.out.println(
+          "[RuntimeAgent] Check-site profile: "
+              + (options.siteProfileOutput().isEmpty() ? "stderr" : options.siteProfileOutput()));
+      CheckSiteProfile.install(options.siteProfileOutput(), options.siteProfileLimit());
+    }
+
+    if (options.hasMetricsAddress()) {
+      try {
+        InetSocketAddress address = MetricsEndpoint.install(options.metricsAddress());
+        System.out.println(
+            "[RuntimeAgent] Serving metrics at http://"
+                + address.getHostString()
+                + ":"
+                + address.getPort()
+                + MetricsEndpoint.PATH);
+      } catch (IOException | IllegalArgumentException e) {
+        System.err.println(
+            "[RuntimeAgent] ERROR: Could not start metrics endpoint: " + options.metricsAddress());
+        e.printStackTrace();
+      }
+    }
+
+    boolean canRetransform = false;
+    if (options.lazyInstrumentationEnabled()) {
+      if (inst.isRetransformClassesSupported()) {
+        System.out.println("[RuntimeAgent] Lazy instrumentation enabled for unchecked classes.");
+        LazyInstrumentation.install(inst);
+        canRetransform = true;
+      } else {
+        System.err.println(
+            "[RuntimeAgent] WARNING: Retransformation unsupported; lazy instrumentation disabled.");
+      }
+    }
+
+    if (options.transformBudgetEnabled()) {
+      System.out.println(
+          "[RuntimeAgent] Transform budget: "
+              + options.transformBudgetMillis()
+              + " ms per class, "
+              + options.totalTransformBudgetMillis()
+              + " ms in total");
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread(
+                  () ->
+                      reportDegradedClasses(
+                          transformer.degradedClasses(),
+                          transformer.unboundedClasses(),
+                          System.err),
+                  "runtime-framework-degraded-report"));
+    }
+    inst.addTransformer(transformer, canRetransform);
+  }
+
+  /** Builds the transformer the agent installs from the system properties. */
+  public static RuntimeTransformer createTransformer() {
+    return createTransformer(RuntimeOptions.fromSystemProperties());
+  }
+
+  /**
+   * Builds the checkers, the policy and the transformer for {@code options}, or returns {@code
+   * null} when a checker cannot be loaded. The test harness uses it to run the transformer without
+   * an agent.
+   */
+  public static RuntimeTransformer createTransformer(RuntimeOptions options) {
+    for (String checkerClassName : options.checkerClassNames()) {
+      System.out.println("[RuntimeAgent] Loading checker: " + checkerClassName);
+    }
+    RuntimeChecker checker = loadChecker(options);
+    if (checker == null) {
+      return null;
+    }
+    if (checker instanceof CompositeRuntimeChecker) {
+      System.out.println("[RuntimeAgent] Composing checkers: " + checker.getName());
+    }
+
+    ResolutionEnvironment resolutionEnvironment = ResolutionEnvironment.system();
+    RuntimePolicy policy = createPolicy(options, checker, resolutionEnvironment);
+    if (policy instanceof ProfiledRuntimePolicy profiledPolicy) {
+      ProfiledRuntimePolicy.install(profiledPolicy);
+      System.out.println(
+          "[RuntimeAgent] Policy profiles: "
+              + profiledPolicy.profiles().size()
+              + " from "
+              + options.policyProfiles());
+    }
 
     System.out.println(
         "[RuntimeAgent] Policy mode: " + (options.globalMode() ? "GLOBAL" : "STANDARD"));
@@ -70,6 +149,93 @@ public final class RuntimeAgent {
       System.out.println("[RuntimeAgent] Checked scope includes @AnnotatedFor classes.");
     }
 
-    inst.addTransformer(new RuntimeTransformer(policy, checker, options), false);
+    return new RuntimeTransformer(policy, checker, options, resolutionEnvironment);
+  }
+
+  /**
+   * Instantiates the checkers named by {@code options}, composed if there are several, or returns
+   * {@code null} when one cannot be instantiated.
+   */
+  static RuntimeChecker loadChecker(RuntimeOptions options) {
+    List<RuntimeChecker> checkers = new ArrayList<>();
+    for (String checkerClassName : options.checkerClassNames()) {
+      try {
+        Class<?> clazz = Class.forName(checkerClassName);
+        checkers.add((RuntimeChecker) clazz.getConstructor().newInstance());
+      } catch (Exception e) {
+        System.err.println(
+            "[RuntimeAgent] FATAL: Could not instantiate checker: " + checkerClassName);
+        e.printStackTrace();
+        return null;
+      }
+    }
+    return checkers.size() == 1 ? checkers.get(0) : new CompositeRuntimeChecker(checkers);
+  }
+
+  /** Builds the policy {@code options} configure, with its profiles if they can be read. */
+  static RuntimePolicy createPolicy(
+      RuntimeOptions options, RuntimeChecker checker, ResolutionEnvironment resolutionEnvironment) {
+    Filter<ClassInfo> safeFilter = new FrameworkSafetyFilter();
+
+    Filter<ClassInfo> checkedScopeFilter =
+        options.hasCheckedClasses()
+            ? new ClassListFilter(Arrays.asList(options.checkedClasses().split(",")))
+            : Filter.rejectAll();
+
+    ClassificationCache classificationCache = new ClassificationCache();
+    RuntimePolicy scopePolicy =
+        new ScopeAwareRuntimePolicy(
+            safeFilter,
+            checkedScopeFilter,
+            options.globalMode(),
+            options.trustAnnotatedFor(),
+            checker.getNames(),
+            resolutionEnvironment,
+            classificationCache);
+    if (!options.hasPolicyProfiles()) {
+      return scopePolicy;
+    }
+    try {
+      return new ProfiledRuntimePolicy(
+          safeFilter,
+          options.trustAnnotatedFor(),
+          checker.getNames(),
+          resolutionEnvironment,
+          classificationCache,
+          scopePolicy,
+          ProfiledRuntimePolicy.readProfiles(Path.of(options.policyProfiles())));
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println(
+          "[RuntimeAgent] ERROR: Could not read policy profiles: " + options.policyProfiles());
+      e.printStackTrace();
+      return scopePolicy;
+    }
+  }
+
+  /**
+   * Lists the classes that ran out of transform time: checked classes that got entry and return
+   * checks only, and unchecked classes that were left without boundary checks.
+   */
+  static void reportDegradedClasses(Set<String> degraded, Set<String> unbounded, PrintStream out) {
+    reportClasses(
+        degraded,
+        "checked classes exceeded the transform budget and only check method entry and return:",
+        out);
+    reportClasses(
+        unbounded,
+        "unchecked classes exceeded the transform budget and have no boundary checks:",
+        out);
+  }
+
+  private static void reportClasses(Set<String> classes, String description, PrintStream out) {
+    if (classes.isEmpty()) {
+      return;
+    }
+    List<String> sorted = new ArrayList<>(classes);
+    sorted.sort(null);
+    out.println("[RuntimeFramework] " + sorted.size() + " " + description);
+    for (String className : sorted) {
+      out.println("[RuntimeFramework]   " + className.replace('/', '.'));
+    }
   }
 }
@@ -4,25 +4,84 @@ import io.github.eisop.runtimeframework.config.RuntimeOptions;
 import io.github.eisop.runtimeframework.core.RuntimeChecker;
 import io.github.eisop.runtimeframework.filter.ClassInfo;
 import io.github.eisop.runtimeframework.instrumentation.RuntimeInstrumenter;
+import io.github.eisop.runtimeframework.instrumentation.TransformBudget;
 import io.github.eisop.runtimeframework.policy.ClassClassification;
+import io.github.eisop.runtimeframework.policy.EntryReturnRuntimePolicy;
 import io.github.eisop.runtimeframework.policy.RuntimePolicy;
+import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
+import io.github.eisop.runtimeframework.runtime.LazyInstrumentation;
+import io.github.eisop.runtimeframework.runtime.RuntimeMetrics;
 import java.lang.classfile.ClassFile;
 import java.lang.classfile.ClassModel;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.attribute.CodeAttribute;
 import java.lang.instrument.ClassFileTransformer;
 import java.security.ProtectionDomain;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
 
 public class RuntimeTransformer implements ClassFileTransformer {
 
   private final RuntimePolicy policy;
+  private final RuntimeChecker checker;
+  private final RuntimeOptions options;
   private final RuntimeInstrumenter instrumenter;
+  private final ResolutionEnvironment resolutionEnvironment;
+  private final boolean lazyInstrumentation;
+  private final boolean codeSizeReport;
+  private final int outlineThreshold;
+  private final long transformBudgetNanos;
+  private final long totalTransformBudgetNanos;
+  private final AtomicLong totalTransformNanos = new AtomicLong();
+  private final Set<String> degradedClasses = ConcurrentHashMap.newKeySet();
+  private final Set<String> unboundedClasses = ConcurrentHashMap.newKeySet();
+  private volatile RuntimeInstrumenter degradedInstrumenter;
 
   public RuntimeTransformer(RuntimePolicy policy, RuntimeChecker checker) {
     this(policy, checker, RuntimeOptions.fromSystemProperties());
   }
 
   public RuntimeTransformer(RuntimePolicy policy, RuntimeChecker checker, RuntimeOptions options) {
+    this(policy, checker, options, ResolutionEnvironment.system());
+  }
+
+  public RuntimeTransformer(
+      RuntimePolicy policy,
+      RuntimeChecker checker,
+      RuntimeOptions options,
+      ResolutionEnvironment resolutionEnvironment) {
     this.policy = policy;
-    this.instrumenter = checker.createInstrumenter(policy, options);
+    this.checker = checker;
+    this.options = options;
+    this.resolutionEnvironment = resolutionEnvironment;
+    this.instrumenter = checker.createInstrumenter(policy, resolutionEnvironment, options);
+    this.lazyInstrumentation = options.lazyInstrumentationEnabled();
+    this.codeSizeReport = options.codeSizeReportEnabled();
+    this.outlineThreshold = options.outlineThreshold();
+    this.transformBudgetNanos = TimeUnit.MILLISECONDS.toNanos(options.transformBudgetMillis());
+    this.totalTransformBudgetNanos =
+        TimeUnit.MILLISECONDS.toNanos(options.totalTransformBudgetMillis());
+  }
+
+  /**
+   * Returns the checked classes transformed with entry and return checks only, in no particular
+   * order.
+   */
+  public Set<String> degradedClasses() {
+    return Set.copyOf(degradedClasses);
+  }
+
+  /**
+   * Returns the unchecked classes left without boundary checks because they ran out of transform
+   * time, in no particular order.
+   */
+  public Set<String> unboundedClasses() {
+    return Set.copyOf(unboundedClasses);
   }
 
   @Override
@@ -39,24 +98,155 @@ public class RuntimeTransformer implements ClassFileTransformer {
     }
 
     ClassInfo info = new ClassInfo(className, loader, module);
+    long start = System.nanoTime();
+    if (policy.rejects(info)) {
+      RuntimeMetrics.recordTransform(ClassClassification.SKIP.name(), System.nanoTime() - start);
+      return null;
+    }
 
     try {
-      ClassFile cf = ClassFile.of();
+      ClassFile cf =
+          ClassFile.of(
+              ClassFile.ClassHierarchyResolverOption.of(
+                  TransformBudget.bounded(resolutionEnvironment.classHierarchyResolver(loader))));
       ClassModel classModel = cf.parse(classfileBuffer);
       ClassClassification classification = policy.classify(info, classModel);
 
       if (classification == ClassClassification.SKIP) {
+        RuntimeMetrics.recordTransform(classification.name(), System.nanoTime() - start);
         return null;
       }
 
       boolean isCheckedScope = classification == ClassClassification.CHECKED;
-      return cf.transformClass(
-          classModel, instrumenter.asClassTransform(classModel, loader, isCheckedScope));
+      if (!isCheckedScope && lazyInstrumentation && LazyInstrumentation.isInstalled()) {
+        // Checked classes get split methods and bridges, which cannot be added on retransform.
+        IntPredicate activated =
+            classBeingRedefined == null
+                ? methodIndex -> false
+                : methodIndex -> LazyInstrumentation.isActivated(classBeingRedefined, methodIndex);
+        byte[] transformed =
+            cf.transformClass(
+                classModel, instrumenter.asLazyClassTransform(classModel, loader, activated));
+        RuntimeMetrics.recordTransform(classification.name(), System.nanoTime() - start);
+        return transformed;
+      }
+      byte[] transformed =
+          transformWithinBudget(cf, classModel, loader, isCheckedScope, className, start);
+      long elapsed = System.nanoTime() - start;
+      totalTransformNanos.addAndGet(elapsed);
+      RuntimeMetrics.recordTransform(classification.name(), elapsed);
+      if (codeSizeReport && transformed != null) {
+        reportCodeSizes(classModel, cf.parse(transformed));
+      }
+      return transformed;
 
     } catch (Throwable t) {
+      RuntimeMetrics.recordTransformFailure();
       System.err.println("[RuntimeFramework] CRASH transforming: " + className);
       t.printStackTrace();
       return null;
     }
   }
+
+  /**
+   * Transforms a class fully unless that runs over the per-class budget, counted from {@code
+   * startNanos}, or the cumulative budget is spent. Then a checked class keeps its shape but gets
+   * entry and return checks only, and any other class is left as it is.
+   */
+  private byte[] transformWithinBudget(
+      ClassFile cf,
+      ClassModel classModel,
+      ClassLoader loader,
+      boolean isCheckedScope,
+      String className,
+      long startNanos) {
+    String exhaustedBudget;
+    if (totalTransformBudgetNanos > 0 && totalTransformNanos.get() >= totalTransformBudgetNanos) {
+      exhaustedBudget = "total";
+    } else {
+      try {
+        return TransformBudget.call(
+            startNanos,
+            transformBudgetNanos,
+            () ->
+                cf.transformClass(
+                    classModel, instrumenter.asClassTransform(classModel, loader, isCheckedScope)));
+      } catch (TransformBudget.Exceeded e) {
+        exhaustedBudget = "class";
+      }
+    }
+    if (!isCheckedScope) {
+      // Unchecked classes only get boundary checks, which the degraded mode drops anyway.
+      if (unboundedClasses.add(className)) {
+        RuntimeMetrics.recordDegradedTransform(exhaustedBudget);
+      }
+      return null;
+    }
+    if (degradedClasses.add(className)) {
+      RuntimeMetrics.recordDegradedTransform(exhaustedBudget);
+    }
+    return cf.transformClass(
+        classModel, degradedInstrumenter().asClassTransform(classModel, loader, isCheckedScope));
+  }
+
+  private RuntimeInstrumenter degradedInstrumenter() {
+    RuntimeInstrumenter result = degradedInstrumenter;
+    if (result == null) {
+      synchronized (this) {
+        result = degradedInstrumenter;
+        if (result == null) {
+          result =
+              checker.createInstrumenter(
+                  new EntryReturnRuntimePolicy(policy), resolutionEnvironment, options);
+          degradedInstrumenter = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Prints the code size of every method of a transformed class next to its size before
+   * instrumentation, flagging methods that still exceed the outlining threshold.
+   */
+  private void reportCodeSizes(ClassModel original, ClassModel transformed) {
+    Map<String, Integer> originalSizes = new HashMap<>();
+    for (MethodModel method : original.methods()) {
+      originalSizes.put(methodKey(method), codeSize(method));
+    }
+    String owner = transformed.thisClass().asInternalName();
+    for (MethodModel method : transformed.methods()) {
+      if (method.code().isEmpty()) {
+        continue;
+      }
+      Integer before = originalSizes.get(methodKey(method));
+      int after = codeSize(method);
+      StringBuilder line =
+          new StringBuilder("[RuntimeFramework] Code size ")
+              .append(owner)
+              .append('.')
+              .append(methodKey(method))
+              .append(": ");
+      if (before == null) {
+        line.append(after).append(" bytes (generated)");
+      } else {
+        line.append(before).append(" -> ").append(after).append(" bytes");
+      }
+      if (outlineThreshold > 0 && after > outlineThreshold) {
+        line.append(" (over outline threshold ").append(outlineThreshold).append(')');
+      }
+      System.err.println(line);
+    }
+  }
+
+  private static String methodKey(MethodModel method) {
+    return method.methodName().stringValue() + method.methodType().stringValue();
+  }
+
+  private static int codeSize(MethodModel method) {
+    return method
+        .code()
+        .map(code -> code instanceof CodeAttribute attribute ? attribute.codeLength() : 0)
+        .orElse(0);
+  }
 }
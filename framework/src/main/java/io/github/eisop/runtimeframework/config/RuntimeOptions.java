@@ -1,5 +1,8 @@
 package io.github.eisop.runtimeframework.config;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 
@@ -11,7 +14,32 @@ public record RuntimeOptions(
     boolean trustExplicitQualifiers,
     String handlerClassName,
     String checkerClassName,
-    boolean indyBoundaryEnabled) {
+    boolean indyBoundaryEnabled,
+    boolean arrayBoundaryScanEnabled,
+    int samplingPeriod,
+    boolean siteProfileEnabled,
+    String siteProfileOutput,
+    int siteProfileLimit,
+    String siteProfileInput,
+    long hotSiteThreshold,
+    int hotSiteSamplingPeriod,
+    boolean lazyInstrumentationEnabled,
+    boolean checkedMarkerInterfaceEnabled,
+    boolean finalFieldCommitEnabled,
+    boolean bundledSummariesEnabled,
+    String summaryFiles,
+    boolean returnSummariesEnabled,
+    int outlineThreshold,
+    boolean codeSizeReportEnabled,
+    boolean commitTrackingEnabled,
+    boolean stacklessViolationsEnabled,
+    String journalPath,
+    int journalSegmentBytes,
+    int journalSegments,
+    String metricsAddress,
+    String policyProfiles,
+    long transformBudgetMillis,
+    long totalTransformBudgetMillis) {
 
   public static final String CHECKED_CLASSES_PROPERTY = "runtime.classes";
   public static final String GLOBAL_MODE_PROPERTY = "runtime.global";
@@ -20,6 +48,33 @@ public record RuntimeOptions(
   public static final String HANDLER_CLASS_PROPERTY = "runtime.handler";
   public static final String CHECKER_CLASS_PROPERTY = "runtime.checker";
   public static final String INDY_BOUNDARY_PROPERTY = "runtime.indy.boundary";
+  public static final String ARRAY_BOUNDARY_SCAN_PROPERTY = "runtime.arrays.boundaryScan";
+  public static final String SAMPLING_PERIOD_PROPERTY = "runtime.sampling.period";
+  public static final String SAMPLING_RATE_PROPERTY = "runtime.sampling.rate";
+  public static final String SITE_PROFILE_PROPERTY = "runtime.profile.sites";
+  public static final String SITE_PROFILE_OUTPUT_PROPERTY = "runtime.profile.output";
+  public static final String SITE_PROFILE_LIMIT_PROPERTY = "runtime.profile.limit";
+  public static final String SITE_PROFILE_INPUT_PROPERTY = "runtime.profile.input";
+  public static final String HOT_SITE_THRESHOLD_PROPERTY = "runtime.profile.hotThreshold";
+  public static final String HOT_SITE_PERIOD_PROPERTY = "runtime.profile.hotPeriod";
+  public static final String LAZY_INSTRUMENTATION_PROPERTY = "runtime.lazy";
+  public static final String CHECKED_MARKER_INTERFACE_PROPERTY = "runtime.checkedMarker.interface";
+  public static final String FINAL_FIELD_COMMIT_PROPERTY = "runtime.fields.finalCommit";
+  public static final String BUNDLED_SUMMARIES_PROPERTY = "runtime.summaries.bundled";
+  public static final String SUMMARY_FILES_PROPERTY = "runtime.summaries";
+  public static final String RETURN_SUMMARIES_PROPERTY = "runtime.returnSummaries";
+  public static final String OUTLINE_THRESHOLD_PROPERTY = "runtime.outline.threshold";
+  public static final String CODE_SIZE_REPORT_PROPERTY = "runtime.outline.report";
+  public static final String COMMIT_TRACKING_PROPERTY = "runtime.init.commitTracking";
+  public static final String STACKLESS_VIOLATIONS_PROPERTY = "runtime.violations.stackless";
+  public static final String JOURNAL_PATH_PROPERTY = "runtime.journal.path";
+  public static final String JOURNAL_SEGMENT_BYTES_PROPERTY = "runtime.journal.segmentBytes";
+  public static final String JOURNAL_SEGMENTS_PROPERTY = "runtime.journal.segments";
+  public static final String METRICS_ADDRESS_PROPERTY = "runtime.metrics.address";
+  public static final String POLICY_PROFILES_PROPERTY = "runtime.policy.profiles";
+  public static final String TRANSFORM_BUDGET_PROPERTY = "runtime.transform.budgetMillis";
+  public static final String TOTAL_TRANSFORM_BUDGET_PROPERTY =
+      "runtime.transform.totalBudgetMillis";
 
   public static final String DEFAULT_CHECKED_CLASSES = "";
   public static final boolean DEFAULT_GLOBAL_MODE = false;
@@ -29,14 +84,71 @@ public record RuntimeOptions(
   public static final String DEFAULT_CHECKER_CLASS =
       "io.github.eisop.runtimeframework.checker.nullness.NullnessRuntimeChecker";
   public static final boolean DEFAULT_INDY_BOUNDARY_ENABLED = true;
+  public static final boolean DEFAULT_ARRAY_BOUNDARY_SCAN_ENABLED = false;
+  public static final int DEFAULT_SAMPLING_PERIOD = 1;
+  public static final boolean DEFAULT_SITE_PROFILE_ENABLED = false;
+  public static final String DEFAULT_SITE_PROFILE_OUTPUT = "";
+  public static final int DEFAULT_SITE_PROFILE_LIMIT = 0;
+  public static final String DEFAULT_SITE_PROFILE_INPUT = "";
+  public static final long DEFAULT_HOT_SITE_THRESHOLD = 10_000L;
+  public static final int DEFAULT_HOT_SITE_PERIOD = 64;
+  public static final boolean DEFAULT_LAZY_INSTRUMENTATION_ENABLED = false;
+  public static final boolean DEFAULT_CHECKED_MARKER_INTERFACE_ENABLED = false;
+  public static final boolean DEFAULT_FINAL_FIELD_COMMIT_ENABLED = false;
+  public static final boolean DEFAULT_BUNDLED_SUMMARIES_ENABLED = false;
+  public static final String DEFAULT_SUMMARY_FILES = "";
+  public static final boolean DEFAULT_RETURN_SUMMARIES_ENABLED = false;
+  public static final int DEFAULT_OUTLINE_THRESHOLD = 0;
+  public static final boolean DEFAULT_CODE_SIZE_REPORT_ENABLED = false;
+  public static final boolean DEFAULT_COMMIT_TRACKING_ENABLED = false;
+  public static final boolean DEFAULT_STACKLESS_VIOLATIONS_ENABLED = false;
+  public static final String DEFAULT_JOURNAL_PATH = "";
+  public static final int DEFAULT_JOURNAL_SEGMENT_BYTES = 16 << 20;
+  public static final int DEFAULT_JOURNAL_SEGMENTS = 4;
+  public static final String DEFAULT_METRICS_ADDRESS = "";
+  public static final String DEFAULT_POLICY_PROFILES = "";
+  public static final long DEFAULT_TRANSFORM_BUDGET_MILLIS = 0;
+  public static final long DEFAULT_TOTAL_TRANSFORM_BUDGET_MILLIS = 0;
 
   public RuntimeOptions {
     checkedClasses = Objects.requireNonNull(checkedClasses, "checkedClasses").trim();
     handlerClassName = Objects.requireNonNull(handlerClassName, "handlerClassName").trim();
     checkerClassName = Objects.requireNonNull(checkerClassName, "checkerClassName").trim();
+    siteProfileOutput = Objects.requireNonNull(siteProfileOutput, "siteProfileOutput").trim();
+    siteProfileInput = Objects.requireNonNull(siteProfileInput, "siteProfileInput").trim();
+    summaryFiles = Objects.requireNonNull(summaryFiles, "summaryFiles").trim();
+    journalPath = Objects.requireNonNull(journalPath, "journalPath").trim();
+    metricsAddress = Objects.requireNonNull(metricsAddress, "metricsAddress").trim();
+    policyProfiles = Objects.requireNonNull(policyProfiles, "policyProfiles").trim();
     if (checkerClassName.isEmpty()) {
       checkerClassName = DEFAULT_CHECKER_CLASS;
     }
+    if (samplingPeriod < 1) {
+      throw new IllegalArgumentException("samplingPeriod must be positive: " + samplingPeriod);
+    }
+    if (hotSiteSamplingPeriod < 1) {
+      throw new IllegalArgumentException(
+          "hotSiteSamplingPeriod must be positive: " + hotSiteSamplingPeriod);
+    }
+    if (outlineThreshold < 0) {
+      throw new IllegalArgumentException(
+          "outlineThreshold must not be negative: " + outlineThreshold);
+    }
+    if (transformBudgetMillis < 0) {
+      throw new IllegalArgumentException(
+          "transformBudgetMillis must not be negative: " + transformBudgetMillis);
+    }
+    if (totalTransformBudgetMillis < 0) {
+      throw new IllegalArgumentException(
+          "totalTransformBudgetMillis must not be negative: " + totalTransformBudgetMillis);
+    }
+    if (journalSegmentBytes < 1) {
+      throw new IllegalArgumentException(
+          "journalSegmentBytes must be positive: " + journalSegmentBytes);
+    }
+    if (journalSegments < 1) {
+      throw new IllegalArgumentException("journalSegments must be positive: " + journalSegments);
+    }
   }
 
   public static RuntimeOptions defaults() {
@@ -47,7 +159,32 @@ public record RuntimeOptions(
         DEFAULT_TRUST_EXPLICIT_QUALIFIERS,
         DEFAULT_HANDLER_CLASS,
         DEFAULT_CHECKER_CLASS,
-        DEFAULT_INDY_BOUNDARY_ENABLED);
+        DEFAULT_INDY_BOUNDARY_ENABLED,
+        DEFAULT_ARRAY_BOUNDARY_SCAN_ENABLED,
+        DEFAULT_SAMPLING_PERIOD,
+        DEFAULT_SITE_PROFILE_ENABLED,
+        DEFAULT_SITE_PROFILE_OUTPUT,
+        DEFAULT_SITE_PROFILE_LIMIT,
+        DEFAULT_SITE_PROFILE_INPUT,
+        DEFAULT_HOT_SITE_THRESHOLD,
+        DEFAULT_HOT_SITE_PERIOD,
+        DEFAULT_LAZY_INSTRUMENTATION_ENABLED,
+        DEFAULT_CHECKED_MARKER_INTERFACE_ENABLED,
+        DEFAULT_FINAL_FIELD_COMMIT_ENABLED,
+        DEFAULT_BUNDLED_SUMMARIES_ENABLED,
+        DEFAULT_SUMMARY_FILES,
+        DEFAULT_RETURN_SUMMARIES_ENABLED,
+        DEFAULT_OUTLINE_THRESHOLD,
+        DEFAULT_CODE_SIZE_REPORT_ENABLED,
+        DEFAULT_COMMIT_TRACKING_ENABLED,
+        DEFAULT_STACKLESS_VIOLATIONS_ENABLED,
+        DEFAULT_JOURNAL_PATH,
+        DEFAULT_JOURNAL_SEGMENT_BYTES,
+        DEFAULT_JOURNAL_SEGMENTS,
+        DEFAULT_METRICS_ADDRESS,
+        DEFAULT_POLICY_PROFILES,
+        DEFAULT_TRANSFORM_BUDGET_MILLIS,
+        DEFAULT_TOTAL_TRANSFORM_BUDGET_MILLIS);
   }
 
   public static RuntimeOptions fromSystemProperties() {
@@ -64,22 +201,154 @@ public record RuntimeOptions(
             properties, TRUST_EXPLICIT_QUALIFIERS_PROPERTY, DEFAULT_TRUST_EXPLICIT_QUALIFIERS),
         stringProperty(properties, HANDLER_CLASS_PROPERTY, DEFAULT_HANDLER_CLASS),
         stringProperty(properties, CHECKER_CLASS_PROPERTY, DEFAULT_CHECKER_CLASS),
-        booleanProperty(properties, INDY_BOUNDARY_PROPERTY, DEFAULT_INDY_BOUNDARY_ENABLED));
+        booleanProperty(properties, INDY_BOUNDARY_PROPERTY, DEFAULT_INDY_BOUNDARY_ENABLED),
+        booleanProperty(
+            properties, ARRAY_BOUNDARY_SCAN_PROPERTY, DEFAULT_ARRAY_BOUNDARY_SCAN_ENABLED),
+        samplingPeriod(properties),
+        booleanProperty(properties, SITE_PROFILE_PROPERTY, DEFAULT_SITE_PROFILE_ENABLED),
+        stringProperty(properties, SITE_PROFILE_OUTPUT_PROPERTY, DEFAULT_SITE_PROFILE_OUTPUT),
+        intProperty(properties, SITE_PROFILE_LIMIT_PROPERTY, DEFAULT_SITE_PROFILE_LIMIT),
+        stringProperty(properties, SITE_PROFILE_INPUT_PROPERTY, DEFAULT_SITE_PROFILE_INPUT),
+        longProperty(properties, HOT_SITE_THRESHOLD_PROPERTY, DEFAULT_HOT_SITE_THRESHOLD),
+        intProperty(properties, HOT_SITE_PERIOD_PROPERTY, DEFAULT_HOT_SITE_PERIOD),
+        booleanProperty(
+            properties, LAZY_INSTRUMENTATION_PROPERTY, DEFAULT_LAZY_INSTRUMENTATION_ENABLED),
+        booleanProperty(
+            properties,
+            CHECKED_MARKER_INTERFACE_PROPERTY,
+            DEFAULT_CHECKED_MARKER_INTERFACE_ENABLED),
+        booleanProperty(
+            properties, FINAL_FIELD_COMMIT_PROPERTY, DEFAULT_FINAL_FIELD_COMMIT_ENABLED),
+        booleanProperty(properties, BUNDLED_SUMMARIES_PROPERTY, DEFAULT_BUNDLED_SUMMARIES_ENABLED),
+        stringProperty(properties, SUMMARY_FILES_PROPERTY, DEFAULT_SUMMARY_FILES),
+        booleanProperty(properties, RETURN_SUMMARIES_PROPERTY, DEFAULT_RETURN_SUMMARIES_ENABLED),
+        intProperty(properties, OUTLINE_THRESHOLD_PROPERTY, DEFAULT_OUTLINE_THRESHOLD),
+        booleanProperty(properties, CODE_SIZE_REPORT_PROPERTY, DEFAULT_CODE_SIZE_REPORT_ENABLED),
+        booleanProperty(properties, COMMIT_TRACKING_PROPERTY, DEFAULT_COMMIT_TRACKING_ENABLED),
+        booleanProperty(
+            properties, STACKLESS_VIOLATIONS_PROPERTY, DEFAULT_STACKLESS_VIOLATIONS_ENABLED),
+        stringProperty(properties, JOURNAL_PATH_PROPERTY, DEFAULT_JOURNAL_PATH),
+        intProperty(properties, JOURNAL_SEGMENT_BYTES_PROPERTY, DEFAULT_JOURNAL_SEGMENT_BYTES),
+        intProperty(properties, JOURNAL_SEGMENTS_PROPERTY, DEFAULT_JOURNAL_SEGMENTS),
+        stringProperty(properties, METRICS_ADDRESS_PROPERTY, DEFAULT_METRICS_ADDRESS),
+        stringProperty(properties, POLICY_PROFILES_PROPERTY, DEFAULT_POLICY_PROFILES),
+        longProperty(properties, TRANSFORM_BUDGET_PROPERTY, DEFAULT_TRANSFORM_BUDGET_MILLIS),
+        longProperty(
+            properties, TOTAL_TRANSFORM_BUDGET_PROPERTY, DEFAULT_TOTAL_TRANSFORM_BUDGET_MILLIS));
   }
 
   public boolean hasCheckedClasses() {
     return !checkedClasses.isBlank();
   }
 
+  /** Returns the checker classes named by {@link #CHECKER_CLASS_PROPERTY}, separated by commas. */
+  public List<String> checkerClassNames() {
+    return Arrays.stream(checkerClassName.split(","))
+        .map(String::trim)
+        .filter(name -> !name.isEmpty())
+        .toList();
+  }
+
   public boolean hasHandlerClassName() {
     return !handlerClassName.isBlank();
   }
 
+  /**
+   * Returns whether every check site only runs its property test on one in {@link #samplingPeriod}
+   * hits. Sites a profile marks hot are sampled at {@link #hotSiteSamplingPeriod} either way.
+   */
+  public boolean samplingEnabled() {
+    return samplingPeriod > 1;
+  }
+
+  /**
+   * Returns whether checks of a method whose instrumented body is estimated to exceed {@link
+   * #outlineThreshold} bytes are moved into synthetic helper methods.
+   */
+  public boolean outliningEnabled() {
+    return outlineThreshold > 0;
+  }
+
+  public boolean hasJournalPath() {
+    return !journalPath.isBlank();
+  }
+
+  /**
+   * Returns whether metrics are served over HTTP at {@link #metricsAddress}, given as {@code
+   * host:port} or as a port bound to the loopback address.
+   */
+  public boolean hasMetricsAddress() {
+    return !metricsAddress.isBlank();
+  }
+
+  /** Returns whether {@link #policyProfiles} names a file of per-loader policy profiles. */
+  public boolean hasPolicyProfiles() {
+    return !policyProfiles.isBlank();
+  }
+
+  /**
+   * Returns whether a class whose transformation runs over {@link #transformBudgetMillis}, or that
+   * is transformed after all transformations together used {@link #totalTransformBudgetMillis}, is
+   * transformed with entry and return checks only. A budget of zero is unlimited.
+   */
+  public boolean transformBudgetEnabled() {
+    return transformBudgetMillis > 0 || totalTransformBudgetMillis > 0;
+  }
+
+  public boolean hasSiteProfileInput() {
+    return !siteProfileInput.isBlank();
+  }
+
+  /**
+   * Returns the user-supplied method summary files, separated by the platform path separator, in
+   * the order in which later files override earlier ones.
+   */
+  public List<String> summaryFileList() {
+    if (summaryFiles.isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(summaryFiles.split(File.pathSeparator))
+        .map(String::trim)
+        .filter(file -> !file.isEmpty())
+        .toList();
+  }
+
+  /**
+   * Reads the sampling period, either directly or as the reciprocal of a sampling rate in {@code
+   * (0, 1]}. An explicit period takes precedence.
+   */
+  private static int samplingPeriod(Properties properties) {
+    String period = properties.getProperty(SAMPLING_PERIOD_PROPERTY);
+    if (period != null && !period.isBlank()) {
+      return Integer.parseInt(period.trim());
+    }
+    String rate = properties.getProperty(SAMPLING_RATE_PROPERTY);
+    if (rate != null && !rate.isBlank()) {
+      double value = Double.parseDouble(rate.trim());
+      if (!(value > 0.0 && value <= 1.0)) {
+        throw new IllegalArgumentException(
+            SAMPLING_RATE_PROPERTY + " must be in (0, 1]: " + rate.trim());
+      }
+      return (int) Math.min(Integer.MAX_VALUE, Math.round(1.0 / value));
+    }
+    return DEFAULT_SAMPLING_PERIOD;
+  }
+
   private static String stringProperty(Properties properties, String key, String defaultValue) {
     String value = properties.getProperty(key);
     return value == null || value.isBlank() ? defaultValue : value;
   }
 
+  private static int intProperty(Properties properties, String key, int defaultValue) {
+    String value = properties.getProperty(key);
+    return (value == null || value.isBlank()) ? defaultValue : Integer.parseInt(value.trim());
+  }
+
+  private static long longProperty(Properties properties, String key, long defaultValue) {
+    String value = properties.getProperty(key);
+    return (value == null || value.isBlank()) ? defaultValue : Long.parseLong(value.trim());
+  }
+
   private static boolean booleanProperty(Properties properties, String key, boolean defaultValue) {
     String value = properties.getProperty(key);
     return (value == null || value.isBlank()) ? defaultValue : Boolean.parseBoolean(value);
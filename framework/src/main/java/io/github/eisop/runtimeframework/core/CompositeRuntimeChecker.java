@@ -0,0 +1,57 @@
+package io.github.eisop.runtimeframework.core;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.runtimeframework.semantics.CheckerSemantics;
+import io.github.eisop.runtimeframework.semantics.CompositeCheckerSemantics;
+import io.github.eisop.runtimeframework.semantics.CompositeCheckerSemantics.Component;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces several checkers with one instrumenter, so every class is parsed and rewritten once.
+ * Contracts of the composed checkers are merged per target by {@link CompositeCheckerSemantics},
+ * each checker applying to the classes annotated for one of its {@link #getNames() names}.
+ */
+public final class CompositeRuntimeChecker extends RuntimeChecker {
+
+  private final List<RuntimeChecker> checkers;
+
+  public CompositeRuntimeChecker(List<RuntimeChecker> checkers) {
+    Objects.requireNonNull(checkers, "checkers");
+    if (checkers.isEmpty()) {
+      throw new IllegalArgumentException("At least one checker is required");
+    }
+    this.checkers = List.copyOf(checkers);
+  }
+
+  public List<RuntimeChecker> checkers() {
+    return checkers;
+  }
+
+  @Override
+  public String getName() {
+    return checkers.stream().map(RuntimeChecker::getName).collect(Collectors.joining("+"));
+  }
+
+  @Override
+  public List<String> getNames() {
+    return checkers.stream().flatMap(checker -> checker.getNames().stream()).toList();
+  }
+
+  @Override
+  public CheckerSemantics getSemantics() {
+    return CompositeCheckerSemantics.of(
+        checkers.stream()
+            .map(checker -> new Component(checker.getNames(), checker.getSemantics()))
+            .toList());
+  }
+
+  @Override
+  public CheckerSemantics getSemantics(RuntimeOptions options) {
+    return CompositeCheckerSemantics.of(
+        checkers.stream()
+            .map(checker -> new Component(checker.getNames(), checker.getSemantics(options)))
+            .toList());
+  }
+}
@@ -4,11 +4,14 @@ import io.github.eisop.runtimeframework.config.RuntimeOptions;
 import io.github.eisop.runtimeframework.instrumentation.EnforcementInstrumenter;
 import io.github.eisop.runtimeframework.instrumentation.RuntimeInstrumenter;
 import io.github.eisop.runtimeframework.planning.ContractEnforcementPlanner;
+import io.github.eisop.runtimeframework.planning.EnforcementPlanner;
 import io.github.eisop.runtimeframework.policy.RuntimePolicy;
 import io.github.eisop.runtimeframework.resolution.BytecodeHierarchyResolver;
 import io.github.eisop.runtimeframework.resolution.HierarchyResolver;
 import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
 import io.github.eisop.runtimeframework.semantics.CheckerSemantics;
+import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a specific type system or check to be enforced (e.g., Nullness, Immutability). This
@@ -19,6 +22,14 @@ public abstract class RuntimeChecker {
   /** Returns the name of this checker. This string should match the name used in AnnotatedFor */
   public abstract String getName();
 
+  /**
+   * Returns the names whose {@code AnnotatedFor} classes this checker treats as checked. A
+   * composite checker returns the names of all its checkers.
+   */
+  public List<String> getNames() {
+    return List.of(getName());
+  }
+
   /** Returns the semantic model used by the framework planner for this checker. */
   public abstract CheckerSemantics getSemantics();
 
@@ -41,13 +52,28 @@ public abstract class RuntimeChecker {
     return createInstrumenter(policy, resolutionEnvironment, RuntimeOptions.fromSystemProperties());
   }
 
-  public RuntimeInstrumenter createInstrumenter(
+  public final RuntimeInstrumenter createInstrumenter(
       RuntimePolicy policy, ResolutionEnvironment resolutionEnvironment, RuntimeOptions options) {
+    return createInstrumenter(policy, resolutionEnvironment, options, UnaryOperator.identity());
+  }
+
+  /**
+   * Creates the instrumenter with its planner wrapped by {@code plannerWrapper}, for example to
+   * observe the plans without changing them.
+   */
+  public final RuntimeInstrumenter createInstrumenter(
+      RuntimePolicy policy,
+      ResolutionEnvironment resolutionEnvironment,
+      RuntimeOptions options,
+      UnaryOperator<EnforcementPlanner> plannerWrapper) {
     CheckerSemantics semantics = getSemantics(options);
     HierarchyResolver resolver =
-        new BytecodeHierarchyResolver(info -> policy.isChecked(info), resolutionEnvironment);
+        new BytecodeHierarchyResolver(
+            (internalName, loader) -> policy.isChecked(internalName, loader),
+            resolutionEnvironment);
     return new EnforcementInstrumenter(
-        new ContractEnforcementPlanner(policy, semantics, resolutionEnvironment),
+        plannerWrapper.apply(
+            new ContractEnforcementPlanner(policy, semantics, resolutionEnvironment, options)),
         resolver,
         semantics.emitter(),
         policy,
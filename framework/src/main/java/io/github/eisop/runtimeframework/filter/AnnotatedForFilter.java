@@ -1,27 +1,30 @@
 package io.github.eisop.runtimeframework.filter;
 
+import io.github.eisop.runtimeframework.policy.ClassificationCache;
 import io.github.eisop.runtimeframework.qual.AnnotatedFor;
 import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
 import java.lang.classfile.Annotation;
 import java.lang.classfile.AnnotationValue;
 import java.lang.classfile.Attributes;
 import java.lang.classfile.ClassModel;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * A filter that checks if a class or its package is annotated with {@link AnnotatedFor} for a
  * specific type system (e.g., "nullness").
  *
- * <p>This filter maintains a cache of results to avoid repeated bytecode parsing. It supports
- * checking both a pre-parsed {@link ClassModel} (for the class currently being transformed) and
- * loading bytecode on-demand (for dependencies).
+ * <p>This filter caches its results per class and per package in a {@link ClassificationCache} to
+ * avoid repeated bytecode parsing. It supports checking both a pre-parsed {@link ClassModel} (for
+ * the class currently being transformed) and loading bytecode on-demand (for dependencies).
  */
 public class AnnotatedForFilter implements Filter<ClassInfo> {
 
-  private final String targetSystem;
+  private final Set<String> targetSystems;
   private final ResolutionEnvironment resolutionEnvironment;
-  private final Map<CacheKey, Boolean> cache = new ConcurrentHashMap<>();
+  private final ClassificationCache cache;
   private static final String ANNOTATED_FOR_DESC = AnnotatedFor.class.descriptorString();
 
   public AnnotatedForFilter(String targetSystem) {
@@ -29,8 +32,23 @@ public class AnnotatedForFilter implements Filter<ClassInfo> {
   }
 
   public AnnotatedForFilter(String targetSystem, ResolutionEnvironment resolutionEnvironment) {
-    this.targetSystem = targetSystem;
+    this(Set.of(targetSystem), resolutionEnvironment);
+  }
+
+  /** Creates a filter accepting classes annotated for any of {@code targetSystems}. */
+  public AnnotatedForFilter(
+      Collection<String> targetSystems, ResolutionEnvironment resolutionEnvironment) {
+    this(targetSystems, resolutionEnvironment, new ClassificationCache());
+  }
+
+  /** Creates a filter that keeps its results in {@code cache}. */
+  public AnnotatedForFilter(
+      Collection<String> targetSystems,
+      ResolutionEnvironment resolutionEnvironment,
+      ClassificationCache cache) {
+    this.targetSystems = Set.copyOf(targetSystems);
     this.resolutionEnvironment = resolutionEnvironment;
+    this.cache = Objects.requireNonNull(cache, "cache");
   }
 
   /**
@@ -43,18 +61,13 @@ public class AnnotatedForFilter implements Filter<ClassInfo> {
    */
   public boolean test(ClassModel model, ClassLoader loader) {
     String className = model.thisClass().asInternalName();
-    CacheKey cacheKey = new CacheKey(className, loader);
-
-    if (cache.containsKey(cacheKey)) {
-      return cache.get(cacheKey);
+    Boolean cached = cache.annotatedClass(loader, className);
+    if (cached != null) {
+      return cached;
     }
 
-    boolean result = hasAnnotatedFor(model);
-    if (!result) {
-      result = hasPackageLevelAnnotation(className, loader);
-    }
-
-    cache.put(cacheKey, result);
+    boolean result = hasAnnotatedFor(model) || hasPackageLevelAnnotation(className, loader);
+    cache.putAnnotatedClass(loader, className, result);
     return result;
   }
 
@@ -62,30 +75,35 @@ public class AnnotatedForFilter implements Filter<ClassInfo> {
   public boolean test(ClassInfo info) {
     String className = info.internalName();
     if (className == null) return false;
-    CacheKey cacheKey = new CacheKey(className, info.loader());
-
-    if (cache.containsKey(cacheKey)) {
-      return cache.get(cacheKey);
+    Boolean cached = cache.annotatedClass(info.loader(), className);
+    if (cached != null) {
+      return cached;
     }
 
-    boolean result =
-        resolutionEnvironment
-            .loadClass(className, info.loader())
-            .map(model -> test(model, info.loader()))
-            .orElse(false);
-
-    cache.put(cacheKey, result);
-    return result;
+    Optional<ClassModel> model = resolutionEnvironment.loadClass(className, info.loader());
+    if (model.isPresent()) {
+      return test(model.get(), info.loader());
+    }
+    cache.putAnnotatedClass(info.loader(), className, false);
+    return false;
   }
 
+  /** Checks the {@code package-info} of the class's package, once per package and loader. */
   private boolean hasPackageLevelAnnotation(String className, ClassLoader loader) {
     int lastSlash = className.lastIndexOf('/');
     if (lastSlash == -1) return false;
 
     String packageName = className.substring(0, lastSlash);
-    String packageInfoClass = packageName + "/package-info";
+    Boolean cached = cache.annotatedPackage(loader, packageName);
+    if (cached != null) {
+      return cached;
+    }
 
-    return test(new ClassInfo(packageInfoClass, loader, null));
+    Optional<ClassModel> packageInfo =
+        resolutionEnvironment.loadClass(packageName + "/package-info", loader);
+    boolean result = packageInfo.isPresent() && hasAnnotatedFor(packageInfo.get());
+    cache.putAnnotatedPackage(loader, packageName, result);
+    return result;
   }
 
   private boolean hasAnnotatedFor(ClassModel model) {
@@ -100,7 +118,7 @@ public class AnnotatedForFilter implements Filter<ClassInfo> {
                       if (element.value() instanceof AnnotationValue.OfArray arr) {
                         for (AnnotationValue v : arr.values()) {
                           if (v instanceof AnnotationValue.OfString s
-                              && s.stringValue().equals(targetSystem)) {
+                              && targetSystems.contains(s.stringValue())) {
                             return true;
                           }
                         }
@@ -113,30 +131,4 @@ public class AnnotatedForFilter implements Filter<ClassInfo> {
             })
         .orElse(false);
   }
-
-  private static final class CacheKey {
-    private final String className;
-    private final ClassLoader loader;
-
-    private CacheKey(String className, ClassLoader loader) {
-      this.className = className;
-      this.loader = loader;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-      if (this == obj) {
-        return true;
-      }
-      if (!(obj instanceof CacheKey other)) {
-        return false;
-      }
-      return className.equals(other.className) && loader == other.loader;
-    }
-
-    @Override
-    public int hashCode() {
-      return 31 * className.hashCode() + System.identityHashCode(loader);
-    }
-  }
 }
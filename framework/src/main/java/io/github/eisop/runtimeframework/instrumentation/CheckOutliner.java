@@ -0,0 +1,276 @@
+package io.github.eisop.runtimeframework.instrumentation;
+
+import io.github.eisop.runtimeframework.planning.InstrumentationAction;
+import io.github.eisop.runtimeframework.planning.ValueAccess;
+import io.github.eisop.runtimeframework.runtime.InstrumentationNames;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Moves the entry and return checks of a method into synthetic static helpers once its instrumented
+ * body would outgrow the JIT inlining budget.
+ *
+ * <p>One outliner serves one class. Entry checks of a method become a single helper that receives
+ * every checked parameter, and return checks become a helper that checks and returns the returned
+ * value, shared by all return sites of the method with the same checks. Helpers are named with
+ * {@link InstrumentationNames#CHECK_HELPER_PREFIX} so violation handlers attribute their failures
+ * to the instrumented method.
+ */
+final class CheckOutliner {
+
+  /** Estimated bytes of one property test: a value load, the diagnostic and the verifier call. */
+  private static final int CHECK_SIZE_ESTIMATE = 10;
+
+  /** Estimated extra bytes of a registered site: its id, hit counter and sampling guard. */
+  private static final int SITE_SIZE_ESTIMATE = 12;
+
+  private final ClassModel classModel;
+  private final int threshold;
+  private final CheckSiteEmitter siteEmitter;
+  private final List<Helper> helpers = new ArrayList<>();
+  private final Map<HelperKey, Helper> helpersByKey = new HashMap<>();
+
+  private CheckOutliner(ClassModel classModel, int threshold, CheckSiteEmitter siteEmitter) {
+    this.classModel = classModel;
+    this.threshold = threshold;
+    this.siteEmitter = siteEmitter;
+  }
+
+  /**
+   * Returns an outliner for {@code classModel}, or {@code null} when outlining is disabled or the
+   * class cannot host private static helpers.
+   */
+  static CheckOutliner forClass(
+      ClassModel classModel, int threshold, CheckSiteEmitter siteEmitter) {
+    if (threshold <= 0
+        || (isInterface(classModel) && classModel.majorVersion() < ClassFile.JAVA_9_VERSION)) {
+      return null;
+    }
+    return new CheckOutliner(classModel, threshold, siteEmitter);
+  }
+
+  /** A helper method to generate with the checks it runs. */
+  record Helper(
+      String name,
+      MethodTypeDesc descriptor,
+      List<InstrumentationAction> actions,
+      CheckSiteEmitter.Location location) {
+
+    boolean returnsValue() {
+      return !descriptor.returnType().equals(ConstantDescs.CD_void);
+    }
+  }
+
+  private record HelperKey(
+      MethodTypeDesc descriptor,
+      List<InstrumentationAction> actions,
+      CheckSiteEmitter.Location location) {}
+
+  boolean exceedsBudget(int estimatedSize) {
+    return estimatedSize > threshold;
+  }
+
+  ClassDesc owner() {
+    return ClassDesc.ofInternalName(classModel.thisClass().asInternalName());
+  }
+
+  boolean ownerIsInterface() {
+    return isInterface(classModel);
+  }
+
+  List<Helper> helpers() {
+    return helpers;
+  }
+
+  /** Estimates the bytecode emitted inline for {@code actions}. */
+  int estimateSize(List<InstrumentationAction> actions) {
+    int size = 0;
+    for (InstrumentationAction action : actions) {
+      switch (action) {
+        case InstrumentationAction.ValueCheckAction check -> {
+          size += CHECK_SIZE_ESTIMATE * check.contract().requirements().size();
+          size += siteEmitter.registersSite(check.mode()) ? SITE_SIZE_ESTIMATE : 0;
+        }
+        case InstrumentationAction.ArrayElementsCheckAction check -> {
+          size += CHECK_SIZE_ESTIMATE * check.componentContract().requirements().size();
+          size += siteEmitter.registersSite(check.mode()) ? SITE_SIZE_ESTIMATE : 0;
+        }
+        case InstrumentationAction.LifecycleHookAction ignored -> size += CHECK_SIZE_ESTIMATE;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Registers a helper running the entry checks of a method and returns it with the parameter slots
+   * the caller must load as its arguments, or empty when a check does not read a parameter slot.
+   * Lifecycle hooks are never outlined.
+   */
+  Optional<EntryHelper> entryHelper(
+      List<ClassDesc> parameterTypes,
+      int firstParameterSlot,
+      List<InstrumentationAction> actions,
+      CheckSiteEmitter.Location location) {
+    Map<Integer, ClassDesc> typesBySlot = new HashMap<>();
+    int slot = firstParameterSlot;
+    for (ClassDesc parameterType : parameterTypes) {
+      typesBySlot.put(slot, parameterType);
+      slot += TypeKind.from(parameterType).slotSize();
+    }
+
+    List<Integer> argumentSlots = new ArrayList<>();
+    List<ClassDesc> argumentTypes = new ArrayList<>();
+    Map<Integer, Integer> helperSlots = new HashMap<>();
+    List<InstrumentationAction> remapped = new ArrayList<>(actions.size());
+    for (InstrumentationAction action : actions) {
+      Optional<Integer> sourceSlot = localSlot(action);
+      if (action instanceof InstrumentationAction.LifecycleHookAction
+          || sourceSlot.isEmpty()
+          || !typesBySlot.containsKey(sourceSlot.get())) {
+        return Optional.empty();
+      }
+      int parameterSlot = sourceSlot.get();
+      Integer helperSlot = helperSlots.get(parameterSlot);
+      if (helperSlot == null) {
+        helperSlot = helperSlotCount(argumentTypes);
+        helperSlots.put(parameterSlot, helperSlot);
+        argumentSlots.add(parameterSlot);
+        argumentTypes.add(typesBySlot.get(parameterSlot));
+      }
+      remapped.add(withLocalSlot(action, helperSlot));
+    }
+    MethodTypeDesc descriptor = MethodTypeDesc.of(ConstantDescs.CD_void, argumentTypes);
+    return Optional.of(
+        new EntryHelper(register(descriptor, remapped, location), List.copyOf(argumentSlots)));
+  }
+
+  /** A registered entry helper and the caller's parameter slots it takes as arguments. */
+  record EntryHelper(Helper helper, List<Integer> argumentSlots) {}
+
+  /**
+   * Registers a helper that runs return checks on its argument and returns it, or returns empty
+   * when a check does not read the returned value from the top of the stack.
+   */
+  Optional<Helper> returnHelper(
+      ClassDesc returnType,
+      List<InstrumentationAction> actions,
+      CheckSiteEmitter.Location location) {
+    for (InstrumentationAction action : actions) {
+      if (action instanceof InstrumentationAction.LifecycleHookAction
+          || !(valueAccess(action) instanceof ValueAccess.OperandStack stack)
+          || stack.depthFromTop() != 0) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(
+        register(
+            MethodTypeDesc.of(returnType, returnType),
+            actions.stream().map(EnforcementInstrumenter::atFilterEntry).toList(),
+            location));
+  }
+
+  private Helper register(
+      MethodTypeDesc descriptor,
+      List<InstrumentationAction> actions,
+      CheckSiteEmitter.Location location) {
+    boolean distinctSites =
+        actions.stream()
+            .anyMatch(
+                action ->
+                    switch (action) {
+                      case InstrumentationAction.ValueCheckAction check ->
+                          siteEmitter.registersSite(check.mode());
+                      case InstrumentationAction.ArrayElementsCheckAction check ->
+                          siteEmitter.registersSite(check.mode());
+                      case InstrumentationAction.LifecycleHookAction ignored -> false;
+                    });
+    HelperKey key = new HelperKey(descriptor, actions, distinctSites ? location : null);
+    return helpersByKey.computeIfAbsent(
+        key,
+        ignored -> {
+          Helper helper = new Helper(nextHelperName(descriptor), descriptor, actions, location);
+          helpers.add(helper);
+          return helper;
+        });
+  }
+
+  private String nextHelperName(MethodTypeDesc descriptor) {
+    int index = helpers.size();
+    while (true) {
+      String candidate = InstrumentationNames.CHECK_HELPER_PREFIX + index;
+      boolean exists =
+          classModel.methods().stream()
+              .anyMatch(
+                  method ->
+                      method.methodName().stringValue().equals(candidate)
+                          && method
+                              .methodTypeSymbol()
+                              .descriptorString()
+                              .equals(descriptor.descriptorString()));
+      if (!exists) {
+        return candidate;
+      }
+      index++;
+    }
+  }
+
+  private static int helperSlotCount(List<ClassDesc> argumentTypes) {
+    int slots = 0;
+    for (ClassDesc argumentType : argumentTypes) {
+      slots += TypeKind.from(argumentType).slotSize();
+    }
+    return slots;
+  }
+
+  private static Optional<Integer> localSlot(InstrumentationAction action) {
+    return valueAccess(action) instanceof ValueAccess.LocalSlot localSlot
+        ? Optional.of(localSlot.slot())
+        : Optional.empty();
+  }
+
+  private static ValueAccess valueAccess(InstrumentationAction action) {
+    return switch (action) {
+      case InstrumentationAction.ValueCheckAction check -> check.valueAccess();
+      case InstrumentationAction.ArrayElementsCheckAction check -> check.valueAccess();
+      case InstrumentationAction.LifecycleHookAction hook -> hook.valueAccess();
+    };
+  }
+
+  private static InstrumentationAction withLocalSlot(InstrumentationAction action, int slot) {
+    ValueAccess access = new ValueAccess.LocalSlot(slot);
+    return switch (action) {
+      case InstrumentationAction.ValueCheckAction check ->
+          new InstrumentationAction.ValueCheckAction(
+              check.injectionPoint(),
+              access,
+              check.contract(),
+              check.attribution(),
+              check.diagnostic(),
+              check.mode());
+      case InstrumentationAction.ArrayElementsCheckAction check ->
+          new InstrumentationAction.ArrayElementsCheckAction(
+              check.injectionPoint(),
+              access,
+              check.componentContract(),
+              check.attribution(),
+              check.diagnostic(),
+              check.mode());
+      case InstrumentationAction.LifecycleHookAction hook ->
+          new InstrumentationAction.LifecycleHookAction(hook.injectionPoint(), access, hook.hook());
+    };
+  }
+
+  private static boolean isInterface(ClassModel classModel) {
+    return Modifier.isInterface(classModel.flags().flagsMask());
+  }
+}
@@ -0,0 +1,107 @@
+package io.github.eisop.runtimeframework.instrumentation;
+
+import io.github.eisop.runtimeframework.planning.CheckMode;
+import io.github.eisop.runtimeframework.planning.DiagnosticSpec;
+import io.github.eisop.runtimeframework.planning.InjectionPoint;
+import io.github.eisop.runtimeframework.runtime.CheckSampling;
+import io.github.eisop.runtimeframework.runtime.CheckSites;
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.MethodTypeDesc;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Emits the per-site scaffolding around the property test of a check action.
+ *
+ * <p>Full checks are emitted unchanged unless hit counting is enabled. Otherwise the check is
+ * registered as a site with {@link CheckSites}, its diagnostic is bound to the site id, and the
+ * check is preceded by a hit counter and, for sampled checks, a sampling guard.
+ */
+final class CheckSiteEmitter {
+
+  static final CheckSiteEmitter DEFAULT = new CheckSiteEmitter(false);
+
+  private static final ClassDesc CHECK_SITES = ClassDesc.of(CheckSites.class.getName());
+  private static final ClassDesc CHECK_SAMPLING = ClassDesc.of(CheckSampling.class.getName());
+  private static final MethodTypeDesc HIT_DESCRIPTOR =
+      MethodTypeDesc.of(ConstantDescs.CD_void, ConstantDescs.CD_int);
+  private static final MethodTypeDesc SHOULD_CHECK_DESCRIPTOR =
+      MethodTypeDesc.of(ConstantDescs.CD_boolean, ConstantDescs.CD_int);
+
+  private final boolean countHits;
+
+  CheckSiteEmitter(boolean countHits) {
+    this.countHits = countHits;
+  }
+
+  /** Source position of an emitted check site. {@code sourceFile} is {@code null} when unknown. */
+  record Location(
+      String owner, String sourceFile, String methodName, String methodDescriptor, int line) {
+    Location {
+      Objects.requireNonNull(owner, "owner");
+      Objects.requireNonNull(methodName, "methodName");
+      Objects.requireNonNull(methodDescriptor, "methodDescriptor");
+    }
+  }
+
+  /** Returns the source file recorded in {@code classModel}, or {@code null} when there is none. */
+  static String sourceFile(ClassModel classModel) {
+    return classModel
+        .findAttribute(Attributes.sourceFile())
+        .map(attribute -> attribute.sourceFile().stringValue())
+        .orElse(null);
+  }
+
+  /** Returns whether a check with {@code mode} is registered as its own site when emitted. */
+  boolean registersSite(CheckMode mode) {
+    return mode != CheckMode.FULL || countHits;
+  }
+
+  /**
+   * Emits {@code check} for an action with the given mode, diagnostic and injection point. The
+   * check must leave the operand stack as it found it.
+   */
+  void emit(
+      CodeBuilder builder,
+      CheckMode mode,
+      DiagnosticSpec diagnostic,
+      InjectionPoint injectionPoint,
+      Location location,
+      Consumer<DiagnosticSpec> check) {
+    if (!registersSite(mode)) {
+      check.accept(diagnostic);
+      return;
+    }
+    int siteId =
+        CheckSites.register(
+            location.owner(),
+            location.sourceFile(),
+            location.methodName(),
+            location.methodDescriptor(),
+            location.line(),
+            diagnostic.displayName(),
+            injectionPoint.kind() + "@" + injectionPoint.bytecodeIndex());
+    if (countHits) {
+      builder.loadConstant(siteId);
+      builder.invokestatic(CHECK_SITES, "hit", HIT_DESCRIPTOR);
+    }
+    if (mode == CheckMode.FULL) {
+      check.accept(diagnostic.withSiteId(siteId));
+      return;
+    }
+    Label skip = builder.newLabel();
+    builder.loadConstant(siteId);
+    builder.invokestatic(
+        CHECK_SAMPLING,
+        mode == CheckMode.HOT_SAMPLED ? "shouldCheckHotSite" : "shouldCheck",
+        SHOULD_CHECK_DESCRIPTOR);
+    builder.ifeq(skip);
+    check.accept(diagnostic.withSiteId(siteId));
+    builder.labelBinding(skip);
+  }
+}
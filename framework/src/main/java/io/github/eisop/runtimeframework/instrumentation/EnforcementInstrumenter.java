@@ -6,6 +6,7 @@ import io.github.eisop.runtimeframework.planning.BridgePlan;
 import io.github.eisop.runtimeframework.planning.BytecodeLocation;
 import io.github.eisop.runtimeframework.planning.ClassContext;
 import io.github.eisop.runtimeframework.planning.EnforcementPlanner;
+import io.github.eisop.runtimeframework.planning.InjectionPoint;
 import io.github.eisop.runtimeframework.planning.InjectionPoint.Kind;
 import io.github.eisop.runtimeframework.planning.InstrumentationAction;
 import io.github.eisop.runtimeframework.planning.MethodPlan;
@@ -15,6 +16,8 @@ import io.github.eisop.runtimeframework.resolution.HierarchyResolver;
 import io.github.eisop.runtimeframework.resolution.ParentMethod;
 import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
 import io.github.eisop.runtimeframework.runtime.BoundaryBootstraps;
+import io.github.eisop.runtimeframework.runtime.CheckedMarker;
+import io.github.eisop.runtimeframework.runtime.InstrumentationNames;
 import io.github.eisop.runtimeframework.semantics.PropertyEmitter;
 import java.lang.classfile.ClassBuilder;
 import java.lang.classfile.ClassElement;
@@ -23,11 +26,13 @@ import java.lang.classfile.ClassTransform;
 import java.lang.classfile.CodeBuilder;
 import java.lang.classfile.CodeElement;
 import java.lang.classfile.CodeTransform;
+import java.lang.classfile.Interfaces;
 import java.lang.classfile.MethodElement;
 import java.lang.classfile.MethodModel;
 import java.lang.classfile.Opcode;
 import java.lang.classfile.TypeKind;
 import java.lang.classfile.attribute.CodeAttribute;
+import java.lang.classfile.constantpool.ClassEntry;
 import java.lang.classfile.instruction.InvokeInstruction;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.ConstantDescs;
@@ -37,7 +42,9 @@ import java.lang.constant.MethodTypeDesc;
 import java.lang.reflect.AccessFlag;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -46,7 +53,24 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
   private static final ClassDesc ASSERTION_ERROR = ClassDesc.of("java.lang.AssertionError");
   private static final MethodTypeDesc ASSERTION_ERROR_STRING_CTOR =
       MethodTypeDesc.of(ConstantDescs.CD_void, ConstantDescs.CD_String);
-  private static final String RETURN_FILTER_PREFIX = "$runtimeframework$indyReturnCheck$";
+  private static final ClassDesc CHECKED_MARKER = ClassDesc.of(CheckedMarker.class.getName());
+
+  // Adds CheckedMarker to a checked class whichever enforcement transform instruments it.
+  private static final ClassTransform CHECKED_MARKER_TRANSFORM =
+      (builder, element) -> {
+        if (element instanceof Interfaces interfaces) {
+          builder.withInterfaces(withCheckedMarker(builder, interfaces));
+        } else {
+          builder.with(element);
+        }
+      };
+
+  /**
+   * Return filters are named as check helpers, so handlers skip their frame and report a violation
+   * at the invokedynamic of the call, the frame that runs the filter.
+   */
+  private static final String RETURN_FILTER_PREFIX =
+      InstrumentationNames.CHECK_HELPER_PREFIX + "return$";
 
   private final EnforcementPlanner planner;
   private final HierarchyResolver hierarchyResolver;
@@ -54,6 +78,7 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
   private final RuntimePolicy policy;
   private final ResolutionEnvironment resolutionEnvironment;
   private final RuntimeOptions options;
+  private final CheckSiteEmitter siteEmitter;
 
   public EnforcementInstrumenter(EnforcementPlanner planner, HierarchyResolver hierarchyResolver) {
     this(planner, hierarchyResolver, null);
@@ -100,12 +125,13 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
     this.policy = policy;
     this.resolutionEnvironment = resolutionEnvironment;
     this.options = Objects.requireNonNull(options, "options");
+    this.siteEmitter = new CheckSiteEmitter(options.siteProfileEnabled());
   }
 
   @Override
   protected CodeTransform createCodeTransform(
       ClassModel classModel, MethodModel methodModel, boolean isCheckedScope, ClassLoader loader) {
-    return createCodeTransform(classModel, methodModel, isCheckedScope, loader, null);
+    return createCodeTransform(classModel, methodModel, isCheckedScope, loader, null, null);
   }
 
   private CodeTransform createCodeTransform(
@@ -113,7 +139,8 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
       MethodModel methodModel,
       boolean isCheckedScope,
       ClassLoader loader,
-      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry) {
+      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry,
+      CheckOutliner outliner) {
     return new EnforcementTransform(
         planner,
         propertyEmitter,
@@ -125,14 +152,35 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
         resolutionEnvironment,
         options.indyBoundaryEnabled(),
         true,
-        returnCheckRegistry);
+        returnCheckRegistry,
+        siteEmitter,
+        outliner);
   }
 
   @Override
   public ClassTransform asClassTransform(
       ClassModel classModel, ClassLoader loader, boolean isCheckedScope) {
+    ClassTransform transform = asEnforcementClassTransform(classModel, loader, isCheckedScope);
+    if (options.checkedMarkerInterfaceEnabled() && isCheckedScope && !isInterface(classModel)) {
+      transform = transform.andThen(CHECKED_MARKER_TRANSFORM);
+    }
+    if (!options.commitTrackingEnabled() || !isCheckedScope || isInterface(classModel)) {
+      return transform;
+    }
+    return transform.andThen(
+        ClassTransform.endHandler(
+            builder -> LifecycleHookEmitter.emitConstructingField(builder, classModel)));
+  }
+
+  private ClassTransform asEnforcementClassTransform(
+      ClassModel classModel, ClassLoader loader, boolean isCheckedScope) {
+    CheckOutliner outliner =
+        CheckOutliner.forClass(classModel, options.outlineThreshold(), siteEmitter);
     if (!options.indyBoundaryEnabled() || !isCheckedScope) {
-      return super.asClassTransform(classModel, loader, isCheckedScope);
+      if (outliner == null) {
+        return super.asClassTransform(classModel, loader, isCheckedScope);
+      }
+      return asOutliningClassTransform(classModel, loader, isCheckedScope, outliner);
     }
 
     List<GeneratedReturnFilter> returnFilters = new ArrayList<>();
@@ -141,7 +189,7 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
 
     if (isInterface(classModel)) {
       return asCheckedInterfaceTransform(
-          classModel, loader, isCheckedScope, returnFilters, returnCheckRegistry);
+          classModel, loader, isCheckedScope, returnFilters, returnCheckRegistry, outliner);
     }
 
     return new ClassTransform() {
@@ -150,10 +198,16 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
         if (classElement instanceof MethodModel methodModel && methodModel.code().isPresent()) {
           if (isSplitCandidate(methodModel) && !hasSafeMethodCollision(classModel, methodModel)) {
             emitSplitMethodByKind(
-                classBuilder, classModel, methodModel, loader, returnCheckRegistry);
+                classBuilder, classModel, methodModel, loader, returnCheckRegistry, outliner);
           } else {
             transformMethod(
-                classBuilder, classModel, methodModel, loader, isCheckedScope, returnCheckRegistry);
+                classBuilder,
+                classModel,
+                methodModel,
+                loader,
+                isCheckedScope,
+                returnCheckRegistry,
+                outliner);
           }
         } else if (classElement instanceof MethodModel methodModel) {
           classBuilder.with(classElement);
@@ -172,18 +226,47 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
       @Override
       public void atEnd(ClassBuilder builder) {
         emitReturnFilterMethods(builder, returnFilters);
+        emitOutlinedCheckMethods(builder, outliner);
         emitCheckedClassMarker(builder, classModel);
         generateBridgeMethods(builder, classModel, loader);
       }
     };
   }
 
+  /**
+   * Returns the transform used without split methods when checks may be outlined. It instruments
+   * method bodies in place, like the default transform, and adds the outlined check helpers.
+   */
+  private ClassTransform asOutliningClassTransform(
+      ClassModel classModel, ClassLoader loader, boolean isCheckedScope, CheckOutliner outliner) {
+    return new ClassTransform() {
+      @Override
+      public void accept(ClassBuilder classBuilder, ClassElement classElement) {
+        if (classElement instanceof MethodModel methodModel && methodModel.code().isPresent()) {
+          transformMethod(
+              classBuilder, classModel, methodModel, loader, isCheckedScope, null, outliner);
+        } else {
+          classBuilder.with(classElement);
+        }
+      }
+
+      @Override
+      public void atEnd(ClassBuilder builder) {
+        emitOutlinedCheckMethods(builder, outliner);
+        if (isCheckedScope) {
+          generateBridgeMethods(builder, classModel, loader);
+        }
+      }
+    };
+  }
+
   private ClassTransform asCheckedInterfaceTransform(
       ClassModel classModel,
       ClassLoader loader,
       boolean isCheckedScope,
       List<GeneratedReturnFilter> returnFilters,
-      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry) {
+      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry,
+      CheckOutliner outliner) {
     return new ClassTransform() {
       @Override
       public void accept(ClassBuilder classBuilder, ClassElement classElement) {
@@ -192,7 +275,7 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
           if (methodModel.code().isPresent()) {
             if (isSplitCandidate(methodModel) && !hasSafeCollision) {
               emitSplitMethodByKind(
-                  classBuilder, classModel, methodModel, loader, returnCheckRegistry);
+                  classBuilder, classModel, methodModel, loader, returnCheckRegistry, outliner);
             } else {
               transformMethod(
                   classBuilder,
@@ -200,7 +283,8 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
                   methodModel,
                   loader,
                   isCheckedScope,
-                  returnCheckRegistry);
+                  returnCheckRegistry,
+                  outliner);
             }
           } else {
             classBuilder.with(classElement);
@@ -219,6 +303,7 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
       @Override
       public void atEnd(ClassBuilder builder) {
         emitReturnFilterMethods(builder, returnFilters);
+        emitOutlinedCheckMethods(builder, outliner);
       }
     };
   }
@@ -229,7 +314,8 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
       MethodModel methodModel,
       ClassLoader loader,
       boolean isCheckedScope,
-      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry) {
+      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry,
+      CheckOutliner outliner) {
     classBuilder.transformMethod(
         methodModel,
         (methodBuilder, methodElement) -> {
@@ -237,7 +323,12 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
             methodBuilder.transformCode(
                 codeModel,
                 createCodeTransform(
-                    classModel, methodModel, isCheckedScope, loader, returnCheckRegistry));
+                    classModel,
+                    methodModel,
+                    isCheckedScope,
+                    loader,
+                    returnCheckRegistry,
+                    outliner));
           } else {
             methodBuilder.with(methodElement);
           }
@@ -249,15 +340,16 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
       ClassModel classModel,
       MethodModel methodModel,
       ClassLoader loader,
-      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry) {
+      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry,
+      CheckOutliner outliner) {
     if (isBridgeSplitCandidate(methodModel)) {
-      emitSplitBridgeMethod(builder, classModel, methodModel, loader);
+      emitSplitBridgeMethod(builder, classModel, methodModel, loader, outliner);
     } else {
-      emitSplitMethod(builder, classModel, methodModel, loader, returnCheckRegistry);
+      emitSplitMethod(builder, classModel, methodModel, loader, returnCheckRegistry, outliner);
     }
   }
 
-  private boolean hasSafeMethodCollision(ClassModel classModel, MethodModel methodModel) {
+  private static boolean hasSafeMethodCollision(ClassModel classModel, MethodModel methodModel) {
     String safeName = safeMethodName(methodModel.methodName().stringValue());
     String descriptor = methodModel.methodType().stringValue();
     return classModel.methods().stream()
@@ -272,7 +364,8 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
       ClassModel classModel,
       MethodModel methodModel,
       ClassLoader loader,
-      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry) {
+      EnforcementTransform.IndyReturnCheckRegistry returnCheckRegistry,
+      CheckOutliner outliner) {
     String originalName = methodModel.methodName().stringValue();
     MethodTypeDesc desc = methodModel.methodTypeSymbol();
     int originalFlags = methodModel.flags().flagsMask();
@@ -301,7 +394,9 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
                               resolutionEnvironment,
                               options.indyBoundaryEnabled(),
                               false,
-                              returnCheckRegistry)));
+                              returnCheckRegistry,
+                              siteEmitter,
+                              outliner)));
         });
 
     builder.withMethod(
@@ -315,12 +410,17 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
             }
           }
           wrapperBuilder.withCode(
-              codeBuilder -> emitWrapperBody(codeBuilder, classModel, methodModel, loader));
+              codeBuilder ->
+                  emitWrapperBody(codeBuilder, classModel, methodModel, loader, outliner));
         });
   }
 
   private void emitSplitBridgeMethod(
-      ClassBuilder builder, ClassModel classModel, MethodModel methodModel, ClassLoader loader) {
+      ClassBuilder builder,
+      ClassModel classModel,
+      MethodModel methodModel,
+      ClassLoader loader,
+      CheckOutliner outliner) {
     String originalName = methodModel.methodName().stringValue();
     MethodTypeDesc desc = methodModel.methodTypeSymbol();
     int originalFlags = methodModel.flags().flagsMask();
@@ -351,12 +451,17 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
             }
           }
           wrapperBuilder.withCode(
-              codeBuilder -> emitWrapperBody(codeBuilder, classModel, methodModel, loader));
+              codeBuilder ->
+                  emitWrapperBody(codeBuilder, classModel, methodModel, loader, outliner));
         });
   }
 
   private void emitWrapperBody(
-      CodeBuilder builder, ClassModel classModel, MethodModel methodModel, ClassLoader loader) {
+      CodeBuilder builder,
+      ClassModel classModel,
+      MethodModel methodModel,
+      ClassLoader loader,
+      CheckOutliner outliner) {
     new EnforcementTransform(
             planner,
             propertyEmitter,
@@ -367,8 +472,11 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
             policy,
             resolutionEnvironment,
             options.indyBoundaryEnabled(),
-            false)
-        .emitParameterChecks(builder);
+            false,
+            null,
+            siteEmitter,
+            outliner)
+        .emitWrapperParameterChecks(builder);
 
     boolean isStatic = Modifier.isStatic(methodModel.flags().flagsMask());
     if (!isStatic) {
@@ -422,14 +530,70 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
                         .athrow()));
   }
 
+  /**
+   * Returns a registry that generates one return filter per distinct (descriptor, checks) in {@code
+   * classModel}, or per call site when its checks are registered as sites.
+   *
+   * <p>A filter carries no source line: a violation it raises is located at the frame that called
+   * it, the invokedynamic of the call, so calls to the same method on any line share a filter.
+   */
   private EnforcementTransform.IndyReturnCheckRegistry newReturnFilterRegistry(
       ClassModel classModel, List<GeneratedReturnFilter> returnFilters) {
     ClassDesc owner = ClassDesc.ofInternalName(classModel.thisClass().asInternalName());
-    return (returnType, plan, location) -> {
+    Map<ReturnFilterKey, MethodHandleDesc> filtersByKey = new HashMap<>();
+    return (returnType, plan, siteLocation) -> {
       MethodTypeDesc descriptor = MethodTypeDesc.of(returnType, returnType);
-      String name = nextReturnFilterName(classModel, returnFilters, descriptor);
-      returnFilters.add(new GeneratedReturnFilter(name, descriptor, plan, location));
-      return MethodHandleDesc.ofMethod(DirectMethodHandleDesc.Kind.STATIC, owner, name, descriptor);
+      ReturnFilterKey key =
+          new ReturnFilterKey(
+              descriptor,
+              plan.actions().stream().map(EnforcementInstrumenter::atFilterEntry).toList(),
+              registersSites(plan) ? siteLocation : null);
+      return filtersByKey.computeIfAbsent(
+          key,
+          ignored -> {
+            String name = nextReturnFilterName(classModel, returnFilters, descriptor);
+            returnFilters.add(new GeneratedReturnFilter(name, descriptor, plan, siteLocation));
+            return MethodHandleDesc.ofMethod(
+                DirectMethodHandleDesc.Kind.STATIC, owner, name, descriptor);
+          });
+    };
+  }
+
+  private boolean registersSites(MethodPlan plan) {
+    return plan.actions().stream()
+        .anyMatch(
+            action ->
+                switch (action) {
+                  case InstrumentationAction.ValueCheckAction valueCheckAction ->
+                      siteEmitter.registersSite(valueCheckAction.mode());
+                  case InstrumentationAction.ArrayElementsCheckAction elementsCheckAction ->
+                      siteEmitter.registersSite(elementsCheckAction.mode());
+                  case InstrumentationAction.LifecycleHookAction ignored -> false;
+                });
+  }
+
+  /** Drops the call-site bytecode index, which a return filter body does not depend on. */
+  static InstrumentationAction atFilterEntry(InstrumentationAction action) {
+    InjectionPoint entry = InjectionPoint.methodEntry();
+    return switch (action) {
+      case InstrumentationAction.ValueCheckAction check ->
+          new InstrumentationAction.ValueCheckAction(
+              entry,
+              check.valueAccess(),
+              check.contract(),
+              check.attribution(),
+              check.diagnostic(),
+              check.mode());
+      case InstrumentationAction.ArrayElementsCheckAction check ->
+          new InstrumentationAction.ArrayElementsCheckAction(
+              entry,
+              check.valueAccess(),
+              check.componentContract(),
+              check.attribution(),
+              check.diagnostic(),
+              check.mode());
+      case InstrumentationAction.LifecycleHookAction hook ->
+          new InstrumentationAction.LifecycleHookAction(entry, hook.valueAccess(), hook.hook());
     };
   }
 
@@ -473,28 +637,51 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
           methodBuilder ->
               methodBuilder.withCode(
                   codeBuilder -> {
-                    if (filter.location().hasSourceLine()) {
-                      codeBuilder.lineNumber(filter.location().sourceLine());
-                    }
                     ClassDesc returnType = filter.descriptor().returnType();
                     loadLocal(codeBuilder, TypeKind.from(returnType), 0);
-                    emitReturnFilterActions(codeBuilder, filter.plan());
+                    emitReturnFilterActions(codeBuilder, filter.plan(), filter.siteLocation());
                     returnResult(codeBuilder, returnType);
                   }));
     }
   }
 
-  private void emitReturnFilterActions(CodeBuilder builder, MethodPlan plan) {
+  private void emitReturnFilterActions(
+      CodeBuilder builder, MethodPlan plan, CheckSiteEmitter.Location location) {
     for (InstrumentationAction action : plan.actions()) {
       switch (action) {
         case InstrumentationAction.ValueCheckAction valueCheckAction ->
-            emitValueCheckAction(builder, valueCheckAction);
+            emitValueCheckAction(builder, valueCheckAction, location);
+        case InstrumentationAction.ArrayElementsCheckAction elementsCheckAction ->
+            emitElementsCheckAction(builder, elementsCheckAction, location);
         case InstrumentationAction.LifecycleHookAction ignored ->
-            throw new IllegalStateException("LifecycleHookAction emission is not implemented yet");
+            throw new IllegalStateException("Lifecycle hooks need a receiver in a static helper");
       }
     }
   }
 
+  private void emitOutlinedCheckMethods(ClassBuilder builder, CheckOutliner outliner) {
+    if (outliner == null) {
+      return;
+    }
+    for (CheckOutliner.Helper helper : outliner.helpers()) {
+      builder.withMethod(
+          helper.name(),
+          helper.descriptor(),
+          AccessFlag.PRIVATE.mask() | AccessFlag.STATIC.mask() | AccessFlag.SYNTHETIC.mask(),
+          methodBuilder ->
+              methodBuilder.withCode(
+                  codeBuilder -> {
+                    ClassDesc returnType = helper.descriptor().returnType();
+                    if (helper.returnsValue()) {
+                      loadLocal(codeBuilder, TypeKind.from(returnType), 0);
+                    }
+                    emitReturnFilterActions(
+                        codeBuilder, new MethodPlan(helper.actions()), helper.location());
+                    returnResult(codeBuilder, returnType);
+                  }));
+    }
+  }
+
   private void emitCheckedClassMarker(ClassBuilder builder, ClassModel classModel) {
     boolean markerExists =
         classModel.fields().stream()
@@ -512,6 +699,26 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
     }
   }
 
+  private static List<ClassEntry> withCheckedMarker(ClassBuilder builder, Interfaces interfaces) {
+    List<ClassEntry> entries = new ArrayList<>(interfaces.interfaces());
+    boolean markerPresent =
+        entries.stream().anyMatch(entry -> entry.asSymbol().equals(CHECKED_MARKER));
+    if (!markerPresent) {
+      entries.add(builder.constantPool().classEntry(CHECKED_MARKER));
+    }
+    return entries;
+  }
+
+  /**
+   * Returns whether the transformed {@code owner} will declare a safe entry for {@code method}: a
+   * split body or an abstract safe stub, not displaced by a method the class already declares under
+   * the safe name.
+   */
+  static boolean hasSafeEntry(ClassModel owner, MethodModel method) {
+    return (isSplitCandidate(method) || isAbstractClassSafeStubCandidate(method))
+        && !hasSafeMethodCollision(owner, method);
+  }
+
   static boolean isSplitCandidate(MethodModel method) {
     return isRegularSplitCandidate(method) || isBridgeSplitCandidate(method);
   }
@@ -578,8 +785,21 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
     return Modifier.isInterface(classModel.flags().flagsMask());
   }
 
+  /** A return filter method to generate, with the call site it checks for site registration. */
   private record GeneratedReturnFilter(
-      String name, MethodTypeDesc descriptor, MethodPlan plan, BytecodeLocation location) {}
+      String name,
+      MethodTypeDesc descriptor,
+      MethodPlan plan,
+      CheckSiteEmitter.Location siteLocation) {}
+
+  /**
+   * Identity of a return filter body within one class. Filters with the same checks share a method
+   * unless their checks are registered as distinct sites.
+   */
+  private record ReturnFilterKey(
+      MethodTypeDesc descriptor,
+      List<InstrumentationAction> actions,
+      CheckSiteEmitter.Location siteLocation) {}
 
   private final class BridgeSafeTransform implements CodeTransform {
     private final MethodModel bridgeMethod;
@@ -618,7 +838,7 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
       }
 
       String ownerInternalName = invoke.owner().asInternalName();
-      if (policy == null || !policy.isChecked(new ClassInfo(ownerInternalName, loader, null))) {
+      if (policy == null || !policy.isChecked(ownerInternalName, loader)) {
         return false;
       }
 
@@ -647,14 +867,17 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
     private Optional<ResolutionEnvironment.ResolvedMethod> safeForwardTarget(
         String ownerInternalName, String methodName, MethodTypeDesc descriptor, Opcode opcode) {
       return resolveSafeForwardTarget(ownerInternalName, methodName, descriptor, opcode)
-          .filter(
-              method ->
-                  policy.isChecked(
-                      new ClassInfo(method.ownerInternalName(), loader, null), method.ownerModel()))
+          .filter(method -> isSplitClass(method.ownerInternalName(), method.ownerModel()))
           .filter(method -> EnforcementInstrumenter.isSplitCandidate(method.method()))
           .filter(method -> methodMatchesOpcode(method.method(), opcode));
     }
 
+    /** Returns whether the loader that defines {@code internalName} splits it into safe entries. */
+    private boolean isSplitClass(String internalName, ClassModel model) {
+      ClassLoader definingLoader = resolutionEnvironment.definingLoader(internalName, loader);
+      return policy.isChecked(new ClassInfo(internalName, definingLoader, null), model);
+    }
+
     private Optional<ResolutionEnvironment.ResolvedMethod> resolveSafeForwardTarget(
         String ownerInternalName, String methodName, MethodTypeDesc descriptor, Opcode opcode) {
       return switch (opcode) {
@@ -701,16 +924,23 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
             ClassClassification.CHECKED);
     for (ParentMethod parentMethod : hierarchyResolver.resolveUncheckedMethods(model, loader)) {
       if (planner.shouldGenerateBridge(classContext, parentMethod)) {
-        emitBridge(builder, planner.planBridge(classContext, parentMethod));
+        emitBridge(builder, model, planner.planBridge(classContext, parentMethod));
       }
     }
   }
 
-  private void emitBridge(ClassBuilder builder, BridgePlan plan) {
+  private void emitBridge(ClassBuilder builder, ClassModel model, BridgePlan plan) {
     ParentMethod parentMethod = plan.parentMethod();
     MethodModel method = parentMethod.method();
     String methodName = method.methodName().stringValue();
     MethodTypeDesc desc = method.methodTypeSymbol();
+    CheckSiteEmitter.Location location =
+        new CheckSiteEmitter.Location(
+            model.thisClass().asInternalName(),
+            CheckSiteEmitter.sourceFile(model),
+            methodName,
+            desc.descriptorString(),
+            BytecodeLocation.UNKNOWN_LINE);
 
     builder.withMethod(
         methodName,
@@ -721,7 +951,7 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
               codeBuilder -> {
                 List<ClassDesc> paramTypes = desc.parameterList();
 
-                emitBridgeActions(codeBuilder, plan, BridgeActionTiming.ENTRY);
+                emitBridgeActions(codeBuilder, plan, BridgeActionTiming.ENTRY, location);
 
                 codeBuilder.aload(0);
                 int slotIndex = 1;
@@ -736,7 +966,7 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
                         parentMethod.owner().thisClass().asInternalName().replace('/', '.'));
                 codeBuilder.invokespecial(parentDesc, methodName, desc);
 
-                emitBridgeActions(codeBuilder, plan, BridgeActionTiming.EXIT);
+                emitBridgeActions(codeBuilder, plan, BridgeActionTiming.EXIT, location);
 
                 returnResult(
                     codeBuilder, ClassDesc.ofDescriptor(desc.returnType().descriptorString()));
@@ -744,32 +974,71 @@ public class EnforcementInstrumenter extends RuntimeInstrumenter {
         });
   }
 
-  private void emitBridgeActions(CodeBuilder builder, BridgePlan plan, BridgeActionTiming timing) {
+  private void emitBridgeActions(
+      CodeBuilder builder,
+      BridgePlan plan,
+      BridgeActionTiming timing,
+      CheckSiteEmitter.Location location) {
     for (InstrumentationAction action : plan.actions()) {
       if (timing.matches(action)) {
-        emitBridgeAction(builder, action);
+        emitBridgeAction(builder, action, location);
       }
     }
   }
 
-  private void emitBridgeAction(CodeBuilder builder, InstrumentationAction action) {
+  private void emitBridgeAction(
+      CodeBuilder builder, InstrumentationAction action, CheckSiteEmitter.Location location) {
     switch (action) {
       case InstrumentationAction.ValueCheckAction valueCheckAction ->
-          emitValueCheckAction(builder, valueCheckAction);
-      case InstrumentationAction.LifecycleHookAction ignored ->
-          throw new IllegalStateException("LifecycleHookAction emission is not implemented yet");
+          emitValueCheckAction(builder, valueCheckAction, location);
+      case InstrumentationAction.ArrayElementsCheckAction elementsCheckAction ->
+          emitElementsCheckAction(builder, elementsCheckAction, location);
+      case InstrumentationAction.LifecycleHookAction hook ->
+          LifecycleHookEmitter.emit(builder, hook, location, true);
     }
   }
 
   private void emitValueCheckAction(
-      CodeBuilder builder, InstrumentationAction.ValueCheckAction action) {
+      CodeBuilder builder,
+      InstrumentationAction.ValueCheckAction action,
+      CheckSiteEmitter.Location location) {
     if (propertyEmitter == null) {
       throw new IllegalStateException("ValueCheckAction emission requires a property emitter");
     }
-    for (var requirement : action.contract().requirements()) {
-      propertyEmitter.emitCheck(
-          builder, requirement, action.valueAccess(), action.attribution(), action.diagnostic());
+    siteEmitter.emit(
+        builder,
+        action.mode(),
+        action.diagnostic(),
+        action.injectionPoint(),
+        location,
+        diagnostic -> {
+          for (var requirement : action.contract().requirements()) {
+            propertyEmitter.emitCheck(
+                builder, requirement, action.valueAccess(), action.attribution(), diagnostic);
+          }
+        });
+  }
+
+  private void emitElementsCheckAction(
+      CodeBuilder builder,
+      InstrumentationAction.ArrayElementsCheckAction action,
+      CheckSiteEmitter.Location location) {
+    if (propertyEmitter == null) {
+      throw new IllegalStateException(
+          "ArrayElementsCheckAction emission requires a property emitter");
     }
+    siteEmitter.emit(
+        builder,
+        action.mode(),
+        action.diagnostic(),
+        action.injectionPoint(),
+        location,
+        diagnostic -> {
+          for (var requirement : action.componentContract().requirements()) {
+            propertyEmitter.emitElementsCheck(
+                builder, requirement, action.valueAccess(), action.attribution(), diagnostic);
+          }
+        });
   }
 
   private void loadLocal(CodeBuilder b, TypeKind type, int slot) {
@@ -15,6 +15,7 @@ import io.github.eisop.runtimeframework.resolution.ParentMethod;
 import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
 import io.github.eisop.runtimeframework.runtime.BoundaryBootstraps;
 import io.github.eisop.runtimeframework.semantics.PropertyEmitter;
+import java.lang.classfile.Attributes;
 import java.lang.classfile.ClassModel;
 import java.lang.classfile.CodeBuilder;
 import java.lang.classfile.CodeElement;
@@ -22,6 +23,9 @@ import java.lang.classfile.CodeTransform;
 import java.lang.classfile.Instruction;
 import java.lang.classfile.MethodModel;
 import java.lang.classfile.Opcode;
+import java.lang.classfile.TypeKind;
+import java.lang.classfile.attribute.PermittedSubclassesAttribute;
+import java.lang.classfile.constantpool.ClassEntry;
 import java.lang.classfile.instruction.ArrayLoadInstruction;
 import java.lang.classfile.instruction.ArrayStoreInstruction;
 import java.lang.classfile.instruction.FieldInstruction;
@@ -38,7 +42,9 @@ import java.lang.constant.MethodTypeDesc;
 import java.lang.reflect.AccessFlag;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /** A CodeTransform that injects runtime checks based on an {@link EnforcementPlanner}. */
@@ -53,10 +59,17 @@ public class EnforcementTransform implements CodeTransform {
   private final boolean enableIndyBoundary;
   private final boolean emitEntryChecks;
   private final IndyReturnCheckRegistry returnCheckRegistry;
+  private final CheckSiteEmitter siteEmitter;
   private final ReferenceValueTracker valueTracker;
+  private final CheckOutliner outliner;
+  private final String sourceFile;
+  private Boolean outlineChecks;
+  private Map<FlowEvent, MethodPlan> estimatedPlans;
+  private boolean wrapperBody;
   private boolean entryChecksEmitted;
   private int currentBytecodeOffset;
   private int currentSourceLine;
+  private int elementCount;
   private static final ClassDesc BOUNDARY_BOOTSTRAPS =
       ClassDesc.of(BoundaryBootstraps.class.getName());
   private static final DirectMethodHandleDesc CHECKED_VIRTUAL_BOOTSTRAP =
@@ -169,6 +182,64 @@ public class EnforcementTransform implements CodeTransform {
       boolean enableIndyBoundary,
       boolean emitEntryChecks,
       IndyReturnCheckRegistry returnCheckRegistry) {
+    this(
+        planner,
+        propertyEmitter,
+        classModel,
+        methodModel,
+        isCheckedScope,
+        loader,
+        policy,
+        resolutionEnvironment,
+        enableIndyBoundary,
+        emitEntryChecks,
+        returnCheckRegistry,
+        CheckSiteEmitter.DEFAULT);
+  }
+
+  EnforcementTransform(
+      EnforcementPlanner planner,
+      PropertyEmitter propertyEmitter,
+      ClassModel classModel,
+      MethodModel methodModel,
+      boolean isCheckedScope,
+      ClassLoader loader,
+      RuntimePolicy policy,
+      ResolutionEnvironment resolutionEnvironment,
+      boolean enableIndyBoundary,
+      boolean emitEntryChecks,
+      IndyReturnCheckRegistry returnCheckRegistry,
+      CheckSiteEmitter siteEmitter) {
+    this(
+        planner,
+        propertyEmitter,
+        classModel,
+        methodModel,
+        isCheckedScope,
+        loader,
+        policy,
+        resolutionEnvironment,
+        enableIndyBoundary,
+        emitEntryChecks,
+        returnCheckRegistry,
+        siteEmitter,
+        null);
+  }
+
+  EnforcementTransform(
+      EnforcementPlanner planner,
+      PropertyEmitter propertyEmitter,
+      ClassModel classModel,
+      MethodModel methodModel,
+      boolean isCheckedScope,
+      ClassLoader loader,
+      RuntimePolicy policy,
+      ResolutionEnvironment resolutionEnvironment,
+      boolean enableIndyBoundary,
+      boolean emitEntryChecks,
+      IndyReturnCheckRegistry returnCheckRegistry,
+      CheckSiteEmitter siteEmitter,
+      CheckOutliner outliner) {
     this.planner = planner;
     this.propertyEmitter = propertyEmitter;
     ClassContext classContext =
@@ -183,7 +254,14 @@ public class EnforcementTransform implements CodeTransform {
     this.enableIndyBoundary = enableIndyBoundary;
     this.emitEntryChecks = emitEntryChecks;
     this.returnCheckRegistry = returnCheckRegistry;
-    this.valueTracker = new ReferenceValueTracker(ownerInternalName(), methodModel);
+    this.siteEmitter = siteEmitter;
+    this.valueTracker =
+        new ReferenceValueTracker(
+            ownerInternalName(),
+            methodModel,
+            invoke -> planner.provesNonNullResult(methodContext, invoke));
+    this.outliner = outliner;
+    this.sourceFile = CheckSiteEmitter.sourceFile(classModel);
     this.entryChecksEmitted = false;
     this.currentBytecodeOffset = 0;
     this.currentSourceLine = BytecodeLocation.UNKNOWN_LINE;
@@ -191,6 +269,9 @@ public class EnforcementTransform implements CodeTransform {
 
   @Override
   public void accept(CodeBuilder builder, CodeElement element) {
+    if ((++elementCount & TransformBudget.CHECK_INTERVAL_MASK) == 0) {
+      TransformBudget.check();
+    }
     if (element instanceof LineNumber lineNumber) {
       currentSourceLine = lineNumber.line();
     }
@@ -278,13 +359,22 @@ public class EnforcementTransform implements CodeTransform {
   }
 
   private void handleReturn(CodeBuilder b, ReturnInstruction r, BytecodeLocation location) {
+    String methodName = methodContext.methodModel().methodName().stringValue();
+    if (methodName.equals("<init>") || (isCheckedScope && methodName.equals("<clinit>"))) {
+      FlowEvent.ConstructorCommit commit =
+          new FlowEvent.ConstructorCommit(
+              methodContext,
+              location,
+              new TargetRef.Receiver(ownerInternalName(), methodContext.methodModel()));
+      emitPlannedActions(b, commit, ActionTiming.NORMAL_RETURN);
+    }
     if (isCheckedScope) {
       FlowEvent.MethodReturn event =
           new FlowEvent.MethodReturn(
               methodContext,
               location,
               new TargetRef.MethodReturn(ownerInternalName(), methodContext.methodModel()));
-      emitPlannedActions(b, event, ActionTiming.NORMAL_RETURN);
+      emitReturnActions(b, r, event);
     } else {
       if (r.opcode() == Opcode.ARETURN) {
         FlowEvent.OverrideReturn event =
@@ -292,12 +382,32 @@ public class EnforcementTransform implements CodeTransform {
                 methodContext,
                 location,
                 new TargetRef.MethodReturn(ownerInternalName(), methodContext.methodModel()));
-        emitPlannedActions(b, event, ActionTiming.NORMAL_RETURN);
+        emitReturnActions(b, r, event);
       }
     }
     b.with(r);
   }
 
+  private void emitReturnActions(CodeBuilder b, ReturnInstruction r, FlowEvent event) {
+    MethodPlan plan = plan(List.of(event));
+    if (r.opcode() == Opcode.ARETURN && shouldOutlineChecks()) {
+      List<InstrumentationAction> actions =
+          plan.actions().stream().filter(ActionTiming.NORMAL_RETURN::matches).toList();
+      if (!actions.isEmpty()) {
+        Optional<CheckOutliner.Helper> helper =
+            outliner.returnHelper(
+                methodContext.methodModel().methodTypeSymbol().returnType(),
+                actions,
+                siteLocation());
+        if (helper.isPresent()) {
+          invokeHelper(b, helper.get());
+          return;
+        }
+      }
+    }
+    emitActions(b, plan, ActionTiming.NORMAL_RETURN);
+  }
+
   private void handleInvoke(CodeBuilder b, InvokeInstruction i, BytecodeLocation location) {
     boolean rewritten = maybeEmitCheckedBoundaryCall(b, i, location);
     if (!rewritten) {
@@ -329,9 +439,7 @@ public class EnforcementTransform implements CodeTransform {
     }
 
     String ownerInternalName = instruction.owner().asInternalName();
-    ClassInfo ownerInfo =
-        new ClassInfo(ownerInternalName, methodContext.classContext().classInfo().loader(), null);
-    if (!policy.isChecked(ownerInfo)) {
+    if (!policy.isChecked(ownerInternalName, methodContext.classContext().classInfo().loader())) {
       return false;
     }
 
@@ -352,6 +460,15 @@ public class EnforcementTransform implements CodeTransform {
       return true;
     }
 
+    if (opcode == Opcode.INVOKEVIRTUAL
+        && hasOnlyCheckedDispatchTargets(ownerInternalName, resolvedTarget.get())) {
+      builder.invokevirtual(
+          invocationOwnerDesc,
+          EnforcementInstrumenter.safeMethodName(methodName),
+          instruction.typeSymbol());
+      return true;
+    }
+
     MethodTypeDesc invocationType =
         instruction.typeSymbol().insertParameterTypes(0, invocationOwnerDesc);
     MethodPlan fallbackReturnPlan =
@@ -375,7 +492,7 @@ public class EnforcementTransform implements CodeTransform {
 
     MethodHandleDesc fallbackReturnFilter =
         returnCheckRegistry.register(
-            instruction.typeSymbol().returnType(), fallbackReturnPlan, location);
+            instruction.typeSymbol().returnType(), fallbackReturnPlan, siteLocation());
     builder.invokedynamic(
         DynamicCallSiteDesc.of(
             CHECKED_VIRTUAL_WITH_FALLBACK_RETURN_CHECK_BOOTSTRAP,
@@ -389,17 +506,88 @@ public class EnforcementTransform implements CodeTransform {
     return true;
   }
 
-  private Optional<ResolutionEnvironment.ResolvedMethod> resolveBoundaryTarget(
-      String ownerInternalName, String methodName, MethodTypeDesc descriptor, Opcode opcode) {
+  /**
+   * Returns whether every receiver of a virtual call through {@code ownerInternalName} dispatches
+   * to checked code that has a safe entry, so the call needs no receiver guard. That holds when the
+   * target or its class is final, or when the static receiver type is final or sealed with only
+   * checked, final or sealed subclasses whose overrides are split. The target and every override
+   * must also keep their safe entry, which a class that already declares a method under the safe
+   * name does not get.
+   */
+  private boolean hasOnlyCheckedDispatchTargets(
+      String ownerInternalName, ResolutionEnvironment.ResolvedMethod target) {
+    MethodModel method = target.method();
+    if (!EnforcementInstrumenter.hasSafeEntry(target.ownerModel(), method)) {
+      return false;
+    }
+    if (Modifier.isFinal(method.flags().flagsMask())
+        || Modifier.isFinal(target.ownerModel().flags().flagsMask())) {
+      return true;
+    }
+
     ClassLoader loader = methodContext.classContext().classInfo().loader();
-    return resolveInvokeTarget(ownerInternalName, methodName, descriptor, opcode)
+    return resolutionEnvironment
+        .loadClass(ownerInternalName, loader)
+        .filter(
+            model ->
+                hasOnlyCheckedSubclasses(
+                    model, method.methodName().stringValue(), method.methodType().stringValue()))
+        .isPresent();
+  }
+
+  private boolean hasOnlyCheckedSubclasses(ClassModel model, String methodName, String descriptor) {
+    if (Modifier.isFinal(model.flags().flagsMask())) {
+      return true;
+    }
+    Optional<PermittedSubclassesAttribute> permitted =
+        model.findAttribute(Attributes.permittedSubclasses());
+    if (permitted.isEmpty()) {
+      return false;
+    }
+
+    ClassLoader loader = methodContext.classContext().classInfo().loader();
+    for (ClassEntry subclass : permitted.get().permittedSubclasses()) {
+      String subclassName = subclass.asInternalName();
+      Optional<ClassModel> subclassModel = resolutionEnvironment.loadClass(subclassName, loader);
+      if (subclassModel.isEmpty()
+          || !isSplitClass(subclassName, subclassModel.get())
+          || !overridesAreSplit(subclassModel.get(), methodName, descriptor)
+          || !hasOnlyCheckedSubclasses(subclassModel.get(), methodName, descriptor)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean overridesAreSplit(ClassModel model, String methodName, String descriptor) {
+    return model.methods().stream()
         .filter(
             method ->
-                policy.isChecked(
-                    new ClassInfo(method.ownerInternalName(), loader, null), method.ownerModel()))
+                method.methodName().stringValue().equals(methodName)
+                    && method.methodType().stringValue().equals(descriptor))
+        .allMatch(method -> EnforcementInstrumenter.hasSafeEntry(model, method));
+  }
+
+  private Optional<ResolutionEnvironment.ResolvedMethod> resolveBoundaryTarget(
+      String ownerInternalName, String methodName, MethodTypeDesc descriptor, Opcode opcode) {
+    return resolveInvokeTarget(ownerInternalName, methodName, descriptor, opcode)
+        .filter(method -> isSplitClass(method.ownerInternalName(), method.ownerModel()))
         .filter(method -> targetMatchesCallOpcode(method.method(), opcode));
   }
 
+  /**
+   * Returns whether {@code internalName}, as the caller's loader resolves it, is checked under the
+   * policy of the loader that defines it, so its methods are split into a safe entry when it is
+   * transformed. A class of a parent loader is classified for that loader, whose profile may not
+   * check it even where the caller's profile would.
+   */
+  private boolean isSplitClass(String internalName, ClassModel model) {
+    ClassLoader definingLoader =
+        resolutionEnvironment.definingLoader(
+            internalName, methodContext.classContext().classInfo().loader());
+    return policy.isChecked(new ClassInfo(internalName, definingLoader, null), model);
+  }
+
   private TargetRef.InvokedMethod returnBoundaryTarget(InvokeInstruction instruction) {
     String ownerInternalName = instruction.owner().asInternalName();
     String methodName = instruction.name().stringValue();
@@ -420,8 +608,7 @@ public class EnforcementTransform implements CodeTransform {
 
     ClassLoader loader = methodContext.classContext().classInfo().loader();
     if (policy == null
-        || policy.isChecked(
-            new ClassInfo(resolved.ownerInternalName(), loader, null), resolved.ownerModel())
+        || isSplitClass(resolved.ownerInternalName(), resolved.ownerModel())
         || Modifier.isInterface(resolved.ownerModel().flags().flagsMask())
         || !isGeneratedBridgeCandidate(resolved.method())) {
       return false;
@@ -523,6 +710,15 @@ public class EnforcementTransform implements CodeTransform {
     }
   }
 
+  private int parameterSlot(int parameterIndex) {
+    MethodModel methodModel = methodContext.methodModel();
+    int slot = Modifier.isStatic(methodModel.flags().flagsMask()) ? 0 : 1;
+    for (int i = 0; i < parameterIndex; i++) {
+      slot += TypeKind.from(methodModel.methodTypeSymbol().parameterList().get(i)).slotSize();
+    }
+    return slot;
+  }
+
   private void handleStore(CodeBuilder b, StoreInstruction s, BytecodeLocation location) {
     if (isCheckedScope) {
       boolean isRefStore =
@@ -538,18 +734,30 @@ public class EnforcementTransform implements CodeTransform {
                 new TargetRef.Local(
                     methodContext.methodModel(),
                     s.slot(),
-                    location.bytecodeIndex() + s.sizeInBytes()));
+                    location.bytecodeIndex() + s.sizeInBytes()),
+                valueTracker.isProvenNonNull(0));
         emitPlannedActions(b, event, ActionTiming.BEFORE_INSTRUCTION);
       }
     }
     b.with(s);
   }
 
+  /**
+   * Emits the parameter checks of a split method's wrapper, whose body is only these checks and the
+   * call to the safe method.
+   */
+  void emitWrapperParameterChecks(CodeBuilder builder) {
+    wrapperBody = true;
+    emitParameterChecks(builder);
+  }
+
   public void emitParameterChecks(CodeBuilder builder) {
     MethodModel methodModel = methodContext.methodModel();
     MethodTypeDesc methodDesc = methodModel.methodTypeSymbol();
     int paramCount = methodDesc.parameterList().size();
-    List<FlowEvent> events = new ArrayList<>(paramCount);
+    List<FlowEvent> events = new ArrayList<>(paramCount + 1);
+    addConstructorEnterEvent(events, BytecodeLocation.at(-1, currentSourceLine));
+    addReceiverUseEvent(events, BytecodeLocation.at(-1, currentSourceLine));
     for (int i = 0; i < paramCount; i++) {
       BytecodeLocation entryLocation = BytecodeLocation.at(-1, currentSourceLine);
       if (isCheckedScope) {
@@ -567,7 +775,218 @@ public class EnforcementTransform implements CodeTransform {
       }
     }
     if (!events.isEmpty()) {
-      emitActions(builder, planner.planMethod(methodContext, events), ActionTiming.METHOD_ENTRY);
+      MethodPlan plan = plan(events);
+      if (!emitOutlinedEntryChecks(builder, plan)) {
+        emitActions(builder, plan, ActionTiming.METHOD_ENTRY);
+      }
+    }
+  }
+
+  /** Adds the entry of a checked constructor, which marks the receiver as under construction. */
+  private void addConstructorEnterEvent(List<FlowEvent> events, BytecodeLocation entryLocation) {
+    MethodModel methodModel = methodContext.methodModel();
+    if (!isCheckedScope || !methodModel.methodName().stringValue().equals("<init>")) {
+      return;
+    }
+    events.add(
+        new FlowEvent.ConstructorEnter(
+            methodContext,
+            entryLocation,
+            new TargetRef.Receiver(ownerInternalName(), methodModel)));
+  }
+
+  /**
+   * Adds the use of the receiver by a method that unchecked code may call, which requires the
+   * receiver to be committed.
+   */
+  private void addReceiverUseEvent(List<FlowEvent> events, BytecodeLocation entryLocation) {
+    MethodModel methodModel = methodContext.methodModel();
+    int flags = methodModel.flags().flagsMask();
+    if (!isCheckedScope
+        || methodModel.methodName().stringValue().startsWith("<")
+        || Modifier.isStatic(flags)
+        || Modifier.isPrivate(flags)
+        || (flags & (AccessFlag.BRIDGE.mask() | AccessFlag.SYNTHETIC.mask())) != 0) {
+      return;
+    }
+    events.add(
+        new FlowEvent.BoundaryReceiverUse(
+            methodContext,
+            entryLocation,
+            new TargetRef.Receiver(ownerInternalName(), methodModel)));
+  }
+
+  private boolean emitOutlinedEntryChecks(CodeBuilder builder, MethodPlan plan) {
+    if (!shouldOutlineChecks()) {
+      return false;
+    }
+    List<InstrumentationAction> entryActions =
+        plan.actions().stream().filter(ActionTiming.METHOD_ENTRY::matches).toList();
+    List<InstrumentationAction> hooks =
+        entryActions.stream()
+            .filter(action -> action instanceof InstrumentationAction.LifecycleHookAction)
+            .toList();
+    List<InstrumentationAction> actions =
+        entryActions.stream()
+            .filter(action -> !(action instanceof InstrumentationAction.LifecycleHookAction))
+            .toList();
+    if (actions.isEmpty()) {
+      return false;
+    }
+    MethodModel methodModel = methodContext.methodModel();
+    Optional<CheckOutliner.EntryHelper> entryHelper =
+        outliner.entryHelper(
+            methodModel.methodTypeSymbol().parameterList(),
+            parameterSlot(0),
+            actions,
+            siteLocation());
+    if (entryHelper.isEmpty()) {
+      return false;
+    }
+    hooks.forEach(hook -> emitAction(builder, hook));
+    CheckOutliner.Helper helper = entryHelper.get().helper();
+    List<Integer> argumentSlots = entryHelper.get().argumentSlots();
+    List<ClassDesc> argumentTypes = helper.descriptor().parameterList();
+    for (int i = 0; i < argumentSlots.size(); i++) {
+      builder.loadLocal(TypeKind.from(argumentTypes.get(i)), argumentSlots.get(i));
+    }
+    invokeHelper(builder, helper);
+    return true;
+  }
+
+  private void invokeHelper(CodeBuilder builder, CheckOutliner.Helper helper) {
+    builder.invokestatic(
+        outliner.owner(), helper.name(), helper.descriptor(), outliner.ownerIsInterface());
+  }
+
+  /**
+   * Returns whether this body's entry and return checks go to outlined helpers, which is the case
+   * when the body with every check inlined is estimated to exceed the outlining threshold.
+   */
+  private boolean shouldOutlineChecks() {
+    if (outliner == null) {
+      return false;
+    }
+    if (outlineChecks == null) {
+      outlineChecks = outliner.exceedsBudget(estimateInstrumentedSize());
+    }
+    return outlineChecks;
+  }
+
+  /**
+   * Estimates the code size of this body with all checks emitted inline. Events are planned as the
+   * transform would plan them, except that array accesses use their untracked targets and local
+   * stores are not known to hold proven non-null values. The plan of each event is kept for the
+   * transform to reuse when it emits the same event.
+   */
+  private int estimateInstrumentedSize() {
+    MethodModel methodModel = methodContext.methodModel();
+    List<FlowEvent> events = new ArrayList<>();
+    BytecodeLocation entryLocation = BytecodeLocation.at(-1, currentSourceLine);
+    addReceiverUseEvent(events, entryLocation);
+    for (int i = 0; i < methodModel.methodTypeSymbol().parameterCount(); i++) {
+      TargetRef.MethodParameter target =
+          new TargetRef.MethodParameter(ownerInternalName(), methodModel, i);
+      events.add(
+          isCheckedScope
+              ? new FlowEvent.MethodParameter(methodContext, entryLocation, target)
+              : new FlowEvent.OverrideParameter(methodContext, entryLocation, target));
+    }
+    if (wrapperBody) {
+      int forwardSize = 4;
+      for (ClassDesc parameterType : methodModel.methodTypeSymbol().parameterList()) {
+        forwardSize += TypeKind.from(parameterType).slotSize() == 2 ? 2 : 1;
+      }
+      return forwardSize + outliner.estimateSize(planEstimate(events).actions());
+    }
+
+    int codeSize = 0;
+    int offset = 0;
+    int line = BytecodeLocation.UNKNOWN_LINE;
+    for (CodeElement element : methodModel.code().orElseThrow()) {
+      if (element instanceof LineNumber lineNumber) {
+        line = lineNumber.line();
+      }
+      if (element instanceof Instruction instruction) {
+        BytecodeLocation location = BytecodeLocation.at(offset, line);
+        addEstimateEvents(events, instruction, location);
+        offset += instruction.sizeInBytes();
+        codeSize = offset;
+      }
+    }
+    if (!emitEntryChecks) {
+      events.removeIf(
+          event ->
+              event instanceof FlowEvent.MethodParameter
+                  || event instanceof FlowEvent.OverrideParameter
+                  || event instanceof FlowEvent.BoundaryReceiverUse);
+    }
+    return codeSize + outliner.estimateSize(planEstimate(events).actions());
+  }
+
+  private MethodPlan planEstimate(List<FlowEvent> events) {
+    Map<FlowEvent, MethodPlan> plans = new HashMap<>();
+    MethodPlan plan = planner.planMethod(methodContext, events, plans::put);
+    estimatedPlans = plans;
+    return plan;
+  }
+
+  private void addEstimateEvents(
+      List<FlowEvent> events, Instruction instruction, BytecodeLocation location) {
+    MethodModel methodModel = methodContext.methodModel();
+    TargetRef.ArrayComponent untrackedArray =
+        new TargetRef.ArrayComponent("[Ljava/lang/Object;", null);
+    switch (instruction) {
+      case FieldInstruction f -> {
+        TargetRef.Field target =
+            new TargetRef.Field(
+                f.owner().asInternalName(),
+                f.name().stringValue(),
+                f.typeSymbol().descriptorString());
+        if (isFieldWrite(f)) {
+          events.add(
+              new FlowEvent.FieldWrite(
+                  methodContext, location, target, f.opcode() == Opcode.PUTSTATIC));
+        } else if (isFieldRead(f) && isCheckedScope) {
+          events.add(new FlowEvent.FieldRead(methodContext, location, target));
+        }
+      }
+      case ReturnInstruction r -> {
+        TargetRef.MethodReturn target =
+            new TargetRef.MethodReturn(ownerInternalName(), methodModel);
+        if (isCheckedScope) {
+          events.add(new FlowEvent.MethodReturn(methodContext, location, target));
+        } else if (r.opcode() == Opcode.ARETURN) {
+          events.add(new FlowEvent.OverrideReturn(methodContext, location, target));
+        }
+      }
+      case InvokeInstruction i -> {
+        if (isCheckedScope) {
+          events.add(
+              new FlowEvent.BoundaryCallReturn(methodContext, location, returnBoundaryTarget(i)));
+        }
+      }
+      case ArrayStoreInstruction a -> {
+        if (a.opcode() == Opcode.AASTORE) {
+          events.add(new FlowEvent.ArrayStore(methodContext, location, untrackedArray));
+        }
+      }
+      case ArrayLoadInstruction a -> {
+        if (isCheckedScope && a.opcode() == Opcode.AALOAD) {
+          events.add(new FlowEvent.ArrayLoad(methodContext, location, untrackedArray));
+        }
+      }
+      case StoreInstruction s -> {
+        if (isCheckedScope && s.typeKind() == TypeKind.REFERENCE) {
+          events.add(
+              new FlowEvent.LocalStore(
+                  methodContext,
+                  location,
+                  new TargetRef.Local(
+                      methodModel, s.slot(), location.bytecodeIndex() + s.sizeInBytes())));
+        }
+      }
+      default -> {}
     }
   }
 
@@ -580,7 +999,27 @@ public class EnforcementTransform implements CodeTransform {
   }
 
   private void emitPlannedActions(CodeBuilder builder, FlowEvent event, ActionTiming timing) {
-    emitActions(builder, planner.planMethod(methodContext, List.of(event)), timing);
+    emitActions(builder, plan(List.of(event)), timing);
+  }
+
+  /**
+   * Plans {@code events}, reusing the plans made for the size estimate of the events it planned
+   * alike, so that a body whose size is estimated is not planned twice.
+   */
+  private MethodPlan plan(List<? extends FlowEvent> events) {
+    shouldOutlineChecks();
+    if (estimatedPlans == null) {
+      return planner.planMethod(methodContext, events);
+    }
+    List<InstrumentationAction> actions = new ArrayList<>();
+    for (FlowEvent event : events) {
+      MethodPlan plan = estimatedPlans.remove(event);
+      if (plan == null) {
+        plan = planner.planMethod(methodContext, List.of(event));
+      }
+      actions.addAll(plan.actions());
+    }
+    return new MethodPlan(actions);
   }
 
   private void emitActions(CodeBuilder builder, MethodPlan plan, ActionTiming timing) {
@@ -595,8 +1034,10 @@ public class EnforcementTransform implements CodeTransform {
     switch (action) {
       case InstrumentationAction.ValueCheckAction valueCheckAction ->
           emitValueCheckAction(builder, valueCheckAction);
-      case InstrumentationAction.LifecycleHookAction ignored ->
-          throw new IllegalStateException("LifecycleHookAction emission is not implemented yet");
+      case InstrumentationAction.ArrayElementsCheckAction elementsCheckAction ->
+          emitElementsCheckAction(builder, elementsCheckAction);
+      case InstrumentationAction.LifecycleHookAction hook ->
+          LifecycleHookEmitter.emit(builder, hook, siteLocation(), isCheckedScope);
     }
   }
 
@@ -605,10 +1046,48 @@ public class EnforcementTransform implements CodeTransform {
     if (propertyEmitter == null) {
       throw new IllegalStateException("ValueCheckAction emission requires a property emitter");
     }
-    for (var requirement : action.contract().requirements()) {
-      propertyEmitter.emitCheck(
-          builder, requirement, action.valueAccess(), action.attribution(), action.diagnostic());
+    siteEmitter.emit(
+        builder,
+        action.mode(),
+        action.diagnostic(),
+        action.injectionPoint(),
+        siteLocation(),
+        diagnostic -> {
+          for (var requirement : action.contract().requirements()) {
+            propertyEmitter.emitCheck(
+                builder, requirement, action.valueAccess(), action.attribution(), diagnostic);
+          }
+        });
+  }
+
+  private void emitElementsCheckAction(
+      CodeBuilder builder, InstrumentationAction.ArrayElementsCheckAction action) {
+    if (propertyEmitter == null) {
+      throw new IllegalStateException(
+          "ArrayElementsCheckAction emission requires a property emitter");
     }
+    siteEmitter.emit(
+        builder,
+        action.mode(),
+        action.diagnostic(),
+        action.injectionPoint(),
+        siteLocation(),
+        diagnostic -> {
+          for (var requirement : action.componentContract().requirements()) {
+            propertyEmitter.emitElementsCheck(
+                builder, requirement, action.valueAccess(), action.attribution(), diagnostic);
+          }
+        });
+  }
+
+  private CheckSiteEmitter.Location siteLocation() {
+    MethodModel methodModel = methodContext.methodModel();
+    return new CheckSiteEmitter.Location(
+        ownerInternalName(),
+        sourceFile,
+        methodModel.methodName().stringValue(),
+        methodModel.methodTypeSymbol().descriptorString(),
+        currentSourceLine);
   }
 
   private BytecodeLocation currentLocation() {
@@ -620,7 +1099,8 @@ public class EnforcementTransform implements CodeTransform {
   }
 
   interface IndyReturnCheckRegistry {
-    MethodHandleDesc register(ClassDesc returnType, MethodPlan plan, BytecodeLocation location);
+    MethodHandleDesc register(
+        ClassDesc returnType, MethodPlan plan, CheckSiteEmitter.Location siteLocation);
   }
 
   private enum ActionTiming {
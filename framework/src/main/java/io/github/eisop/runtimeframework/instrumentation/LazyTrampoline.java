@@ -0,0 +1,86 @@
+package io.github.eisop.runtimeframework.instrumentation;
+
+import io.github.eisop.runtimeframework.runtime.LazyInstrumentation;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeTransform;
+import java.lang.classfile.Label;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.reflect.Modifier;
+
+/**
+ * Prepends the lazy-activation trampoline to an otherwise unchanged method body.
+ *
+ * <p>The trampoline asks {@link LazyInstrumentation#activate(Class, int)} to install the
+ * instrumented body. On success it re-invokes the method with its own arguments, using {@code
+ * invokespecial} for instance methods so the call cannot dispatch to an override, and returns the
+ * result; otherwise it falls through to the original body.
+ */
+final class LazyTrampoline implements CodeTransform {
+
+  private static final ClassDesc LAZY_INSTRUMENTATION =
+      ClassDesc.of(LazyInstrumentation.class.getName());
+  private static final MethodTypeDesc ACTIVATE_DESCRIPTOR =
+      MethodTypeDesc.of(ConstantDescs.CD_boolean, ConstantDescs.CD_Class, ConstantDescs.CD_int);
+
+  private final ClassModel classModel;
+  private final MethodModel methodModel;
+  private final int methodIndex;
+
+  LazyTrampoline(ClassModel classModel, MethodModel methodModel, int methodIndex) {
+    this.classModel = classModel;
+    this.methodModel = methodModel;
+    this.methodIndex = methodIndex;
+  }
+
+  /** Returns whether {@code method} can be deferred behind a trampoline. */
+  static boolean isEligible(MethodModel method) {
+    String name = method.methodName().stringValue();
+    return method.code().isPresent()
+        && !name.equals(ConstantDescs.INIT_NAME)
+        && !name.equals(ConstantDescs.CLASS_INIT_NAME);
+  }
+
+  @Override
+  public void atStart(CodeBuilder builder) {
+    ClassDesc owner = classModel.thisClass().asSymbol();
+    boolean isInterface = Modifier.isInterface(classModel.flags().flagsMask());
+    boolean isStatic = Modifier.isStatic(methodModel.flags().flagsMask());
+    String name = methodModel.methodName().stringValue();
+    MethodTypeDesc descriptor = methodModel.methodTypeSymbol();
+    Label originalBody = builder.newLabel();
+
+    builder.loadConstant(owner);
+    builder.loadConstant(methodIndex);
+    builder.invokestatic(LAZY_INSTRUMENTATION, "activate", ACTIVATE_DESCRIPTOR);
+    builder.ifeq(originalBody);
+
+    int slot = 0;
+    if (!isStatic) {
+      builder.aload(0);
+      slot = 1;
+    }
+    for (ClassDesc parameter : descriptor.parameterList()) {
+      TypeKind type = TypeKind.from(parameter);
+      builder.loadLocal(type, slot);
+      slot += type.slotSize();
+    }
+    if (isStatic) {
+      builder.invokestatic(owner, name, descriptor, isInterface);
+    } else {
+      builder.invokespecial(owner, name, descriptor, isInterface);
+    }
+    builder.return_(TypeKind.from(descriptor.returnType()));
+    builder.labelBinding(originalBody);
+  }
+
+  @Override
+  public void accept(CodeBuilder builder, CodeElement element) {
+    builder.with(element);
+  }
+}
@@ -0,0 +1,126 @@
+package io.github.eisop.runtimeframework.instrumentation;
+
+import io.github.eisop.runtimeframework.planning.InstrumentationAction;
+import io.github.eisop.runtimeframework.planning.ValueAccess;
+import io.github.eisop.runtimeframework.runtime.CommitState;
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.reflect.AccessFlag;
+
+/**
+ * Emits lifecycle hooks against the commit state kept by {@link CommitState}.
+ *
+ * <p>Checked classes carry their commit state in an injected {@link CommitState#CONSTRUCTING_FIELD}
+ * field, so a receiver check reads that field and only calls into {@link CommitState} when it is
+ * set. A constructor sets the field on entry, before the superclass constructor runs, and its
+ * commit clears the field directly when the object is exactly of the committing class.
+ */
+final class LifecycleHookEmitter {
+
+  private static final ClassDesc COMMIT_STATE = ClassDesc.of(CommitState.class.getName());
+  private static final MethodTypeDesc COMMIT_SUBCLASS_DESCRIPTOR =
+      MethodTypeDesc.of(ConstantDescs.CD_boolean, ConstantDescs.CD_Object, ConstantDescs.CD_Class);
+  private static final MethodTypeDesc COMMIT_UNCHECKED_DESCRIPTOR =
+      MethodTypeDesc.of(ConstantDescs.CD_void, ConstantDescs.CD_Object, ConstantDescs.CD_Class);
+  private static final MethodTypeDesc CHECK_RECEIVER_DESCRIPTOR =
+      MethodTypeDesc.of(
+          ConstantDescs.CD_void,
+          ConstantDescs.CD_Object,
+          ConstantDescs.CD_Class,
+          ConstantDescs.CD_String);
+  private static final MethodTypeDesc GET_CLASS_DESCRIPTOR =
+      MethodTypeDesc.of(ConstantDescs.CD_Class);
+
+  private LifecycleHookEmitter() {}
+
+  /** Adds the commit-state field to a checked class that does not declare it yet. */
+  static void emitConstructingField(ClassBuilder builder, ClassModel classModel) {
+    boolean fieldExists =
+        classModel.fields().stream()
+            .anyMatch(
+                field -> field.fieldName().stringValue().equals(CommitState.CONSTRUCTING_FIELD));
+    if (!fieldExists) {
+      builder.withField(
+          CommitState.CONSTRUCTING_FIELD,
+          ConstantDescs.CD_boolean,
+          AccessFlag.PRIVATE.mask() | AccessFlag.TRANSIENT.mask() | AccessFlag.SYNTHETIC.mask());
+    }
+  }
+
+  /** Emits {@code hook} in a method of {@code location}'s owner, checked or not. */
+  static void emit(
+      CodeBuilder builder,
+      InstrumentationAction.LifecycleHookAction hook,
+      CheckSiteEmitter.Location location,
+      boolean isCheckedScope) {
+    if (!(hook.valueAccess() instanceof ValueAccess.ThisReference)) {
+      throw new IllegalStateException("Lifecycle hooks only apply to the receiver");
+    }
+    ClassDesc owner = ClassDesc.ofInternalName(location.owner());
+    switch (hook.hook()) {
+      case CONSTRUCTOR_ENTER -> {
+        if (isCheckedScope) {
+          emitConstructorEnter(builder, owner);
+        }
+      }
+      case CONSTRUCTOR_COMMIT -> {
+        if (isCheckedScope) {
+          emitCheckedCommit(builder, owner);
+        } else {
+          emitUncheckedCommit(builder, owner);
+        }
+      }
+      case BOUNDARY_RECEIVER_USE ->
+          emitReceiverCheck(
+              builder, owner, "Receiver of " + location.methodName() + " must be Committed");
+    }
+  }
+
+  /** Sets the field of the receiver, which may still be uninitialized. */
+  private static void emitConstructorEnter(CodeBuilder builder, ClassDesc owner) {
+    builder.aload(0);
+    builder.iconst_1();
+    builder.putfield(owner, CommitState.CONSTRUCTING_FIELD, ConstantDescs.CD_boolean);
+  }
+
+  private static void emitCheckedCommit(CodeBuilder builder, ClassDesc owner) {
+    Label commit = builder.newLabel();
+    Label done = builder.newLabel();
+    builder.aload(0);
+    builder.invokevirtual(ConstantDescs.CD_Object, "getClass", GET_CLASS_DESCRIPTOR);
+    builder.ldc(owner);
+    builder.if_acmpeq(commit);
+    builder.aload(0);
+    builder.ldc(owner);
+    builder.invokestatic(COMMIT_STATE, "commitSubclass", COMMIT_SUBCLASS_DESCRIPTOR);
+    builder.ifeq(done);
+    builder.labelBinding(commit);
+    builder.aload(0);
+    builder.iconst_0();
+    builder.putfield(owner, CommitState.CONSTRUCTING_FIELD, ConstantDescs.CD_boolean);
+    builder.labelBinding(done);
+  }
+
+  private static void emitUncheckedCommit(CodeBuilder builder, ClassDesc owner) {
+    builder.aload(0);
+    builder.ldc(owner);
+    builder.invokestatic(COMMIT_STATE, "commitUnchecked", COMMIT_UNCHECKED_DESCRIPTOR);
+  }
+
+  private static void emitReceiverCheck(CodeBuilder builder, ClassDesc owner, String message) {
+    Label committed = builder.newLabel();
+    builder.aload(0);
+    builder.getfield(owner, CommitState.CONSTRUCTING_FIELD, ConstantDescs.CD_boolean);
+    builder.ifeq(committed);
+    builder.aload(0);
+    builder.ldc(owner);
+    builder.ldc(message);
+    builder.invokestatic(COMMIT_STATE, "checkReceiver", CHECK_RECEIVER_DESCRIPTOR);
+    builder.labelBinding(committed);
+  }
+}
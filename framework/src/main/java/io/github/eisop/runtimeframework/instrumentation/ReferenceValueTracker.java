@@ -7,6 +7,7 @@ import java.lang.classfile.Opcode;
 import java.lang.classfile.TypeKind;
 import java.lang.classfile.attribute.CodeAttribute;
 import java.lang.classfile.attribute.StackMapFrameInfo;
+import java.lang.classfile.attribute.StackMapTableAttribute;
 import java.lang.classfile.constantpool.ClassEntry;
 import java.lang.classfile.instruction.ArrayLoadInstruction;
 import java.lang.classfile.instruction.ArrayStoreInstruction;
@@ -34,37 +35,95 @@ import java.lang.classfile.instruction.TypeCheckInstruction;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.DirectMethodHandleDesc;
 import java.lang.constant.MethodTypeDesc;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 
-/** Tracks reference descriptors and simple provenance across a method body. */
+/**
+ * Tracks reference descriptors and simple provenance across a method body, along with whether a
+ * reference is proven non-null: fresh allocations, class and string constants, and invocation
+ * results the caller-supplied predicate vouches for.
+ */
 final class ReferenceValueTracker {
 
   private final MethodModel methodModel;
   private final int firstNonParameterSlot;
-  private final Map<Integer, FrameState> stackMapFrames;
+  private final Predicate<InvokeInstruction> provenNonNullResult;
+  private final Map<String, TrackedValue> plainReferences = new HashMap<>();
+  private final Map<String, TrackedValue> nonNullReferences = new HashMap<>();
+  // Stack map frames sorted by bytecode offset; the frames themselves are never mutated after
+  // construction and are copied into the reused working state when entered.
+  private final int[] frameOffsets;
+  private final FrameState[] frames;
+  private final FrameState workingState;
   private FrameState currentState;
   private int currentBytecodeOffset;
+  private int nextFrame;
 
   ReferenceValueTracker(String ownerInternalName, MethodModel methodModel) {
+    this(ownerInternalName, methodModel, invoke -> false);
+  }
+
+  ReferenceValueTracker(
+      String ownerInternalName,
+      MethodModel methodModel,
+      Predicate<InvokeInstruction> provenNonNullResult) {
     Objects.requireNonNull(ownerInternalName, "ownerInternalName");
     this.methodModel = Objects.requireNonNull(methodModel, "methodModel");
+    this.provenNonNullResult = Objects.requireNonNull(provenNonNullResult, "provenNonNullResult");
     this.firstNonParameterSlot = firstNonParameterSlot(methodModel);
-    this.stackMapFrames = loadStackMapFrames(methodModel, ownerInternalName);
-    this.currentState = initialState(ownerInternalName, methodModel);
+
+    List<StackMapFrameInfo> stackMap = stackMapEntries(methodModel);
+    this.frameOffsets = new int[stackMap.size()];
+    this.frames = new FrameState[stackMap.size()];
+    loadStackMapFrames(methodModel, ownerInternalName, stackMap);
+
+    this.workingState =
+        methodModel
+            .code()
+            .filter(CodeAttribute.class::isInstance)
+            .map(CodeAttribute.class::cast)
+            .map(code -> new FrameState(code.maxLocals(), code.maxStack()))
+            .orElseGet(() -> new FrameState(firstNonParameterSlot, 0));
+    this.currentState = initialState(ownerInternalName, methodModel, workingState);
     this.currentBytecodeOffset = 0;
   }
 
   void enterBytecode(int bytecodeOffset) {
     currentBytecodeOffset = bytecodeOffset;
-    FrameState frameState = stackMapFrames.get(bytecodeOffset);
+    FrameState frameState = frameAt(bytecodeOffset);
     if (frameState != null) {
-      currentState = frameState.copy();
+      currentState = workingState.copyFrom(frameState);
+    }
+  }
+
+  /** Offsets normally arrive in increasing order, so a cursor replaces most table searches. */
+  private FrameState frameAt(int bytecodeOffset) {
+    if (nextFrame > 0 && frameOffsets[nextFrame - 1] >= bytecodeOffset) {
+      int index = Arrays.binarySearch(frameOffsets, bytecodeOffset);
+      nextFrame = index >= 0 ? index + 1 : -index - 1;
+      return index >= 0 ? frames[index] : null;
+    }
+    while (nextFrame < frameOffsets.length && frameOffsets[nextFrame] < bytecodeOffset) {
+      nextFrame++;
+    }
+    if (nextFrame < frameOffsets.length && frameOffsets[nextFrame] == bytecodeOffset) {
+      return frames[nextFrame++];
     }
+    return null;
+  }
+
+  /** Returns whether the operand at {@code depthFromTop} is a reference proven non-null. */
+  boolean isProvenNonNull(int depthFromTop) {
+    if (currentState == null) {
+      return false;
+    }
+    TrackedValue value = currentState.peek(depthFromTop);
+    return value != null && value.provenNonNull();
   }
 
   Optional<TargetRef.ArrayComponent> arrayComponentTarget(int arrayRefDepthFromTop) {
@@ -94,15 +153,19 @@ final class ReferenceValueTracker {
         case FieldInstruction field -> simulateField(field);
         case InvokeInstruction invoke ->
             simulateInvoke(
-                invoke.typeSymbol(), hasReceiver(invoke.opcode()), invokeReturnSource(invoke));
+                invoke.typeSymbol(),
+                hasReceiver(invoke.opcode()),
+                invokeReturnSource(invoke),
+                isReferenceDescriptor(invoke.typeSymbol().returnType().descriptorString())
+                    && provenNonNullResult.test(invoke));
         case InvokeDynamicInstruction invokeDynamic ->
-            simulateInvoke(invokeDynamic.typeSymbol(), false, null);
+            simulateInvoke(invokeDynamic.typeSymbol(), false, null, false);
         case ArrayLoadInstruction arrayLoad -> simulateArrayLoad(arrayLoad);
         case ArrayStoreInstruction ignored -> simulateArrayStore();
         case TypeCheckInstruction typeCheck -> simulateTypeCheck(typeCheck);
         case NewObjectInstruction newObject ->
             currentState.push(
-                TrackedValue.reference(newObject.className().asSymbol().descriptorString(), null));
+                nonNullReference(newObject.className().asSymbol().descriptorString()));
         case NewReferenceArrayInstruction newReferenceArray ->
             simulateNewReferenceArray(newReferenceArray);
         case NewPrimitiveArrayInstruction newPrimitiveArray ->
@@ -144,7 +207,8 @@ final class ReferenceValueTracker {
       local =
           TrackedValue.reference(
               local.descriptor(),
-              new TargetRef.Local(methodModel, load.slot(), currentBytecodeOffset));
+              new TargetRef.Local(methodModel, load.slot(), currentBytecodeOffset),
+              local.provenNonNull());
     }
     currentState.push(local);
   }
@@ -164,7 +228,7 @@ final class ReferenceValueTracker {
     }
 
     if (constant.opcode() == Opcode.ACONST_NULL) {
-      currentState.push(TrackedValue.reference(null, null));
+      currentState.push(TrackedValue.UNKNOWN_REFERENCE);
       return;
     }
 
@@ -177,7 +241,7 @@ final class ReferenceValueTracker {
           case DirectMethodHandleDesc ignored -> "Ljava/lang/invoke/MethodHandle;";
           default -> null;
         };
-    currentState.push(TrackedValue.reference(descriptor, null));
+    currentState.push(nonNullReference(descriptor));
   }
 
   private void simulateField(FieldInstruction field) {
@@ -201,7 +265,10 @@ final class ReferenceValueTracker {
   }
 
   private void simulateInvoke(
-      MethodTypeDesc descriptor, boolean hasReceiver, TargetRef.InvokedMethod returnSource) {
+      MethodTypeDesc descriptor,
+      boolean hasReceiver,
+      TargetRef.InvokedMethod returnSource,
+      boolean provenNonNull) {
     for (int i = descriptor.parameterList().size() - 1; i >= 0; i--) {
       currentState.pop();
     }
@@ -210,7 +277,9 @@ final class ReferenceValueTracker {
     }
 
     String returnDescriptor = descriptor.returnType().descriptorString();
-    if (!"V".equals(returnDescriptor)) {
+    if (provenNonNull) {
+      currentState.push(TrackedValue.reference(returnDescriptor, returnSource, true));
+    } else if (!"V".equals(returnDescriptor)) {
       currentState.push(TrackedValue.fromDescriptor(returnDescriptor, returnSource));
     }
   }
@@ -234,15 +303,18 @@ final class ReferenceValueTracker {
   }
 
   private void simulateTypeCheck(TypeCheckInstruction typeCheck) {
-    currentState.pop();
+    TrackedValue checked = currentState.pop();
     if (typeCheck.opcode() == Opcode.INSTANCEOF) {
       currentState.push(TrackedValue.primitive(TypeKind.INT));
       return;
     }
 
     if (typeCheck.opcode() == Opcode.CHECKCAST) {
+      String descriptor = typeCheck.type().asSymbol().descriptorString();
       currentState.push(
-          TrackedValue.reference(typeCheck.type().asSymbol().descriptorString(), null));
+          checked != null && checked.provenNonNull()
+              ? nonNullReference(descriptor)
+              : plainReference(descriptor));
       return;
     }
 
@@ -251,22 +323,19 @@ final class ReferenceValueTracker {
 
   private void simulateNewReferenceArray(NewReferenceArrayInstruction newReferenceArray) {
     currentState.pop();
-    currentState.push(
-        TrackedValue.reference(arrayDescriptor(newReferenceArray.componentType()), null));
+    currentState.push(nonNullReference(arrayDescriptor(newReferenceArray.componentType())));
   }
 
   private void simulateNewPrimitiveArray(NewPrimitiveArrayInstruction newPrimitiveArray) {
     currentState.pop();
-    currentState.push(
-        TrackedValue.reference("[" + primitiveDescriptor(newPrimitiveArray.typeKind()), null));
+    currentState.push(nonNullReference("[" + primitiveDescriptor(newPrimitiveArray.typeKind())));
   }
 
   private void simulateNewMultiArray(NewMultiArrayInstruction newMultiArray) {
     for (int i = 0; i < newMultiArray.dimensions(); i++) {
       currentState.pop();
     }
-    currentState.push(
-        TrackedValue.reference(newMultiArray.arrayType().asSymbol().descriptorString(), null));
+    currentState.push(nonNullReference(newMultiArray.arrayType().asSymbol().descriptorString()));
   }
 
   private void simulateConvert(ConvertInstruction convert) {
@@ -557,7 +626,7 @@ final class ReferenceValueTracker {
     if (arrayRef == null
         || arrayRef.descriptor() == null
         || !arrayRef.descriptor().startsWith("[")) {
-      return TrackedValue.reference(null, null);
+      return TrackedValue.UNKNOWN_REFERENCE;
     }
 
     String componentDescriptor = arrayRef.descriptor().substring(1);
@@ -569,8 +638,26 @@ final class ReferenceValueTracker {
     return TrackedValue.fromDescriptor(componentDescriptor, null);
   }
 
-  private static FrameState initialState(String ownerInternalName, MethodModel methodModel) {
-    FrameState state = new FrameState();
+  /** Returns the shared instance for a reference of {@code descriptor} with no provenance. */
+  private TrackedValue plainReference(String descriptor) {
+    if (descriptor == null) {
+      return TrackedValue.UNKNOWN_REFERENCE;
+    }
+    return plainReferences.computeIfAbsent(
+        descriptor, ignored -> TrackedValue.reference(descriptor, null));
+  }
+
+  /** Returns the shared instance for a proven non-null reference of {@code descriptor}. */
+  private TrackedValue nonNullReference(String descriptor) {
+    if (descriptor == null) {
+      return TrackedValue.UNKNOWN_REFERENCE;
+    }
+    return nonNullReferences.computeIfAbsent(
+        descriptor, ignored -> TrackedValue.reference(descriptor, null, true));
+  }
+
+  private static FrameState initialState(
+      String ownerInternalName, MethodModel methodModel, FrameState state) {
     int slot = 0;
     if (!methodModel.flags().has(java.lang.reflect.AccessFlag.STATIC)) {
       state.store(
@@ -591,33 +678,31 @@ final class ReferenceValueTracker {
     return state;
   }
 
-  private static Map<Integer, FrameState> loadStackMapFrames(
-      MethodModel methodModel, String ownerInternalName) {
-    Map<Integer, FrameState> frames = new HashMap<>();
-    methodModel
+  private static List<StackMapFrameInfo> stackMapEntries(MethodModel methodModel) {
+    return methodModel
         .code()
-        .ifPresent(
-            codeModel -> {
-              if (!(codeModel instanceof CodeAttribute codeAttribute)) {
-                return;
-              }
-              codeModel
-                  .findAttribute(Attributes.stackMapTable())
-                  .ifPresent(
-                      attribute -> {
-                        for (StackMapFrameInfo frame : attribute.entries()) {
-                          frames.put(
-                              codeAttribute.labelToBci(frame.target()),
-                              frameStateFromStackMap(frame, ownerInternalName));
-                        }
-                      });
-            });
-    return frames;
-  }
-
-  private static FrameState frameStateFromStackMap(
-      StackMapFrameInfo frame, String ownerInternalName) {
-    FrameState state = new FrameState();
+        .filter(CodeAttribute.class::isInstance)
+        .flatMap(codeModel -> codeModel.findAttribute(Attributes.stackMapTable()))
+        .map(StackMapTableAttribute::entries)
+        .orElse(List.of());
+  }
+
+  /** Fills the frame table; stack map entries are already in increasing offset order. */
+  private void loadStackMapFrames(
+      MethodModel methodModel, String ownerInternalName, List<StackMapFrameInfo> stackMap) {
+    if (stackMap.isEmpty()) {
+      return;
+    }
+    CodeAttribute codeAttribute = (CodeAttribute) methodModel.code().orElseThrow();
+    for (int i = 0; i < stackMap.size(); i++) {
+      StackMapFrameInfo frame = stackMap.get(i);
+      frameOffsets[i] = codeAttribute.labelToBci(frame.target());
+      frames[i] = frameStateFromStackMap(frame, ownerInternalName);
+    }
+  }
+
+  private FrameState frameStateFromStackMap(StackMapFrameInfo frame, String ownerInternalName) {
+    FrameState state = new FrameState(frame.locals().size(), frame.stack().size());
     for (int slot = 0; slot < frame.locals().size(); slot++) {
       TrackedValue value = fromVerificationType(frame.locals().get(slot), ownerInternalName);
       if (value != null) {
@@ -633,7 +718,7 @@ final class ReferenceValueTracker {
     return state;
   }
 
-  private static TrackedValue fromVerificationType(
+  private TrackedValue fromVerificationType(
       StackMapFrameInfo.VerificationTypeInfo typeInfo, String ownerInternalName) {
     return switch (typeInfo) {
       case StackMapFrameInfo.SimpleVerificationTypeInfo.TOP -> null;
@@ -645,13 +730,13 @@ final class ReferenceValueTracker {
           TrackedValue.primitive(TypeKind.LONG);
       case StackMapFrameInfo.SimpleVerificationTypeInfo.DOUBLE ->
           TrackedValue.primitive(TypeKind.DOUBLE);
-      case StackMapFrameInfo.SimpleVerificationTypeInfo.NULL -> TrackedValue.reference(null, null);
+      case StackMapFrameInfo.SimpleVerificationTypeInfo.NULL -> TrackedValue.UNKNOWN_REFERENCE;
       case StackMapFrameInfo.SimpleVerificationTypeInfo.UNINITIALIZED_THIS ->
-          TrackedValue.reference("L" + ownerInternalName + ";", null);
+          plainReference("L" + ownerInternalName + ";");
       case StackMapFrameInfo.ObjectVerificationTypeInfo objectType ->
-          TrackedValue.reference(objectType.classSymbol().descriptorString(), null);
+          plainReference(objectType.classSymbol().descriptorString());
       case StackMapFrameInfo.UninitializedVerificationTypeInfo ignored ->
-          TrackedValue.reference(null, null);
+          TrackedValue.UNKNOWN_REFERENCE;
     };
   }
 
@@ -689,66 +774,108 @@ final class ReferenceValueTracker {
     return slot;
   }
 
+  /** Locals indexed by slot and an operand stack; arrays grow if a frame exceeds its sizing. */
   private static final class FrameState {
-    private final Map<Integer, TrackedValue> locals;
-    private final List<TrackedValue> stack;
+    private TrackedValue[] locals;
+    private TrackedValue[] stack;
+    private int stackSize;
 
-    private FrameState() {
-      this(new HashMap<>(), new ArrayList<>());
+    private FrameState(int maxLocals, int maxStack) {
+      this.locals = new TrackedValue[maxLocals];
+      this.stack = new TrackedValue[maxStack];
     }
 
-    private FrameState(Map<Integer, TrackedValue> locals, List<TrackedValue> stack) {
-      this.locals = locals;
-      this.stack = stack;
-    }
-
-    FrameState copy() {
-      return new FrameState(new HashMap<>(locals), new ArrayList<>(stack));
+    /** Overwrites this state with {@code other} and returns this state. */
+    FrameState copyFrom(FrameState other) {
+      if (locals.length < other.locals.length) {
+        locals = new TrackedValue[other.locals.length];
+      }
+      System.arraycopy(other.locals, 0, locals, 0, other.locals.length);
+      Arrays.fill(locals, other.locals.length, locals.length, null);
+      if (stack.length < other.stackSize) {
+        stack = new TrackedValue[other.stackSize];
+      }
+      System.arraycopy(other.stack, 0, stack, 0, other.stackSize);
+      if (stackSize > other.stackSize) {
+        Arrays.fill(stack, other.stackSize, stackSize, null);
+      }
+      stackSize = other.stackSize;
+      return this;
     }
 
     void push(TrackedValue value) {
-      stack.add(value);
+      if (stackSize == stack.length) {
+        stack = Arrays.copyOf(stack, Math.max(4, stackSize << 1));
+      }
+      stack[stackSize++] = value;
     }
 
     TrackedValue pop() {
-      if (stack.isEmpty()) {
+      if (stackSize == 0) {
         throw new IllegalStateException();
       }
-      return stack.remove(stack.size() - 1);
+      TrackedValue value = stack[--stackSize];
+      stack[stackSize] = null;
+      return value;
     }
 
     TrackedValue peek(int depthFromTop) {
-      int index = stack.size() - 1 - depthFromTop;
-      if (index < 0 || index >= stack.size()) {
+      int index = stackSize - 1 - depthFromTop;
+      if (index < 0 || index >= stackSize) {
         return null;
       }
-      return stack.get(index);
+      return stack[index];
     }
 
     TrackedValue load(int slot) {
-      return locals.get(slot);
+      return slot < locals.length ? locals[slot] : null;
     }
 
     void store(int slot, TrackedValue value) {
-      locals.put(slot, value);
+      if (slot + 1 >= locals.length) {
+        locals = Arrays.copyOf(locals, Math.max(slot + 2, locals.length << 1));
+      }
+      locals[slot] = value;
       if (value != null && value.isCategory2()) {
-        locals.remove(slot + 1);
+        locals[slot + 1] = null;
       }
     }
   }
 
-  private record TrackedValue(TypeKind kind, String descriptor, TargetRef sourceTarget) {
+  private record TrackedValue(
+      TypeKind kind, String descriptor, TargetRef sourceTarget, boolean provenNonNull) {
+
+    static final TrackedValue UNKNOWN_REFERENCE =
+        new TrackedValue(TypeKind.REFERENCE, null, null, false);
+    private static final TrackedValue INT = new TrackedValue(TypeKind.INT, null, null, false);
+    private static final TrackedValue LONG = new TrackedValue(TypeKind.LONG, null, null, false);
+    private static final TrackedValue FLOAT = new TrackedValue(TypeKind.FLOAT, null, null, false);
+    private static final TrackedValue DOUBLE = new TrackedValue(TypeKind.DOUBLE, null, null, false);
 
     static TrackedValue primitive(TypeKind kind) {
-      return new TrackedValue(kind, null, null);
+      return switch (kind) {
+        case INT -> INT;
+        case LONG -> LONG;
+        case FLOAT -> FLOAT;
+        case DOUBLE -> DOUBLE;
+        default -> new TrackedValue(kind, null, null, false);
+      };
     }
 
     static TrackedValue reference(String descriptor, TargetRef sourceTarget) {
-      return new TrackedValue(TypeKind.REFERENCE, descriptor, sourceTarget);
+      return reference(descriptor, sourceTarget, false);
+    }
+
+    static TrackedValue reference(
+        String descriptor, TargetRef sourceTarget, boolean provenNonNull) {
+      if (descriptor == null && sourceTarget == null) {
+        return UNKNOWN_REFERENCE;
+      }
+      return new TrackedValue(TypeKind.REFERENCE, descriptor, sourceTarget, provenNonNull);
     }
 
     static TrackedValue ofKind(TypeKind kind) {
-      return kind == TypeKind.REFERENCE ? reference(null, null) : primitive(kind);
+      return kind == TypeKind.REFERENCE ? UNKNOWN_REFERENCE : primitive(kind);
     }
 
     static TrackedValue fromDescriptor(String descriptor, TargetRef sourceTarget) {
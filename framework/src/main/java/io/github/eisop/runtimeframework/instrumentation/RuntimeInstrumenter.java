@@ -7,6 +7,7 @@ import java.lang.classfile.ClassTransform;
 import java.lang.classfile.CodeTransform;
 import java.lang.classfile.MethodModel;
 import java.lang.classfile.attribute.CodeAttribute;
+import java.util.function.IntPredicate;
 
 public abstract class RuntimeInstrumenter {
 
@@ -45,6 +46,47 @@ public abstract class RuntimeInstrumenter {
     };
   }
 
+  /**
+   * Returns a transform for an unchecked-scope class whose method bodies are instrumented lazily.
+   *
+   * <p>Methods whose index in the class is accepted by {@code activated} are instrumented as usual.
+   * Other eligible methods keep their original body behind a {@link LazyTrampoline}. The class
+   * shape is left untouched, so the class can later be retransformed with more methods activated.
+   */
+  public ClassTransform asLazyClassTransform(
+      ClassModel classModel, ClassLoader loader, IntPredicate activated) {
+
+    return new ClassTransform() {
+      private int methodIndex;
+
+      @Override
+      public void accept(ClassBuilder classBuilder, ClassElement classElement) {
+        if (!(classElement instanceof MethodModel methodModel)) {
+          classBuilder.with(classElement);
+          return;
+        }
+        int index = methodIndex++;
+        if (methodModel.code().isEmpty()) {
+          classBuilder.with(classElement);
+          return;
+        }
+        CodeTransform codeTransform =
+            LazyTrampoline.isEligible(methodModel) && !activated.test(index)
+                ? new LazyTrampoline(classModel, methodModel, index)
+                : createCodeTransform(classModel, methodModel, false, loader);
+        classBuilder.transformMethod(
+            methodModel,
+            (methodBuilder, methodElement) -> {
+              if (methodElement instanceof CodeAttribute codeModel) {
+                methodBuilder.transformCode(codeModel, codeTransform);
+              } else {
+                methodBuilder.with(methodElement);
+              }
+            });
+      }
+    };
+  }
+
   // Factory method to get the specific transform (Enforcement, Inference, etc.)
   protected abstract CodeTransform createCodeTransform(
       ClassModel classModel, MethodModel methodModel, boolean isCheckedScope, ClassLoader loader);
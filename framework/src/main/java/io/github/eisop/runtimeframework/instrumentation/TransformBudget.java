@@ -0,0 +1,86 @@
+package io.github.eisop.runtimeframework.instrumentation;
+
+import java.lang.classfile.ClassHierarchyResolver;
+import java.util.function.Supplier;
+
+/**
+ * A time budget for transforming one class on the current thread.
+ *
+ * <p>The instrumentation checks the budget between code elements, and a {@link
+ * #bounded(ClassHierarchyResolver) bounded} hierarchy resolver checks it before each class lookup,
+ * so a transform that runs over it stops at the next check with {@link Exceeded} instead of
+ * stalling the loading thread until it completes. Work outside a budgeted transform is never
+ * interrupted.
+ */
+public final class TransformBudget {
+
+  /** Code elements transformed between two budget checks, minus one. */
+  static final int CHECK_INTERVAL_MASK = 63;
+
+  private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+  private TransformBudget() {}
+
+  /** Thrown out of a transform that ran over its budget. */
+  public static final class Exceeded extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private Exceeded() {
+      super("Transform time budget exceeded", null, false, false);
+    }
+  }
+
+  /**
+   * Runs {@code transform} with a budget of {@code budgetNanos}, or without one when it is not
+   * positive.
+   *
+   * @throws Exceeded if the transform ran over its budget
+   */
+  public static <T> T call(long budgetNanos, Supplier<T> transform) {
+    return call(System.nanoTime(), budgetNanos, transform);
+  }
+
+  /**
+   * Runs {@code transform} with a budget of {@code budgetNanos} counted from {@code startNanos}, a
+   * {@link System#nanoTime()} reading, or without one when it is not positive. The work done since
+   * {@code startNanos}, such as parsing the class, counts against the budget.
+   *
+   * @throws Exceeded if the budget is spent already or the transform ran over it
+   */
+  public static <T> T call(long startNanos, long budgetNanos, Supplier<T> transform) {
+    if (budgetNanos <= 0) {
+      return transform.get();
+    }
+    Long enclosing = DEADLINE.get();
+    DEADLINE.set(startNanos + budgetNanos);
+    try {
+      check();
+      return transform.get();
+    } finally {
+      if (enclosing == null) {
+        DEADLINE.remove();
+      } else {
+        DEADLINE.set(enclosing);
+      }
+    }
+  }
+
+  /**
+   * Returns a resolver that checks the budget before each lookup of {@code resolver}, so that
+   * resolving the class hierarchy for stack maps is bounded too.
+   */
+  public static ClassHierarchyResolver bounded(ClassHierarchyResolver resolver) {
+    return classDesc -> {
+      check();
+      return resolver.getClassInfo(classDesc);
+    };
+  }
+
+  /** Throws {@link Exceeded} if the current thread runs a transform that is over its budget. */
+  static void check() {
+    Long deadline = DEADLINE.get();
+    if (deadline != null && System.nanoTime() - deadline > 0) {
+      throw new Exceeded();
+    }
+  }
+}
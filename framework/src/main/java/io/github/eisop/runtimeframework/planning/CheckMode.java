@@ -0,0 +1,19 @@
+package io.github.eisop.runtimeframework.planning;
+
+/** Controls how often a planned check runs its property test at its emitted site. */
+public enum CheckMode {
+  /** The property test runs on every execution of the site. */
+  FULL,
+
+  /**
+   * The property test runs on a sampled subset of executions, until the site first observes a
+   * violation and escalates to running on every execution.
+   */
+  SAMPLED,
+
+  /**
+   * Like {@link #SAMPLED}, but at the hot-site period, for sites a previous run's profile shows to
+   * be hot and never failing.
+   */
+  HOT_SAMPLED
+}
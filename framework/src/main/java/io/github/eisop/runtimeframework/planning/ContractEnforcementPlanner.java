@@ -1,41 +1,108 @@
 package io.github.eisop.runtimeframework.planning;
 
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.runtimeframework.contracts.PropertyId;
+import io.github.eisop.runtimeframework.contracts.PropertyRequirement;
 import io.github.eisop.runtimeframework.contracts.ValueContract;
 import io.github.eisop.runtimeframework.filter.ClassInfo;
+import io.github.eisop.runtimeframework.policy.ClassClassification;
 import io.github.eisop.runtimeframework.policy.RuntimePolicy;
 import io.github.eisop.runtimeframework.resolution.ParentMethod;
 import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
 import io.github.eisop.runtimeframework.runtime.AttributionKind;
 import io.github.eisop.runtimeframework.semantics.CheckerSemantics;
 import io.github.eisop.runtimeframework.semantics.ContractResolver;
+import io.github.eisop.runtimeframework.semantics.PropertyEmitter;
 import io.github.eisop.runtimeframework.semantics.ResolutionContext;
+import java.io.UncheckedIOException;
+import java.lang.classfile.Attributes;
 import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeModel;
+import java.lang.classfile.FieldModel;
 import java.lang.classfile.MethodModel;
+import java.lang.classfile.Opcode;
+import java.lang.classfile.TypeAnnotation;
+import java.lang.classfile.attribute.RuntimeVisibleTypeAnnotationsAttribute;
+import java.lang.classfile.constantpool.ClassEntry;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.classfile.instruction.NewObjectInstruction;
+import java.lang.constant.ClassDesc;
+import java.lang.reflect.AccessFlag;
 import java.lang.reflect.Modifier;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 /** Planner implementation that resolves checker contracts into enforcement actions. */
 public final class ContractEnforcementPlanner implements EnforcementPlanner {
 
+  /** Simple names of receiver qualifiers that admit a receiver whose constructor is running. */
+  private static final Set<String> INITIALIZATION_RECEIVER_QUALIFIERS =
+      Set.of("UnderInitialization", "UnknownInitialization");
+
   private final RuntimePolicy policy;
   private final ContractResolver contracts;
+  private final PropertyEmitter emitter;
   private final ResolutionEnvironment resolutionEnvironment;
+  private final boolean arrayBoundaryScan;
+  private final boolean finalFieldCommit;
+  private final boolean returnSummaries;
+  private final boolean commitTracking;
+  private final CheckMode checkMode;
+  private final ProfileGuidance profileGuidance;
+  private final Map<ClassModel, PreCommitReachability> preCommitReachability =
+      Collections.synchronizedMap(new WeakHashMap<>());
 
   public ContractEnforcementPlanner(
       RuntimePolicy policy,
       CheckerSemantics semantics,
-      ResolutionEnvironment resolutionEnvironment) {
+      ResolutionEnvironment resolutionEnvironment,
+      RuntimeOptions options) {
     this.policy = Objects.requireNonNull(policy, "policy");
     this.contracts = Objects.requireNonNull(semantics, "semantics").contracts();
+    this.emitter = semantics.emitter();
     this.resolutionEnvironment =
         Objects.requireNonNull(resolutionEnvironment, "resolutionEnvironment");
+    this.arrayBoundaryScan = Objects.requireNonNull(options, "options").arrayBoundaryScanEnabled();
+    this.finalFieldCommit = options.finalFieldCommitEnabled();
+    this.returnSummaries = options.returnSummariesEnabled();
+    this.commitTracking = options.commitTrackingEnabled();
+    this.checkMode = options.samplingEnabled() ? CheckMode.SAMPLED : CheckMode.FULL;
+    this.profileGuidance = options.hasSiteProfileInput() ? loadProfileGuidance(options) : null;
+  }
+
+  /** Returns the estimated cost of the plans made so far, when planning is profile guided. */
+  public Optional<ProfileGuidance.OverheadEstimate> overheadEstimate() {
+    return Optional.ofNullable(profileGuidance).map(ProfileGuidance::estimate);
   }
 
   @Override
   public MethodPlan planMethod(MethodContext methodContext, List<? extends FlowEvent> events) {
+    return plan(methodContext, events, null);
+  }
+
+  @Override
+  public MethodPlan planMethod(
+      MethodContext methodContext,
+      List<? extends FlowEvent> events,
+      BiConsumer<? super FlowEvent, ? super MethodPlan> eventPlans) {
+    return plan(methodContext, events, Objects.requireNonNull(eventPlans, "eventPlans"));
+  }
+
+  /** Plans {@code events} one at a time, passing each plan to {@code eventPlans} unless null. */
+  private MethodPlan plan(
+      MethodContext methodContext,
+      List<? extends FlowEvent> events,
+      BiConsumer<? super FlowEvent, ? super MethodPlan> eventPlans) {
     ResolutionContext resolutionContext =
         ResolutionContext.forMethod(methodContext, resolutionEnvironment);
     List<InstrumentationAction> actions = new ArrayList<>();
@@ -43,11 +110,30 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
       if (!policy.allows(event)) {
         continue;
       }
-      actions.addAll(planEvent(event, resolutionContext));
+      List<InstrumentationAction> eventActions =
+          applyProfile(
+              methodContext.classContext().classInfo().internalName(),
+              methodContext.methodModel(),
+              planEvent(event, resolutionContext));
+      if (eventPlans != null) {
+        eventPlans.accept(event, new MethodPlan(eventActions));
+      }
+      actions.addAll(eventActions);
     }
     return new MethodPlan(actions);
   }
 
+  @Override
+  public boolean provesNonNullResult(MethodContext methodContext, InvokeInstruction invoke) {
+    return returnSummaries
+        && resolutionEnvironment.invocationNeverReturnsNull(
+            invoke.opcode(),
+            invoke.owner().asInternalName(),
+            invoke.name().stringValue(),
+            invoke.typeSymbol().descriptorString(),
+            methodContext.classContext().classInfo().loader());
+  }
+
   @Override
   public boolean shouldGenerateBridge(ClassContext classContext, ParentMethod parentMethod) {
     return !planBridge(classContext, parentMethod).isEmpty();
@@ -59,13 +145,17 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
     ResolutionContext resolutionContext =
         ResolutionContext.forMethod(methodContext, resolutionEnvironment);
     return new MethodPlan(
-        planResolvedTarget(
-            target,
-            resolutionContext,
-            InjectionPoint.afterInstruction(location.bytecodeIndex()),
-            new ValueAccess.OperandStack(0),
-            AttributionKind.LOCAL,
-            DiagnosticSpec.of("Return value of " + target.methodName() + " (Boundary)")));
+        applyProfile(
+            methodContext.classContext().classInfo().internalName(),
+            methodContext.methodModel(),
+            planBoundaryValue(
+                target,
+                target.descriptor().returnType().descriptorString(),
+                resolutionContext,
+                InjectionPoint.afterInstruction(location.bytecodeIndex()),
+                new ValueAccess.OperandStack(0),
+                AttributionKind.LOCAL,
+                DiagnosticSpec.of("Return value of " + target.methodName() + " (Boundary)"))));
   }
 
   @Override
@@ -89,10 +179,8 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
                 contract,
                 AttributionKind.CALLER,
                 DiagnosticSpec.of(
-                    "Parameter "
-                        + i
-                        + " in inherited method "
-                        + method.methodName().stringValue())));
+                    "Parameter " + i + " in inherited method " + method.methodName().stringValue()),
+                checkMode));
       }
       slotIndex += parameterSlotSize(method, i);
     }
@@ -107,10 +195,91 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
               returnContract,
               AttributionKind.CALLER,
               DiagnosticSpec.of(
-                  "Return value of inherited method " + method.methodName().stringValue())));
+                  "Return value of inherited method " + method.methodName().stringValue()),
+              checkMode));
+    }
+
+    return new BridgePlan(
+        parentMethod, applyProfile(classContext.classInfo().internalName(), method, actions));
+  }
+
+  /** Adjusts the check modes of {@code actions} planned in {@code method} to the site profile. */
+  private List<InstrumentationAction> applyProfile(
+      String owner, MethodModel method, List<InstrumentationAction> actions) {
+    if (profileGuidance == null || actions.isEmpty()) {
+      return actions;
+    }
+    List<InstrumentationAction> guided = new ArrayList<>(actions.size());
+    for (InstrumentationAction action : actions) {
+      guided.add(
+          switch (action) {
+            case InstrumentationAction.ValueCheckAction check ->
+                check.withMode(
+                    profileGuidance.choose(
+                        siteKey(owner, method, check.diagnostic()), check.mode()));
+            case InstrumentationAction.ArrayElementsCheckAction check ->
+                check.withMode(
+                    profileGuidance.choose(
+                        siteKey(owner, method, check.diagnostic()), check.mode()));
+            case InstrumentationAction.LifecycleHookAction hook -> hook;
+          });
+    }
+    return guided;
+  }
+
+  private static SiteProfile.Key siteKey(
+      String owner, MethodModel method, DiagnosticSpec diagnostic) {
+    return new SiteProfile.Key(
+        owner,
+        method.methodName().stringValue(),
+        method.methodTypeSymbol().descriptorString(),
+        diagnostic.displayName());
+  }
+
+  private static ProfileGuidance loadProfileGuidance(RuntimeOptions options) {
+    SiteProfile profile;
+    try {
+      profile = SiteProfile.read(Path.of(options.siteProfileInput()));
+    } catch (UncheckedIOException | IllegalArgumentException e) {
+      System.err.println(
+          "[RuntimeFramework] Failed to load site profile: " + options.siteProfileInput());
+      e.printStackTrace();
+      return null;
+    }
+    ProfileGuidance guidance =
+        new ProfileGuidance(profile, options.hotSiteThreshold(), options.hotSiteSamplingPeriod());
+    System.err.println(
+        "[RuntimeFramework] Planning with site profile "
+            + options.siteProfileInput()
+            + " ("
+            + profile.size()
+            + " sites)");
+    EstimateReport.add(guidance);
+    return guidance;
+  }
+
+  /** Prints the estimates of all profile-guided planners from a single shutdown hook. */
+  private static final class EstimateReport {
+
+    private static final List<ProfileGuidance> GUIDANCE = new CopyOnWriteArrayList<>();
+
+    static {
+      Runtime.getRuntime()
+          .addShutdownHook(new Thread(EstimateReport::print, "runtime-framework-plan-estimate"));
+    }
+
+    private EstimateReport() {}
+
+    static void add(ProfileGuidance guidance) {
+      GUIDANCE.add(guidance);
     }
 
-    return new BridgePlan(parentMethod, actions);
+    private static void print() {
+      for (ProfileGuidance guidance : GUIDANCE) {
+        System.err.println(
+            "[RuntimeFramework] Profile-guided plan: " + guidance.estimate().describe());
+      }
+    }
   }
 
   private List<InstrumentationAction> planEvent(
@@ -132,28 +301,39 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
           planOverrideReturn(overrideReturn, resolutionContext);
       case FlowEvent.BridgeParameter ignored -> List.of();
       case FlowEvent.BridgeReturn ignored -> List.of();
-      case FlowEvent.ConstructorEnter ignored -> List.of();
-      case FlowEvent.ConstructorCommit ignored -> List.of();
-      case FlowEvent.BoundaryReceiverUse ignored -> List.of();
+      case FlowEvent.ConstructorEnter constructorEnter -> planConstructorEnter(constructorEnter);
+      case FlowEvent.ConstructorCommit constructorCommit ->
+          planConstructorCommit(constructorCommit, resolutionContext);
+      case FlowEvent.BoundaryReceiverUse boundaryReceiverUse ->
+          planBoundaryReceiverUse(boundaryReceiverUse);
     };
   }
 
   private List<InstrumentationAction> planMethodParameter(
       FlowEvent.MethodParameter event, ResolutionContext resolutionContext) {
-    return planResolvedTarget(
+    MethodModel method = event.target().method();
+    int parameterIndex = event.target().parameterIndex();
+    return planBoundaryValue(
         event.target(),
+        method.methodTypeSymbol().parameterList().get(parameterIndex).descriptorString(),
         resolutionContext,
         InjectionPoint.methodEntry(),
-        new ValueAccess.LocalSlot(
-            parameterSlot(event.target().method(), event.target().parameterIndex())),
+        new ValueAccess.LocalSlot(parameterSlot(method, parameterIndex)),
         AttributionKind.CALLER,
-        DiagnosticSpec.of("Parameter " + event.target().parameterIndex()));
+        DiagnosticSpec.of("Parameter " + parameterIndex));
   }
 
   private List<InstrumentationAction> planMethodReturn(
       FlowEvent.MethodReturn event, ResolutionContext resolutionContext) {
+    boolean provenNonNull =
+        returnSummaries
+            && resolutionEnvironment.neverReturnsNull(
+                event.target().ownerInternalName(),
+                event.target().method(),
+                resolutionContext.loader());
     return planResolvedTarget(
         event.target(),
+        provenNonNull,
         resolutionContext,
         InjectionPoint.normalReturn(event.location().bytecodeIndex()),
         new ValueAccess.OperandStack(0),
@@ -163,8 +343,9 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
 
   private List<InstrumentationAction> planBoundaryCallReturn(
       FlowEvent.BoundaryCallReturn event, ResolutionContext resolutionContext) {
-    return planResolvedTarget(
+    return planBoundaryValue(
         event.target(),
+        event.target().descriptor().returnType().descriptorString(),
         resolutionContext,
         InjectionPoint.afterInstruction(event.location().bytecodeIndex()),
         new ValueAccess.OperandStack(0),
@@ -174,6 +355,9 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
 
   private List<InstrumentationAction> planFieldRead(
       FlowEvent.FieldRead event, ResolutionContext resolutionContext) {
+    if (finalFieldCommit && isCommittedFinalFieldRead(event)) {
+      return List.of();
+    }
     return planResolvedTarget(
         event.target(),
         resolutionContext,
@@ -183,6 +367,199 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
         DiagnosticSpec.of("Read Field '" + event.target().fieldName() + "'"));
   }
 
+  /**
+   * Marks the object as under construction when a constructor of a checked class that commits it is
+   * entered, so that objects never built by a constructor count as committed.
+   */
+  private List<InstrumentationAction> planConstructorEnter(FlowEvent.ConstructorEnter event) {
+    ClassContext classContext = event.methodContext().classContext();
+    if (!commitTracking
+        || classContext.classification() != ClassClassification.CHECKED
+        || isInterface(classContext.classModel())
+        || delegatesToOwnConstructor(
+            event.target().method(), event.target().ownerInternalName())) {
+      return List.of();
+    }
+    return List.of(
+        new InstrumentationAction.LifecycleHookAction(
+            InjectionPoint.methodEntry(),
+            new ValueAccess.ThisReference(),
+            LifecycleHook.CONSTRUCTOR_ENTER));
+  }
+
+  /**
+   * Plans the work done when a constructor or the class initializer completes normally: checking
+   * the final reference fields of the class once, so that reads of those fields elsewhere are left
+   * unchecked, and committing the constructed object.
+   */
+  private List<InstrumentationAction> planConstructorCommit(
+      FlowEvent.ConstructorCommit event, ResolutionContext resolutionContext) {
+    if (!finalFieldCommit && !commitTracking) {
+      return List.of();
+    }
+    MethodModel method = event.target().method();
+    String owner = event.target().ownerInternalName();
+    boolean classInit = method.methodName().stringValue().equals("<clinit>");
+    if (!classInit && delegatesToOwnConstructor(method, owner)) {
+      return List.of();
+    }
+    ClassContext classContext = event.methodContext().classContext();
+    boolean checked = classContext.classification() == ClassClassification.CHECKED;
+
+    List<InstrumentationAction> actions = new ArrayList<>();
+    if (finalFieldCommit && checked) {
+      actions.addAll(planFinalFieldCommit(event, resolutionContext, owner, classInit));
+    }
+    if (commitTracking
+        && !classInit
+        && !isInterface(classContext.classModel())
+        && (checked || hasSuperclassOtherThanObject(classContext.classModel()))) {
+      actions.add(
+          new InstrumentationAction.LifecycleHookAction(
+              InjectionPoint.normalReturn(event.location().bytecodeIndex()),
+              new ValueAccess.ThisReference(),
+              LifecycleHook.CONSTRUCTOR_COMMIT));
+    }
+    return actions;
+  }
+
+  private List<InstrumentationAction> planFinalFieldCommit(
+      FlowEvent.ConstructorCommit event,
+      ResolutionContext resolutionContext,
+      String owner,
+      boolean classInit) {
+    List<InstrumentationAction> actions = new ArrayList<>();
+    for (FieldModel field : event.methodContext().classContext().classModel().fields()) {
+      if (!isCommittedFinalField(field)
+          || Modifier.isStatic(field.flags().flagsMask()) != classInit) {
+        continue;
+      }
+      String name = field.fieldName().stringValue();
+      String descriptor = field.fieldTypeSymbol().descriptorString();
+      actions.addAll(
+          planResolvedTarget(
+              new TargetRef.Field(owner, name, descriptor),
+              resolutionContext,
+              InjectionPoint.normalReturn(event.location().bytecodeIndex()),
+              new ValueAccess.FieldValue(owner, name, descriptor, classInit),
+              AttributionKind.LOCAL,
+              DiagnosticSpec.of(
+                  (classInit ? "Static Final Field '" : "Final Field '") + name + "'")));
+    }
+    return actions;
+  }
+
+  /**
+   * Requires the receiver of a method entered from unchecked code to be committed, unless the
+   * method declares a receiver that may be under initialization.
+   */
+  private List<InstrumentationAction> planBoundaryReceiverUse(FlowEvent.BoundaryReceiverUse event) {
+    if (!commitTracking
+        || isInterface(event.methodContext().classContext().classModel())
+        || acceptsReceiverUnderInitialization(event.target().method())) {
+      return List.of();
+    }
+    return List.of(
+        new InstrumentationAction.LifecycleHookAction(
+            InjectionPoint.methodEntry(),
+            new ValueAccess.ThisReference(),
+            LifecycleHook.BOUNDARY_RECEIVER_USE));
+  }
+
+  private static boolean acceptsReceiverUnderInitialization(MethodModel method) {
+    Optional<RuntimeVisibleTypeAnnotationsAttribute> attribute =
+        method.findAttribute(Attributes.runtimeVisibleTypeAnnotations());
+    if (attribute.isEmpty()) {
+      return false;
+    }
+    for (TypeAnnotation annotation : attribute.get().annotations()) {
+      if (annotation.targetInfo().targetType() == TypeAnnotation.TargetType.METHOD_RECEIVER
+          && INITIALIZATION_RECEIVER_QUALIFIERS.contains(
+              simpleName(annotation.annotation().classSymbol()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String simpleName(ClassDesc type) {
+    String name = type.displayName();
+    return name.substring(name.lastIndexOf('$') + 1);
+  }
+
+  private static boolean isInterface(ClassModel classModel) {
+    return Modifier.isInterface(classModel.flags().flagsMask());
+  }
+
+  private static boolean hasSuperclassOtherThanObject(ClassModel classModel) {
+    Optional<ClassEntry> superclass = classModel.superclass();
+    return superclass.isPresent() && !superclass.get().asInternalName().equals("java/lang/Object");
+  }
+
+  /**
+   * Returns whether {@code event} reads a final field of its own class that its constructors or
+   * class initializer have already checked, from a method that cannot run before they commit it.
+   */
+  private boolean isCommittedFinalFieldRead(FlowEvent.FieldRead event) {
+    MethodContext methodContext = event.methodContext();
+    String methodName = methodContext.methodModel().methodName().stringValue();
+    if (methodName.equals("<init>")
+        || methodName.equals("<clinit>")
+        || !event
+            .target()
+            .ownerInternalName()
+            .equals(methodContext.classContext().classInfo().internalName())) {
+      return false;
+    }
+    ClassModel classModel = methodContext.classContext().classModel();
+    return classModel.fields().stream()
+        .anyMatch(
+            field ->
+                field.fieldName().stringValue().equals(event.target().fieldName())
+                    && field
+                        .fieldTypeSymbol()
+                        .descriptorString()
+                        .equals(event.target().descriptor())
+                    && isCommittedFinalField(field)
+                    && !preCommitReachability
+                        .computeIfAbsent(classModel, PreCommitReachability::of)
+                        .mayRunBeforeCommit(
+                            methodContext.methodModel(),
+                            Modifier.isStatic(field.flags().flagsMask())));
+  }
+
+  private static boolean isCommittedFinalField(FieldModel field) {
+    int flags = field.flags().flagsMask();
+    char descriptor = field.fieldTypeSymbol().descriptorString().charAt(0);
+    return Modifier.isFinal(flags)
+        && (flags & AccessFlag.SYNTHETIC.mask()) == 0
+        && (descriptor == 'L' || descriptor == '[');
+  }
+
+  /**
+   * Returns whether {@code constructor} delegates to another constructor of {@code owner}, whose
+   * own commit already covers the fields. An {@code invokespecial <init>} on the owner that is not
+   * paired with a preceding {@code new} of the owner is the delegating call.
+   */
+  private static boolean delegatesToOwnConstructor(MethodModel constructor, String owner) {
+    int pendingNew = 0;
+    for (CodeElement element : constructor.code().map(CodeModel::elementList).orElse(List.of())) {
+      if (element instanceof NewObjectInstruction newObject
+          && newObject.className().asInternalName().equals(owner)) {
+        pendingNew++;
+      } else if (element instanceof InvokeInstruction invoke
+          && invoke.opcode() == Opcode.INVOKESPECIAL
+          && invoke.name().stringValue().equals("<init>")
+          && invoke.owner().asInternalName().equals(owner)) {
+        if (pendingNew == 0) {
+          return true;
+        }
+        pendingNew--;
+      }
+    }
+    return false;
+  }
+
   private List<InstrumentationAction> planFieldWrite(
       FlowEvent.FieldWrite event, ResolutionContext resolutionContext) {
     String displayName =
@@ -225,6 +602,7 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
       FlowEvent.LocalStore event, ResolutionContext resolutionContext) {
     return planResolvedTarget(
         event.target(),
+        returnSummaries && event.valueProvenNonNull(),
         resolutionContext,
         InjectionPoint.beforeInstruction(event.location().bytecodeIndex()),
         new ValueAccess.OperandStack(0),
@@ -285,13 +663,79 @@ public final class ContractEnforcementPlanner implements EnforcementPlanner {
       ValueAccess valueAccess,
       AttributionKind attribution,
       DiagnosticSpec diagnostic) {
+    return planResolvedTarget(
+        target, false, resolutionContext, injectionPoint, valueAccess, attribution, diagnostic);
+  }
+
+  /**
+   * Plans the check of a resolved contract. A value proven non-null by bytecode analysis already
+   * satisfies {@link PropertyId#NON_NULL}, so that requirement is dropped from its contract.
+   */
+  private List<InstrumentationAction> planResolvedTarget(
+      TargetRef target,
+      boolean provenNonNull,
+      ResolutionContext resolutionContext,
+      InjectionPoint injectionPoint,
+      ValueAccess valueAccess,
+      AttributionKind attribution,
+      DiagnosticSpec diagnostic) {
     ValueContract contract = contracts.resolve(target, resolutionContext);
+    if (provenNonNull && contract.requires(PropertyId.NON_NULL)) {
+      contract =
+          new ValueContract(
+              contract.requirements().stream()
+                  .filter(requirement -> requirement.propertyId() != PropertyId.NON_NULL)
+                  .toList());
+    }
     if (contract.isEmpty()) {
       return List.of();
     }
     return List.of(
         new InstrumentationAction.ValueCheckAction(
-            injectionPoint, valueAccess, contract, attribution, diagnostic));
+            injectionPoint, valueAccess, contract, attribution, diagnostic, checkMode));
+  }
+
+  /**
+   * Plans the reference check of a boundary-crossing value and, for arrays when boundary scanning
+   * is enabled, a single whole-array element scan at the same point.
+   */
+  private List<InstrumentationAction> planBoundaryValue(
+      TargetRef target,
+      String descriptor,
+      ResolutionContext resolutionContext,
+      InjectionPoint injectionPoint,
+      ValueAccess valueAccess,
+      AttributionKind attribution,
+      DiagnosticSpec diagnostic) {
+    List<InstrumentationAction> referenceActions =
+        planResolvedTarget(
+            target, resolutionContext, injectionPoint, valueAccess, attribution, diagnostic);
+    if (!arrayBoundaryScan || emitter == null || !isReferenceArray(descriptor)) {
+      return referenceActions;
+    }
+
+    ValueContract componentContract =
+        contracts.resolve(new TargetRef.ArrayComponent(descriptor, target), resolutionContext);
+    List<PropertyRequirement> scanned =
+        componentContract.requirements().stream().filter(emitter::supportsElementsCheck).toList();
+    if (scanned.isEmpty()) {
+      return referenceActions;
+    }
+
+    List<InstrumentationAction> actions = new ArrayList<>(referenceActions);
+    actions.add(
+        new InstrumentationAction.ArrayElementsCheckAction(
+            injectionPoint,
+            valueAccess,
+            new ValueContract(scanned),
+            attribution,
+            DiagnosticSpec.of(diagnostic.displayName() + " element"),
+            checkMode));
+    return actions;
+  }
+
+  private static boolean isReferenceArray(String descriptor) {
+    return descriptor.startsWith("[L") || descriptor.startsWith("[[");
   }
 
   private Optional<CheckedOverrideTarget> findCheckedOverrideTarget(
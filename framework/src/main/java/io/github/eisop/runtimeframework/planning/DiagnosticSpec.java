@@ -2,14 +2,32 @@ package io.github.eisop.runtimeframework.planning;
 
 import java.util.Objects;
 
-/** Human-readable diagnostic metadata associated with a planned instrumentation action. */
-public record DiagnosticSpec(String displayName) {
+/**
+ * Human-readable diagnostic metadata associated with a planned instrumentation action.
+ *
+ * <p>The site id is assigned when a check is emitted as a registered runtime check site, for
+ * sampling or profiling; it is {@link #NO_SITE} for actions that have not been bound to a site.
+ */
+public record DiagnosticSpec(String displayName, int siteId) {
+
+  public static final int NO_SITE = -1;
 
   public DiagnosticSpec {
     Objects.requireNonNull(displayName, "displayName");
+    if (siteId < NO_SITE) {
+      throw new IllegalArgumentException("siteId must be >= -1: " + siteId);
+    }
   }
 
   public static DiagnosticSpec of(String displayName) {
-    return new DiagnosticSpec(displayName);
+    return new DiagnosticSpec(displayName, NO_SITE);
+  }
+
+  public boolean hasSite() {
+    return siteId != NO_SITE;
+  }
+
+  public DiagnosticSpec withSiteId(int siteId) {
+    return new DiagnosticSpec(displayName, siteId);
   }
 }
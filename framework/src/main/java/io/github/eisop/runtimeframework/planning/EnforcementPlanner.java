@@ -1,7 +1,9 @@
 package io.github.eisop.runtimeframework.planning;
 
 import io.github.eisop.runtimeframework.resolution.ParentMethod;
+import java.lang.classfile.instruction.InvokeInstruction;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /** Produces instrumentation plans for method flows and generated bridges. */
 public interface EnforcementPlanner {
@@ -12,9 +14,38 @@ public interface EnforcementPlanner {
     return planMethod(methodContext, List.of(events));
   }
 
+  /**
+   * Plans {@code events} like {@link #planMethod(MethodContext, List)} and passes the actions
+   * planned for each event to {@code eventPlans}. The default plans the events together and then
+   * each event alone for {@code eventPlans}; planners that plan events independently override it to
+   * report the plans they already make.
+   */
+  default MethodPlan planMethod(
+      MethodContext methodContext,
+      List<? extends FlowEvent> events,
+      BiConsumer<? super FlowEvent, ? super MethodPlan> eventPlans) {
+    MethodPlan plan = planMethod(methodContext, events);
+    if (events.size() == 1) {
+      eventPlans.accept(events.get(0), plan);
+    } else {
+      for (FlowEvent event : events) {
+        eventPlans.accept(event, planMethod(methodContext, List.of(event)));
+      }
+    }
+    return plan;
+  }
+
   MethodPlan planUncheckedReceiverFallbackReturn(
       MethodContext methodContext, BytecodeLocation location, TargetRef.InvokedMethod target);
 
+  /**
+   * Returns whether the result of {@code invoke}, called from {@code methodContext}, is proven
+   * non-null so that checks on it may be omitted.
+   */
+  default boolean provesNonNullResult(MethodContext methodContext, InvokeInstruction invoke) {
+    return false;
+  }
+
   boolean shouldGenerateBridge(ClassContext classContext, ParentMethod parentMethod);
 
   BridgePlan planBridge(ClassContext classContext, ParentMethod parentMethod);
@@ -135,7 +135,15 @@ public sealed interface FlowEvent
     }
   }
 
-  record LocalStore(MethodContext methodContext, BytecodeLocation location, TargetRef.Local target)
+  /**
+   * A reference store to a local. {@code valueProvenNonNull} records that bytecode analysis proved
+   * the stored value non-null, for example a fresh allocation or a summarized call result.
+   */
+  record LocalStore(
+      MethodContext methodContext,
+      BytecodeLocation location,
+      TargetRef.Local target,
+      boolean valueProvenNonNull)
       implements FlowEvent {
     public LocalStore {
       Objects.requireNonNull(methodContext, "methodContext");
@@ -143,6 +151,11 @@ public sealed interface FlowEvent
       Objects.requireNonNull(target, "target");
     }
 
+    public LocalStore(
+        MethodContext methodContext, BytecodeLocation location, TargetRef.Local target) {
+      this(methodContext, location, target, false);
+    }
+
     @Override
     public FlowKind kind() {
       return FlowKind.LOCAL_STORE;
@@ -6,7 +6,9 @@ import java.util.Objects;
 
 /** A concrete action emitted by the planner for later bytecode instrumentation. */
 public sealed interface InstrumentationAction
-    permits InstrumentationAction.ValueCheckAction, InstrumentationAction.LifecycleHookAction {
+    permits InstrumentationAction.ValueCheckAction,
+        InstrumentationAction.ArrayElementsCheckAction,
+        InstrumentationAction.LifecycleHookAction {
 
   InjectionPoint injectionPoint();
 
@@ -15,7 +17,8 @@ public sealed interface InstrumentationAction
       ValueAccess valueAccess,
       ValueContract contract,
       AttributionKind attribution,
-      DiagnosticSpec diagnostic)
+      DiagnosticSpec diagnostic,
+      CheckMode mode)
       implements InstrumentationAction {
     public ValueCheckAction {
       Objects.requireNonNull(injectionPoint, "injectionPoint");
@@ -23,6 +26,54 @@ public sealed interface InstrumentationAction
       Objects.requireNonNull(contract, "contract");
       Objects.requireNonNull(attribution, "attribution");
       Objects.requireNonNull(diagnostic, "diagnostic");
+      Objects.requireNonNull(mode, "mode");
+    }
+
+    public ValueCheckAction(
+        InjectionPoint injectionPoint,
+        ValueAccess valueAccess,
+        ValueContract contract,
+        AttributionKind attribution,
+        DiagnosticSpec diagnostic) {
+      this(injectionPoint, valueAccess, contract, attribution, diagnostic, CheckMode.FULL);
+    }
+
+    public ValueCheckAction withMode(CheckMode mode) {
+      return new ValueCheckAction(
+          injectionPoint, valueAccess, contract, attribution, diagnostic, mode);
+    }
+  }
+
+  /** Checks every element of an array value against the contract of its component type. */
+  record ArrayElementsCheckAction(
+      InjectionPoint injectionPoint,
+      ValueAccess valueAccess,
+      ValueContract componentContract,
+      AttributionKind attribution,
+      DiagnosticSpec diagnostic,
+      CheckMode mode)
+      implements InstrumentationAction {
+    public ArrayElementsCheckAction {
+      Objects.requireNonNull(injectionPoint, "injectionPoint");
+      Objects.requireNonNull(valueAccess, "valueAccess");
+      Objects.requireNonNull(componentContract, "componentContract");
+      Objects.requireNonNull(attribution, "attribution");
+      Objects.requireNonNull(diagnostic, "diagnostic");
+      Objects.requireNonNull(mode, "mode");
+    }
+
+    public ArrayElementsCheckAction(
+        InjectionPoint injectionPoint,
+        ValueAccess valueAccess,
+        ValueContract componentContract,
+        AttributionKind attribution,
+        DiagnosticSpec diagnostic) {
+      this(injectionPoint, valueAccess, componentContract, attribution, diagnostic, CheckMode.FULL);
+    }
+
+    public ArrayElementsCheckAction withMode(CheckMode mode) {
+      return new ArrayElementsCheckAction(
+          injectionPoint, valueAccess, componentContract, attribution, diagnostic, mode);
     }
   }
 
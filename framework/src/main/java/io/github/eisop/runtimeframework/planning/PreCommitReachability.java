@@ -0,0 +1,200 @@
+package io.github.eisop.runtimeframework.planning;
+
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeModel;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.Opcode;
+import java.lang.classfile.constantpool.ClassEntry;
+import java.lang.classfile.instruction.ArrayStoreInstruction;
+import java.lang.classfile.instruction.FieldInstruction;
+import java.lang.classfile.instruction.InvokeDynamicInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.classfile.instruction.NewObjectInstruction;
+import java.lang.constant.ClassDesc;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the methods of a class that may run before its constructors or class initializer commit its
+ * final fields, and so may read one of those fields before it is assigned.
+ *
+ * <p>The roots are the constructors, for instance fields, and the class initializer, for static
+ * fields. A method is reachable when reachable code invokes it on the class itself. Reachable code
+ * that may hand the object under construction to other code makes every method reachable: a call
+ * into another class that takes a reference argument or may have the object as its receiver, an
+ * inherited method called on the class, an {@code invokedynamic}, or, before an instance commit, a
+ * reference stored in a static field, an array or a field of another class. A superclass
+ * constructor other than {@code Object}'s may dispatch to any overridable method, so those are
+ * reachable for instance fields. For static fields, reachable code that touches another class may
+ * run that class's initializer, which may call back, so it also makes every method reachable.
+ */
+final class PreCommitReachability {
+
+  private static final String OBJECT = "java/lang/Object";
+
+  private final Set<String> beforeInstanceCommit;
+  private final boolean overridesRunBeforeInstanceCommit;
+  private final Set<String> beforeStaticCommit;
+
+  private PreCommitReachability(
+      Set<String> beforeInstanceCommit,
+      boolean overridesRunBeforeInstanceCommit,
+      Set<String> beforeStaticCommit) {
+    this.beforeInstanceCommit = beforeInstanceCommit;
+    this.overridesRunBeforeInstanceCommit = overridesRunBeforeInstanceCommit;
+    this.beforeStaticCommit = beforeStaticCommit;
+  }
+
+  static PreCommitReachability of(ClassModel model) {
+    Map<String, MethodModel> methods = new HashMap<>();
+    for (MethodModel method : model.methods()) {
+      methods.put(
+          key(method.methodName().stringValue(), method.methodType().stringValue()), method);
+    }
+    String owner = model.thisClass().asInternalName();
+    Set<String> supertypes = new HashSet<>();
+    supertypes.add(OBJECT);
+    model.superclass().ifPresent(superclass -> supertypes.add(superclass.asInternalName()));
+    for (ClassEntry implemented : model.interfaces()) {
+      supertypes.add(implemented.asInternalName());
+    }
+    boolean hasSuperclass =
+        model.superclass().isPresent() && !model.superclass().get().asInternalName().equals(OBJECT);
+    return new PreCommitReachability(
+        reachable(methods, owner, supertypes, "<init>", false),
+        hasSuperclass,
+        reachable(methods, owner, supertypes, "<clinit>", true));
+  }
+
+  /**
+   * Returns whether {@code method} may run before the final fields it reads are committed: the
+   * static ones when {@code staticField}, otherwise the instance ones.
+   */
+  boolean mayRunBeforeCommit(MethodModel method, boolean staticField) {
+    Set<String> reachable = staticField ? beforeStaticCommit : beforeInstanceCommit;
+    if (reachable == null) {
+      return true;
+    }
+    int flags = method.flags().flagsMask();
+    if (!staticField
+        && overridesRunBeforeInstanceCommit
+        && !Modifier.isStatic(flags)
+        && !Modifier.isPrivate(flags)) {
+      return true;
+    }
+    return reachable.contains(
+        key(method.methodName().stringValue(), method.methodType().stringValue()));
+  }
+
+  /** Returns the methods reachable from those named {@code root}, or null when that is all. */
+  private static Set<String> reachable(
+      Map<String, MethodModel> methods,
+      String owner,
+      Set<String> supertypes,
+      String root,
+      boolean staticRoots) {
+    Set<String> reachable = new HashSet<>();
+    Deque<MethodModel> pending = new ArrayDeque<>();
+    for (Map.Entry<String, MethodModel> entry : methods.entrySet()) {
+      if (entry.getValue().methodName().stringValue().equals(root)) {
+        reachable.add(entry.getKey());
+        pending.add(entry.getValue());
+      }
+    }
+    while (!pending.isEmpty()) {
+      MethodModel method = pending.poll();
+      Map<String, Integer> pendingNew = new HashMap<>();
+      for (CodeElement element : method.code().map(CodeModel::elementList).orElse(List.of())) {
+        if (element instanceof NewObjectInstruction newObject) {
+          pendingNew.merge(newObject.className().asInternalName(), 1, Integer::sum);
+        } else if (isSuperConstructorCall(element, pendingNew)) {
+          continue;
+        }
+        if (mayEscape(element, owner, supertypes, staticRoots)) {
+          return null;
+        }
+        if (element instanceof InvokeInstruction invoke
+            && invoke.owner().asInternalName().equals(owner)) {
+          String callee = key(invoke.name().stringValue(), invoke.typeSymbol().descriptorString());
+          MethodModel target = methods.get(callee);
+          if (target == null) {
+            return null;
+          }
+          if (reachable.add(callee)) {
+            pending.add(target);
+          }
+        }
+      }
+    }
+    return reachable;
+  }
+
+  /**
+   * Returns whether {@code element} is the call to the superclass constructor, which runs the
+   * superclass's own code on the object and is covered by the overridable-method rule. An {@code
+   * invokespecial <init>} not paired with a preceding {@code new} of its owner is that call.
+   */
+  private static boolean isSuperConstructorCall(
+      CodeElement element, Map<String, Integer> pendingNew) {
+    if (!(element instanceof InvokeInstruction invoke)
+        || invoke.opcode() != Opcode.INVOKESPECIAL
+        || !invoke.name().stringValue().equals("<init>")) {
+      return false;
+    }
+    String invokeOwner = invoke.owner().asInternalName();
+    int created = pendingNew.getOrDefault(invokeOwner, 0);
+    if (created == 0) {
+      return true;
+    }
+    pendingNew.put(invokeOwner, created - 1);
+    return false;
+  }
+
+  private static boolean mayEscape(
+      CodeElement element, String owner, Set<String> supertypes, boolean staticRoots) {
+    return switch (element) {
+      case InvokeDynamicInstruction ignored -> true;
+      case ArrayStoreInstruction store -> !staticRoots && store.opcode() == Opcode.AASTORE;
+      case NewObjectInstruction newObject ->
+          staticRoots && !newObject.className().asInternalName().equals(owner);
+      case FieldInstruction field -> {
+        boolean foreign = !field.owner().asInternalName().equals(owner);
+        if (staticRoots) {
+          yield foreign;
+        }
+        yield !field.typeSymbol().isPrimitive()
+            && (field.opcode() == Opcode.PUTSTATIC
+                || (foreign && field.opcode() == Opcode.PUTFIELD));
+      }
+      case InvokeInstruction invoke -> {
+        String invokeOwner = invoke.owner().asInternalName();
+        if (invokeOwner.equals(owner)) {
+          yield false;
+        }
+        boolean constructor = invoke.name().stringValue().equals("<init>");
+        yield staticRoots
+            || invoke.typeSymbol().parameterList().stream()
+                .anyMatch(PreCommitReachability::isReference)
+            || (!constructor
+                && invoke.opcode() != Opcode.INVOKESTATIC
+                && supertypes.contains(invokeOwner));
+      }
+      default -> false;
+    };
+  }
+
+  private static boolean isReference(ClassDesc type) {
+    return !type.isPrimitive();
+  }
+
+  private static String key(String name, String descriptor) {
+    return name + descriptor;
+  }
+}
@@ -0,0 +1,114 @@
+package io.github.eisop.runtimeframework.planning;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chooses how planned checks are emitted from a previous run's site profile, and keeps a running
+ * estimate of what the chosen plan costs compared to checking every hit.
+ *
+ * <p>Sites that ever failed keep full checks. Sites that never failed and ran at least the hot
+ * threshold are sampled at the hot-site period. All other sites keep the planner's default mode.
+ * The estimate counts property tests, weighting each profiled site by its recorded hits and each
+ * sampled site by one hit per sampling period; unprofiled sites are counted but not weighted. A
+ * site planned more than once, as when a method is planned again after its size was estimated, is
+ * counted once.
+ */
+public final class ProfileGuidance {
+
+  private final SiteProfile profile;
+  private final long hotThreshold;
+  private final int sampledPeriod;
+
+  private final Set<SiteProfile.Key> estimatedSites = ConcurrentHashMap.newKeySet();
+  private final LongAdder profiledSites = new LongAdder();
+  private final LongAdder sampledSites = new LongAdder();
+  private final LongAdder failedSites = new LongAdder();
+  private final LongAdder unprofiledSites = new LongAdder();
+  private final LongAdder fullCheckExecutions = new LongAdder();
+  private final LongAdder plannedCheckExecutions = new LongAdder();
+
+  public ProfileGuidance(SiteProfile profile, long hotThreshold, int sampledPeriod) {
+    this.profile = Objects.requireNonNull(profile, "profile");
+    if (sampledPeriod < 1) {
+      throw new IllegalArgumentException("sampledPeriod must be positive: " + sampledPeriod);
+    }
+    this.hotThreshold = hotThreshold;
+    this.sampledPeriod = sampledPeriod;
+  }
+
+  /** Estimated cost of the checks planned so far. */
+  public record OverheadEstimate(
+      long profiledSites,
+      long sampledSites,
+      long failedSites,
+      long unprofiledSites,
+      long fullCheckExecutions,
+      long plannedCheckExecutions) {
+
+    /** Planned property tests as a fraction of the tests full enforcement would run. */
+    public double ratio() {
+      return fullCheckExecutions == 0 ? 1.0 : (double) plannedCheckExecutions / fullCheckExecutions;
+    }
+
+    public String describe() {
+      return String.format(
+          "%d profiled sites (%d sampled, %d failed), %d unprofiled; estimated check executions"
+              + " %d of %d (%.1f%%)",
+          profiledSites,
+          sampledSites,
+          failedSites,
+          unprofiledSites,
+          plannedCheckExecutions,
+          fullCheckExecutions,
+          ratio() * 100.0);
+    }
+  }
+
+  /** Returns the mode for the site {@code key}, recording the choice in the estimate. */
+  public CheckMode choose(SiteProfile.Key key, CheckMode defaultMode) {
+    Optional<SiteProfile.Counts> counts = profile.lookup(key);
+    boolean firstPlan = estimatedSites.add(key);
+    if (counts.isEmpty()) {
+      if (firstPlan) {
+        unprofiledSites.increment();
+      }
+      return defaultMode;
+    }
+    long hits = counts.get().hits();
+    CheckMode mode;
+    if (counts.get().violations() > 0) {
+      mode = CheckMode.FULL;
+    } else if (hits >= hotThreshold) {
+      mode = CheckMode.HOT_SAMPLED;
+    } else {
+      mode = defaultMode;
+    }
+    if (!firstPlan) {
+      return mode;
+    }
+    if (counts.get().violations() > 0) {
+      failedSites.increment();
+    } else if (mode == CheckMode.HOT_SAMPLED) {
+      sampledSites.increment();
+    }
+    profiledSites.increment();
+    fullCheckExecutions.add(hits);
+    plannedCheckExecutions.add(
+        mode == CheckMode.HOT_SAMPLED ? (hits + sampledPeriod - 1) / sampledPeriod : hits);
+    return mode;
+  }
+
+  public OverheadEstimate estimate() {
+    return new OverheadEstimate(
+        profiledSites.sum(),
+        sampledSites.sum(),
+        failedSites.sum(),
+        unprofiledSites.sum(),
+        fullCheckExecutions.sum(),
+        plannedCheckExecutions.sum());
+  }
+}
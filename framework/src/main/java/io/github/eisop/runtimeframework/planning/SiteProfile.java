@@ -0,0 +1,87 @@
+package io.github.eisop.runtimeframework.planning;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Per-site execution counts from a previous run, as written by the runtime check-site profile.
+ *
+ * <p>Sites are keyed by owner, method and check name rather than by source line, so entry checks
+ * and checks whose line was unknown at emission still match. Lines of the same key are summed.
+ */
+public final class SiteProfile {
+
+  private static final int COLUMNS = 7;
+
+  private final Map<Key, Counts> sites;
+
+  private SiteProfile(Map<Key, Counts> sites) {
+    this.sites = Map.copyOf(sites);
+  }
+
+  /** Identifies a check site independently of the run that emitted it. */
+  public record Key(String owner, String methodName, String methodDescriptor, String check) {
+    public Key {
+      Objects.requireNonNull(owner, "owner");
+      Objects.requireNonNull(methodName, "methodName");
+      Objects.requireNonNull(methodDescriptor, "methodDescriptor");
+      Objects.requireNonNull(check, "check");
+    }
+  }
+
+  /** Recorded executions and violations of a site. */
+  public record Counts(long hits, long violations) {
+    Counts plus(Counts other) {
+      return new Counts(hits + other.hits, violations + other.violations);
+    }
+  }
+
+  public static SiteProfile read(Path path) {
+    Objects.requireNonNull(path, "path");
+    try {
+      return parse(Files.readAllLines(path, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read site profile " + path, e);
+    }
+  }
+
+  public static SiteProfile parse(List<String> lines) {
+    Map<Key, Counts> sites = new HashMap<>();
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i);
+      if (line.isBlank() || line.startsWith("#")) {
+        continue;
+      }
+      String[] columns = line.split("\t", COLUMNS);
+      if (columns.length != COLUMNS) {
+        throw new IllegalArgumentException(
+            "Malformed site profile line " + (i + 1) + ": expected " + COLUMNS + " columns");
+      }
+      Key key = new Key(columns[2].replace('.', '/'), columns[3], columns[4], columns[6]);
+      Counts counts;
+      try {
+        counts = new Counts(Long.parseLong(columns[0]), Long.parseLong(columns[1]));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Malformed site profile line " + (i + 1), e);
+      }
+      sites.merge(key, counts, Counts::plus);
+    }
+    return new SiteProfile(sites);
+  }
+
+  public Optional<Counts> lookup(Key key) {
+    return Optional.ofNullable(sites.get(key));
+  }
+
+  public int size() {
+    return sites.size();
+  }
+}
@@ -5,7 +5,8 @@ public sealed interface ValueAccess
     permits ValueAccess.OperandStack,
         ValueAccess.LocalSlot,
         ValueAccess.ThisReference,
-        ValueAccess.FieldWriteValue {
+        ValueAccess.FieldWriteValue,
+        ValueAccess.FieldValue {
 
   record OperandStack(int depthFromTop) implements ValueAccess {}
 
@@ -14,4 +15,9 @@ public sealed interface ValueAccess
   record ThisReference() implements ValueAccess {}
 
   record FieldWriteValue(boolean isStaticAccess) implements ValueAccess {}
+
+  /** A field of the current class, read from {@code this} unless it is static. */
+  record FieldValue(
+      String ownerInternalName, String fieldName, String descriptor, boolean isStaticAccess)
+      implements ValueAccess {}
 }
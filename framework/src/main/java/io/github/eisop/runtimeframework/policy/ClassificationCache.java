@@ -0,0 +1,129 @@
+package io.github.eisop.runtimeframework.policy;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches, per class loader, the classification of classes and whether classes and packages are
+ * {@code @AnnotatedFor} a checker.
+ *
+ * <p>Each class loader has its own tables keyed by internal class or package name, so a lookup
+ * allocates nothing. The tables of a loader are dropped with the loader. The tables of the most
+ * recently used loader are remembered, since transforming a class asks about many classes of the
+ * same loader in a row. Getters return {@code null} when nothing is cached.
+ *
+ * <p>Whether a class is {@code @AnnotatedFor} a checker does not depend on the policy asking, but
+ * its classification does. Policies that classify classes differently each use their own {@link
+ * #withOwnClassifications() view}, which shares the annotation results of this cache.
+ */
+public final class ClassificationCache {
+
+  private final Map<ClassLoader, Tables> loaderTables =
+      Collections.synchronizedMap(new WeakHashMap<>());
+  private volatile Tables bootstrapTables = new Tables(null);
+  private volatile Tables lastTables;
+  private final ClassificationCache annotations;
+
+  public ClassificationCache() {
+    this.annotations = null;
+  }
+
+  private ClassificationCache(ClassificationCache annotations) {
+    this.annotations = annotations;
+  }
+
+  /**
+   * Returns a cache with its own, empty classifications that keeps its annotation results in this
+   * cache.
+   */
+  public ClassificationCache withOwnClassifications() {
+    return new ClassificationCache(annotations != null ? annotations : this);
+  }
+
+  public ClassClassification classification(ClassLoader loader, String internalName) {
+    return tables(loader).classifications.get(internalName);
+  }
+
+  /** Caches {@code classification} unless one is cached already, and returns the cached one. */
+  public ClassClassification putClassification(
+      ClassLoader loader, String internalName, ClassClassification classification) {
+    ClassClassification previous =
+        tables(loader).classifications.putIfAbsent(internalName, classification);
+    return previous != null ? previous : classification;
+  }
+
+  public Boolean annotatedClass(ClassLoader loader, String internalName) {
+    if (annotations != null) {
+      return annotations.annotatedClass(loader, internalName);
+    }
+    return tables(loader).annotatedClasses.get(internalName);
+  }
+
+  public void putAnnotatedClass(ClassLoader loader, String internalName, boolean annotated) {
+    if (annotations != null) {
+      annotations.putAnnotatedClass(loader, internalName, annotated);
+      return;
+    }
+    tables(loader).annotatedClasses.putIfAbsent(internalName, annotated);
+  }
+
+  /** Returns whether the {@code package-info} of {@code packageName} is annotated, if cached. */
+  public Boolean annotatedPackage(ClassLoader loader, String packageName) {
+    if (annotations != null) {
+      return annotations.annotatedPackage(loader, packageName);
+    }
+    return tables(loader).annotatedPackages.get(packageName);
+  }
+
+  public void putAnnotatedPackage(ClassLoader loader, String packageName, boolean annotated) {
+    if (annotations != null) {
+      annotations.putAnnotatedPackage(loader, packageName, annotated);
+      return;
+    }
+    tables(loader).annotatedPackages.putIfAbsent(packageName, annotated);
+  }
+
+  /**
+   * Drops every result cached in this cache, for example after the policy changed. Annotation
+   * results kept by the cache a view was created from are left alone.
+   */
+  public void clear() {
+    synchronized (loaderTables) {
+      loaderTables.clear();
+      bootstrapTables = new Tables(null);
+      lastTables = null;
+    }
+  }
+
+  private Tables tables(ClassLoader loader) {
+    if (loader == null) {
+      return bootstrapTables;
+    }
+    Tables last = lastTables;
+    if (last != null && last.loader.get() == loader) {
+      return last;
+    }
+    synchronized (loaderTables) {
+      Tables tables = loaderTables.computeIfAbsent(loader, Tables::new);
+      lastTables = tables;
+      return tables;
+    }
+  }
+
+  /** The cached results of one class loader, which is only weakly referenced. */
+  private static final class Tables {
+    private final WeakReference<ClassLoader> loader;
+    private final ConcurrentMap<String, ClassClassification> classifications =
+        new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> annotatedClasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> annotatedPackages = new ConcurrentHashMap<>();
+
+    Tables(ClassLoader loader) {
+      this.loader = new WeakReference<>(loader);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package io.github.eisop.runtimeframework.policy;
+
+import io.github.eisop.runtimeframework.filter.ClassInfo;
+import io.github.eisop.runtimeframework.planning.FlowEvent;
+import java.lang.classfile.ClassModel;
+import java.util.Objects;
+
+/**
+ * A policy that classifies classes like another policy but only allows checks at method entry and
+ * return, on bridges and in lifecycle hooks.
+ *
+ * <p>It is the cheaper mode for classes whose full transformation runs over its time budget: the
+ * class keeps the shape callers rely on, such as split safe methods, while the checks that need a
+ * plan and often a class lookup per instruction are dropped.
+ */
+public final class EntryReturnRuntimePolicy implements RuntimePolicy {
+
+  private final RuntimePolicy delegate;
+
+  public EntryReturnRuntimePolicy(RuntimePolicy delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate");
+  }
+
+  @Override
+  public ClassClassification classify(ClassInfo info) {
+    return delegate.classify(info);
+  }
+
+  @Override
+  public ClassClassification classify(ClassInfo info, ClassModel model) {
+    return delegate.classify(info, model);
+  }
+
+  @Override
+  public boolean isChecked(String internalName, ClassLoader loader) {
+    return delegate.isChecked(internalName, loader);
+  }
+
+  @Override
+  public boolean rejects(ClassInfo info) {
+    return delegate.rejects(info);
+  }
+
+  @Override
+  public boolean isGlobalMode() {
+    return delegate.isGlobalMode();
+  }
+
+  @Override
+  public boolean allows(FlowEvent event) {
+    boolean entryOrReturn =
+        switch (event) {
+          case FlowEvent.MethodParameter ignored -> true;
+          case FlowEvent.MethodReturn ignored -> true;
+          case FlowEvent.BridgeParameter ignored -> true;
+          case FlowEvent.BridgeReturn ignored -> true;
+          case FlowEvent.OverrideParameter ignored -> true;
+          case FlowEvent.OverrideReturn ignored -> true;
+          case FlowEvent.ConstructorEnter ignored -> true;
+          case FlowEvent.ConstructorCommit ignored -> true;
+          case FlowEvent.BoundaryReceiverUse ignored -> true;
+          case FlowEvent.BoundaryCallReturn ignored -> false;
+          case FlowEvent.FieldRead ignored -> false;
+          case FlowEvent.FieldWrite ignored -> false;
+          case FlowEvent.ArrayLoad ignored -> false;
+          case FlowEvent.ArrayStore ignored -> false;
+          case FlowEvent.LocalStore ignored -> false;
+        };
+    return entryOrReturn && delegate.allows(event);
+  }
+}
@@ -0,0 +1,142 @@
+package io.github.eisop.runtimeframework.policy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * A policy profile applied to the classes of the class loaders or modules whose names match a
+ * pattern.
+ *
+ * <p>In text form a profile is one line of whitespace-separated fields:
+ *
+ * <pre>
+ * loader|module  pattern  off|standard|global  [checked-class,...]
+ * </pre>
+ *
+ * <p>The pattern may use {@code *} as a wildcard. A loader matches by its name or by the binary
+ * name of its class, and the bootstrap loader is named {@code bootstrap}. A module profile only
+ * matches classes whose module is known and named.
+ */
+public final class PolicyProfile {
+
+  public static final String BOOTSTRAP_LOADER_NAME = "bootstrap";
+
+  /** What the pattern of a profile is matched against. */
+  public enum Selector {
+    LOADER,
+    MODULE
+  }
+
+  /** How classes selected by a profile are classified. */
+  public enum Mode {
+    /** Classes are skipped without being parsed. */
+    OFF,
+    /** Only checked classes are instrumented. */
+    STANDARD,
+    /** Checked classes are instrumented and every other class is instrumented as unchecked. */
+    GLOBAL
+  }
+
+  private final Selector selector;
+  private final String pattern;
+  private final Mode mode;
+  private final List<String> checkedClasses;
+  private final Pattern compiledPattern;
+
+  public PolicyProfile(Selector selector, String pattern, Mode mode, List<String> checkedClasses) {
+    this.selector = Objects.requireNonNull(selector, "selector");
+    this.pattern = Objects.requireNonNull(pattern, "pattern");
+    this.mode = Objects.requireNonNull(mode, "mode");
+    this.checkedClasses = List.copyOf(Objects.requireNonNull(checkedClasses, "checkedClasses"));
+    this.compiledPattern = compile(pattern);
+  }
+
+  /** Parses a profile from its text form. */
+  public static PolicyProfile parse(String line) {
+    String[] fields = line.trim().split("\\s+");
+    if (fields.length < 3 || fields.length > 4) {
+      throw new IllegalArgumentException("Invalid policy profile: " + line);
+    }
+    try {
+      return new PolicyProfile(
+          Selector.valueOf(fields[0].toUpperCase(Locale.ROOT)),
+          fields[1],
+          Mode.valueOf(fields[2].toUpperCase(Locale.ROOT)),
+          fields.length == 4
+              ? Arrays.stream(fields[3].split(",")).filter(name -> !name.isBlank()).toList()
+              : List.of());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid policy profile: " + line, e);
+    }
+  }
+
+  /** Returns whether this profile selects classes of {@code loader} in {@code module}. */
+  public boolean matches(ClassLoader loader, Module module) {
+    return switch (selector) {
+      case LOADER ->
+          loader == null
+              ? compiledPattern.matcher(BOOTSTRAP_LOADER_NAME).matches()
+              : (loader.getName() != null && compiledPattern.matcher(loader.getName()).matches())
+                  || compiledPattern.matcher(loader.getClass().getName()).matches();
+      case MODULE ->
+          module != null && module.isNamed() && compiledPattern.matcher(module.getName()).matches();
+    };
+  }
+
+  public Selector selector() {
+    return selector;
+  }
+
+  public String pattern() {
+    return pattern;
+  }
+
+  public Mode mode() {
+    return mode;
+  }
+
+  public List<String> checkedClasses() {
+    return checkedClasses;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof PolicyProfile profile
+        && selector == profile.selector
+        && pattern.equals(profile.pattern)
+        && mode == profile.mode
+        && checkedClasses.equals(profile.checkedClasses);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(selector, pattern, mode, checkedClasses);
+  }
+
+  @Override
+  public String toString() {
+    return "PolicyProfile[selector="
+        + selector
+        + ", pattern="
+        + pattern
+        + ", mode="
+        + mode
+        + ", checkedClasses="
+        + checkedClasses
+        + "]";
+  }
+
+  private static Pattern compile(String glob) {
+    StringBuilder regex = new StringBuilder();
+    for (String part : glob.split("\\*", -1)) {
+      if (!regex.isEmpty()) {
+        regex.append(".*");
+      }
+      regex.append(Pattern.quote(part));
+    }
+    return Pattern.compile(regex.toString());
+  }
+}
@@ -0,0 +1,235 @@
+package io.github.eisop.runtimeframework.policy;
+
+import io.github.eisop.runtimeframework.filter.ClassInfo;
+import io.github.eisop.runtimeframework.filter.ClassListFilter;
+import io.github.eisop.runtimeframework.filter.Filter;
+import io.github.eisop.runtimeframework.planning.FlowEvent;
+import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
+import java.io.IOException;
+import java.lang.classfile.ClassModel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A runtime policy that selects a {@link PolicyProfile} per class loader or module and delegates to
+ * a policy built for that profile, falling back to a default policy for classes no profile selects.
+ *
+ * <p>The first matching profile wins, and a profile added later takes precedence over the earlier
+ * ones, so an application server can add a profile when it deploys an application. The selected
+ * policy is cached per class loader and dropped with it. Each profile policy keeps its own
+ * classifications in a {@link ClassificationCache#withOwnClassifications() view} of the default
+ * policy's cache, so the {@code @AnnotatedFor} results are shared but a class classified under one
+ * policy is never answered from another. Adding a profile resets the selection; classes already
+ * transformed keep their instrumentation.
+ *
+ * <p>A lookup by class name is answered by the profile of the loader that defines the class, found
+ * through the {@link ResolutionEnvironment#definingLoader resolution environment}, so a class of a
+ * parent loader whose profile turns checking off is unchecked even for a checked child. Such a
+ * lookup, like a class described without a module, carries no module. When module profiles exist,
+ * the module is found among the named modules of the boot layer defined by the same loader; classes
+ * of modules in other layers are looked up under their loader's profile.
+ */
+public final class ProfiledRuntimePolicy implements RuntimePolicy {
+
+  private static volatile ProfiledRuntimePolicy installed;
+
+  private final Filter<ClassInfo> instrumentationSafetyFilter;
+  private final boolean trustAnnotatedFor;
+  private final List<String> checkerNames;
+  private final ResolutionEnvironment resolutionEnvironment;
+  private final RuntimePolicy defaultPolicy;
+  private final ClassificationCache cache;
+  private volatile List<Entry> entries = List.of();
+  private volatile boolean hasModuleProfiles;
+  private final Map<ClassLoader, LoaderState> loaderStates =
+      Collections.synchronizedMap(new WeakHashMap<>());
+  private volatile LoaderState bootstrapState = new LoaderState();
+
+  public ProfiledRuntimePolicy(
+      Filter<ClassInfo> instrumentationSafetyFilter,
+      boolean trustAnnotatedFor,
+      List<String> checkerNames,
+      ResolutionEnvironment resolutionEnvironment,
+      ClassificationCache cache,
+      RuntimePolicy defaultPolicy,
+      List<PolicyProfile> profiles) {
+    this.instrumentationSafetyFilter =
+        Objects.requireNonNull(instrumentationSafetyFilter, "instrumentationSafetyFilter");
+    this.trustAnnotatedFor = trustAnnotatedFor;
+    this.checkerNames = List.copyOf(checkerNames);
+    this.resolutionEnvironment =
+        Objects.requireNonNull(resolutionEnvironment, "resolutionEnvironment");
+    this.cache = Objects.requireNonNull(cache, "cache");
+    this.defaultPolicy = Objects.requireNonNull(defaultPolicy, "defaultPolicy");
+    for (PolicyProfile profile : profiles.reversed()) {
+      addProfile(profile);
+    }
+  }
+
+  /** Makes {@code policy} available through {@link #installed()}. */
+  public static void install(ProfiledRuntimePolicy policy) {
+    installed = Objects.requireNonNull(policy, "policy");
+  }
+
+  /** Returns the policy the agent runs with, if it was configured with profiles. */
+  public static Optional<ProfiledRuntimePolicy> installed() {
+    return Optional.ofNullable(installed);
+  }
+
+  /** Reads the profiles of a profile file, one per line; {@code #} starts a comment. */
+  public static List<PolicyProfile> readProfiles(Path file) throws IOException {
+    List<PolicyProfile> profiles = new ArrayList<>();
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      int comment = line.indexOf('#');
+      String content = (comment < 0 ? line : line.substring(0, comment)).trim();
+      if (!content.isEmpty()) {
+        profiles.add(PolicyProfile.parse(content));
+      }
+    }
+    return profiles;
+  }
+
+  /** Adds {@code profile} ahead of every existing profile. */
+  public void addProfile(PolicyProfile profile) {
+    Objects.requireNonNull(profile, "profile");
+    RuntimePolicy policy =
+        profile.mode() == PolicyProfile.Mode.OFF
+            ? null
+            : new ScopeAwareRuntimePolicy(
+                instrumentationSafetyFilter,
+                new ClassListFilter(profile.checkedClasses()),
+                profile.mode() == PolicyProfile.Mode.GLOBAL,
+                trustAnnotatedFor,
+                checkerNames,
+                resolutionEnvironment,
+                cache.withOwnClassifications());
+    synchronized (loaderStates) {
+      List<Entry> updated = new ArrayList<>(entries.size() + 1);
+      updated.add(new Entry(profile, policy));
+      updated.addAll(entries);
+      entries = List.copyOf(updated);
+      hasModuleProfiles |= profile.selector() == PolicyProfile.Selector.MODULE;
+      loaderStates.clear();
+      bootstrapState = new LoaderState();
+    }
+  }
+
+  public List<PolicyProfile> profiles() {
+    return entries.stream().map(Entry::profile).toList();
+  }
+
+  /** Classes of loaders and modules selected by an {@code off} profile are rejected unparsed. */
+  @Override
+  public boolean rejects(ClassInfo info) {
+    return selectedPolicy(info).isEmpty();
+  }
+
+  @Override
+  public ClassClassification classify(ClassInfo info) {
+    Optional<RuntimePolicy> policy = selectedPolicy(info);
+    return policy.isPresent() ? policy.get().classify(info) : ClassClassification.SKIP;
+  }
+
+  @Override
+  public ClassClassification classify(ClassInfo info, ClassModel model) {
+    Optional<RuntimePolicy> policy = selectedPolicy(info);
+    return policy.isPresent() ? policy.get().classify(info, model) : ClassClassification.SKIP;
+  }
+
+  @Override
+  public boolean isChecked(String internalName, ClassLoader loader) {
+    ClassLoader definingLoader = resolutionEnvironment.definingLoader(internalName, loader);
+    Optional<RuntimePolicy> policy =
+        selectedPolicy(new ClassInfo(internalName, definingLoader, null));
+    return policy.isPresent() && policy.get().isChecked(internalName, definingLoader);
+  }
+
+  /** Returns the global mode of the default policy; each profile decides its own. */
+  @Override
+  public boolean isGlobalMode() {
+    return defaultPolicy.isGlobalMode();
+  }
+
+  @Override
+  public boolean allows(FlowEvent event) {
+    Optional<RuntimePolicy> policy =
+        selectedPolicy(event.methodContext().classContext().classInfo());
+    return policy.isPresent() && policy.get().allows(event);
+  }
+
+  /** Returns the policy for {@code info}, or empty when its profile turns checking off. */
+  private Optional<RuntimePolicy> selectedPolicy(ClassInfo info) {
+    Module module = info.module();
+    if (module == null && hasModuleProfiles) {
+      module = moduleOf(info.internalName(), info.loader());
+    }
+    String moduleKey = module != null && module.isNamed() ? module.getName() : "";
+    LoaderState state = loaderState(info.loader());
+    Optional<RuntimePolicy> policy = state.policies.get(moduleKey);
+    if (policy == null) {
+      policy = Optional.of(defaultPolicy);
+      for (Entry entry : entries) {
+        if (entry.profile().matches(info.loader(), module)) {
+          policy = Optional.ofNullable(entry.policy());
+          break;
+        }
+      }
+      state.policies.putIfAbsent(moduleKey, policy);
+    }
+    return policy;
+  }
+
+  /** Returns the boot layer module of {@code loader} that holds the class, or {@code null}. */
+  private Module moduleOf(String internalName, ClassLoader loader) {
+    int slash = internalName.lastIndexOf('/');
+    if (slash < 0) {
+      return null;
+    }
+    String packageName = internalName.substring(0, slash).replace('/', '.');
+    return loaderState(loader)
+        .packageModules
+        .computeIfAbsent(packageName, name -> bootLayerModule(name, loader))
+        .orElse(null);
+  }
+
+  private static Optional<Module> bootLayerModule(String packageName, ClassLoader loader) {
+    for (Module module : ModuleLayer.boot().modules()) {
+      if (module.getClassLoader() == loader && module.getPackages().contains(packageName)) {
+        return Optional.of(module);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private LoaderState loaderState(ClassLoader loader) {
+    if (loader == null) {
+      return bootstrapState;
+    }
+    synchronized (loaderStates) {
+      return loaderStates.computeIfAbsent(loader, ignored -> new LoaderState());
+    }
+  }
+
+  private record Entry(PolicyProfile profile, RuntimePolicy policy) {}
+
+  /**
+   * The policies selected for the modules of one class loader, by module name, and the boot layer
+   * modules of its packages.
+   */
+  private static final class LoaderState {
+    private final ConcurrentMap<String, Optional<RuntimePolicy>> policies =
+        new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Optional<Module>> packageModules =
+        new ConcurrentHashMap<>();
+  }
+}
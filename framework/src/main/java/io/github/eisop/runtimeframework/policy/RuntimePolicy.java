@@ -13,6 +13,14 @@ public interface RuntimePolicy {
 
   boolean isGlobalMode();
 
+  /**
+   * Returns whether the class is skipped before its bytes are parsed. The answer must not depend on
+   * the class file and should be cheap.
+   */
+  default boolean rejects(ClassInfo info) {
+    return false;
+  }
+
   default boolean shouldTransform(ClassInfo info) {
     return classify(info) != ClassClassification.SKIP;
   }
@@ -25,6 +33,11 @@ public interface RuntimePolicy {
     return classify(info) == ClassClassification.CHECKED;
   }
 
+  /** Returns whether the class {@code internalName} of {@code loader} is checked. */
+  default boolean isChecked(String internalName, ClassLoader loader) {
+    return isChecked(new ClassInfo(internalName, loader, null));
+  }
+
   default boolean isChecked(ClassInfo info, ClassModel model) {
     return classify(info, model) == ClassClassification.CHECKED;
   }
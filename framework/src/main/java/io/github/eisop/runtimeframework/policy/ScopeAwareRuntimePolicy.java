@@ -6,6 +6,8 @@ import io.github.eisop.runtimeframework.filter.Filter;
 import io.github.eisop.runtimeframework.planning.FlowEvent;
 import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
 import java.lang.classfile.ClassModel;
+import java.util.List;
+import java.util.Objects;
 
 /** Runtime policy implementation for checked-scope and global-mode behavior. */
 public final class ScopeAwareRuntimePolicy implements RuntimePolicy {
@@ -15,6 +17,7 @@ public final class ScopeAwareRuntimePolicy implements RuntimePolicy {
   private final boolean isGlobalMode;
   private final boolean trustAnnotatedFor;
   private final AnnotatedForFilter annotatedForFilter;
+  private final ClassificationCache cache;
 
   public ScopeAwareRuntimePolicy(
       Filter<ClassInfo> instrumentationSafetyFilter,
@@ -38,43 +41,113 @@ public final class ScopeAwareRuntimePolicy implements RuntimePolicy {
       boolean trustAnnotatedFor,
       String checkerName,
       ResolutionEnvironment resolutionEnvironment) {
+    this(
+        instrumentationSafetyFilter,
+        checkedScopeFilter,
+        isGlobalMode,
+        trustAnnotatedFor,
+        List.of(checkerName),
+        resolutionEnvironment);
+  }
+
+  /**
+   * Creates a policy for checkers enforced together. A class annotated for any of {@code
+   * checkerNames} is checked.
+   */
+  public ScopeAwareRuntimePolicy(
+      Filter<ClassInfo> instrumentationSafetyFilter,
+      Filter<ClassInfo> checkedScopeFilter,
+      boolean isGlobalMode,
+      boolean trustAnnotatedFor,
+      List<String> checkerNames,
+      ResolutionEnvironment resolutionEnvironment) {
+    this(
+        instrumentationSafetyFilter,
+        checkedScopeFilter,
+        isGlobalMode,
+        trustAnnotatedFor,
+        checkerNames,
+        resolutionEnvironment,
+        new ClassificationCache());
+  }
+
+  /**
+   * Creates a policy that keeps classifications in {@code cache}, which may be shared with other
+   * policies that classify every class the same way.
+   */
+  public ScopeAwareRuntimePolicy(
+      Filter<ClassInfo> instrumentationSafetyFilter,
+      Filter<ClassInfo> checkedScopeFilter,
+      boolean isGlobalMode,
+      boolean trustAnnotatedFor,
+      List<String> checkerNames,
+      ResolutionEnvironment resolutionEnvironment,
+      ClassificationCache cache) {
     this.instrumentationSafetyFilter = instrumentationSafetyFilter;
     this.checkedScopeFilter = checkedScopeFilter;
     this.isGlobalMode = isGlobalMode;
     this.trustAnnotatedFor = trustAnnotatedFor;
+    this.cache = Objects.requireNonNull(cache, "cache");
     this.annotatedForFilter =
-        trustAnnotatedFor ? new AnnotatedForFilter(checkerName, resolutionEnvironment) : null;
+        trustAnnotatedFor
+            ? new AnnotatedForFilter(checkerNames, resolutionEnvironment, cache)
+            : null;
   }
 
   @Override
   public ClassClassification classify(ClassInfo info) {
-    if (!instrumentationSafetyFilter.test(info)) {
-      return ClassClassification.SKIP;
+    String internalName = info.internalName();
+    ClassClassification cached =
+        internalName == null ? null : cache.classification(info.loader(), internalName);
+    if (cached != null) {
+      return cached;
     }
 
-    if (isExplicitlyChecked(info) || isAnnotatedForChecked(info)) {
-      return ClassClassification.CHECKED;
+    ClassClassification classification;
+    if (!instrumentationSafetyFilter.test(info)) {
+      classification = ClassClassification.SKIP;
+    } else if (isExplicitlyChecked(info) || isAnnotatedForChecked(info)) {
+      classification = ClassClassification.CHECKED;
+    } else {
+      classification = isGlobalMode ? ClassClassification.UNCHECKED : ClassClassification.SKIP;
     }
-
-    return isGlobalMode ? ClassClassification.UNCHECKED : ClassClassification.SKIP;
+    return internalName == null
+        ? classification
+        : cache.putClassification(info.loader(), internalName, classification);
   }
 
   @Override
   public ClassClassification classify(ClassInfo info, ClassModel model) {
-    if (!instrumentationSafetyFilter.test(info)) {
-      return ClassClassification.SKIP;
+    String internalName = info.internalName();
+    ClassClassification cached =
+        internalName == null ? null : cache.classification(info.loader(), internalName);
+    if (cached != null) {
+      return cached;
     }
 
-    boolean checked = isExplicitlyChecked(info);
-    if (!checked && trustAnnotatedFor && annotatedForFilter != null) {
-      checked = annotatedForFilter.test(model, info.loader());
+    ClassClassification classification;
+    if (!instrumentationSafetyFilter.test(info)) {
+      classification = ClassClassification.SKIP;
+    } else if (isExplicitlyChecked(info)
+        || (trustAnnotatedFor
+            && annotatedForFilter != null
+            && annotatedForFilter.test(model, info.loader()))) {
+      classification = ClassClassification.CHECKED;
+    } else {
+      classification = isGlobalMode ? ClassClassification.UNCHECKED : ClassClassification.SKIP;
     }
+    return internalName == null
+        ? classification
+        : cache.putClassification(info.loader(), internalName, classification);
+  }
 
-    if (checked) {
-      return ClassClassification.CHECKED;
+  @Override
+  public boolean isChecked(String internalName, ClassLoader loader) {
+    ClassClassification cached = cache.classification(loader, internalName);
+    if (cached != null) {
+      return cached == ClassClassification.CHECKED;
     }
-
-    return isGlobalMode ? ClassClassification.UNCHECKED : ClassClassification.SKIP;
+    return isChecked(new ClassInfo(internalName, loader, null));
   }
 
   @Override
@@ -105,9 +178,10 @@ public final class ScopeAwareRuntimePolicy implements RuntimePolicy {
       case FlowEvent.BridgeReturn ignored -> true;
       case FlowEvent.OverrideParameter ignored -> isGlobalMode && isUncheckedEnclosingMethod(event);
       case FlowEvent.OverrideReturn ignored -> isGlobalMode && isUncheckedEnclosingMethod(event);
-      case FlowEvent.ConstructorEnter ignored -> false;
-      case FlowEvent.ConstructorCommit ignored -> false;
-      case FlowEvent.BoundaryReceiverUse ignored -> false;
+      case FlowEvent.ConstructorEnter ignored -> isCheckedEnclosingMethod(event);
+      case FlowEvent.ConstructorCommit ignored ->
+          isCheckedEnclosingMethod(event) || (isGlobalMode && isUncheckedEnclosingMethod(event));
+      case FlowEvent.BoundaryReceiverUse ignored -> isCheckedEnclosingMethod(event);
     };
   }
 
@@ -133,9 +207,7 @@ public final class ScopeAwareRuntimePolicy implements RuntimePolicy {
   }
 
   private boolean isCheckedTarget(String ownerInternalName, FlowEvent event) {
-    return isChecked(
-        new ClassInfo(
-            ownerInternalName, event.methodContext().classContext().classInfo().loader(), null));
+    return isChecked(ownerInternalName, event.methodContext().classContext().classInfo().loader());
   }
 
   private boolean isUncheckedTarget(String ownerInternalName, FlowEvent event) {
@@ -7,10 +7,11 @@ import java.lang.classfile.MethodModel;
 import java.lang.reflect.Modifier;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.BiPredicate;
 
 public class BytecodeHierarchyResolver implements HierarchyResolver {
 
-  private final Filter<ClassInfo> checkedScopeFilter;
+  private final BiPredicate<String, ClassLoader> isChecked;
   private final ResolutionEnvironment resolutionEnvironment;
 
   public BytecodeHierarchyResolver(Filter<ClassInfo> checkedScopeFilter) {
@@ -19,7 +20,19 @@ public class BytecodeHierarchyResolver implements HierarchyResolver {
 
   public BytecodeHierarchyResolver(
       Filter<ClassInfo> checkedScopeFilter, ResolutionEnvironment resolutionEnvironment) {
-    this.checkedScopeFilter = checkedScopeFilter;
+    this(
+        (internalName, loader) ->
+            checkedScopeFilter.test(new ClassInfo(internalName, loader, null)),
+        resolutionEnvironment);
+  }
+
+  /**
+   * Creates a resolver that asks {@code isChecked} whether the class with an internal name in a
+   * loader is checked, without allocating a {@link ClassInfo} per superclass.
+   */
+  public BytecodeHierarchyResolver(
+      BiPredicate<String, ClassLoader> isChecked, ResolutionEnvironment resolutionEnvironment) {
+    this.isChecked = isChecked;
     this.resolutionEnvironment = resolutionEnvironment;
   }
 
@@ -44,7 +57,7 @@ public class BytecodeHierarchyResolver implements HierarchyResolver {
     String currentName = superName;
     while (currentName != null && !currentName.equals("java.lang.Object")) {
       String currentInternalName = currentName.replace('.', '/');
-      if (checkedScopeFilter.test(new ClassInfo(currentInternalName, loader, null))) {
+      if (isChecked.test(currentInternalName, loader)) {
         break;
       }
 
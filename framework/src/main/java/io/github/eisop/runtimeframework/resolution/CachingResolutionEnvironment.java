@@ -1,5 +1,6 @@
 package io.github.eisop.runtimeframework.resolution;
 
+import io.github.eisop.runtimeframework.runtime.RuntimeMetrics;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.classfile.Attributes;
@@ -17,6 +18,8 @@ import java.util.concurrent.ConcurrentHashMap;
 final class CachingResolutionEnvironment implements ResolutionEnvironment {
 
   private final Map<CacheKey, Optional<ClassModel>> classCache = new ConcurrentHashMap<>();
+  private final Map<MethodKey, Boolean> returnNullness = new ConcurrentHashMap<>();
+  private final Map<CacheKey, DefiningLoader> definingLoaders = new ConcurrentHashMap<>();
 
   @Override
   public Optional<ClassModel> loadClass(String internalName, ClassLoader loader) {
@@ -25,10 +28,51 @@ final class CachingResolutionEnvironment implements ResolutionEnvironment {
     }
 
     CacheKey cacheKey = new CacheKey(internalName, loader);
+    Optional<ClassModel> cached = classCache.get(cacheKey);
+    RuntimeMetrics.recordCacheRequest("class", cached == null);
+    if (cached != null) {
+      return cached;
+    }
     return classCache.computeIfAbsent(
         cacheKey, key -> readClassModel(key.internalName(), key.loader()));
   }
 
+  /**
+   * Memoizes return-nullness summaries. The analysis may consult other summaries, so the result is
+   * computed outside the map and published afterwards rather than inside {@code computeIfAbsent}.
+   */
+  @Override
+  public boolean neverReturnsNull(
+      String ownerInternalName, MethodModel method, ClassLoader loader) {
+    MethodKey key =
+        new MethodKey(
+            new CacheKey(ownerInternalName, loader),
+            method.methodName().stringValue(),
+            method.methodTypeSymbol().descriptorString());
+    Boolean cached = returnNullness.get(key);
+    RuntimeMetrics.recordCacheRequest("returnNullness", cached == null);
+    if (cached != null) {
+      return cached;
+    }
+    boolean result =
+        ResolutionEnvironment.super.neverReturnsNull(ownerInternalName, method, loader);
+    returnNullness.putIfAbsent(key, result);
+    return result;
+  }
+
+  @Override
+  public ClassLoader definingLoader(String internalName, ClassLoader loader) {
+    CacheKey key = new CacheKey(internalName, loader);
+    DefiningLoader cached = definingLoaders.get(key);
+    RuntimeMetrics.recordCacheRequest("definingLoader", cached == null);
+    if (cached != null) {
+      return cached.loader();
+    }
+    ClassLoader result = ResolutionEnvironment.super.definingLoader(internalName, loader);
+    definingLoaders.putIfAbsent(key, new DefiningLoader(result));
+    return result;
+  }
+
   @Override
   public List<LocalVariableTypeAnnotation> getLocalVariableTypeAnnotations(
       MethodModel method, int slot) {
@@ -75,6 +119,11 @@ final class CachingResolutionEnvironment implements ResolutionEnvironment {
     }
   }
 
+  // Wraps the answer so that the bootstrap loader, which is null, can be cached.
+  private record DefiningLoader(ClassLoader loader) {}
+
+  private record MethodKey(CacheKey owner, String methodName, String descriptor) {}
+
   private record CacheKey(String internalName, ClassLoader loader) {
     @Override
     public int hashCode() {
@@ -1,10 +1,14 @@
 package io.github.eisop.runtimeframework.resolution;
 
+import java.lang.classfile.ClassHierarchyResolver;
 import java.lang.classfile.ClassModel;
 import java.lang.classfile.FieldModel;
 import java.lang.classfile.Label;
 import java.lang.classfile.MethodModel;
+import java.lang.classfile.Opcode;
 import java.lang.classfile.TypeAnnotation;
+import java.lang.classfile.constantpool.ClassEntry;
+import java.lang.constant.ClassDesc;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -33,6 +37,76 @@ public interface ResolutionEnvironment {
     return model.superclass().flatMap(superClass -> loadClass(superClass.asInternalName(), loader));
   }
 
+  /**
+   * Returns the loader that defines {@code internalName} when {@code loader} resolves it, or {@code
+   * null} for the bootstrap loader. A package of a named module of the boot layer belongs to the
+   * loader of that module. Any other class is assumed to be found by parent-first delegation, so it
+   * belongs to the ancestor of {@code loader} nearest the bootstrap loader whose resources include
+   * its class file, or to {@code loader} itself when no ancestor has it. This default looks the
+   * class up on every call; caching environments memoize the answer.
+   */
+  default ClassLoader definingLoader(String internalName, ClassLoader loader) {
+    if (loader == null) {
+      return null;
+    }
+    int slash = internalName.lastIndexOf('/');
+    if (slash >= 0) {
+      String packageName = internalName.substring(0, slash).replace('/', '.');
+      for (Module module : ModuleLayer.boot().modules()) {
+        if (module.getPackages().contains(packageName)
+            && isSelfOrAncestor(module.getClassLoader(), loader)) {
+          return module.getClassLoader();
+        }
+      }
+    }
+    String resource = internalName + ".class";
+    ClassLoader defining = loader;
+    for (ClassLoader ancestor = loader.getParent();
+        ancestor != null;
+        ancestor = ancestor.getParent()) {
+      if (ancestor.getResource(resource) != null) {
+        defining = ancestor;
+      }
+    }
+    return defining;
+  }
+
+  private static boolean isSelfOrAncestor(ClassLoader candidate, ClassLoader loader) {
+    if (candidate == null) {
+      return true;
+    }
+    for (ClassLoader current = loader; current != null; current = current.getParent()) {
+      if (current == candidate) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a resolver that answers stack-map hierarchy queries for classes visible from {@code
+   * loader} from this environment, so frame generation reuses already parsed supertypes. Classes
+   * this environment cannot load fall back to the default resolver.
+   */
+  default ClassHierarchyResolver classHierarchyResolver(ClassLoader loader) {
+    ClassHierarchyResolver fromEnvironment =
+        classDesc ->
+            loadClass(internalName(classDesc), loader)
+                .map(
+                    model ->
+                        Modifier.isInterface(model.flags().flagsMask())
+                            ? ClassHierarchyResolver.ClassHierarchyInfo.ofInterface()
+                            : ClassHierarchyResolver.ClassHierarchyInfo.ofClass(
+                                model.superclass().map(ClassEntry::asSymbol).orElse(null)))
+                .orElse(null);
+    return fromEnvironment.orElse(ClassHierarchyResolver.defaultResolver());
+  }
+
+  private static String internalName(ClassDesc classDesc) {
+    String descriptor = classDesc.descriptorString();
+    return descriptor.substring(1, descriptor.length() - 1);
+  }
+
   default Optional<FieldModel> findDeclaredField(
       String ownerInternalName, String fieldName, ClassLoader loader) {
     return loadClass(ownerInternalName, loader)
@@ -55,6 +129,53 @@ public interface ResolutionEnvironment {
                     .findFirst());
   }
 
+  /**
+   * Returns whether the bytecode of a declared method proves that it never returns null. This
+   * default analyzes the method on every call; caching environments memoize the answer.
+   */
+  default boolean neverReturnsNull(
+      String ownerInternalName, MethodModel method, ClassLoader loader) {
+    return ReturnNullnessAnalysis.neverReturnsNull(this, ownerInternalName, method, loader);
+  }
+
+  /**
+   * Returns whether an invocation can only reach a single method, and that method never returns
+   * null. Virtual calls qualify only when the target is private or final or the receiver class is
+   * final; interface calls never do.
+   */
+  default boolean invocationNeverReturnsNull(
+      Opcode opcode,
+      String ownerInternalName,
+      String methodName,
+      String descriptor,
+      ClassLoader loader) {
+    Optional<ResolvedMethod> target =
+        switch (opcode) {
+          case INVOKESTATIC ->
+              findResolvedStaticMethod(ownerInternalName, methodName, descriptor, loader);
+          case INVOKESPECIAL ->
+              findResolvedVirtualMethod(ownerInternalName, methodName, descriptor, loader);
+          case INVOKEVIRTUAL ->
+              findResolvedVirtualMethod(ownerInternalName, methodName, descriptor, loader)
+                  .filter(
+                      resolved ->
+                          hasSingleDispatchTarget(ownerInternalName, resolved.method(), loader));
+          default -> Optional.empty();
+        };
+    return target.isPresent()
+        && neverReturnsNull(target.get().ownerInternalName(), target.get().method(), loader);
+  }
+
+  private boolean hasSingleDispatchTarget(
+      String receiverInternalName, MethodModel method, ClassLoader loader) {
+    int flags = method.flags().flagsMask();
+    if (Modifier.isFinal(flags) || Modifier.isPrivate(flags)) {
+      return true;
+    }
+    Optional<ClassModel> receiver = loadClass(receiverInternalName, loader);
+    return receiver.isPresent() && Modifier.isFinal(receiver.get().flags().flagsMask());
+  }
+
   default Optional<ResolvedMethod> findResolvedVirtualMethod(
       String ownerInternalName, String methodName, String descriptor, ClassLoader loader) {
     List<ClassModel> hierarchy = new ArrayList<>();
@@ -0,0 +1,482 @@
+package io.github.eisop.runtimeframework.resolution;
+
+import java.lang.classfile.Attributes;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeModel;
+import java.lang.classfile.Instruction;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.Opcode;
+import java.lang.classfile.TypeKind;
+import java.lang.classfile.attribute.CodeAttribute;
+import java.lang.classfile.attribute.StackMapFrameInfo;
+import java.lang.classfile.instruction.ArrayLoadInstruction;
+import java.lang.classfile.instruction.ArrayStoreInstruction;
+import java.lang.classfile.instruction.BranchInstruction;
+import java.lang.classfile.instruction.ConstantInstruction;
+import java.lang.classfile.instruction.ConvertInstruction;
+import java.lang.classfile.instruction.FieldInstruction;
+import java.lang.classfile.instruction.IncrementInstruction;
+import java.lang.classfile.instruction.InvokeDynamicInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.classfile.instruction.LoadInstruction;
+import java.lang.classfile.instruction.LookupSwitchInstruction;
+import java.lang.classfile.instruction.MonitorInstruction;
+import java.lang.classfile.instruction.NewMultiArrayInstruction;
+import java.lang.classfile.instruction.NewObjectInstruction;
+import java.lang.classfile.instruction.NewPrimitiveArrayInstruction;
+import java.lang.classfile.instruction.NewReferenceArrayInstruction;
+import java.lang.classfile.instruction.NopInstruction;
+import java.lang.classfile.instruction.OperatorInstruction;
+import java.lang.classfile.instruction.ReturnInstruction;
+import java.lang.classfile.instruction.StackInstruction;
+import java.lang.classfile.instruction.StoreInstruction;
+import java.lang.classfile.instruction.TableSwitchInstruction;
+import java.lang.classfile.instruction.ThrowInstruction;
+import java.lang.classfile.instruction.TypeCheckInstruction;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.DirectMethodHandleDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.reflect.AccessFlag;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides from bytecode whether a method never returns null.
+ *
+ * <p>The analysis is a single forward pass over the operand stack, tracked in slots, that only
+ * remembers whether each slot holds a value known to be non-null: a fresh allocation, a class or
+ * string constant, the receiver, the result of a string concatenation, or the result of a call
+ * whose only possible target itself never returns null. Stack map frames mark merge points, where
+ * everything except an unreassigned receiver is forgotten. Instructions the pass does not model
+ * make the answer {@code false}, as do calls that recurse into a method already being analyzed.
+ */
+final class ReturnNullnessAnalysis {
+
+  private static final ClassDesc STRING_CONCAT_FACTORY =
+      ClassDesc.of("java.lang.invoke.StringConcatFactory");
+  private static final int MAX_NESTING = 16;
+
+  private static final ThreadLocal<Set<String>> IN_PROGRESS = ThreadLocal.withInitial(HashSet::new);
+
+  private final ResolutionEnvironment environment;
+  private final ClassLoader loader;
+  private final boolean receiverSlotStable;
+  private final Map<Integer, Integer> frameStackSlots;
+
+  private boolean[] stack;
+  private int stackSize;
+  private BitSet nonNullLocals;
+  private boolean live;
+
+  private ReturnNullnessAnalysis(
+      ResolutionEnvironment environment, ClassLoader loader, MethodModel method) {
+    this.environment = environment;
+    this.loader = loader;
+    this.receiverSlotStable = !method.flags().has(AccessFlag.STATIC) && !storesToSlotZero(method);
+    this.frameStackSlots = frameStackSlots(method);
+  }
+
+  static boolean neverReturnsNull(
+      ResolutionEnvironment environment,
+      String ownerInternalName,
+      MethodModel method,
+      ClassLoader loader) {
+    if (!isReferenceDescriptor(method.methodTypeSymbol().returnType().descriptorString())
+        || method.code().isEmpty()) {
+      return false;
+    }
+    Set<String> inProgress = IN_PROGRESS.get();
+    String key =
+        ownerInternalName
+            + '.'
+            + method.methodName().stringValue()
+            + method.methodTypeSymbol().descriptorString();
+    if (inProgress.size() >= MAX_NESTING || !inProgress.add(key)) {
+      return false;
+    }
+    try {
+      return new ReturnNullnessAnalysis(environment, loader, method).run(method.code().get());
+    } catch (RuntimeException e) {
+      return false;
+    } finally {
+      inProgress.remove(key);
+    }
+  }
+
+  private boolean run(CodeModel code) {
+    int maxStack = code instanceof CodeAttribute attribute ? attribute.maxStack() : 16;
+    stack = new boolean[Math.max(maxStack, 1)];
+    stackSize = 0;
+    nonNullLocals = new BitSet();
+    if (receiverSlotStable) {
+      nonNullLocals.set(0);
+    }
+    live = true;
+    boolean sawReturn = false;
+    int bytecodeOffset = 0;
+    for (CodeElement element : code) {
+      if (!(element instanceof Instruction instruction)) {
+        continue;
+      }
+      Integer frameDepth = frameStackSlots.get(bytecodeOffset);
+      if (frameDepth != null) {
+        enterFrame(frameDepth);
+      }
+      bytecodeOffset += instruction.sizeInBytes();
+      if (!live) {
+        continue;
+      }
+      if (instruction instanceof ReturnInstruction returnInstruction
+          && returnInstruction.opcode() == Opcode.ARETURN) {
+        if (!pop()) {
+          return false;
+        }
+        sawReturn = true;
+        live = false;
+        continue;
+      }
+      if (!simulate(instruction)) {
+        return false;
+      }
+    }
+    return sawReturn;
+  }
+
+  private void enterFrame(int stackSlots) {
+    Arrays.fill(stack, false);
+    if (stack.length < stackSlots) {
+      stack = new boolean[stackSlots];
+    }
+    stackSize = stackSlots;
+    nonNullLocals.clear();
+    if (receiverSlotStable) {
+      nonNullLocals.set(0);
+    }
+    live = true;
+  }
+
+  /** Applies one instruction, returning {@code false} for instructions the pass cannot model. */
+  private boolean simulate(Instruction instruction) {
+    switch (instruction) {
+      case LoadInstruction load -> {
+        if (load.typeKind() == TypeKind.REFERENCE) {
+          push(nonNullLocals.get(load.slot()));
+        } else {
+          pushUnknown(load.typeKind().slotSize());
+        }
+      }
+      case StoreInstruction store -> {
+        if (store.typeKind() == TypeKind.REFERENCE) {
+          nonNullLocals.set(store.slot(), pop());
+        } else {
+          popSlots(store.typeKind().slotSize());
+          nonNullLocals.clear(store.slot(), store.slot() + store.typeKind().slotSize());
+        }
+      }
+      case IncrementInstruction ignored -> {}
+      case ConstantInstruction constant -> {
+        if (constant.typeKind() == TypeKind.REFERENCE) {
+          push(constant.opcode() != Opcode.ACONST_NULL && isNonNullConstant(constant));
+        } else {
+          pushUnknown(constant.typeKind().slotSize());
+        }
+      }
+      case FieldInstruction field -> {
+        int fieldSlots = TypeKind.from(field.typeSymbol()).slotSize();
+        switch (field.opcode()) {
+          case GETSTATIC -> pushUnknown(fieldSlots);
+          case GETFIELD -> {
+            popSlots(1);
+            pushUnknown(fieldSlots);
+          }
+          case PUTSTATIC -> popSlots(fieldSlots);
+          case PUTFIELD -> popSlots(fieldSlots + 1);
+          default -> {
+            return false;
+          }
+        }
+      }
+      case InvokeInstruction invoke -> {
+        popSlots(
+            parameterSlots(invoke.typeSymbol()) + (invoke.opcode() == Opcode.INVOKESTATIC ? 0 : 1));
+        pushReturn(
+            invoke.typeSymbol(),
+            environment.invocationNeverReturnsNull(
+                invoke.opcode(),
+                invoke.owner().asInternalName(),
+                invoke.name().stringValue(),
+                invoke.typeSymbol().descriptorString(),
+                loader));
+      }
+      case InvokeDynamicInstruction invokeDynamic -> {
+        popSlots(parameterSlots(invokeDynamic.typeSymbol()));
+        pushReturn(
+            invokeDynamic.typeSymbol(),
+            invokeDynamic.bootstrapMethod().owner().equals(STRING_CONCAT_FACTORY));
+      }
+      case ArrayLoadInstruction arrayLoad -> {
+        popSlots(2);
+        pushUnknown(arrayLoad.typeKind().slotSize());
+      }
+      case ArrayStoreInstruction arrayStore -> popSlots(2 + arrayStore.typeKind().slotSize());
+      case TypeCheckInstruction typeCheck -> {
+        if (typeCheck.opcode() == Opcode.INSTANCEOF) {
+          popSlots(1);
+          pushUnknown(1);
+        }
+      }
+      case NewObjectInstruction ignored -> push(true);
+      case NewReferenceArrayInstruction ignored -> {
+        popSlots(1);
+        push(true);
+      }
+      case NewPrimitiveArrayInstruction ignored -> {
+        popSlots(1);
+        push(true);
+      }
+      case NewMultiArrayInstruction newMultiArray -> {
+        popSlots(newMultiArray.dimensions());
+        push(true);
+      }
+      case ConvertInstruction convert -> {
+        popSlots(convert.fromType().slotSize());
+        pushUnknown(convert.toType().slotSize());
+      }
+      case OperatorInstruction operator -> simulateOperator(operator);
+      case StackInstruction stackInstruction -> simulateStack(stackInstruction.opcode());
+      case BranchInstruction branch -> {
+        switch (branch.opcode()) {
+          case GOTO, GOTO_W -> live = false;
+          case IF_ICMPEQ,
+              IF_ICMPNE,
+              IF_ICMPLT,
+              IF_ICMPGE,
+              IF_ICMPGT,
+              IF_ICMPLE,
+              IF_ACMPEQ,
+              IF_ACMPNE ->
+              popSlots(2);
+          case IFEQ, IFNE, IFLT, IFGE, IFGT, IFLE, IFNULL, IFNONNULL -> popSlots(1);
+          default -> {
+            return false;
+          }
+        }
+      }
+      case LookupSwitchInstruction ignored -> {
+        popSlots(1);
+        live = false;
+      }
+      case TableSwitchInstruction ignored -> {
+        popSlots(1);
+        live = false;
+      }
+      case ReturnInstruction ignored -> live = false;
+      case ThrowInstruction ignored -> live = false;
+      case MonitorInstruction ignored -> popSlots(1);
+      case NopInstruction ignored -> {}
+      default -> {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void simulateOperator(OperatorInstruction operator) {
+    int slots = operator.typeKind().slotSize();
+    switch (operator.opcode()) {
+      case ARRAYLENGTH, INEG, FNEG -> {
+        popSlots(1);
+        pushUnknown(1);
+      }
+      case LNEG, DNEG -> {
+        popSlots(2);
+        pushUnknown(2);
+      }
+      case ISHL, ISHR, IUSHR, LSHL, LSHR, LUSHR -> {
+        popSlots(slots + 1);
+        pushUnknown(slots);
+      }
+      case LCMP, DCMPL, DCMPG -> {
+        popSlots(4);
+        pushUnknown(1);
+      }
+      case FCMPL, FCMPG -> {
+        popSlots(2);
+        pushUnknown(1);
+      }
+      default -> {
+        popSlots(2 * slots);
+        pushUnknown(slots);
+      }
+    }
+  }
+
+  /** Stack instructions permute slots regardless of the category of the values they move. */
+  private void simulateStack(Opcode opcode) {
+    switch (opcode) {
+      case POP -> popSlots(1);
+      case POP2 -> popSlots(2);
+      case DUP -> push(peek(0));
+      case DUP_X1 -> {
+        boolean v1 = pop();
+        boolean v2 = pop();
+        push(v1);
+        push(v2);
+        push(v1);
+      }
+      case DUP_X2 -> {
+        boolean v1 = pop();
+        boolean v2 = pop();
+        boolean v3 = pop();
+        push(v1);
+        push(v3);
+        push(v2);
+        push(v1);
+      }
+      case DUP2 -> {
+        boolean v1 = peek(0);
+        boolean v2 = peek(1);
+        push(v2);
+        push(v1);
+      }
+      case DUP2_X1 -> {
+        boolean v1 = pop();
+        boolean v2 = pop();
+        boolean v3 = pop();
+        push(v2);
+        push(v1);
+        push(v3);
+        push(v2);
+        push(v1);
+      }
+      case DUP2_X2 -> {
+        boolean v1 = pop();
+        boolean v2 = pop();
+        boolean v3 = pop();
+        boolean v4 = pop();
+        push(v2);
+        push(v1);
+        push(v4);
+        push(v3);
+        push(v2);
+        push(v1);
+      }
+      case SWAP -> {
+        boolean v1 = pop();
+        boolean v2 = pop();
+        push(v1);
+        push(v2);
+      }
+      default -> throw new IllegalStateException("Unexpected stack instruction " + opcode);
+    }
+  }
+
+  private void pushReturn(MethodTypeDesc descriptor, boolean nonNull) {
+    TypeKind returnKind = TypeKind.from(descriptor.returnType());
+    if (returnKind == TypeKind.REFERENCE) {
+      push(nonNull);
+    } else if (returnKind != TypeKind.VOID) {
+      pushUnknown(returnKind.slotSize());
+    }
+  }
+
+  private void push(boolean nonNull) {
+    if (stackSize == stack.length) {
+      stack = Arrays.copyOf(stack, stack.length << 1);
+    }
+    stack[stackSize++] = nonNull;
+  }
+
+  private void pushUnknown(int slots) {
+    for (int i = 0; i < slots; i++) {
+      push(false);
+    }
+  }
+
+  private boolean pop() {
+    if (stackSize == 0) {
+      throw new IllegalStateException("Operand stack underflow");
+    }
+    return stack[--stackSize];
+  }
+
+  private void popSlots(int slots) {
+    for (int i = 0; i < slots; i++) {
+      pop();
+    }
+  }
+
+  private boolean peek(int depthFromTop) {
+    int index = stackSize - 1 - depthFromTop;
+    if (index < 0) {
+      throw new IllegalStateException("Operand stack underflow");
+    }
+    return stack[index];
+  }
+
+  private static boolean isNonNullConstant(ConstantInstruction constant) {
+    Object constantValue = constant.constantValue();
+    return switch (constantValue) {
+      case String ignored -> true;
+      case ClassDesc ignored -> true;
+      case MethodTypeDesc ignored -> true;
+      case DirectMethodHandleDesc ignored -> true;
+      default -> false;
+    };
+  }
+
+  private static int parameterSlots(MethodTypeDesc descriptor) {
+    int slots = 0;
+    for (ClassDesc parameter : descriptor.parameterList()) {
+      slots += TypeKind.from(parameter).slotSize();
+    }
+    return slots;
+  }
+
+  private static boolean storesToSlotZero(MethodModel method) {
+    return method
+        .code()
+        .map(
+            code ->
+                code.elementStream()
+                    .anyMatch(
+                        element -> element instanceof StoreInstruction store && store.slot() == 0))
+        .orElse(false);
+  }
+
+  /** Maps the bytecode offset of every stack map frame to its operand stack depth in slots. */
+  private static Map<Integer, Integer> frameStackSlots(MethodModel method) {
+    Map<Integer, Integer> depths = new HashMap<>();
+    method
+        .code()
+        .filter(CodeAttribute.class::isInstance)
+        .map(CodeAttribute.class::cast)
+        .ifPresent(
+            code ->
+                code.findAttribute(Attributes.stackMapTable())
+                    .ifPresent(
+                        table -> {
+                          for (StackMapFrameInfo frame : table.entries()) {
+                            int slots = 0;
+                            for (StackMapFrameInfo.VerificationTypeInfo type : frame.stack()) {
+                              slots +=
+                                  type == StackMapFrameInfo.SimpleVerificationTypeInfo.LONG
+                                          || type
+                                              == StackMapFrameInfo.SimpleVerificationTypeInfo.DOUBLE
+                                      ? 2
+                                      : 1;
+                            }
+                            depths.put(code.labelToBci(frame.target()), slots);
+                          }
+                        }));
+    return depths;
+  }
+
+  private static boolean isReferenceDescriptor(String descriptor) {
+    return descriptor.startsWith("L") || descriptor.startsWith("[");
+  }
+}
@@ -1,5 +1,6 @@
 package io.github.eisop.runtimeframework.runtime;
 
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.ConstantCallSite;
 import java.lang.invoke.MethodHandle;
@@ -13,6 +14,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /** Bootstrap methods used by invokedynamic. */
 public final class BoundaryBootstraps {
@@ -21,10 +24,17 @@ public final class BoundaryBootstraps {
 
   private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
+  // When set, every checked class implements CheckedMarker, so other receivers fail a type test.
+  private static final boolean MARKER_INTERFACE =
+      RuntimeOptions.fromSystemProperties().checkedMarkerInterfaceEnabled();
+
   private static final ClassValue<Boolean> CHECKED_CLASSES =
       new ClassValue<>() {
         @Override
         protected Boolean computeValue(Class<?> type) {
+          if (MARKER_INTERFACE && !CheckedMarker.class.isAssignableFrom(type)) {
+            return false;
+          }
           try {
             Field marker = type.getDeclaredField(CHECKED_CLASS_MARKER);
             int modifiers = marker.getModifiers();
@@ -35,6 +45,17 @@ public final class BoundaryBootstraps {
         }
       };
 
+  // Call sites share one guard, and so one per-receiver-class cache, per dispatch signature.
+  private static final ClassValue<ConcurrentMap<GuardKey, SafeDispatchGuard>> GUARDS =
+      new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<GuardKey, SafeDispatchGuard> computeValue(Class<?> owner) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private static final MethodHandle GUARD_TEST = findGuardTest();
+
   private BoundaryBootstraps() {}
 
   public static CallSite checkedVirtual(
@@ -46,6 +67,7 @@ public final class BoundaryBootstraps {
       String safeName,
       MethodType originalType)
       throws NoSuchMethodException, IllegalAccessException {
+    RuntimeMetrics.recordLinkage("checkedVirtual");
     MethodHandle safe = callerLookup.findVirtual(owner, safeName, originalType).asType(invokedType);
     MethodHandle original =
         callerLookup.findVirtual(owner, originalName, originalType).asType(invokedType);
@@ -64,6 +86,7 @@ public final class BoundaryBootstraps {
       MethodType originalType,
       MethodHandle fallbackReturnFilter)
       throws NoSuchMethodException, IllegalAccessException {
+    RuntimeMetrics.recordLinkage("checkedVirtualWithFallbackReturnCheck");
     MethodHandle safe = callerLookup.findVirtual(owner, safeName, originalType).asType(invokedType);
     MethodHandle original = callerLookup.findVirtual(owner, originalName, originalType);
     original = MethodHandles.filterReturnValue(original, fallbackReturnFilter).asType(invokedType);
@@ -73,7 +96,11 @@ public final class BoundaryBootstraps {
   }
 
   public static boolean isCheckedReceiver(Object receiver) {
-    return receiver != null && CHECKED_CLASSES.get(receiver.getClass());
+    return mayBeChecked(receiver) && CHECKED_CLASSES.get(receiver.getClass());
+  }
+
+  private static boolean mayBeChecked(Object receiver) {
+    return MARKER_INTERFACE ? receiver instanceof CheckedMarker : receiver != null;
   }
 
   private static MethodHandle safeDispatchTest(
@@ -81,16 +108,16 @@ public final class BoundaryBootstraps {
       String originalName,
       String safeName,
       MethodType originalType,
-      MethodType invokedType)
-      throws NoSuchMethodException, IllegalAccessException {
-    SafeDispatchGuard guard = new SafeDispatchGuard(owner, originalName, safeName, originalType);
-    MethodHandle test =
-        LOOKUP
-            .findVirtual(
-                SafeDispatchGuard.class, "test", MethodType.methodType(boolean.class, Object.class))
-            .bindTo(guard);
+      MethodType invokedType) {
+    SafeDispatchGuard guard =
+        GUARDS
+            .get(owner)
+            .computeIfAbsent(
+                new GuardKey(originalName, safeName, originalType),
+                key -> new SafeDispatchGuard(owner, originalName, safeName, originalType));
 
-    test = test.asType(MethodType.methodType(boolean.class, invokedType.parameterType(0)));
+    MethodHandle test =
+        guard.test.asType(MethodType.methodType(boolean.class, invokedType.parameterType(0)));
     if (invokedType.parameterCount() > 1) {
       test =
           MethodHandles.dropArguments(
@@ -99,6 +126,17 @@ public final class BoundaryBootstraps {
     return test;
   }
 
+  private static MethodHandle findGuardTest() {
+    try {
+      return LOOKUP.findVirtual(
+          SafeDispatchGuard.class, "test", MethodType.methodType(boolean.class, Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private record GuardKey(String originalName, String safeName, MethodType originalType) {}
+
   private record DispatchTarget(Class<?> owner, Method method) {}
 
   private static final class SafeDispatchGuard {
@@ -106,6 +144,7 @@ public final class BoundaryBootstraps {
     private final String originalName;
     private final String safeName;
     private final MethodType originalType;
+    private final MethodHandle test;
     private final ClassValue<Boolean> safeDispatchClasses =
         new ClassValue<>() {
           @Override
@@ -120,11 +159,12 @@ public final class BoundaryBootstraps {
       this.originalName = originalName;
       this.safeName = safeName;
       this.originalType = originalType;
+      this.test = GUARD_TEST.bindTo(this);
     }
 
     @SuppressWarnings("UnusedMethod")
     boolean test(Object receiver) {
-      return receiver != null && safeDispatchClasses.get(receiver.getClass());
+      return mayBeChecked(receiver) && safeDispatchClasses.get(receiver.getClass());
     }
 
     private boolean computeSafeDispatch(Class<?> receiverClass) {
@@ -0,0 +1,111 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import java.util.Arrays;
+
+/**
+ * Runtime support for sampled check sites.
+ *
+ * <p>Each sampled site is registered with {@link CheckSites} when it is emitted. Instrumented code
+ * guards the property test of such a site with {@link #shouldCheck(int)}, which runs the test on
+ * the first hit and then on every {@code period}-th hit of the site, or with {@link
+ * #shouldCheckHotSite(int)}, which does the same at the period for sites a profile marked hot.
+ * Counting uses countdowns rather than a random source. Like the hit counters of {@link
+ * CheckSites}, they are striped by thread id in pages shared by all threads, so the guard allocates
+ * nothing per thread and only grows the pages when a site beyond them is first hit. Countdowns are
+ * updated without synchronization; a lost update only moves a sampled hit. A site that reports a
+ * violation escalates permanently to checking every hit.
+ */
+public final class CheckSampling {
+
+  private static final RuntimeOptions OPTIONS = RuntimeOptions.fromSystemProperties();
+  private static final int PERIOD = OPTIONS.samplingPeriod();
+  private static final int HOT_SITE_PERIOD = OPTIONS.hotSiteSamplingPeriod();
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int PAGE_SHIFT = 10;
+  private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+  private static final int STRIPES =
+      Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()));
+
+  // Grown under the class lock; each page holds one run of PAGE_SIZE countdowns per stripe.
+  private static volatile int[][] countdownPages = new int[0][];
+
+  // Written under the class lock and republished on every change; readers tolerate a stale copy.
+  private static volatile boolean[] escalated = new boolean[INITIAL_CAPACITY];
+
+  private CheckSampling() {}
+
+  /** Returns whether the property test of {@code siteId} should run on this hit. */
+  public static boolean shouldCheck(int siteId) {
+    return shouldCheck(siteId, PERIOD);
+  }
+
+  /** Returns whether the property test of the hot site {@code siteId} should run on this hit. */
+  public static boolean shouldCheckHotSite(int siteId) {
+    return shouldCheck(siteId, HOT_SITE_PERIOD);
+  }
+
+  // Package-private so tests can exercise periods other than the configured ones.
+  static boolean shouldCheck(int siteId, int period) {
+    boolean[] escalatedSites = escalated;
+    if (siteId < escalatedSites.length && escalatedSites[siteId]) {
+      return true;
+    }
+    int[][] pages = countdownPages;
+    int page = siteId >>> PAGE_SHIFT;
+    if (page >= pages.length) {
+      pages = growCountdownPages(page);
+    }
+    int[] countdowns = pages[page];
+    int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+    int index = stripe * PAGE_SIZE + (siteId & PAGE_MASK);
+    int remaining = countdowns[index] - 1;
+    if (remaining >= 0) {
+      countdowns[index] = remaining;
+      return false;
+    }
+    countdowns[index] = period - 1;
+    return true;
+  }
+
+  private static synchronized int[][] growCountdownPages(int page) {
+    int[][] pages = countdownPages;
+    if (page < pages.length) {
+      return pages;
+    }
+    int[][] grown = Arrays.copyOf(pages, page + 1);
+    for (int i = pages.length; i <= page; i++) {
+      grown[i] = new int[STRIPES * PAGE_SIZE];
+    }
+    countdownPages = grown;
+    return grown;
+  }
+
+  /** Makes {@code siteId} run its property test on every subsequent hit. */
+  public static synchronized void escalate(int siteId) {
+    if (siteId < 0) {
+      return;
+    }
+    boolean[] escalatedSites = escalated;
+    if (siteId < escalatedSites.length && escalatedSites[siteId]) {
+      return;
+    }
+    boolean[] updated =
+        siteId < escalatedSites.length
+            ? escalatedSites
+            : Arrays.copyOf(escalatedSites, capacityFor(siteId, escalatedSites.length));
+    updated[siteId] = true;
+    escalated = updated;
+  }
+
+  /** Returns whether {@code siteId} has observed a violation. */
+  public static boolean isEscalated(int siteId) {
+    boolean[] escalatedSites = escalated;
+    return siteId >= 0 && siteId < escalatedSites.length && escalatedSites[siteId];
+  }
+
+  private static int capacityFor(int siteId, int currentCapacity) {
+    return Math.max(siteId + 1, currentCapacity << 1);
+  }
+}
@@ -0,0 +1,39 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.util.Objects;
+
+/**
+ * Describes one emitted check site.
+ *
+ * @param id the runtime id assigned when the site was emitted
+ * @param owner internal name of the class containing the site
+ * @param sourceFile name of the source file of that class, or {@code null} when unknown
+ * @param methodName name of the method containing the site
+ * @param methodDescriptor descriptor of the method containing the site
+ * @param line source line of the site, or a negative value when unknown
+ * @param check diagnostic display name of the checked value
+ */
+public record CheckSite(
+    int id,
+    String owner,
+    String sourceFile,
+    String methodName,
+    String methodDescriptor,
+    int line,
+    String check) {
+
+  public CheckSite {
+    Objects.requireNonNull(owner, "owner");
+    Objects.requireNonNull(methodName, "methodName");
+    Objects.requireNonNull(methodDescriptor, "methodDescriptor");
+    Objects.requireNonNull(check, "check");
+  }
+
+  /**
+   * Returns the location of the site as {@code File.java:line}, the form stack trace elements give,
+   * or {@code null} when the source file or line is unknown.
+   */
+  public String sourceLocation() {
+    return sourceFile != null && line >= 0 ? sourceFile + ":" + line : null;
+  }
+}
@@ -0,0 +1,149 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Dumps the per-site execution profile collected by {@link CheckSites}.
+ *
+ * <p>The profile is tab-separated text with one site per line, hottest first:
+ *
+ * <pre>
+ * hits  violations  class  method  descriptor  line  check
+ * </pre>
+ *
+ * <p>Lines starting with {@code #} are comments. Only sites that ran at least once are listed. The
+ * class column uses binary names, so hot or failing classes can be copied straight into a class
+ * list such as {@code runtime.classes}, and the whole file can be passed back to the planner
+ * through {@code runtime.profile.input}.
+ */
+public final class CheckSiteProfile implements CheckSiteProfileMBean {
+
+  public static final String HEADER = "# hits\tviolations\tclass\tmethod\tdescriptor\tline\tcheck";
+  public static final String OBJECT_NAME = "io.github.eisop.runtimeframework:type=CheckSiteProfile";
+
+  private final int limit;
+
+  private CheckSiteProfile(int limit) {
+    this.limit = limit;
+  }
+
+  /** One site of the profile with its counters. */
+  public record Entry(CheckSite site, long hits, long violations) {
+    public Entry {
+      Objects.requireNonNull(site, "site");
+    }
+  }
+
+  /**
+   * Dumps the profile on shutdown to {@code output}, or to standard error when blank, and exposes
+   * it through JMX.
+   */
+  public static void install(String output, int limit) {
+    Objects.requireNonNull(output, "output");
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  try {
+                    if (output.isBlank()) {
+                      write(System.err, limit);
+                    } else {
+                      writeTo(Path.of(output), limit);
+                    }
+                  } catch (IOException | UncheckedIOException e) {
+                    System.err.println(
+                        "[RuntimeFramework] Failed to write check-site profile: " + output);
+                    e.printStackTrace();
+                  }
+                },
+                "runtime-framework-site-profile"));
+    try {
+      ManagementFactory.getPlatformMBeanServer()
+          .registerMBean(new CheckSiteProfile(limit), new ObjectName(OBJECT_NAME));
+    } catch (JMException e) {
+      System.err.println("[RuntimeFramework] Failed to register " + OBJECT_NAME);
+      e.printStackTrace();
+    }
+  }
+
+  /** Returns the {@code limit} hottest sites that ran at least once; all when not positive. */
+  public static List<Entry> snapshot(int limit) {
+    List<Entry> entries = new ArrayList<>();
+    for (CheckSite site : CheckSites.sites()) {
+      long hits = CheckSites.hits(site.id());
+      if (hits > 0) {
+        entries.add(new Entry(site, hits, CheckSites.violations(site.id())));
+      }
+    }
+    entries.sort(
+        Comparator.comparingLong(Entry::hits)
+            .reversed()
+            .thenComparingInt(entry -> entry.site().id()));
+    return limit > 0 && entries.size() > limit ? entries.subList(0, limit) : entries;
+  }
+
+  /** Writes the {@code limit} hottest sites in profile format. */
+  public static void write(Appendable out, int limit) throws IOException {
+    out.append(HEADER).append('\n');
+    for (Entry entry : snapshot(limit)) {
+      CheckSite site = entry.site();
+      out.append(Long.toString(entry.hits()))
+          .append('\t')
+          .append(Long.toString(entry.violations()))
+          .append('\t')
+          .append(site.owner().replace('/', '.'))
+          .append('\t')
+          .append(site.methodName())
+          .append('\t')
+          .append(site.methodDescriptor())
+          .append('\t')
+          .append(Integer.toString(site.line()))
+          .append('\t')
+          .append(site.check())
+          .append('\n');
+    }
+    if (out instanceof PrintStream stream) {
+      stream.flush();
+    }
+  }
+
+  private static void writeTo(Path path, int limit) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      write(writer, limit);
+    }
+  }
+
+  @Override
+  public int getSiteCount() {
+    return CheckSites.sites().size();
+  }
+
+  @Override
+  public String topSites(int limit) {
+    StringBuilder builder = new StringBuilder();
+    try {
+      write(builder, limit);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public void dump(String path) throws IOException {
+    writeTo(Path.of(path), limit);
+  }
+}
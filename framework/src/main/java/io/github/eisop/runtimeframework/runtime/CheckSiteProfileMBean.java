@@ -0,0 +1,16 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.io.IOException;
+
+/** JMX view of the per-site execution profile collected by {@link CheckSites}. */
+public interface CheckSiteProfileMBean {
+
+  /** Returns the number of registered check sites. */
+  int getSiteCount();
+
+  /** Returns the {@code limit} hottest sites in profile format; all sites when not positive. */
+  String topSites(int limit);
+
+  /** Writes the configured number of hottest sites in profile format to {@code path}. */
+  void dump(String path) throws IOException;
+}
@@ -0,0 +1,166 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of emitted check sites and their execution counters.
+ *
+ * <p>Sites are registered while classes are instrumented, so the hot paths only index into tables
+ * that already cover the site. Hit counters are striped by thread to keep concurrently running
+ * sites off each other's cache lines; each page holds one contiguous run of {@link #PAGE_SIZE}
+ * counters per stripe. Violations are rare and use a single unstriped counter per site.
+ *
+ * <p>A site is identified by its method, line, check and position in the method. Instrumenting a
+ * class again, as retransformation does, maps each site back to the id it already has, so the
+ * counters of a site are not split and ids are not used up.
+ */
+public final class CheckSites {
+
+  private static final int PAGE_SHIFT = 10;
+  private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+  private static final int STRIPES =
+      Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()));
+  private static final VarHandle COUNTER = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private static volatile CheckSite[] sites = new CheckSite[0];
+  private static volatile long[][] hitPages = new long[0][];
+  private static volatile long[][] violationPages = new long[0][];
+  private static final Map<SiteKey, Integer> IDS = new HashMap<>();
+  private static int siteCount;
+
+  private CheckSites() {}
+
+  private record SiteKey(
+      String owner,
+      String methodName,
+      String methodDescriptor,
+      int line,
+      String check,
+      String position) {}
+
+  /**
+   * Returns the id of a check site in a class whose source file is unknown, registering the site if
+   * it is new.
+   *
+   * @param position where in the method the check is emitted, such as its injection point and
+   *     bytecode index in the original method body
+   */
+  public static int register(
+      String owner,
+      String methodName,
+      String methodDescriptor,
+      int line,
+      String check,
+      String position) {
+    return register(owner, null, methodName, methodDescriptor, line, check, position);
+  }
+
+  /**
+   * Returns the id of a check site, registering the site if it is new.
+   *
+   * @param sourceFile the source file of {@code owner}, or {@code null} when unknown
+   * @param position where in the method the check is emitted, such as its injection point and
+   *     bytecode index in the original method body
+   */
+  public static synchronized int register(
+      String owner,
+      String sourceFile,
+      String methodName,
+      String methodDescriptor,
+      int line,
+      String check,
+      String position) {
+    SiteKey key = new SiteKey(owner, methodName, methodDescriptor, line, check, position);
+    Integer existing = IDS.get(key);
+    if (existing != null) {
+      return existing;
+    }
+    int id = siteCount++;
+    IDS.put(key, id);
+    CheckSite[] currentSites = sites;
+    if (id >= currentSites.length) {
+      currentSites = Arrays.copyOf(currentSites, Math.max(PAGE_SIZE, currentSites.length << 1));
+    }
+    currentSites[id] =
+        new CheckSite(id, owner, sourceFile, methodName, methodDescriptor, line, check);
+    int page = id >>> PAGE_SHIFT;
+    if (page >= hitPages.length) {
+      long[][] hits = Arrays.copyOf(hitPages, page + 1);
+      long[][] violations = Arrays.copyOf(violationPages, page + 1);
+      hits[page] = new long[STRIPES * PAGE_SIZE];
+      violations[page] = new long[PAGE_SIZE];
+      hitPages = hits;
+      violationPages = violations;
+    }
+    sites = currentSites;
+    return id;
+  }
+
+  /** Records one execution of {@code siteId}. */
+  public static void hit(int siteId) {
+    int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+    COUNTER.getAndAdd(
+        hitPages[siteId >>> PAGE_SHIFT], stripe * PAGE_SIZE + (siteId & PAGE_MASK), 1L);
+  }
+
+  /**
+   * Records a violation observed at {@code siteId}, and returns whether it was recorded, which it
+   * is not when no site is registered under {@code siteId}.
+   */
+  public static boolean recordViolation(int siteId) {
+    if (siteId < 0) {
+      return false;
+    }
+    long[][] pages = violationPages;
+    int page = siteId >>> PAGE_SHIFT;
+    if (page >= pages.length) {
+      return false;
+    }
+    COUNTER.getAndAdd(pages[page], siteId & PAGE_MASK, 1L);
+    return true;
+  }
+
+  /** Returns the site registered under {@code siteId}, if any. */
+  public static Optional<CheckSite> site(int siteId) {
+    CheckSite[] currentSites = sites;
+    return siteId >= 0 && siteId < currentSites.length
+        ? Optional.ofNullable(currentSites[siteId])
+        : Optional.empty();
+  }
+
+  /** Returns the number of executions recorded for {@code siteId}. */
+  public static long hits(int siteId) {
+    long[] page = hitPages[siteId >>> PAGE_SHIFT];
+    long total = 0;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      total += (long) COUNTER.getVolatile(page, stripe * PAGE_SIZE + (siteId & PAGE_MASK));
+    }
+    return total;
+  }
+
+  /** Returns the number of violations recorded for {@code siteId}. */
+  public static long violations(int siteId) {
+    return (long) COUNTER.getVolatile(violationPages[siteId >>> PAGE_SHIFT], siteId & PAGE_MASK);
+  }
+
+  /** Returns all registered sites in id order. */
+  public static List<CheckSite> sites() {
+    CheckSite[] currentSites = sites;
+    List<CheckSite> result = new ArrayList<>();
+    for (CheckSite site : currentSites) {
+      if (site == null) {
+        break;
+      }
+      result.add(site);
+    }
+    return result;
+  }
+}
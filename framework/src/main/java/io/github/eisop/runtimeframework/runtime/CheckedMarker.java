@@ -0,0 +1,10 @@
+package io.github.eisop.runtimeframework.runtime;
+
+/**
+ * Implemented by instrumented checked classes when {@code runtime.checkedMarker.interface} is set.
+ *
+ * <p>Subclasses inherit the interface, so an instance of this type is not necessarily of a checked
+ * class. The marker only lets receiver tests reject other classes with a plain type test before
+ * consulting the exact-class {@link BoundaryBootstraps#CHECKED_CLASS_MARKER} field.
+ */
+public interface CheckedMarker {}
@@ -0,0 +1,144 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tracks whether objects of checked classes are committed, that is, whether the constructor of
+ * their runtime class has completed.
+ *
+ * <p>Every instrumented checked class declares a {@link #CONSTRUCTING_FIELD} instance field. Its
+ * constructors set the field on entry, which is legal before the superclass constructor runs, and
+ * clear it when the object under construction is exactly of that class. An object that never ran a
+ * constructor of the class, because it was deserialized, cloned from a committed object, or
+ * allocated without a constructor, has the field clear and counts as committed. The receiver check
+ * on a boundary entry path is therefore a single field read for every committed object of the
+ * class. The slow path runs only when the field is set, which happens for objects under
+ * construction and for objects of subclasses:
+ *
+ * <ul>
+ *   <li>A checked subclass clears its own field when it commits, which is read reflectively and
+ *       then cached into the field of the checked class.
+ *   <li>An unchecked subclass has no field. In global mode its constructors are instrumented, and
+ *       its commit clears the fields of its checked superclasses. Outside global mode its
+ *       constructors are never observed, so the commit of the checked superclass clears the field
+ *       directly.
+ * </ul>
+ *
+ * <p>A clone copies the field, so a clone of an object under construction stays uncommitted.
+ */
+public final class CommitState extends RuntimeVerifier {
+
+  public static final String CONSTRUCTING_FIELD = "$runtimeframework$constructing";
+
+  private static final String CHECKER_NAME = "Initialization";
+
+  // Unchecked constructors are instrumented, and so observable, only in global mode.
+  private static final boolean UNCHECKED_COMMITS_OBSERVED =
+      RuntimeOptions.fromSystemProperties().globalMode();
+
+  private static final ClassValue<Optional<Field>> CONSTRUCTING_FIELDS =
+      new ClassValue<>() {
+        @Override
+        protected Optional<Field> computeValue(Class<?> type) {
+          try {
+            Field field = type.getDeclaredField(CONSTRUCTING_FIELD);
+            if (field.getType() != boolean.class || Modifier.isStatic(field.getModifiers())) {
+              return Optional.empty();
+            }
+            field.setAccessible(true);
+            return Optional.of(field);
+          } catch (NoSuchFieldException | RuntimeException ignored) {
+            return Optional.empty();
+          }
+        }
+      };
+
+  // The fields of the checked superclasses of a class, which its commit clears.
+  private static final ClassValue<List<Field>> SUPERCLASS_FIELDS =
+      new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+          List<Field> fields = new ArrayList<>();
+          for (Class<?> c = type.getSuperclass(); c != null; c = c.getSuperclass()) {
+            constructingField(c).ifPresent(fields::add);
+          }
+          return List.copyOf(fields);
+        }
+      };
+
+  private CommitState() {}
+
+  /**
+   * Called when a constructor of checked class {@code owner} completes on an object of a proper
+   * subclass. Returns whether the constructor must clear the {@link #CONSTRUCTING_FIELD} of {@code
+   * owner} now, because no later commit of the object will be observed.
+   */
+  public static boolean commitSubclass(Object receiver, Class<?> owner) {
+    return !UNCHECKED_COMMITS_OBSERVED && constructingField(receiver.getClass()).isEmpty();
+  }
+
+  /**
+   * Called when a constructor of unchecked class {@code owner} completes. Commits the object when
+   * it is exactly of that class by clearing the fields of its checked superclasses.
+   */
+  public static void commitUnchecked(Object receiver, Class<?> owner) {
+    if (receiver.getClass() != owner) {
+      return;
+    }
+    for (Field field : SUPERCLASS_FIELDS.get(owner)) {
+      try {
+        field.setBoolean(receiver, false);
+      } catch (IllegalAccessException ignored) {
+        // The object stays on the slow path.
+      }
+    }
+  }
+
+  /**
+   * The slow path of a receiver check, taken when the {@link #CONSTRUCTING_FIELD} of {@code owner}
+   * is set. Reports {@code message} against the caller unless the receiver is committed.
+   */
+  public static void checkReceiver(Object receiver, Class<?> owner, String message) {
+    if (isCommitted(receiver, owner)) {
+      Optional<Field> ownerField = constructingField(owner);
+      if (ownerField.isPresent()) {
+        try {
+          ownerField.get().setBoolean(receiver, false);
+        } catch (IllegalAccessException ignored) {
+          // The object stays on the slow path.
+        }
+      }
+      return;
+    }
+    reportViolation(CHECKER_NAME, message, AttributionKind.CALLER);
+  }
+
+  /**
+   * Decides for an object whose {@code owner} field is set. Only a checked runtime class records a
+   * later commit in a field of its own; an unchecked one clears the owner's field when it commits.
+   */
+  private static boolean isCommitted(Object receiver, Class<?> owner) {
+    Class<?> type = receiver.getClass();
+    if (type == owner) {
+      return false;
+    }
+    Optional<Field> field = constructingField(type);
+    if (field.isPresent()) {
+      try {
+        return !field.get().getBoolean(receiver);
+      } catch (IllegalAccessException e) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Optional<Field> constructingField(Class<?> type) {
+    return CONSTRUCTING_FIELDS.get(type);
+  }
+}
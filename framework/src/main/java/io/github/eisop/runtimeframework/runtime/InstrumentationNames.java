@@ -0,0 +1,41 @@
+package io.github.eisop.runtimeframework.runtime;
+
+/**
+ * Names of the code the instrumentation generates, shared by the instrumentation that emits it and
+ * the violation handlers that skip its frames when they locate a violation.
+ */
+public final class InstrumentationNames {
+
+  /**
+   * Name prefix of the synthetic helper methods that run checks for the method calling them, such
+   * as return filters and outlined checks.
+   */
+  public static final String CHECK_HELPER_PREFIX = "$runtimeframework$check$";
+
+  private static final String FRAMEWORK_PACKAGE_PREFIX = "io.github.eisop.runtimeframework.";
+
+  private InstrumentationNames() {}
+
+  /** Returns whether {@code methodName} names a check helper. */
+  public static boolean isCheckHelperMethod(String methodName) {
+    return methodName.startsWith(CHECK_HELPER_PREFIX);
+  }
+
+  /**
+   * Returns whether {@code frame} runs framework code or a check helper, which stands in for a
+   * check of the frame below it. Handlers skip these frames so that a violation is attributed to
+   * the instrumented method as if its checks had been emitted inline.
+   */
+  public static boolean isInstrumentationFrame(StackWalker.StackFrame frame) {
+    return isInstrumentationFrame(frame.getClassName(), frame.getMethodName());
+  }
+
+  /** Returns whether {@code element} is a frame that {@link #isInstrumentationFrame} skips. */
+  public static boolean isInstrumentationFrame(StackTraceElement element) {
+    return isInstrumentationFrame(element.getClassName(), element.getMethodName());
+  }
+
+  private static boolean isInstrumentationFrame(String className, String methodName) {
+    return className.startsWith(FRAMEWORK_PACKAGE_PREFIX) || isCheckHelperMethod(methodName);
+  }
+}
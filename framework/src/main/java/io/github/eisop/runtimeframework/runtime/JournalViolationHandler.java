@@ -0,0 +1,54 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A violation handler that appends each violation to a binary {@link ViolationJournal} instead of
+ * formatting it, for applications that report violations at high rates.
+ *
+ * <p>The journal is configured with {@code runtime.journal.path}, {@code
+ * runtime.journal.segmentBytes} and {@code runtime.journal.segments}, and is flushed on shutdown.
+ * Use {@link ViolationJournalReader} to decode it.
+ */
+public class JournalViolationHandler implements ViolationHandler {
+
+  private final ViolationJournal journal;
+
+  public JournalViolationHandler() {
+    this(openConfiguredJournal(RuntimeOptions.fromSystemProperties()));
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(journal::close, "runtime-framework-violation-journal"));
+  }
+
+  public JournalViolationHandler(ViolationJournal journal) {
+    this.journal = Objects.requireNonNull(journal, "journal");
+  }
+
+  @Override
+  public void handleViolation(String checkerName, String message, AttributionKind attribution) {
+    journal.append(checkerName, message, attribution, -1);
+  }
+
+  @Override
+  public void handleViolation(
+      String checkerName, String message, AttributionKind attribution, int siteId) {
+    journal.append(checkerName, message, attribution, siteId);
+  }
+
+  @Override
+  public void handleElementViolation(
+      String checkerName, String message, AttributionKind attribution, int siteId, int index) {
+    journal.append(checkerName, message, attribution, siteId, index);
+  }
+
+  private static ViolationJournal openConfiguredJournal(RuntimeOptions options) {
+    if (!options.hasJournalPath()) {
+      throw new IllegalStateException(
+          RuntimeOptions.JOURNAL_PATH_PROPERTY + " must be set to use JournalViolationHandler");
+    }
+    return ViolationJournal.open(
+        Path.of(options.journalPath()), options.journalSegmentBytes(), options.journalSegments());
+  }
+}
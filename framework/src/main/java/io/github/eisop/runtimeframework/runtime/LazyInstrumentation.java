@@ -0,0 +1,177 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runtime support for lazily instrumented method bodies.
+ *
+ * <p>In lazy mode a method is first loaded with only a trampoline in front of its original body.
+ * The first invocation calls {@link #activate(Class, int)}, which marks the method as activated and
+ * queues its class for retransformation; the transformer then instruments every activated method of
+ * the class and leaves the others behind their trampolines. Activations are retransformed in
+ * batches: one thread at a time drains the queue and retransforms each queued class once, however
+ * many of its methods were activated, while activations made meanwhile wait for the next batch.
+ * When activation succeeds, the trampoline re-invokes the method so that the first invocation
+ * already runs the instrumented body. Threads that reach the trampoline while the class is being
+ * retransformed wait for the retransformation and then re-invoke the method too, so no caller runs
+ * the original body once activation has begun, unless it fails.
+ */
+public final class LazyInstrumentation {
+
+  private static final ClassValue<Map<Integer, Activation>> ACTIVATIONS =
+      new ClassValue<>() {
+        @Override
+        protected Map<Integer, Activation> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private static final Queue<Activation> PENDING = new ConcurrentLinkedQueue<>();
+  private static final Object BATCH_LOCK = new Object();
+
+  private static volatile Instrumentation instrumentation;
+
+  // The thread retransforming the current batch, written under BATCH_LOCK.
+  private static volatile Thread retransformer;
+
+  private LazyInstrumentation() {}
+
+  /** The activation of one method, which the batch that retransforms its class completes. */
+  private static final class Activation {
+
+    private final Class<?> owner;
+    private volatile boolean done;
+    private volatile boolean installed;
+
+    Activation(Class<?> owner) {
+      this.owner = owner;
+    }
+
+    /**
+     * Waits for the activation to complete, retransforming the pending batch if no other thread is,
+     * and returns whether the instrumented body is installed. A call made by the retransforming
+     * thread itself gets {@code false} and runs the original body instead of waiting for itself;
+     * its activation stays queued for the next batch.
+     */
+    boolean await(Instrumentation inst) {
+      while (!done) {
+        if (Thread.currentThread() == retransformer) {
+          return false;
+        }
+        retransformPending(inst);
+      }
+      return installed;
+    }
+  }
+
+  /** Enables lazy activation through {@code inst}, which must support retransformation. */
+  public static void install(Instrumentation inst) {
+    Objects.requireNonNull(inst, "inst");
+    if (!inst.isRetransformClassesSupported()) {
+      throw new IllegalArgumentException("Instrumentation does not support retransformation");
+    }
+    instrumentation = inst;
+  }
+
+  public static boolean isInstalled() {
+    return instrumentation != null;
+  }
+
+  /**
+   * Activates method {@code methodIndex} of {@code owner} and returns whether its instrumented body
+   * is now installed. The first caller for a method queues its class; it and any concurrent callers
+   * block until a batch has retransformed the class and get the same answer.
+   */
+  public static boolean activate(Class<?> owner, int methodIndex) {
+    Instrumentation inst = instrumentation;
+    if (inst == null) {
+      return false;
+    }
+    Map<Integer, Activation> activations = ACTIVATIONS.get(owner);
+    Activation activation = activations.get(methodIndex);
+    if (activation == null) {
+      Activation created = new Activation(owner);
+      activation = activations.putIfAbsent(methodIndex, created);
+      if (activation == null) {
+        activation = created;
+        PENDING.add(created);
+      }
+    }
+    return activation.await(inst);
+  }
+
+  /** Returns whether method {@code methodIndex} of {@code owner} has been activated. */
+  public static boolean isActivated(Class<?> owner, int methodIndex) {
+    return ACTIVATIONS.get(owner).containsKey(methodIndex);
+  }
+
+  /**
+   * Retransforms the classes of all pending activations, each once, and completes the activations.
+   * Threads that arrive while a batch runs block on the lock and then drain whatever was queued
+   * meanwhile.
+   */
+  private static void retransformPending(Instrumentation inst) {
+    synchronized (BATCH_LOCK) {
+      List<Activation> batch = new ArrayList<>();
+      for (Activation activation; (activation = PENDING.poll()) != null; ) {
+        batch.add(activation);
+      }
+      if (batch.isEmpty()) {
+        return;
+      }
+      Set<Class<?>> owners = new LinkedHashSet<>();
+      for (Activation activation : batch) {
+        owners.add(activation.owner);
+      }
+      Set<Class<?>> installed = new HashSet<>();
+      retransformer = Thread.currentThread();
+      try {
+        retransform(inst, owners, installed);
+      } finally {
+        retransformer = null;
+        for (Activation activation : batch) {
+          activation.installed = installed.contains(activation.owner);
+          activation.done = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Retransforms {@code owners} together, or one at a time when that fails so that one class that
+   * cannot be retransformed does not fail the others, adding those retransformed to {@code
+   * installed}.
+   */
+  private static void retransform(
+      Instrumentation inst, Set<Class<?>> owners, Set<Class<?>> installed) {
+    if (owners.size() > 1) {
+      try {
+        inst.retransformClasses(owners.toArray(Class<?>[]::new));
+        installed.addAll(owners);
+        return;
+      } catch (Throwable ignored) {
+        // Retried per class below, which reports the classes that fail.
+      }
+    }
+    for (Class<?> owner : owners) {
+      try {
+        inst.retransformClasses(owner);
+        installed.add(owner);
+      } catch (Throwable t) {
+        System.err.println(
+            "[RuntimeFramework] Lazy instrumentation failed for: " + owner.getName());
+        t.printStackTrace();
+      }
+    }
+  }
+}
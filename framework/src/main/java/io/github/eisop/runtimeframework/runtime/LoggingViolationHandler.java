@@ -32,8 +32,8 @@ public class LoggingViolationHandler implements ViolationHandler {
         .walk(
             stream ->
                 stream
-                    // Skip the runtime framework infrastructure
-                    .filter(f -> !f.getClassName().startsWith("io.github.eisop.runtimeframework"))
+                    // Skip the runtime framework infrastructure and check helpers
+                    .filter(f -> !InstrumentationNames.isInstrumentationFrame(f))
                     // Skip the method that triggered the violation if we are attributing to the
                     // CALLER
                     .skip(attribution == AttributionKind.CALLER ? 1 : 0)
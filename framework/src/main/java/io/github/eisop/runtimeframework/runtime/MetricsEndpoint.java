@@ -0,0 +1,84 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@link RuntimeMetrics} over HTTP at {@code /metrics} for scraping by Prometheus.
+ *
+ * <p>Requests are handled on a single daemon thread owned by the endpoint, so rendering never runs
+ * on, or waits for, an application thread. The server is started from a daemon thread too, since
+ * its dispatcher thread inherits that status and must not keep the application from exiting.
+ */
+public final class MetricsEndpoint {
+
+  public static final String PATH = "/metrics";
+
+  private MetricsEndpoint() {}
+
+  /**
+   * Starts the endpoint on {@code address}, given as {@code host:port} or as a port on the loopback
+   * address, and returns the bound address.
+   */
+  public static InetSocketAddress install(String address) throws IOException {
+    Objects.requireNonNull(address, "address");
+    HttpServer server = HttpServer.create(parseAddress(address), 0);
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "runtime-framework-metrics");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server.setExecutor(executor);
+    server.createContext(PATH, MetricsEndpoint::handle);
+    Thread starter = new Thread(server::start, "runtime-framework-metrics-start");
+    starter.setDaemon(true);
+    starter.start();
+    try {
+      starter.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      server.stop(0);
+      throw new IOException("Interrupted while starting the metrics endpoint", e);
+    }
+    return server.getAddress();
+  }
+
+  static InetSocketAddress parseAddress(String address) {
+    int separator = address.lastIndexOf(':');
+    String host = separator < 0 ? "" : address.substring(0, separator);
+    String port = separator < 0 ? address : address.substring(separator + 1);
+    try {
+      int portNumber = Integer.parseInt(port.trim());
+      return host.isBlank()
+          ? new InetSocketAddress(InetAddress.getLoopbackAddress(), portNumber)
+          : new InetSocketAddress(host.trim(), portNumber);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid metrics address: " + address, e);
+    }
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = RuntimeMetrics.render().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", RuntimeMetrics.CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+}
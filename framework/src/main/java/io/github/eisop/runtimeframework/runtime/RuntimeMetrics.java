@@ -0,0 +1,204 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of the runtime framework, rendered in the OpenMetrics text format.
+ *
+ * <p>Counters are {@link LongAdder}s, so recording never locks; a counter keyed by a name is only
+ * created the first time that name is seen. Violations of registered check sites are read from
+ * {@link CheckSites} rather than counted twice; a violation reported with the id of a site that is
+ * not registered is counted here, by id. Checks emitted without a site id, which is the case unless
+ * sampling, profiling or another feature registers sites, are only counted per checker. Rendering
+ * reads a snapshot of each counter and never blocks the threads that update them.
+ */
+public final class RuntimeMetrics {
+
+  public static final String CONTENT_TYPE =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  private static final String PREFIX = "runtimeframework_";
+
+  private static final ConcurrentMap<String, LongAdder> VIOLATIONS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Integer, LongAdder> UNREGISTERED_SITE_VIOLATIONS =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, LongAdder> TRANSFORMS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, LongAdder> TRANSFORM_NANOS = new ConcurrentHashMap<>();
+  private static final LongAdder TRANSFORM_FAILURES = new LongAdder();
+  private static final ConcurrentMap<String, LongAdder> DEGRADED_TRANSFORMS =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, LongAdder> CACHE_REQUESTS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, LongAdder> CACHE_MISSES = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, LongAdder> LINKAGES = new ConcurrentHashMap<>();
+
+  private RuntimeMetrics() {}
+
+  /** Records a violation reported by {@code checkerName}. */
+  public static void recordViolation(String checkerName) {
+    counter(VIOLATIONS, checkerName).increment();
+  }
+
+  /**
+   * Records a violation reported by {@code checkerName} at the check site {@code siteId}, in {@link
+   * CheckSites} when the site is registered.
+   */
+  public static void recordViolation(String checkerName, int siteId) {
+    counter(VIOLATIONS, checkerName).increment();
+    if (siteId >= 0 && !CheckSites.recordViolation(siteId)) {
+      counter(UNREGISTERED_SITE_VIOLATIONS, siteId).increment();
+    }
+  }
+
+  /** Records a class transformation that classified the class as {@code classification}. */
+  public static void recordTransform(String classification, long nanos) {
+    counter(TRANSFORMS, classification).increment();
+    counter(TRANSFORM_NANOS, classification).add(nanos);
+  }
+
+  /** Records a class transformation that failed and left the class unchanged. */
+  public static void recordTransformFailure() {
+    TRANSFORM_FAILURES.increment();
+  }
+
+  /**
+   * Records a class transformed in a cheaper mode because a time budget named {@code budget} ran
+   * out.
+   */
+  public static void recordDegradedTransform(String budget) {
+    counter(DEGRADED_TRANSFORMS, budget).increment();
+  }
+
+  /** Records a lookup in the resolution cache {@code cache}. */
+  public static void recordCacheRequest(String cache, boolean miss) {
+    counter(CACHE_REQUESTS, cache).increment();
+    if (miss) {
+      counter(CACHE_MISSES, cache).increment();
+    }
+  }
+
+  /** Records the linkage of a call site by the bootstrap method {@code bootstrap}. */
+  public static void recordLinkage(String bootstrap) {
+    counter(LINKAGES, bootstrap).increment();
+  }
+
+  /** Renders every metric in the OpenMetrics text format, ending with {@code # EOF}. */
+  public static String render() {
+    StringBuilder out = new StringBuilder(4096);
+
+    family(out, "violations", "counter", "Violations reported per checker.");
+    for (Map.Entry<String, LongAdder> entry : VIOLATIONS.entrySet()) {
+      sample(out, "violations_total", label("checker", entry.getKey()), entry.getValue().sum());
+    }
+
+    family(out, "site_violations", "counter", "Violations reported per check site.");
+    for (CheckSite site : CheckSites.sites()) {
+      long violations = CheckSites.violations(site.id());
+      if (violations > 0) {
+        sample(out, "site_violations_total", siteLabels(site), violations);
+      }
+    }
+    for (Map.Entry<Integer, LongAdder> entry : UNREGISTERED_SITE_VIOLATIONS.entrySet()) {
+      sample(
+          out,
+          "site_violations_total",
+          label("site", entry.getKey().toString()),
+          entry.getValue().sum());
+    }
+
+    family(
+        out, "transform_seconds", "summary", "Time spent transforming classes per classification.");
+    for (Map.Entry<String, LongAdder> entry : TRANSFORMS.entrySet()) {
+      String labels = label("classification", entry.getKey());
+      long nanos = counter(TRANSFORM_NANOS, entry.getKey()).sum();
+      sample(out, "transform_seconds_count", labels, entry.getValue().sum());
+      out.append(PREFIX)
+          .append("transform_seconds_sum")
+          .append(labels)
+          .append(' ')
+          .append(nanos / 1e9)
+          .append('\n');
+    }
+
+    family(out, "transform_failures", "counter", "Class transformations that failed.");
+    sample(out, "transform_failures_total", "", TRANSFORM_FAILURES.sum());
+
+    family(
+        out,
+        "degraded_transforms",
+        "counter",
+        "Classes transformed with entry and return checks only, per exhausted budget.");
+    for (Map.Entry<String, LongAdder> entry : DEGRADED_TRANSFORMS.entrySet()) {
+      sample(
+          out,
+          "degraded_transforms_total",
+          label("budget", entry.getKey()),
+          entry.getValue().sum());
+    }
+
+    family(out, "resolution_cache_requests", "counter", "Resolution cache lookups per result.");
+    for (Map.Entry<String, LongAdder> entry : CACHE_REQUESTS.entrySet()) {
+      long requests = entry.getValue().sum();
+      long misses = counter(CACHE_MISSES, entry.getKey()).sum();
+      String cache = label("cache", entry.getKey());
+      sample(
+          out,
+          "resolution_cache_requests_total",
+          labels(cache, "result", "hit"),
+          Math.max(0, requests - misses));
+      sample(out, "resolution_cache_requests_total", labels(cache, "result", "miss"), misses);
+    }
+
+    family(out, "indy_linkages", "counter", "Call sites linked per bootstrap method.");
+    for (Map.Entry<String, LongAdder> entry : LINKAGES.entrySet()) {
+      sample(
+          out, "indy_linkages_total", label("bootstrap", entry.getKey()), entry.getValue().sum());
+    }
+
+    out.append("# EOF\n");
+    return out.toString();
+  }
+
+  private static <K> LongAdder counter(ConcurrentMap<K, LongAdder> counters, K key) {
+    LongAdder counter = counters.get(key);
+    return counter != null ? counter : counters.computeIfAbsent(key, ignored -> new LongAdder());
+  }
+
+  private static void family(StringBuilder out, String name, String type, String help) {
+    out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+  }
+
+  private static void sample(StringBuilder out, String name, String labels, long value) {
+    out.append(PREFIX).append(name).append(labels).append(' ').append(value).append('\n');
+  }
+
+  private static String siteLabels(CheckSite site) {
+    List<String> pairs = new ArrayList<>();
+    pairs.add(pair("site", Integer.toString(site.id())));
+    pairs.add(pair("class", site.owner().replace('/', '.')));
+    pairs.add(pair("method", site.methodName()));
+    pairs.add(pair("line", Integer.toString(site.line())));
+    return "{" + String.join(",", pairs) + "}";
+  }
+
+  private static String label(String name, String value) {
+    return "{" + pair(name, value) + "}";
+  }
+
+  private static String labels(String labels, String name, String value) {
+    return labels.substring(0, labels.length() - 1) + "," + pair(name, value) + "}";
+  }
+
+  private static String pair(String name, String value) {
+    return name + "=\"" + escape(value) + "\"";
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -51,6 +51,33 @@ public abstract class RuntimeVerifier {
   /** Reports a violation to the current handler with specific attribution. */
   protected static void reportViolation(
       String checkerName, String message, AttributionKind attribution) {
+    RuntimeMetrics.recordViolation(checkerName);
     handler.handleViolation(checkerName, message, attribution);
   }
+
+  /**
+   * Reports a violation observed by the check site {@code siteId}, recording it against the site
+   * and escalating a sampled site to check every subsequent hit.
+   */
+  protected static void reportViolation(
+      String checkerName, String message, AttributionKind attribution, int siteId) {
+    RuntimeMetrics.recordViolation(checkerName, siteId);
+    CheckSampling.escalate(siteId);
+    handler.handleViolation(checkerName, message, attribution, siteId);
+  }
+
+  /**
+   * Reports a violation by the element at {@code index} of an array checked as a whole, for the
+   * check site {@code siteId} or for -1 when there is none.
+   */
+  protected static void reportElementViolation(
+      String checkerName, String message, AttributionKind attribution, int siteId, int index) {
+    if (siteId >= 0) {
+      RuntimeMetrics.recordViolation(checkerName, siteId);
+      CheckSampling.escalate(siteId);
+    } else {
+      RuntimeMetrics.recordViolation(checkerName);
+    }
+    handler.handleElementViolation(checkerName, message, attribution, siteId, index);
+  }
 }
@@ -0,0 +1,97 @@
+package io.github.eisop.runtimeframework.runtime;
+
+/**
+ * Thrown by {@link ThrowingViolationHandler} when a runtime check fails.
+ *
+ * <p>The exception is cheap to create and throw: suppression is disabled, the stack trace may be
+ * omitted, and the message is only formatted when first requested. With a stack trace, the source
+ * location is derived from it on demand; without one, the location is supplied when the exception
+ * is created.
+ */
+public class RuntimeViolationException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String checkerName;
+  private final String violation;
+  private final AttributionKind attribution;
+  private volatile String location;
+  private volatile String message;
+
+  /**
+   * Creates a violation exception.
+   *
+   * @param checkerName the name of the checker that detected the violation
+   * @param violation the message reported by the check
+   * @param attribution the strategy for determining the source of the violation
+   * @param location the source location, or {@code null} to derive it from the stack trace
+   * @param writableStackTrace whether to record the stack trace of the violation
+   */
+  public RuntimeViolationException(
+      String checkerName,
+      String violation,
+      AttributionKind attribution,
+      String location,
+      boolean writableStackTrace) {
+    super(null, null, false, writableStackTrace);
+    this.checkerName = checkerName;
+    this.violation = violation;
+    this.attribution = attribution;
+    this.location = location;
+  }
+
+  public String getCheckerName() {
+    return checkerName;
+  }
+
+  /** Returns the message reported by the check, without the checker name and location. */
+  public String getViolation() {
+    return violation;
+  }
+
+  public AttributionKind getAttribution() {
+    return attribution;
+  }
+
+  /** Returns the source location of the violation, or {@code Unknown:0} if it is not known. */
+  public String getLocation() {
+    String result = location;
+    if (result == null) {
+      result = locationFromStackTrace();
+      location = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String getMessage() {
+    String result = message;
+    if (result == null) {
+      result = String.format("[%s Violation] (%s) %s", checkerName, getLocation(), violation);
+      message = result;
+    }
+    return result;
+  }
+
+  /** Returns whether this exception reports {@code violation} of {@code checkerName}. */
+  boolean reports(String checkerName, String violation, AttributionKind attribution) {
+    return this.attribution == attribution
+        && this.checkerName.equals(checkerName)
+        && this.violation.equals(violation);
+  }
+
+  private String locationFromStackTrace() {
+    int skip = attribution == AttributionKind.CALLER ? 1 : 0;
+    for (StackTraceElement element : getStackTrace()) {
+      // Skip the runtime framework infrastructure and check helpers
+      if (InstrumentationNames.isInstrumentationFrame(element)) {
+        continue;
+      }
+      if (skip-- > 0) {
+        continue;
+      }
+      return element.getFileName() + ":" + element.getLineNumber();
+    }
+    return "Unknown:0";
+  }
+}
@@ -1,30 +1,108 @@
 package io.github.eisop.runtimeframework.runtime;
 
-/** A violation handler that throws a RuntimeException when a check fails. */
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import java.util.Arrays;
+
+/**
+ * A violation handler that throws a {@link RuntimeViolationException} when a check fails.
+ *
+ * <p>By default the exception records its stack trace and derives the source location from it, so a
+ * violation walks the stack once. In stackless mode ({@code runtime.violations.stackless}) the
+ * exception has no stack trace; the location then comes from the check site when the check
+ * registered one and its attribution is local, and otherwise from a single stack walk. Either way
+ * the location reads {@code File.java:line}.
+ *
+ * <p>A stackless exception located by its site holds nothing that differs between violations, so
+ * each site allocates one and throws it again while the site reports the same message.
+ */
 public class ThrowingViolationHandler implements ViolationHandler {
 
+  private final boolean stackless;
+  private volatile RuntimeViolationException[] siteExceptions = new RuntimeViolationException[0];
+
+  public ThrowingViolationHandler() {
+    this(RuntimeOptions.fromSystemProperties().stacklessViolationsEnabled());
+  }
+
+  public ThrowingViolationHandler(boolean stackless) {
+    this.stackless = stackless;
+  }
+
   @Override
   public void handleViolation(String checkerName, String message, AttributionKind attribution) {
-    StackTraceElement source = findSource(attribution);
-    String location =
-        (source != null) ? source.getFileName() + ":" + source.getLineNumber() : "Unknown:0";
+    handleViolation(checkerName, message, attribution, -1);
+  }
+
+  @Override
+  public void handleViolation(
+      String checkerName, String message, AttributionKind attribution, int siteId) {
+    if (!stackless) {
+      throw new RuntimeViolationException(checkerName, message, attribution, null, true);
+    }
+    RuntimeViolationException siteException =
+        siteException(checkerName, message, attribution, siteId);
+    if (siteException != null) {
+      throw siteException;
+    }
+    throw new RuntimeViolationException(
+        checkerName, message, attribution, findLocation(attribution), false);
+  }
+
+  /**
+   * Returns the stackless exception of the check site {@code siteId} for a violation, or {@code
+   * null} when the site does not locate it.
+   */
+  private RuntimeViolationException siteException(
+      String checkerName, String message, AttributionKind attribution, int siteId) {
+    RuntimeViolationException[] exceptions = siteExceptions;
+    if (siteId >= 0 && siteId < exceptions.length) {
+      RuntimeViolationException cached = exceptions[siteId];
+      if (cached != null && cached.reports(checkerName, message, attribution)) {
+        return cached;
+      }
+    }
+    String location = siteLocation(siteId, attribution);
+    if (location == null) {
+      return null;
+    }
+    RuntimeViolationException created =
+        new RuntimeViolationException(checkerName, message, attribution, location, false);
+    synchronized (this) {
+      exceptions = siteExceptions;
+      if (siteId >= exceptions.length) {
+        exceptions = Arrays.copyOf(exceptions, Math.max(siteId + 1, exceptions.length << 1));
+      }
+      exceptions[siteId] = created;
+      siteExceptions = exceptions;
+    }
+    return created;
+  }
 
-    throw new RuntimeException(
-        String.format("[%s Violation] (%s) %s", checkerName, location, message));
+  /**
+   * Returns the location of the check site {@code siteId}, which is where a locally attributed
+   * violation occurred.
+   */
+  private static String siteLocation(int siteId, AttributionKind attribution) {
+    if (attribution != AttributionKind.LOCAL) {
+      return null;
+    }
+    return CheckSites.site(siteId).map(CheckSite::sourceLocation).orElse(null);
   }
 
-  private StackTraceElement findSource(AttributionKind attribution) {
-    return StackWalker.getInstance()
-        .walk(
-            stream ->
-                stream
-                    // Skip the runtime framework infrastructure
-                    .filter(f -> !f.getClassName().startsWith("io.github.eisop.runtimeframework"))
-                    // Skip the method that triggered the violation if we are attributing to the
-                    // CALLER
-                    .skip(attribution == AttributionKind.CALLER ? 1 : 0)
-                    .findFirst()
-                    .map(StackWalker.StackFrame::toStackTraceElement)
-                    .orElse(null));
+  private static String findLocation(AttributionKind attribution) {
+    StackTraceElement source =
+        StackWalker.getInstance()
+            .walk(
+                stream ->
+                    stream
+                        // Skip the runtime framework infrastructure and check helpers
+                        .filter(f -> !InstrumentationNames.isInstrumentationFrame(f))
+                        // Skip the method that triggered the violation if we are attributing to
+                        // the CALLER
+                        .skip(attribution == AttributionKind.CALLER ? 1 : 0)
+                        .findFirst()
+                        .map(StackWalker.StackFrame::toStackTraceElement)
+                        .orElse(null));
+    return (source != null) ? source.getFileName() + ":" + source.getLineNumber() : "Unknown:0";
   }
 }
@@ -21,4 +21,39 @@ public interface ViolationHandler {
    * @param attribution The strategy for determining the source of the error
    */
   void handleViolation(String checkerName, String message, AttributionKind attribution);
+
+  /**
+   * Handle a violation observed by a registered check site. Handlers may describe the violation
+   * with the site from {@link CheckSites#site(int)} instead of walking the stack.
+   *
+   * @param checkerName The name of the checker that detected the violation
+   * @param message The descriptive error message provided by the verification logic
+   * @param attribution The strategy for determining the source of the error
+   * @param siteId The id of the check site that observed the violation
+   */
+  default void handleViolation(
+      String checkerName, String message, AttributionKind attribution, int siteId) {
+    handleViolation(checkerName, message, attribution);
+  }
+
+  /**
+   * Handle a violation by the element at {@code index} of an array whose elements are checked
+   * together. The default appends the index to the message; handlers that aggregate violations keep
+   * it apart so that the message stays the same for every element.
+   *
+   * @param checkerName The name of the checker that detected the violation
+   * @param message The descriptive error message provided by the verification logic
+   * @param attribution The strategy for determining the source of the error
+   * @param siteId The id of the check site that observed the violation, or -1 when there is none
+   * @param index The index of the offending element
+   */
+  default void handleElementViolation(
+      String checkerName, String message, AttributionKind attribution, int siteId, int index) {
+    String indexed = message + " (index " + index + ")";
+    if (siteId >= 0) {
+      handleViolation(checkerName, indexed, attribution, siteId);
+    } else {
+      handleViolation(checkerName, indexed, attribution);
+    }
+  }
 }
@@ -0,0 +1,378 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An append-only journal of violations in fixed-size binary records, written to rotating
+ * memory-mapped segment files.
+ *
+ * <p>A journal at path {@code p} consists of segment files {@code p.000000.rfj}, {@code
+ * p.000001.rfj}, and so on, plus a text file {@code p.names}. Each segment starts with a {@value
+ * #HEADER_SIZE}-byte header (magic, version, record size, segment index) followed by {@value
+ * #RECORD_SIZE}-byte little-endian records:
+ *
+ * <pre>
+ * offset  0  long  timestamp, milliseconds since the epoch
+ * offset  8  long  thread id
+ * offset 16  int   check site id, or -1 when the check has no site
+ * offset 20  int   checker id
+ * offset 24  int   message id
+ * offset 28  byte  attribution ordinal
+ * offset 32  int   index of the offending array element, or -1 when the value is not one
+ * </pre>
+ *
+ * <p>Checker names, messages and sites are written once to the names file as tab-separated lines
+ * ({@code checker id name}, {@code message id text} and {@code site id class method line check}),
+ * so records stay fixed-size. The element index is kept in the record rather than the message, so
+ * the names stay bounded by the number of distinct checks. Writers claim records with an atomic add
+ * on the position of the current segment and never lock; a name seen for the first time is written
+ * and flushed to the names file before the record using it, so the records a crashed run left
+ * behind can still be read. Switching to the next segment is the only other step that synchronizes,
+ * and the full segment is forced to storage by a background thread. When a new segment would exceed
+ * the segment limit, the oldest one is deleted. A record whose timestamp is zero was claimed but
+ * not completely written, and readers skip it.
+ *
+ * <p>A journal holds the violations of one run. Opening it moves the files of an earlier journal at
+ * the same path to {@code p.previous}, replacing the journal kept there before.
+ */
+public final class ViolationJournal implements AutoCloseable {
+
+  public static final int MAGIC = 0x52464A31;
+  public static final int VERSION = 2;
+  public static final int HEADER_SIZE = 16;
+  public static final int RECORD_SIZE = 40;
+  public static final String SEGMENT_SUFFIX = ".rfj";
+  public static final String NAMES_SUFFIX = ".names";
+  public static final String PREVIOUS_SUFFIX = ".previous";
+
+  static final String CHECKER_KIND = "checker";
+  static final String MESSAGE_KIND = "message";
+  static final String SITE_KIND = "site";
+
+  private static final int MAX_SEGMENT_BYTES = 1 << 30;
+  private static final long FORCE_TIMEOUT_SECONDS = 10;
+
+  private final Path path;
+  private final int segmentBytes;
+  private final int maxSegments;
+  private final BufferedWriter names;
+  private boolean namesClosed;
+  private final ConcurrentMap<String, Integer> checkerIds = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Integer> messageIds = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Integer, Boolean> describedSites = new ConcurrentHashMap<>();
+  private final AtomicInteger nextCheckerId = new AtomicInteger();
+  private final AtomicInteger nextMessageId = new AtomicInteger();
+  private final Object rotationLock = new Object();
+  private final ExecutorService forcer =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "runtime-framework-journal-force");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private volatile Segment current;
+
+  private ViolationJournal(Path path, int segmentBytes, int maxSegments) throws IOException {
+    this.path = path;
+    this.segmentBytes = segmentBytes;
+    this.maxSegments = maxSegments;
+    keepPrevious(path);
+    this.names = Files.newBufferedWriter(namesFile(path), StandardCharsets.UTF_8);
+    this.current = openSegment(0);
+  }
+
+  /**
+   * Opens a journal at {@code path} with segments of {@code segmentBytes} bytes, keeping at most
+   * {@code maxSegments} segments.
+   */
+  public static ViolationJournal open(Path path, int segmentBytes, int maxSegments) {
+    Objects.requireNonNull(path, "path");
+    if (segmentBytes < HEADER_SIZE + RECORD_SIZE || segmentBytes > MAX_SEGMENT_BYTES) {
+      throw new IllegalArgumentException("Invalid journal segment size: " + segmentBytes);
+    }
+    if (maxSegments < 1) {
+      throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+    }
+    try {
+      Path parent = path.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      return new ViolationJournal(path, segmentBytes, maxSegments);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open violation journal " + path, e);
+    }
+  }
+
+  /** Appends one violation, reported for the check site {@code siteId} or for -1 when none. */
+  public void append(String checkerName, String message, AttributionKind attribution, int siteId) {
+    append(checkerName, message, attribution, siteId, -1);
+  }
+
+  /**
+   * Appends one violation by the array element at {@code elementIndex}, or by a value that is no
+   * array element when it is -1, reported for the check site {@code siteId} or for -1 when none.
+   */
+  public void append(
+      String checkerName,
+      String message,
+      AttributionKind attribution,
+      int siteId,
+      int elementIndex) {
+    int checkerId = nameId(checkerIds, nextCheckerId, CHECKER_KIND, checkerName);
+    int messageId = nameId(messageIds, nextMessageId, MESSAGE_KIND, message);
+    if (siteId >= 0 && !describedSites.containsKey(siteId)) {
+      // Threads reporting the same new site wait here until its line is written.
+      describedSites.computeIfAbsent(siteId, this::describeSite);
+    }
+    long threadId = Thread.currentThread().threadId();
+    long timestamp = System.currentTimeMillis();
+    while (true) {
+      Segment segment = current;
+      if (segment == null) {
+        return;
+      }
+      int offset = segment.position.getAndAdd(RECORD_SIZE);
+      if (offset >= 0 && offset <= segmentBytes - RECORD_SIZE) {
+        segment.write(
+            offset, timestamp, threadId, siteId, checkerId, messageId, attribution, elementIndex);
+        return;
+      }
+      rotate(segment);
+    }
+  }
+
+  /**
+   * Forces the mapped segments to storage and closes the names file. Violations appended later are
+   * dropped.
+   */
+  @Override
+  public void close() {
+    Segment segment;
+    synchronized (rotationLock) {
+      segment = current;
+      current = null;
+    }
+    forcer.shutdown();
+    try {
+      forcer.awaitTermination(FORCE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (segment != null) {
+      segment.buffer.force();
+    }
+    synchronized (names) {
+      namesClosed = true;
+      try {
+        names.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /** Returns the segment files of the journal at {@code path}, in the order they were written. */
+  public static List<Path> segmentFiles(Path path) throws IOException {
+    Path directory = path.toAbsolutePath().getParent();
+    String prefix = path.getFileName() + ".";
+    List<Path> segments = new ArrayList<>();
+    if (directory == null || !Files.isDirectory(directory)) {
+      return segments;
+    }
+    try (DirectoryStream<Path> entries =
+        Files.newDirectoryStream(directory, prefix + "*" + SEGMENT_SUFFIX)) {
+      for (Path entry : entries) {
+        String name = entry.getFileName().toString();
+        String index =
+            name.substring(prefix.length(), name.length() - SEGMENT_SUFFIX.length());
+        if (!index.isEmpty() && index.chars().allMatch(Character::isDigit)) {
+          segments.add(entry);
+        }
+      }
+    }
+    segments.sort(null);
+    return segments;
+  }
+
+  public static Path namesFile(Path path) {
+    return path.resolveSibling(path.getFileName() + NAMES_SUFFIX);
+  }
+
+  /** Returns the path the journal of the previous run at {@code path} is kept at. */
+  public static Path previousPath(Path path) {
+    return path.resolveSibling(path.getFileName() + PREVIOUS_SUFFIX);
+  }
+
+  /** Moves the files of an earlier journal at {@code path} to {@link #previousPath}. */
+  private static void keepPrevious(Path path) throws IOException {
+    List<Path> segments = segmentFiles(path);
+    Path namesFile = namesFile(path);
+    if (segments.isEmpty() && !Files.exists(namesFile)) {
+      return;
+    }
+    Path previous = previousPath(path);
+    for (Path segment : segmentFiles(previous)) {
+      Files.delete(segment);
+    }
+    Files.deleteIfExists(namesFile(previous));
+    for (int i = 0; i < segments.size(); i++) {
+      Files.move(segments.get(i), segmentFile(previous, i));
+    }
+    if (Files.exists(namesFile)) {
+      Files.move(namesFile, namesFile(previous));
+    }
+    System.err.println(
+        "[RuntimeFramework] Moved the previous violation journal at " + path + " to " + previous);
+  }
+
+  static Path segmentFile(Path path, int index) {
+    return path.resolveSibling(
+        path.getFileName() + "." + String.format("%06d", index) + SEGMENT_SUFFIX);
+  }
+
+  private int nameId(
+      ConcurrentMap<String, Integer> ids, AtomicInteger nextId, String kind, String name) {
+    Integer id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    return ids.computeIfAbsent(
+        name,
+        ignored -> {
+          int newId = nextId.getAndIncrement();
+          writeName(kind + "\t" + newId + "\t" + singleLine(name));
+          return newId;
+        });
+  }
+
+  private Boolean describeSite(int siteId) {
+    Optional<CheckSite> site = CheckSites.site(siteId);
+    if (site.isPresent()) {
+      CheckSite checkSite = site.get();
+      writeName(
+          SITE_KIND
+              + "\t"
+              + siteId
+              + "\t"
+              + checkSite.owner().replace('/', '.')
+              + "\t"
+              + checkSite.methodName()
+              + "\t"
+              + checkSite.line()
+              + "\t"
+              + singleLine(checkSite.check()));
+    }
+    return Boolean.TRUE;
+  }
+
+  /**
+   * Writes one line to the names file and flushes it, so the line is in the file before any record
+   * that uses it.
+   */
+  private void writeName(String line) {
+    synchronized (names) {
+      if (namesClosed) {
+        return;
+      }
+      try {
+        names.write(line);
+        names.newLine();
+        names.flush();
+      } catch (IOException e) {
+        System.err.println("[RuntimeFramework] Failed to write violation journal names: " + path);
+      }
+    }
+  }
+
+  private static String singleLine(String text) {
+    return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+  }
+
+  private void rotate(Segment full) {
+    synchronized (rotationLock) {
+      if (current != full) {
+        return;
+      }
+      try {
+        forcer.execute(full.buffer::force);
+        current = openSegment(full.index + 1);
+        int expired = full.index + 1 - maxSegments;
+        if (expired >= 0) {
+          Files.deleteIfExists(segmentFile(path, expired));
+        }
+      } catch (IOException e) {
+        current = null;
+        System.err.println("[RuntimeFramework] Violation journal stopped: " + e.getMessage());
+      }
+    }
+  }
+
+  private Segment openSegment(int index) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            segmentFile(path, index),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      buffer.putInt(8, RECORD_SIZE);
+      buffer.putInt(12, index);
+      return new Segment(index, buffer);
+    }
+  }
+
+  private static final class Segment {
+    private final int index;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger position = new AtomicInteger(HEADER_SIZE);
+
+    Segment(int index, MappedByteBuffer buffer) {
+      this.index = index;
+      this.buffer = buffer;
+    }
+
+    void write(
+        int offset,
+        long timestamp,
+        long threadId,
+        int siteId,
+        int checkerId,
+        int messageId,
+        AttributionKind attribution,
+        int elementIndex) {
+      buffer.putLong(offset + 8, threadId);
+      buffer.putInt(offset + 16, siteId);
+      buffer.putInt(offset + 20, checkerId);
+      buffer.putInt(offset + 24, messageId);
+      buffer.put(offset + 28, (byte) attribution.ordinal());
+      buffer.putInt(offset + 32, elementIndex);
+      // The timestamp goes last, marking the record as complete.
+      buffer.putLong(offset, timestamp);
+    }
+  }
+}
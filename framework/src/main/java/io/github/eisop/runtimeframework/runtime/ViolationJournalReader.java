@@ -0,0 +1,213 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decodes a {@link ViolationJournal} and prints its violations grouped by check site and message.
+ *
+ * <p>Usage: {@code ViolationJournalReader <journal-path>}, where the path is the one passed with
+ * {@code runtime.journal.path}. The output is tab-separated text, most frequent first:
+ *
+ * <pre>
+ * count  checker  attribution  class  method  line  message
+ * </pre>
+ *
+ * <p>Lines starting with {@code #} are comments and summarize the whole journal. Violations without
+ * a check site have {@code -} in the class and method columns and line 0. Violations by different
+ * elements of an array checked as a whole share a group.
+ */
+public final class ViolationJournalReader {
+
+  public static final String HEADER = "# count\tchecker\tattribution\tclass\tmethod\tline\tmessage";
+
+  private ViolationJournalReader() {}
+
+  /**
+   * One decoded journal record with its names resolved. {@code elementIndex} is the index of the
+   * offending array element, or -1 when the value is not one.
+   */
+  public record Violation(
+      long timestamp,
+      long threadId,
+      String checkerName,
+      String message,
+      AttributionKind attribution,
+      String className,
+      String methodName,
+      int line,
+      int elementIndex) {
+    public Violation {
+      Objects.requireNonNull(checkerName, "checkerName");
+      Objects.requireNonNull(message, "message");
+      Objects.requireNonNull(attribution, "attribution");
+      Objects.requireNonNull(className, "className");
+      Objects.requireNonNull(methodName, "methodName");
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: ViolationJournalReader <journal-path>");
+      System.exit(2);
+    }
+    write(read(Path.of(args[0])), System.out);
+  }
+
+  /** Reads every completely written record of the journal at {@code path}, oldest first. */
+  public static List<Violation> read(Path path) throws IOException {
+    Names names = readNames(ViolationJournal.namesFile(path));
+    List<Violation> violations = new ArrayList<>();
+    for (Path segment : ViolationJournal.segmentFiles(path)) {
+      readSegment(segment, names, violations);
+    }
+    return violations;
+  }
+
+  /** Prints {@code violations} grouped by check site and message to {@code out}. */
+  public static void write(List<Violation> violations, PrintStream out) {
+    Map<Group, Long> counts = new HashMap<>();
+    Set<Long> threads = new HashSet<>();
+    long first = Long.MAX_VALUE;
+    long last = Long.MIN_VALUE;
+    for (Violation violation : violations) {
+      counts.merge(
+          new Group(
+              violation.checkerName(),
+              violation.attribution(),
+              violation.className(),
+              violation.methodName(),
+              violation.line(),
+              violation.message()),
+          1L,
+          Long::sum);
+      threads.add(violation.threadId());
+      first = Math.min(first, violation.timestamp());
+      last = Math.max(last, violation.timestamp());
+    }
+    out.println(
+        "# violations "
+            + violations.size()
+            + ", groups "
+            + counts.size()
+            + ", threads "
+            + threads.size());
+    if (!violations.isEmpty()) {
+      out.println("# from " + first + " to " + last + " ms since the epoch");
+    }
+    out.println(HEADER);
+    List<Map.Entry<Group, Long>> entries = new ArrayList<>(counts.entrySet());
+    entries.sort(
+        Map.Entry.<Group, Long>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(entry -> entry.getKey().className())
+            .thenComparingInt(entry -> entry.getKey().line()));
+    for (Map.Entry<Group, Long> entry : entries) {
+      Group group = entry.getKey();
+      out.println(
+          entry.getValue()
+              + "\t"
+              + group.checkerName()
+              + "\t"
+              + group.attribution()
+              + "\t"
+              + group.className()
+              + "\t"
+              + group.methodName()
+              + "\t"
+              + group.line()
+              + "\t"
+              + group.message());
+    }
+  }
+
+  private record Group(
+      String checkerName,
+      AttributionKind attribution,
+      String className,
+      String methodName,
+      int line,
+      String message) {}
+
+  private record SiteName(String className, String methodName, int line) {}
+
+  private record Names(
+      Map<Integer, String> checkers, Map<Integer, String> messages, Map<Integer, SiteName> sites) {}
+
+  private static Names readNames(Path namesFile) throws IOException {
+    Names names = new Names(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    if (!Files.exists(namesFile)) {
+      return names;
+    }
+    for (String line : Files.readAllLines(namesFile, StandardCharsets.UTF_8)) {
+      String[] fields = line.split("\t", -1);
+      try {
+        switch (fields[0]) {
+          case ViolationJournal.CHECKER_KIND ->
+              names.checkers().put(Integer.parseInt(fields[1]), fields[2]);
+          case ViolationJournal.MESSAGE_KIND ->
+              names.messages().put(Integer.parseInt(fields[1]), fields[2]);
+          case ViolationJournal.SITE_KIND ->
+              names
+                  .sites()
+                  .put(
+                      Integer.parseInt(fields[1]),
+                      new SiteName(fields[2], fields[3], Integer.parseInt(fields[4])));
+          default -> {}
+        }
+      } catch (RuntimeException e) {
+        System.err.println("[RuntimeFramework] Ignoring malformed journal name: " + line);
+      }
+    }
+    return names;
+  }
+
+  private static void readSegment(Path segment, Names names, List<Violation> violations)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment)).order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.remaining() < ViolationJournal.HEADER_SIZE
+        || buffer.getInt(0) != ViolationJournal.MAGIC
+        || buffer.getInt(4) != ViolationJournal.VERSION
+        || buffer.getInt(8) != ViolationJournal.RECORD_SIZE) {
+      System.err.println("[RuntimeFramework] Skipping unrecognized journal segment: " + segment);
+      return;
+    }
+    AttributionKind[] attributions = AttributionKind.values();
+    for (int offset = ViolationJournal.HEADER_SIZE;
+        offset <= buffer.limit() - ViolationJournal.RECORD_SIZE;
+        offset += ViolationJournal.RECORD_SIZE) {
+      long timestamp = buffer.getLong(offset);
+      if (timestamp == 0) {
+        continue;
+      }
+      int siteId = buffer.getInt(offset + 16);
+      int attribution = buffer.get(offset + 28);
+      SiteName site = names.sites().getOrDefault(siteId, new SiteName("-", "-", 0));
+      violations.add(
+          new Violation(
+              timestamp,
+              buffer.getLong(offset + 8),
+              names.checkers().getOrDefault(buffer.getInt(offset + 20), "?"),
+              names.messages().getOrDefault(buffer.getInt(offset + 24), "?"),
+              attribution >= 0 && attribution < attributions.length
+                  ? attributions[attribution]
+                  : AttributionKind.LOCAL,
+              site.className(),
+              site.methodName(),
+              site.line(),
+              buffer.getInt(offset + 32)));
+    }
+  }
+}
@@ -0,0 +1,245 @@
+package io.github.eisop.runtimeframework.semantics;
+
+import io.github.eisop.runtimeframework.contracts.PropertyRequirement;
+import io.github.eisop.runtimeframework.contracts.ValueContract;
+import io.github.eisop.runtimeframework.filter.AnnotatedForFilter;
+import io.github.eisop.runtimeframework.filter.ClassInfo;
+import io.github.eisop.runtimeframework.planning.ClassContext;
+import io.github.eisop.runtimeframework.planning.DiagnosticSpec;
+import io.github.eisop.runtimeframework.planning.TargetRef;
+import io.github.eisop.runtimeframework.planning.ValueAccess;
+import io.github.eisop.runtimeframework.policy.ClassClassification;
+import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
+import io.github.eisop.runtimeframework.runtime.AttributionKind;
+import java.lang.classfile.CodeBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Runs the semantics of several checkers in one planner.
+ *
+ * <p>Each checker resolves contracts only for targets in its own scope: the code of a class that is
+ * {@code @AnnotatedFor} the checker, or, at a boundary in code outside every scope, a target owned
+ * by such a class. Where no checker claims the class, for example because the policy lists its
+ * checked classes by name, every checker applies. The contract of a target is the union of the
+ * requirements the applying checkers resolve for it, so a value gets one check action covering
+ * every checker, and a property required by more than one checker is checked once. Each requirement
+ * is emitted by the first checker whose emitter {@link PropertyEmitter#supports supports} it.
+ *
+ * <p>Type metadata and lifecycle semantics cannot be merged, so at most one checker may define each
+ * of them.
+ */
+public final class CompositeCheckerSemantics implements CheckerSemantics {
+
+  /** The semantics of one composed checker and the names its classes are annotated for. */
+  public record Component(Collection<String> checkerNames, CheckerSemantics semantics) {
+
+    public Component {
+      checkerNames = List.copyOf(checkerNames);
+      Objects.requireNonNull(semantics, "semantics");
+    }
+  }
+
+  private final List<Component> components;
+  private final ContractResolver contracts;
+  private final PropertyEmitter emitter;
+  private final TypeMetadataResolver typeMetadata;
+  private final LifecycleSemantics lifecycle;
+  private volatile ScopeFilters scopeFilters;
+
+  private CompositeCheckerSemantics(List<Component> components) {
+    this.components = components;
+    this.contracts = this::resolve;
+    this.emitter =
+        new CompositeEmitter(
+            components.stream().map(component -> component.semantics().emitter()).toList());
+    this.typeMetadata =
+        single(
+            components,
+            CheckerSemantics::typeMetadata,
+            TypeMetadataResolver.none(),
+            "type metadata");
+    this.lifecycle =
+        single(components, CheckerSemantics::lifecycle, LifecycleSemantics.none(), "lifecycle");
+  }
+
+  /**
+   * Returns semantics enforcing all of {@code components}, in order of precedence.
+   *
+   * @throws IllegalArgumentException if more than one component defines type metadata or lifecycle
+   *     semantics
+   */
+  public static CheckerSemantics of(List<Component> components) {
+    Objects.requireNonNull(components, "components");
+    if (components.isEmpty()) {
+      throw new IllegalArgumentException("At least one checker semantics is required");
+    }
+    if (components.size() == 1) {
+      return components.get(0).semantics();
+    }
+    return new CompositeCheckerSemantics(List.copyOf(components));
+  }
+
+  @Override
+  public ContractResolver contracts() {
+    return contracts;
+  }
+
+  @Override
+  public PropertyEmitter emitter() {
+    return emitter;
+  }
+
+  @Override
+  public TypeMetadataResolver typeMetadata() {
+    return typeMetadata;
+  }
+
+  @Override
+  public LifecycleSemantics lifecycle() {
+    return lifecycle;
+  }
+
+  private static <T> T single(
+      List<Component> components,
+      Function<CheckerSemantics, T> part,
+      T none,
+      String description) {
+    T defined = none;
+    for (Component component : components) {
+      T candidate = part.apply(component.semantics());
+      if (candidate == none || candidate == defined) {
+        continue;
+      }
+      if (defined != none) {
+        throw new IllegalArgumentException(
+            "Cannot compose checkers that each define " + description + ": "
+                + components.stream().map(Component::checkerNames).toList());
+      }
+      defined = candidate;
+    }
+    return defined;
+  }
+
+  private ValueContract resolve(TargetRef target, ResolutionContext context) {
+    boolean[] inScope = inScope(target, context);
+    Set<PropertyRequirement> merged = new LinkedHashSet<>();
+    for (int i = 0; i < components.size(); i++) {
+      if (inScope[i]) {
+        merged.addAll(
+            components.get(i).semantics().contracts().resolve(target, context).requirements());
+      }
+    }
+    return merged.isEmpty() ? ValueContract.none() : new ValueContract(new ArrayList<>(merged));
+  }
+
+  /**
+   * Returns which components resolve the contract of {@code target}: those claiming the class being
+   * transformed if it is checked, or else those claiming the owner of the target.
+   */
+  private boolean[] inScope(TargetRef target, ResolutionContext context) {
+    List<AnnotatedForFilter> filters = filters(context.resolutionEnvironment());
+    ClassContext classContext = context.classContext();
+    boolean checked = classContext.classification() == ClassClassification.CHECKED;
+    String owner = checked ? null : ownerOf(target);
+    boolean[] inScope = new boolean[components.size()];
+    boolean any = false;
+    for (int i = 0; i < inScope.length; i++) {
+      if (checked) {
+        inScope[i] = filters.get(i).test(classContext.classModel(), context.loader());
+      } else if (owner != null) {
+        inScope[i] = filters.get(i).test(new ClassInfo(owner, context.loader(), null));
+      }
+      any |= inScope[i];
+    }
+    if (!any) {
+      Arrays.fill(inScope, true);
+    }
+    return inScope;
+  }
+
+  private static String ownerOf(TargetRef target) {
+    return switch (target) {
+      case TargetRef.MethodParameter parameter -> parameter.ownerInternalName();
+      case TargetRef.MethodReturn methodReturn -> methodReturn.ownerInternalName();
+      case TargetRef.InvokedMethod invoked -> invoked.ownerInternalName();
+      case TargetRef.Field field -> field.ownerInternalName();
+      case TargetRef.Receiver receiver -> receiver.ownerInternalName();
+      case TargetRef.ArrayComponent component ->
+          component.arrayTarget() != null ? ownerOf(component.arrayTarget()) : null;
+      case TargetRef.Local ignored -> null;
+    };
+  }
+
+  private List<AnnotatedForFilter> filters(ResolutionEnvironment environment) {
+    ScopeFilters filters = scopeFilters;
+    if (filters == null || filters.environment() != environment) {
+      filters =
+          new ScopeFilters(
+              environment,
+              components.stream()
+                  .map(component -> new AnnotatedForFilter(component.checkerNames(), environment))
+                  .toList());
+      scopeFilters = filters;
+    }
+    return filters.filters();
+  }
+
+  /** The scope filter of each component, for one resolution environment. */
+  private record ScopeFilters(
+      ResolutionEnvironment environment, List<AnnotatedForFilter> filters) {}
+
+  private record CompositeEmitter(List<PropertyEmitter> emitters)
+      implements PropertyEmitter {
+
+    @Override
+    public boolean supports(PropertyRequirement property) {
+      return emitters.stream().anyMatch(emitter -> emitter.supports(property));
+    }
+
+    @Override
+    public void emitCheck(
+        CodeBuilder builder,
+        PropertyRequirement property,
+        ValueAccess access,
+        AttributionKind attribution,
+        DiagnosticSpec diagnostic) {
+      owner(property).emitCheck(builder, property, access, attribution, diagnostic);
+    }
+
+    @Override
+    public boolean supportsElementsCheck(PropertyRequirement property) {
+      return emitters.stream()
+          .filter(emitter -> emitter.supports(property))
+          .findFirst()
+          .map(emitter -> emitter.supportsElementsCheck(property))
+          .orElse(false);
+    }
+
+    @Override
+    public void emitElementsCheck(
+        CodeBuilder builder,
+        PropertyRequirement property,
+        ValueAccess access,
+        AttributionKind attribution,
+        DiagnosticSpec diagnostic) {
+      owner(property).emitElementsCheck(builder, property, access, attribution, diagnostic);
+    }
+
+    private PropertyEmitter owner(PropertyRequirement property) {
+      for (PropertyEmitter emitter : emitters) {
+        if (emitter.supports(property)) {
+          return emitter;
+        }
+      }
+      throw new IllegalArgumentException(
+          "No composed checker emits property " + property.propertyId());
+    }
+  }
+}
@@ -9,10 +9,31 @@ import java.lang.classfile.CodeBuilder;
 /** Emits bytecode to enforce an individual runtime property. */
 public interface PropertyEmitter {
 
+  /** Returns whether this emitter can enforce {@code property} on a single value. */
+  default boolean supports(PropertyRequirement property) {
+    return true;
+  }
+
   void emitCheck(
       CodeBuilder builder,
       PropertyRequirement property,
       ValueAccess access,
       AttributionKind attribution,
       DiagnosticSpec diagnostic);
+
+  /** Returns whether this emitter can enforce {@code property} across all elements of an array. */
+  default boolean supportsElementsCheck(PropertyRequirement property) {
+    return false;
+  }
+
+  /** Emits bytecode to enforce {@code property} on every element of an array value in one pass. */
+  default void emitElementsCheck(
+      CodeBuilder builder,
+      PropertyRequirement property,
+      ValueAccess access,
+      AttributionKind attribution,
+      DiagnosticSpec diagnostic) {
+    throw new UnsupportedOperationException(
+        "Array element checks are not supported for " + property.propertyId());
+  }
 }
@@ -8,7 +8,16 @@ public interface TypeMetadataResolver {
   TypeUseMetadata resolve(TargetRef target, ResolutionContext context);
 
   static TypeMetadataResolver none() {
-    return (target, context) -> TypeUseMetadata.empty(descriptorOf(target));
+    return NoneTypeMetadataResolver.INSTANCE;
+  }
+
+  enum NoneTypeMetadataResolver implements TypeMetadataResolver {
+    INSTANCE;
+
+    @Override
+    public TypeUseMetadata resolve(TargetRef target, ResolutionContext context) {
+      return TypeUseMetadata.empty(descriptorOf(target));
+    }
   }
 
   private static String descriptorOf(TargetRef target) {
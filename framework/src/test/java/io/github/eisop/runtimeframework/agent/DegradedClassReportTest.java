@@ -0,0 +1,42 @@
+package io.github.eisop.runtimeframework.agent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class DegradedClassReportTest {
+
+  @Test
+  public void listsEachKindSorted() {
+    String report = report(Set.of("b/Checked", "a/Checked"), Set.of("c/Unchecked"));
+
+    assertEquals(
+        String.join(
+            System.lineSeparator(),
+            "[RuntimeFramework] 2 checked classes exceeded the transform budget and only check"
+                + " method entry and return:",
+            "[RuntimeFramework]   a.Checked",
+            "[RuntimeFramework]   b.Checked",
+            "[RuntimeFramework] 1 unchecked classes exceeded the transform budget and have no"
+                + " boundary checks:",
+            "[RuntimeFramework]   c.Unchecked",
+            ""),
+        report);
+  }
+
+  @Test
+  public void reportsNothingWithinBudget() {
+    assertEquals("", report(Set.of(), Set.of()));
+  }
+
+  private static String report(Set<String> degraded, Set<String> unbounded) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RuntimeAgent.reportDegradedClasses(
+        degraded, unbounded, new PrintStream(bytes, true, StandardCharsets.UTF_8));
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+}
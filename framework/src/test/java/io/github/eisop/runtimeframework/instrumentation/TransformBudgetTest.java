@@ -0,0 +1,107 @@
+package io.github.eisop.runtimeframework.instrumentation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.classfile.ClassHierarchyResolver;
+import java.lang.constant.ConstantDescs;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class TransformBudgetTest {
+
+  private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+  @Test
+  public void checkOutsideABudgetNeverThrows() {
+    TransformBudget.check();
+  }
+
+  @Test
+  public void runsWithinTheBudget() {
+    assertEquals(
+        "done",
+        TransformBudget.call(
+            HOUR,
+            () -> {
+              TransformBudget.check();
+              return "done";
+            }));
+  }
+
+  @Test
+  public void noPositiveBudgetMeansNoBudget() {
+    assertEquals(
+        "done",
+        TransformBudget.call(
+            System.nanoTime() - HOUR,
+            0,
+            () -> {
+              TransformBudget.check();
+              return "done";
+            }));
+  }
+
+  @Test
+  public void stopsATransformOverItsBudget() {
+    assertThrows(
+        TransformBudget.Exceeded.class,
+        () ->
+            TransformBudget.call(
+                1,
+                () -> {
+                  spin();
+                  TransformBudget.check();
+                  return "done";
+                }));
+    TransformBudget.check();
+  }
+
+  @Test
+  public void countsTheWorkBeforeTheTransform() {
+    assertThrows(
+        TransformBudget.Exceeded.class,
+        () -> TransformBudget.call(System.nanoTime() - HOUR, HOUR / 2, () -> "done"));
+  }
+
+  @Test
+  public void restoresTheEnclosingBudget() {
+    assertThrows(
+        TransformBudget.Exceeded.class,
+        () ->
+            TransformBudget.call(
+                1,
+                () -> {
+                  TransformBudget.call(HOUR, () -> "inner");
+                  spin();
+                  TransformBudget.check();
+                  return "outer";
+                }));
+  }
+
+  @Test
+  public void boundedResolverChecksTheBudget() {
+    ClassHierarchyResolver resolver =
+        TransformBudget.bounded(
+            classDesc ->
+                ClassHierarchyResolver.ClassHierarchyInfo.ofClass(ConstantDescs.CD_Object));
+
+    TransformBudget.call(HOUR, () -> resolver.getClassInfo(ConstantDescs.CD_String));
+    assertThrows(
+        TransformBudget.Exceeded.class,
+        () ->
+            TransformBudget.call(
+                1,
+                () -> {
+                  spin();
+                  return resolver.getClassInfo(ConstantDescs.CD_String);
+                }));
+  }
+
+  private static void spin() {
+    long start = System.nanoTime();
+    while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1)) {
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package io.github.eisop.runtimeframework.planning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ProfileGuidanceTest {
+
+  private static final SiteProfile PROFILE =
+      SiteProfile.parse(
+          List.of(
+              "1000\t0\tapp.Service\tcall\t(Ljava/lang/Object;)V\t12\tParameter 0 of call",
+              "40\t2\tapp.Service\tcall\t(Ljava/lang/Object;)V\t14\tReturn value of get"));
+
+  private static final SiteProfile.Key HOT =
+      new SiteProfile.Key("app/Service", "call", "(Ljava/lang/Object;)V", "Parameter 0 of call");
+  private static final SiteProfile.Key FAILED =
+      new SiteProfile.Key("app/Service", "call", "(Ljava/lang/Object;)V", "Return value of get");
+  private static final SiteProfile.Key UNPROFILED =
+      new SiteProfile.Key("app/Service", "other", "()V", "Return value of other");
+
+  @Test
+  public void choosesModesFromTheProfile() {
+    ProfileGuidance guidance = new ProfileGuidance(PROFILE, 100, 10);
+
+    assertEquals(CheckMode.HOT_SAMPLED, guidance.choose(HOT, CheckMode.FULL));
+    assertEquals(CheckMode.FULL, guidance.choose(FAILED, CheckMode.SAMPLED));
+    assertEquals(CheckMode.SAMPLED, guidance.choose(UNPROFILED, CheckMode.SAMPLED));
+
+    assertEquals(new ProfileGuidance.OverheadEstimate(2, 1, 1, 1, 1040, 140), guidance.estimate());
+  }
+
+  @Test
+  public void sitesPlannedAgainAreEstimatedOnce() {
+    ProfileGuidance guidance = new ProfileGuidance(PROFILE, 100, 10);
+
+    for (int plan = 0; plan < 3; plan++) {
+      assertEquals(CheckMode.HOT_SAMPLED, guidance.choose(HOT, CheckMode.FULL));
+      assertEquals(CheckMode.FULL, guidance.choose(FAILED, CheckMode.FULL));
+      assertEquals(CheckMode.FULL, guidance.choose(UNPROFILED, CheckMode.FULL));
+    }
+
+    assertEquals(new ProfileGuidance.OverheadEstimate(2, 1, 1, 1, 1040, 140), guidance.estimate());
+  }
+}
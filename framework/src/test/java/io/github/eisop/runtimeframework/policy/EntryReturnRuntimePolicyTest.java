@@ -0,0 +1,144 @@
+package io.github.eisop.runtimeframework.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.eisop.runtimeframework.filter.ClassInfo;
+import io.github.eisop.runtimeframework.planning.BytecodeLocation;
+import io.github.eisop.runtimeframework.planning.ClassContext;
+import io.github.eisop.runtimeframework.planning.FlowEvent;
+import io.github.eisop.runtimeframework.planning.MethodContext;
+import io.github.eisop.runtimeframework.planning.TargetRef;
+import java.io.InputStream;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.MethodModel;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.MethodTypeDesc;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+public class EntryReturnRuntimePolicyTest {
+
+  private static final String OWNER = "io/github/eisop/runtimeframework/policy/Sample";
+  private static final BytecodeLocation LOCATION = BytecodeLocation.at(0, 1);
+
+  @Test
+  public void allowsOnlyEntryReturnAndLifecycleEvents() throws Exception {
+    EntryReturnRuntimePolicy policy = new EntryReturnRuntimePolicy(new FixedPolicy(event -> true));
+    MethodContext context = methodContext();
+    MethodModel method = context.methodModel();
+    var parameter = new TargetRef.MethodParameter(OWNER, method, 0);
+    var methodReturn = new TargetRef.MethodReturn(OWNER, method);
+    var receiver = new TargetRef.Receiver(OWNER, method);
+    var field = new TargetRef.Field(OWNER, "value", "Ljava/lang/String;");
+    var component = new TargetRef.ArrayComponent("[Ljava/lang/String;", null);
+
+    List<FlowEvent> allowed =
+        List.of(
+            new FlowEvent.MethodParameter(context, LOCATION, parameter),
+            new FlowEvent.MethodReturn(context, LOCATION, methodReturn),
+            new FlowEvent.BridgeParameter(context, LOCATION, parameter),
+            new FlowEvent.BridgeReturn(context, LOCATION, methodReturn),
+            new FlowEvent.OverrideParameter(context, LOCATION, parameter),
+            new FlowEvent.OverrideReturn(context, LOCATION, methodReturn),
+            new FlowEvent.ConstructorEnter(context, LOCATION, receiver),
+            new FlowEvent.ConstructorCommit(context, LOCATION, receiver),
+            new FlowEvent.BoundaryReceiverUse(context, LOCATION, receiver));
+    List<FlowEvent> dropped =
+        List.of(
+            new FlowEvent.BoundaryCallReturn(
+                context,
+                LOCATION,
+                new TargetRef.InvokedMethod(
+                    OWNER, "call", MethodTypeDesc.of(ConstantDescs.CD_String))),
+            new FlowEvent.FieldRead(context, LOCATION, field),
+            new FlowEvent.FieldWrite(context, LOCATION, field, false),
+            new FlowEvent.ArrayLoad(context, LOCATION, component),
+            new FlowEvent.ArrayStore(context, LOCATION, component),
+            new FlowEvent.LocalStore(context, LOCATION, new TargetRef.Local(method, 1, 0)));
+
+    for (FlowEvent event : allowed) {
+      assertTrue(policy.allows(event), event.kind().name());
+    }
+    for (FlowEvent event : dropped) {
+      assertFalse(policy.allows(event), event.kind().name());
+    }
+  }
+
+  @Test
+  public void keepsTheVetoesOfTheDelegate() throws Exception {
+    EntryReturnRuntimePolicy policy = new EntryReturnRuntimePolicy(new FixedPolicy(event -> false));
+    MethodContext context = methodContext();
+
+    assertFalse(
+        policy.allows(
+            new FlowEvent.MethodParameter(
+                context,
+                LOCATION,
+                new TargetRef.MethodParameter(OWNER, context.methodModel(), 0))));
+  }
+
+  @Test
+  public void classifiesLikeTheDelegate() {
+    EntryReturnRuntimePolicy policy = new EntryReturnRuntimePolicy(new FixedPolicy(event -> true));
+    ClassInfo info = new ClassInfo(OWNER, null, null);
+
+    assertEquals(ClassClassification.CHECKED, policy.classify(info));
+    assertTrue(policy.isGlobalMode());
+    assertTrue(policy.rejects(new ClassInfo("rejected/Type", null, null)));
+    assertFalse(policy.rejects(info));
+  }
+
+  private static MethodContext methodContext() throws Exception {
+    ClassModel model;
+    try (InputStream in =
+        EntryReturnRuntimePolicyTest.class.getResourceAsStream(
+            "EntryReturnRuntimePolicyTest.class")) {
+      model = ClassFile.of().parse(in.readAllBytes());
+    }
+    MethodModel method =
+        model.methods().stream()
+            .filter(candidate -> candidate.methodName().equalsString("sample"))
+            .findFirst()
+            .orElseThrow();
+    ClassContext classContext =
+        new ClassContext(new ClassInfo(OWNER, null, null), model, ClassClassification.CHECKED);
+    return new MethodContext(classContext, method);
+  }
+
+  static String sample(String value) {
+    String local = value;
+    return local;
+  }
+
+  private record FixedPolicy(Predicate<FlowEvent> allows) implements RuntimePolicy {
+
+    @Override
+    public ClassClassification classify(ClassInfo info) {
+      return ClassClassification.CHECKED;
+    }
+
+    @Override
+    public ClassClassification classify(ClassInfo info, ClassModel model) {
+      return ClassClassification.CHECKED;
+    }
+
+    @Override
+    public boolean isGlobalMode() {
+      return true;
+    }
+
+    @Override
+    public boolean rejects(ClassInfo info) {
+      return info.internalName().startsWith("rejected/");
+    }
+
+    @Override
+    public boolean allows(FlowEvent event) {
+      return allows.test(event);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package io.github.eisop.runtimeframework.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PolicyProfileTest {
+
+  @Test
+  public void parsesEveryField() {
+    PolicyProfile profile = PolicyProfile.parse("  loader  tenant-*  GLOBAL  a.B,c/D,  ");
+
+    assertEquals(PolicyProfile.Selector.LOADER, profile.selector());
+    assertEquals("tenant-*", profile.pattern());
+    assertEquals(PolicyProfile.Mode.GLOBAL, profile.mode());
+    assertEquals(List.of("a.B", "c/D"), profile.checkedClasses());
+  }
+
+  @Test
+  public void checkedClassesAreOptional() {
+    PolicyProfile profile = PolicyProfile.parse("module app.* off");
+
+    assertEquals(PolicyProfile.Selector.MODULE, profile.selector());
+    assertEquals(PolicyProfile.Mode.OFF, profile.mode());
+    assertEquals(List.of(), profile.checkedClasses());
+  }
+
+  @Test
+  public void rejectsMalformedLines() {
+    assertThrows(IllegalArgumentException.class, () -> PolicyProfile.parse("loader tenant"));
+    assertThrows(
+        IllegalArgumentException.class, () -> PolicyProfile.parse("loader tenant off a b"));
+    assertThrows(IllegalArgumentException.class, () -> PolicyProfile.parse("thread x off"));
+    assertThrows(IllegalArgumentException.class, () -> PolicyProfile.parse("loader x sometimes"));
+  }
+
+  @Test
+  public void loaderProfilesMatchTheLoaderNameOrClass() {
+    ClassLoader named = new ClassLoader("tenant-a", null) {};
+    PolicyProfile byName = PolicyProfile.parse("loader tenant-* standard");
+    PolicyProfile byClass = PolicyProfile.parse("loader *PolicyProfileTest$* standard");
+
+    assertTrue(byName.matches(named, null));
+    assertFalse(byName.matches(new ClassLoader("other", null) {}, null));
+    assertTrue(byClass.matches(named, null));
+  }
+
+  @Test
+  public void theBootstrapLoaderIsNamedBootstrap() {
+    assertTrue(PolicyProfile.parse("loader bootstrap off").matches(null, null));
+    assertFalse(PolicyProfile.parse("loader tenant-* off").matches(null, null));
+  }
+
+  @Test
+  public void moduleProfilesOnlyMatchNamedModules() {
+    PolicyProfile profile = PolicyProfile.parse("module java.* standard");
+    ClassLoader loader = PolicyProfileTest.class.getClassLoader();
+
+    assertTrue(profile.matches(null, String.class.getModule()));
+    assertFalse(profile.matches(loader, loader.getUnnamedModule()));
+    assertFalse(profile.matches(loader, null));
+  }
+
+  @Test
+  public void patternCharactersOtherThanTheWildcardAreLiteral() {
+    PolicyProfile profile = PolicyProfile.parse("module java.bas? standard");
+
+    assertFalse(profile.matches(null, String.class.getModule()));
+  }
+}
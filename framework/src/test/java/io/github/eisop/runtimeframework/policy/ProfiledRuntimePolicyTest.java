@@ -0,0 +1,156 @@
+package io.github.eisop.runtimeframework.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.eisop.runtimeframework.filter.ClassInfo;
+import io.github.eisop.runtimeframework.filter.ClassListFilter;
+import io.github.eisop.runtimeframework.filter.Filter;
+import io.github.eisop.runtimeframework.resolution.ResolutionEnvironment;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProfiledRuntimePolicyTest {
+
+  private static final String CHECKED = "com/example/Checked";
+  private static final String OTHER = "com/example/Other";
+
+  private final ClassLoader tenant = new ClassLoader("tenant-a", null) {};
+  private final ClassLoader other = new ClassLoader("other", null) {};
+
+  @TempDir Path directory;
+
+  @Test
+  public void loaderProfilesSelectTheirPolicy() {
+    ProfiledRuntimePolicy policy =
+        policy(List.of(PolicyProfile.parse("loader tenant-* standard " + CHECKED)));
+
+    assertEquals(ClassClassification.CHECKED, policy.classify(info(CHECKED, tenant, null)));
+    assertEquals(ClassClassification.SKIP, policy.classify(info(OTHER, tenant, null)));
+    assertEquals(ClassClassification.SKIP, policy.classify(info(CHECKED, other, null)));
+    assertTrue(policy.isChecked(CHECKED, tenant));
+    assertFalse(policy.isChecked(CHECKED, other));
+  }
+
+  @Test
+  public void globalProfilesInstrumentOtherClassesAsUnchecked() {
+    ProfiledRuntimePolicy policy = policy(List.of(PolicyProfile.parse("loader tenant-* global")));
+
+    assertEquals(ClassClassification.UNCHECKED, policy.classify(info(OTHER, tenant, null)));
+    assertEquals(ClassClassification.SKIP, policy.classify(info(OTHER, other, null)));
+  }
+
+  @Test
+  public void moduleProfilesSelectTheirPolicy() {
+    Module javaBase = String.class.getModule();
+    ProfiledRuntimePolicy policy =
+        policy(List.of(PolicyProfile.parse("module java.base standard " + CHECKED)));
+
+    assertEquals(ClassClassification.CHECKED, policy.classify(info(CHECKED, null, javaBase)));
+    assertEquals(
+        ClassClassification.SKIP,
+        policy.classify(info(CHECKED, tenant, tenant.getUnnamedModule())));
+  }
+
+  @Test
+  public void aLookupWithoutModuleDoesNotDecideForTheModuleProfile() {
+    Module javaBase = String.class.getModule();
+    ProfiledRuntimePolicy policy =
+        policy(List.of(PolicyProfile.parse("module java.base standard " + CHECKED)));
+
+    assertEquals(ClassClassification.SKIP, policy.classify(info(CHECKED, null, null)));
+    assertEquals(ClassClassification.CHECKED, policy.classify(info(CHECKED, null, javaBase)));
+  }
+
+  @Test
+  public void lookupsByNameFindBootLayerModules() {
+    ProfiledRuntimePolicy policy =
+        policy(List.of(PolicyProfile.parse("module java.base standard java/lang/String")));
+
+    assertTrue(policy.isChecked("java/lang/String", null));
+    assertTrue(policy.isChecked("java/lang/String", tenant));
+    assertFalse(policy.isChecked("java/lang/Object", tenant));
+  }
+
+  @Test
+  public void lookupsByNameUseTheProfileOfTheDefiningLoader() throws Exception {
+    Path classFile = directory.resolve(CHECKED + ".class");
+    Files.createDirectories(classFile.getParent());
+    Files.write(classFile, new byte[0]);
+    ProfiledRuntimePolicy policy =
+        policy(
+            List.of(
+                PolicyProfile.parse("loader shared off"),
+                PolicyProfile.parse("loader tenant-* standard " + CHECKED + "," + OTHER)));
+
+    try (URLClassLoader shared =
+            new URLClassLoader("shared", new URL[] {directory.toUri().toURL()}, null);
+        URLClassLoader child = new URLClassLoader("tenant-b", new URL[0], shared)) {
+      assertFalse(policy.isChecked(CHECKED, child));
+      assertTrue(policy.isChecked(OTHER, child));
+      assertEquals(ClassClassification.CHECKED, policy.classify(info(CHECKED, child, null)));
+    }
+  }
+
+  @Test
+  public void offProfilesRejectClassesUnparsed() {
+    ProfiledRuntimePolicy policy =
+        policy(List.of(PolicyProfile.parse("loader tenant-* off " + CHECKED)));
+
+    assertTrue(policy.rejects(info(CHECKED, tenant, null)));
+    assertEquals(ClassClassification.SKIP, policy.classify(info(CHECKED, tenant, null)));
+    assertFalse(policy.rejects(info(CHECKED, other, null)));
+  }
+
+  @Test
+  public void theFirstMatchingProfileWins() {
+    ProfiledRuntimePolicy policy =
+        policy(
+            List.of(
+                PolicyProfile.parse("loader tenant-a off"),
+                PolicyProfile.parse("loader tenant-* standard " + CHECKED)));
+
+    assertTrue(policy.rejects(info(CHECKED, tenant, null)));
+  }
+
+  @Test
+  public void addedProfilesTakePrecedence() {
+    ProfiledRuntimePolicy policy =
+        policy(List.of(PolicyProfile.parse("loader tenant-* standard " + CHECKED)));
+    assertTrue(policy.isChecked(CHECKED, tenant));
+
+    policy.addProfile(PolicyProfile.parse("loader tenant-a off"));
+
+    assertTrue(policy.rejects(info(CHECKED, tenant, null)));
+    assertFalse(policy.isChecked(CHECKED, tenant));
+    assertEquals(2, policy.profiles().size());
+    assertEquals(PolicyProfile.Mode.OFF, policy.profiles().get(0).mode());
+  }
+
+  private static ClassInfo info(String internalName, ClassLoader loader, Module module) {
+    return new ClassInfo(internalName, loader, module);
+  }
+
+  private static ProfiledRuntimePolicy policy(List<PolicyProfile> profiles) {
+    ResolutionEnvironment environment = ResolutionEnvironment.system();
+    ClassificationCache cache = new ClassificationCache();
+    Filter<ClassInfo> safe = Filter.acceptAll();
+    RuntimePolicy defaultPolicy =
+        new ScopeAwareRuntimePolicy(
+            safe,
+            new ClassListFilter(List.of()),
+            false,
+            false,
+            List.of("nullness"),
+            environment,
+            cache);
+    return new ProfiledRuntimePolicy(
+        safe, false, List.of("nullness"), environment, cache, defaultPolicy, profiles);
+  }
+}
@@ -0,0 +1,95 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import org.junit.jupiter.api.Test;
+
+public class CheckSamplingTest {
+
+  @Test
+  public void periodOfOneChecksEveryHit() {
+    int site = 1_000;
+    for (int hit = 0; hit < 10; hit++) {
+      assertTrue(CheckSampling.shouldCheck(site, 1), "hit " + hit);
+    }
+  }
+
+  @Test
+  public void sampledSiteChecksTheFirstHitAndThenEveryPeriod() {
+    int site = 1_001;
+    int period = 4;
+    int checked = 0;
+    for (int hit = 0; hit < 5 * period; hit++) {
+      boolean check = CheckSampling.shouldCheck(site, period);
+      if (hit % period == 0) {
+        assertTrue(check, "hit " + hit);
+        checked++;
+      } else {
+        assertFalse(check, "hit " + hit);
+      }
+    }
+    assertEquals(5, checked);
+  }
+
+  @Test
+  public void sampledSitesAreCountedSeparately() {
+    int site = 1_002;
+    assertTrue(CheckSampling.shouldCheck(site, 3));
+    assertTrue(CheckSampling.shouldCheck(site + 1, 3));
+    assertFalse(CheckSampling.shouldCheck(site, 3));
+    assertFalse(CheckSampling.shouldCheck(site + 1, 3));
+  }
+
+  @Test
+  public void escalatedSampledSiteChecksEveryHit() {
+    int site = 1_004;
+    assertTrue(CheckSampling.shouldCheck(site, 8));
+    assertFalse(CheckSampling.shouldCheck(site, 8));
+
+    CheckSampling.escalate(site);
+
+    for (int hit = 0; hit < 8; hit++) {
+      assertTrue(CheckSampling.shouldCheck(site, 8), "hit " + hit);
+    }
+  }
+
+  @Test
+  public void hotSiteChecksTheFirstHitAndThenEveryPeriod() {
+    int site = 3_000;
+    int checked = 0;
+    for (int hit = 0; hit < 3 * RuntimeOptions.DEFAULT_HOT_SITE_PERIOD; hit++) {
+      boolean check = CheckSampling.shouldCheckHotSite(site);
+      if (hit % RuntimeOptions.DEFAULT_HOT_SITE_PERIOD == 0) {
+        assertTrue(check, "hit " + hit);
+        checked++;
+      } else {
+        assertFalse(check, "hit " + hit);
+      }
+    }
+    assertEquals(3, checked);
+  }
+
+  @Test
+  public void sitesOnLaterPagesAreCountedSeparately() {
+    int site = 9_000;
+    assertTrue(CheckSampling.shouldCheckHotSite(site));
+    assertTrue(CheckSampling.shouldCheckHotSite(site + 1));
+    assertFalse(CheckSampling.shouldCheckHotSite(site));
+  }
+
+  @Test
+  public void escalatedSiteChecksEveryHit() {
+    int site = 5_000;
+    assertTrue(CheckSampling.shouldCheckHotSite(site));
+    assertFalse(CheckSampling.shouldCheckHotSite(site));
+
+    CheckSampling.escalate(site);
+
+    assertTrue(CheckSampling.isEscalated(site));
+    assertTrue(CheckSampling.shouldCheckHotSite(site));
+    assertTrue(CheckSampling.shouldCheckHotSite(site));
+  }
+}
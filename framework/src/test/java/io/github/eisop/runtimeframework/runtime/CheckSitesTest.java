@@ -0,0 +1,33 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class CheckSitesTest {
+
+  @Test
+  public void registeringASiteAgainReturnsItsId() {
+    int first = CheckSites.register("p/Reused", "m", "()V", 3, "Parameter 0", "METHOD_ENTRY@-1");
+    CheckSites.hit(first);
+
+    int again = CheckSites.register("p/Reused", "m", "()V", 3, "Parameter 0", "METHOD_ENTRY@-1");
+    CheckSites.hit(again);
+
+    assertEquals(first, again);
+    assertEquals(2, CheckSites.hits(first));
+  }
+
+  @Test
+  public void sitesAtOtherPositionsGetTheirOwnIds() {
+    int first =
+        CheckSites.register(
+            "p/Distinct", "m", "()V", 7, "Array Element Read", "AFTER_INSTRUCTION@4");
+    int second =
+        CheckSites.register(
+            "p/Distinct", "m", "()V", 7, "Array Element Read", "AFTER_INSTRUCTION@9");
+
+    assertNotEquals(first, second);
+  }
+}
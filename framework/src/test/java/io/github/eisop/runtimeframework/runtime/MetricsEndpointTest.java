@@ -0,0 +1,54 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class MetricsEndpointTest {
+
+  @Test
+  public void servesTheRenderedMetricsOnAnEphemeralPort() throws Exception {
+    RuntimeMetrics.recordViolation("metrics-endpoint");
+    InetSocketAddress address = MetricsEndpoint.install("127.0.0.1:0");
+    assertTrue(address.getPort() > 0);
+
+    HttpURLConnection get = open(address);
+    assertEquals(200, get.getResponseCode());
+    assertEquals(RuntimeMetrics.CONTENT_TYPE, get.getContentType());
+    String body;
+    try (var in = get.getInputStream()) {
+      body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    assertTrue(
+        body.contains("runtimeframework_violations_total{checker=\"metrics-endpoint\"} 1\n"), body);
+    assertTrue(body.endsWith("# EOF\n"), body);
+
+    HttpURLConnection post = open(address);
+    post.setRequestMethod("POST");
+    assertEquals(405, post.getResponseCode());
+  }
+
+  @Test
+  public void rejectsAddressesWithoutAPort() {
+    assertThrows(IllegalArgumentException.class, () -> MetricsEndpoint.parseAddress("localhost:"));
+    assertEquals(9464, MetricsEndpoint.parseAddress("9464").getPort());
+  }
+
+  private static HttpURLConnection open(InetSocketAddress address) throws Exception {
+    return (HttpURLConnection)
+        URI.create(
+                "http://"
+                    + address.getHostString()
+                    + ":"
+                    + address.getPort()
+                    + MetricsEndpoint.PATH)
+            .toURL()
+            .openConnection();
+  }
+}
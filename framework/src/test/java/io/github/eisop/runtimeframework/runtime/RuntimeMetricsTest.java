@@ -0,0 +1,83 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RuntimeMetricsTest {
+
+  @Test
+  public void everyFamilyHasTypeAndHelpAndTheOutputEndsWithEof() {
+    String rendered = RuntimeMetrics.render();
+    List<String> lines = rendered.lines().toList();
+
+    for (String family :
+        List.of(
+            "violations",
+            "site_violations",
+            "transform_seconds",
+            "transform_failures",
+            "degraded_transforms",
+            "resolution_cache_requests",
+            "indy_linkages")) {
+      int type = lines.indexOf(typeLine(family, lines));
+      assertTrue(type >= 0, "no TYPE line for " + family);
+      assertTrue(
+          lines.get(type + 1).startsWith("# HELP runtimeframework_" + family + " "),
+          "no HELP line after the TYPE line of " + family);
+    }
+    assertTrue(rendered.endsWith("\n# EOF\n"), rendered);
+  }
+
+  @Test
+  public void labelValuesAreEscaped() {
+    RuntimeMetrics.recordViolation("metrics \"quoted\" \\ checker\nline");
+
+    assertTrue(
+        RuntimeMetrics.render()
+            .contains(
+                "runtimeframework_violations_total{checker=\"metrics \\\"quoted\\\" \\\\ checker"
+                    + "\\nline\"} 1\n"),
+        RuntimeMetrics.render());
+  }
+
+  @Test
+  public void violationsOfRegisteredSitesAreCountedPerSite() {
+    int site =
+        CheckSites.register(
+            "p/Metrics", "Metrics.java", "run", "()V", 12, "Parameter 0", "METHOD_ENTRY@-1");
+
+    RuntimeMetrics.recordViolation("metrics-registered", site);
+    RuntimeMetrics.recordViolation("metrics-registered", site);
+
+    assertEquals(2, CheckSites.violations(site));
+    assertTrue(
+        RuntimeMetrics.render()
+            .contains(
+                "runtimeframework_site_violations_total{site=\""
+                    + site
+                    + "\",class=\"p.Metrics\",method=\"run\",line=\"12\"} 2\n"));
+    assertTrue(
+        RuntimeMetrics.render()
+            .contains("runtimeframework_violations_total{checker=\"metrics-registered\"} 2\n"));
+  }
+
+  @Test
+  public void violationsOfUnregisteredSitesAreCountedById() {
+    int unregistered = Integer.MAX_VALUE - 7;
+
+    RuntimeMetrics.recordViolation("metrics-unregistered", unregistered);
+
+    assertTrue(
+        RuntimeMetrics.render()
+            .contains(
+                "runtimeframework_site_violations_total{site=\"" + unregistered + "\"} 1\n"));
+  }
+
+  private static String typeLine(String family, List<String> lines) {
+    String prefix = "# TYPE runtimeframework_" + family + " ";
+    return lines.stream().filter(line -> line.startsWith(prefix)).findFirst().orElse("");
+  }
+}
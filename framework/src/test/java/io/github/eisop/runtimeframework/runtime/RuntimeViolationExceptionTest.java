@@ -0,0 +1,101 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class RuntimeViolationExceptionTest {
+
+  private static final StackTraceElement[] STACK = {
+    new StackTraceElement(
+        "io.github.eisop.runtimeframework.runtime.RuntimeVerifier",
+        "reportViolation",
+        "RuntimeVerifier.java",
+        60),
+    new StackTraceElement("p.Foo", InstrumentationNames.CHECK_HELPER_PREFIX + "0", "Foo.java", 12),
+    new StackTraceElement("p.Foo", "bar", "Foo.java", 12),
+    new StackTraceElement("p.Caller", "run", "Caller.java", 30)
+  };
+
+  @Test
+  public void formatsTheMessageWhenFirstRequested() {
+    RuntimeViolationException exception =
+        new RuntimeViolationException(
+            "nullness", "Parameter 0 must be NonNull", AttributionKind.LOCAL, null, true);
+    exception.setStackTrace(STACK);
+
+    assertEquals(
+        "[nullness Violation] (Foo.java:12) Parameter 0 must be NonNull", exception.getMessage());
+    assertSame(exception.getMessage(), exception.getMessage());
+  }
+
+  @Test
+  public void callerAttributionSkipsTheCheckedMethod() {
+    RuntimeViolationException exception =
+        new RuntimeViolationException(
+            "nullness", "Parameter 0 must be NonNull", AttributionKind.CALLER, null, true);
+    exception.setStackTrace(STACK);
+
+    assertEquals("Caller.java:30", exception.getLocation());
+  }
+
+  @Test
+  public void suppressionIsDisabled() {
+    RuntimeViolationException exception =
+        new RuntimeViolationException("nullness", "m", AttributionKind.LOCAL, "Foo.java:1", false);
+    exception.addSuppressed(new IllegalStateException());
+
+    assertEquals(0, exception.getSuppressed().length);
+    assertEquals(0, exception.getStackTrace().length);
+    assertThrows(IllegalStateException.class, () -> exception.initCause(new Error()));
+  }
+
+  @Test
+  public void stacklessViolationsUseTheSiteLocation() {
+    int site =
+        CheckSites.register(
+            "p/Stackless", "Stackless.java", "run", "()V", 42, "Parameter 0", "ENTRY@-1");
+    ThrowingViolationHandler handler = new ThrowingViolationHandler(true);
+
+    RuntimeViolationException first =
+        assertThrows(
+            RuntimeViolationException.class,
+            () ->
+                handler.handleViolation(
+                    "nullness", "Parameter 0 must be NonNull", AttributionKind.LOCAL, site));
+    RuntimeViolationException again =
+        assertThrows(
+            RuntimeViolationException.class,
+            () ->
+                handler.handleViolation(
+                    "nullness", "Parameter 0 must be NonNull", AttributionKind.LOCAL, site));
+    RuntimeViolationException other =
+        assertThrows(
+            RuntimeViolationException.class,
+            () -> handler.handleViolation("nullness", "Other", AttributionKind.LOCAL, site));
+
+    assertEquals("Stackless.java:42", first.getLocation());
+    assertEquals(0, first.getStackTrace().length);
+    assertSame(first, again);
+    assertNotSame(first, other);
+    assertEquals("Stackless.java:42", other.getLocation());
+  }
+
+  @Test
+  public void stacklessViolationsWithoutASourceFileWalkTheStack() {
+    int site = CheckSites.register("p/NoSource", "run", "()V", 7, "Parameter 0", "ENTRY@-1");
+    ThrowingViolationHandler handler = new ThrowingViolationHandler(true);
+
+    RuntimeViolationException exception =
+        assertThrows(
+            RuntimeViolationException.class,
+            () -> handler.handleViolation("nullness", "m", AttributionKind.LOCAL, site));
+
+    assertEquals(0, exception.getStackTrace().length);
+    assertFalse(exception.getLocation().startsWith("null:"), exception.getLocation());
+  }
+}
@@ -0,0 +1,145 @@
+package io.github.eisop.runtimeframework.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ViolationJournalTest {
+
+  @TempDir Path directory;
+
+  @Test
+  public void readsBackWhatWasAppended() throws Exception {
+    Path path = directory.resolve("journal");
+    int site = CheckSites.register("p/Journaled", "run", "()V", 12, "Parameter 0", "ENTRY@-1");
+
+    try (ViolationJournal journal = ViolationJournal.open(path, 4096, 4)) {
+      journal.append("nullness", "Parameter 0 must be NonNull", AttributionKind.CALLER, site);
+      journal.append("nullness", "Field 'f' must be NonNull", AttributionKind.LOCAL, -1);
+    }
+
+    List<ViolationJournalReader.Violation> violations = ViolationJournalReader.read(path);
+    assertEquals(2, violations.size());
+    ViolationJournalReader.Violation first = violations.get(0);
+    assertEquals("nullness", first.checkerName());
+    assertEquals("Parameter 0 must be NonNull", first.message());
+    assertEquals(AttributionKind.CALLER, first.attribution());
+    assertEquals("p.Journaled", first.className());
+    assertEquals("run", first.methodName());
+    assertEquals(12, first.line());
+    assertEquals(-1, first.elementIndex());
+    assertEquals(Thread.currentThread().threadId(), first.threadId());
+    ViolationJournalReader.Violation second = violations.get(1);
+    assertEquals("-", second.className());
+    assertEquals(0, second.line());
+  }
+
+  @Test
+  public void recordsCanBeReadBeforeTheJournalIsClosed() throws Exception {
+    Path path = directory.resolve("journal");
+    int site = CheckSites.register("p/Unclosed", "run", "()V", 7, "Parameter 0", "ENTRY@-1");
+
+    try (ViolationJournal journal = ViolationJournal.open(path, 4096, 4)) {
+      journal.append("nullness", "Parameter 0 must be NonNull", AttributionKind.CALLER, site);
+
+      List<ViolationJournalReader.Violation> violations = ViolationJournalReader.read(path);
+      assertEquals(1, violations.size());
+      assertEquals("nullness", violations.get(0).checkerName());
+      assertEquals("Parameter 0 must be NonNull", violations.get(0).message());
+      assertEquals("p.Unclosed", violations.get(0).className());
+      assertEquals(7, violations.get(0).line());
+    }
+  }
+
+  @Test
+  public void keepsElementIndicesOutOfTheMessage() throws Exception {
+    Path path = directory.resolve("journal");
+
+    try (ViolationJournal journal = ViolationJournal.open(path, 4096, 4)) {
+      for (int i = 0; i < 10; i++) {
+        journal.append(
+            "nullness", "Parameter 0 element must be NonNull", AttributionKind.LOCAL, -1, i);
+      }
+    }
+
+    List<ViolationJournalReader.Violation> violations = ViolationJournalReader.read(path);
+    assertEquals(10, violations.size());
+    assertEquals(7, violations.get(7).elementIndex());
+    long messageNames =
+        Files.readAllLines(ViolationJournal.namesFile(path)).stream()
+            .filter(line -> line.startsWith(ViolationJournal.MESSAGE_KIND + "\t"))
+            .count();
+    assertEquals(1, messageNames);
+  }
+
+  @Test
+  public void rotationKeepsTheNewestSegments() throws Exception {
+    Path path = directory.resolve("journal");
+    int recordsPerSegment = 4;
+    int segmentBytes =
+        ViolationJournal.HEADER_SIZE + recordsPerSegment * ViolationJournal.RECORD_SIZE;
+
+    try (ViolationJournal journal = ViolationJournal.open(path, segmentBytes, 2)) {
+      for (int i = 0; i < 5 * recordsPerSegment; i++) {
+        journal.append("nullness", "message " + i, AttributionKind.LOCAL, -1);
+      }
+    }
+
+    assertEquals(2, ViolationJournal.segmentFiles(path).size());
+    List<ViolationJournalReader.Violation> violations = ViolationJournalReader.read(path);
+    assertEquals(2 * recordsPerSegment, violations.size());
+    assertEquals("message " + 3 * recordsPerSegment, violations.get(0).message());
+    assertEquals("message " + (5 * recordsPerSegment - 1), violations.getLast().message());
+  }
+
+  @Test
+  public void openingKeepsThePreviousRun() throws Exception {
+    Path path = directory.resolve("journal");
+    try (ViolationJournal journal = ViolationJournal.open(path, 4096, 4)) {
+      journal.append("nullness", "first run", AttributionKind.LOCAL, -1);
+    }
+
+    try (ViolationJournal journal = ViolationJournal.open(path, 4096, 4)) {
+      journal.append("nullness", "second run", AttributionKind.LOCAL, -1);
+    }
+
+    assertEquals("second run", ViolationJournalReader.read(path).get(0).message());
+    List<ViolationJournalReader.Violation> previous =
+        ViolationJournalReader.read(ViolationJournal.previousPath(path));
+    assertEquals(1, previous.size());
+    assertEquals("first run", previous.get(0).message());
+  }
+
+  @Test
+  public void readerGroupsBySiteAndMessage() throws Exception {
+    Path path = directory.resolve("journal");
+    int site = CheckSites.register("p/Grouped", "get", "()V", 5, "Return value", "RETURN@3");
+
+    try (ViolationJournal journal = ViolationJournal.open(path, 4096, 4)) {
+      for (int i = 0; i < 3; i++) {
+        journal.append("nullness", "Return value must be NonNull", AttributionKind.LOCAL, site, i);
+      }
+      journal.append("nullness", "Other", AttributionKind.LOCAL, -1);
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ViolationJournalReader.write(
+        ViolationJournalReader.read(path), new PrintStream(bytes, true, StandardCharsets.UTF_8));
+    List<String> lines = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+
+    assertTrue(lines.get(0).startsWith("# violations 4, groups 2, threads 1"), lines.get(0));
+    int header = lines.indexOf(ViolationJournalReader.HEADER);
+    assertEquals(
+        "3\tnullness\tLOCAL\tp.Grouped\tget\t5\tReturn value must be NonNull",
+        lines.get(header + 1));
+    assertEquals("1\tnullness\tLOCAL\t-\t-\t0\tOther", lines.get(header + 2));
+  }
+}
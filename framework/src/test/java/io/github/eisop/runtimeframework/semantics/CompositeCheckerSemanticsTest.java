@@ -0,0 +1,72 @@
+package io.github.eisop.runtimeframework.semantics;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.eisop.runtimeframework.contracts.ValueContract;
+import io.github.eisop.runtimeframework.semantics.CompositeCheckerSemantics.Component;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CompositeCheckerSemanticsTest {
+
+  @Test
+  public void singleComponentIsItsOwnSemantics() {
+    CheckerSemantics semantics = semantics(TypeMetadataResolver.none());
+
+    assertSame(semantics, CompositeCheckerSemantics.of(List.of(component("a", semantics))));
+  }
+
+  @Test
+  public void keepsTheOnlyDefinedTypeMetadata() {
+    TypeMetadataResolver metadata = (target, context) -> null;
+
+    CheckerSemantics composed =
+        CompositeCheckerSemantics.of(
+            List.of(
+                component("a", semantics(TypeMetadataResolver.none())),
+                component("b", semantics(metadata))));
+
+    assertSame(metadata, composed.typeMetadata());
+    assertSame(LifecycleSemantics.none(), composed.lifecycle());
+  }
+
+  @Test
+  public void rejectsDifferingTypeMetadata() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            CompositeCheckerSemantics.of(
+                List.of(
+                    component("a", semantics((target, context) -> null)),
+                    component("b", semantics((target, context) -> null)))));
+  }
+
+  @Test
+  public void rejectsNoComponents() {
+    assertThrows(IllegalArgumentException.class, () -> CompositeCheckerSemantics.of(List.of()));
+  }
+
+  private static Component component(String name, CheckerSemantics semantics) {
+    return new Component(List.of(name), semantics);
+  }
+
+  private static CheckerSemantics semantics(TypeMetadataResolver metadata) {
+    return new CheckerSemantics() {
+      @Override
+      public ContractResolver contracts() {
+        return (target, context) -> ValueContract.none();
+      }
+
+      @Override
+      public PropertyEmitter emitter() {
+        return (builder, property, access, attribution, diagnostic) -> {};
+      }
+
+      @Override
+      public TypeMetadataResolver typeMetadata() {
+        return metadata;
+      }
+    };
+  }
+}
@@ -9,12 +9,18 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 public abstract class AgentTestHarness {
 
+  /** The arguments fixtures are compiled with, besides the classpath, output and sources. */
+  private static final List<String> JAVAC_OPTIONS = List.of("-g");
+
   protected Path tempDir;
   protected Path distDir;
 
@@ -96,13 +102,34 @@ public abstract class AgentTestHarness {
       cp += ":" + extraClasspath;
     }
 
+    Optional<FixtureCache> cache = FixtureCache.open(distDir);
+    if (cache.isEmpty()) {
+      runJavac(cp, tempDir, filenames);
+      return;
+    }
+
+    Map<String, Path> sources = new LinkedHashMap<>();
+    for (String f : filenames) {
+      sources.put(f, tempDir.resolve(f));
+    }
+    List<Path> classpath = new ArrayList<>();
+    for (String entry : cp.split(":")) {
+      classpath.add(tempDir.resolve(entry));
+    }
+    String key = cache.get().key(sources, classpath, JAVAC_OPTIONS);
+    String classpathString = cp;
+    Path classes = cache.get().classes(key, output -> runJavac(classpathString, output, filenames));
+    FixtureCache.copy(classes, tempDir);
+  }
+
+  private void runJavac(String cp, Path output, String... filenames) throws Exception {
     List<String> cmd = new ArrayList<>();
     cmd.add("javac");
-    cmd.add("-g");
+    cmd.addAll(JAVAC_OPTIONS);
     cmd.add("-cp");
     cmd.add(cp);
     cmd.add("-d");
-    cmd.add(tempDir.toAbsolutePath().toString());
+    cmd.add(output.toAbsolutePath().toString());
 
     for (String f : filenames) {
       cmd.add(tempDir.resolve(f).toAbsolutePath().toString());
@@ -150,7 +177,7 @@ public abstract class AgentTestHarness {
     return runProcess(cmd, "Agent Execution");
   }
 
-  private Path findJar(String prefix) throws IOException {
+  protected Path findJar(String prefix) throws IOException {
     try (Stream<Path> files = Files.list(distDir)) {
       return files
           .filter(
@@ -198,5 +225,5 @@ public abstract class AgentTestHarness {
     return "-D" + name + "=" + value;
   }
 
-  protected record TestResult(int exitCode, String stdout, String stderr) {}
+  public record TestResult(int exitCode, String stdout, String stderr) {}
 }
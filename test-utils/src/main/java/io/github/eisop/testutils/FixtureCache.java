@@ -0,0 +1,277 @@
+package io.github.eisop.testutils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A content-addressed cache of compiled test fixtures.
+ *
+ * <p>An entry holds the class files {@code javac} wrote for a set of sources. It is keyed by the
+ * names and contents of the sources, the contents of every classpath entry, the other {@code javac}
+ * arguments and the version of {@code javac}, so rebuilding {@code checker-qual} or the framework
+ * invalidates the entries compiled against them. Entries live in {@code fixture-cache} next to the
+ * dist directory unless {@code -Druntime.test.fixtureCache} names another directory; an empty value
+ * disables the cache.
+ *
+ * <p>Using an entry marks it as used. The first time a JVM opens the cache, it deletes the least
+ * recently used entries beyond {@code -Druntime.test.fixtureCache.maxEntries}, which defaults to
+ * {@value #DEFAULT_MAX_ENTRIES}, skipping entries used within the last hour so that concurrent runs
+ * do not lose the entries they are copying.
+ */
+final class FixtureCache {
+
+  static final String DIRECTORY_PROPERTY = "runtime.test.fixtureCache";
+  static final String MAX_ENTRIES_PROPERTY = "runtime.test.fixtureCache.maxEntries";
+  static final int DEFAULT_MAX_ENTRIES = 2_000;
+
+  private static final Duration EVICTION_GRACE = Duration.ofHours(1);
+
+  /** The cache directories this JVM has already evicted from. */
+  private static final Set<Path> EVICTED = ConcurrentHashMap.newKeySet();
+
+  /** File hashes by path, size and modification time, so unchanged jars are read once. */
+  private static final Map<String, String> FILE_HASHES = new ConcurrentHashMap<>();
+
+  private static String javacVersion;
+
+  private final Path root;
+
+  FixtureCache(Path root) {
+    this.root = root;
+  }
+
+  /** Compiles sources into an empty output directory. */
+  @FunctionalInterface
+  interface Compilation {
+    void compileTo(Path output) throws Exception;
+  }
+
+  /** Returns the cache for the fixtures of tests run against {@code distDir}, unless disabled. */
+  static Optional<FixtureCache> open(Path distDir) throws IOException {
+    String directory = System.getProperty(DIRECTORY_PROPERTY);
+    if (directory != null && directory.isEmpty()) {
+      return Optional.empty();
+    }
+    Path root =
+        directory != null
+            ? Path.of(directory)
+            : distDir.toAbsolutePath().normalize().resolveSibling("fixture-cache");
+    Files.createDirectories(root);
+    FixtureCache cache = new FixtureCache(root);
+    if (EVICTED.add(root)) {
+      cache.evict(
+          Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES),
+          Instant.now().minus(EVICTION_GRACE));
+    }
+    return Optional.of(cache);
+  }
+
+  /**
+   * Returns the key of compiling {@code sources}, by file name, against {@code classpath} with the
+   * {@code javac} arguments {@code options}.
+   */
+  String key(Map<String, Path> sources, List<Path> classpath, List<String> options)
+      throws Exception {
+    MessageDigest digest = sha256();
+    update(digest, javacVersion());
+    update(digest, Integer.toString(options.size()));
+    for (String option : options) {
+      update(digest, option);
+    }
+    for (Path entry : classpath) {
+      if (Files.isRegularFile(entry)) {
+        update(digest, "file");
+        update(digest, fileHash(entry));
+      } else if (Files.isDirectory(entry)) {
+        update(digest, "directory");
+        try (Stream<Path> files = Files.walk(entry)) {
+          for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+            update(digest, entry.relativize(file).toString());
+            update(digest, fileHash(file));
+          }
+        }
+      } else {
+        update(digest, "missing");
+        update(digest, entry.toAbsolutePath().normalize().toString());
+      }
+    }
+    for (Map.Entry<String, Path> source : sources.entrySet()) {
+      update(digest, source.getKey());
+      update(digest, Files.readAllBytes(source.getValue()));
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Returns the directory of the class files compiled for {@code key}, running {@code compilation}
+   * on a miss. Entries are published atomically, so concurrent test JVMs may share the cache.
+   */
+  Path classes(String key, Compilation compilation) throws Exception {
+    Path entry = root.resolve(key);
+    if (Files.isDirectory(entry)) {
+      markUsed(entry);
+      return entry;
+    }
+    Path staging = Files.createTempDirectory(root, key + "-");
+    try {
+      compilation.compileTo(staging);
+      Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+      // Another run published the same entry first.
+    } finally {
+      delete(staging);
+    }
+    return entry;
+  }
+
+  /**
+   * Deletes the least recently used entries beyond the newest {@code maxEntries}, and staging
+   * directories left by runs that died, unless they were used after {@code usedBefore}.
+   */
+  void evict(int maxEntries, Instant usedBefore) throws IOException {
+    List<Path> entries = new ArrayList<>();
+    try (Stream<Path> children = Files.list(root)) {
+      for (Path child : children.filter(Files::isDirectory).toList()) {
+        if (child.getFileName().toString().contains("-")) {
+          if (lastUsed(child).isBefore(usedBefore)) {
+            delete(child);
+          }
+        } else {
+          entries.add(child);
+        }
+      }
+    }
+    if (entries.size() <= maxEntries) {
+      return;
+    }
+    Map<Path, Instant> used = new HashMap<>();
+    for (Path entry : entries) {
+      used.put(entry, lastUsed(entry));
+    }
+    entries.sort(Comparator.comparing(used::get).reversed());
+    for (Path entry : entries.subList(maxEntries, entries.size())) {
+      if (used.get(entry).isBefore(usedBefore)) {
+        delete(entry);
+      }
+    }
+  }
+
+  private static void markUsed(Path entry) {
+    try {
+      Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      // The entry is still usable; it only keeps its older place in the eviction order.
+    }
+  }
+
+  private static Instant lastUsed(Path entry) {
+    try {
+      return Files.getLastModifiedTime(entry).toInstant();
+    } catch (IOException e) {
+      return Instant.MIN;
+    }
+  }
+
+  /** Copies the class files of a cache entry into {@code target}. */
+  static void copy(Path classes, Path target) throws IOException {
+    try (Stream<Path> files = Files.walk(classes)) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        Path dest = target.resolve(classes.relativize(file).toString());
+        Files.createDirectories(dest.getParent());
+        Files.copy(file, dest, StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+  }
+
+  private static String fileHash(Path file) throws IOException {
+    String stamp =
+        file.toAbsolutePath().normalize()
+            + ":"
+            + Files.size(file)
+            + ":"
+            + Files.getLastModifiedTime(file).toMillis();
+    String hash = FILE_HASHES.get(stamp);
+    if (hash == null) {
+      MessageDigest digest = sha256();
+      try (InputStream in = Files.newInputStream(file)) {
+        byte[] buffer = new byte[64 * 1024];
+        for (int read; (read = in.read(buffer)) >= 0; ) {
+          digest.update(buffer, 0, read);
+        }
+      }
+      hash = HexFormat.of().formatHex(digest.digest());
+      FILE_HASHES.put(stamp, hash);
+    }
+    return hash;
+  }
+
+  /** Returns the output of {@code javac -version}, the compiler the harness forks. */
+  private static synchronized String javacVersion() throws Exception {
+    if (javacVersion == null) {
+      Process process = new ProcessBuilder("javac", "-version").redirectErrorStream(true).start();
+      String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+      if (process.waitFor() != 0) {
+        throw new IOException("javac -version failed:\n" + output);
+      }
+      javacVersion = output.trim();
+    }
+    return javacVersion;
+  }
+
+  /** Adds {@code value} and its length, so adjacent values cannot run into each other. */
+  private static void update(MessageDigest digest, String value) {
+    update(digest, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void update(MessageDigest digest, byte[] bytes) {
+    digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) ':');
+    digest.update(bytes);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @SuppressWarnings("EmptyCatch")
+  private static void delete(Path directory) throws IOException {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> walk = Files.walk(directory)) {
+      walk.sorted((a, b) -> b.compareTo(a))
+          .forEach(
+              p -> {
+                try {
+                  Files.delete(p);
+                } catch (IOException e) {
+                }
+              });
+    }
+  }
+}
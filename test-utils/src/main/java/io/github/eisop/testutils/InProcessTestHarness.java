@@ -0,0 +1,360 @@
+package io.github.eisop.testutils;
+
+import io.github.eisop.runtimeframework.config.RuntimeOptions;
+import io.github.eisop.testutils.AgentTestHarness.TestResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * Runs directory tests inside the test JVM instead of forking {@code javac} and an agent JVM per
+ * test.
+ *
+ * <p>The sources of a directory are compiled in one compiler invocation into memory. Each test case
+ * then runs on its own thread in its own class loader over the framework, checker and test-utils
+ * jars, so the static state of the runtime is not shared between cases, and the test classes are
+ * passed through a {@code RuntimeTransformer} built by {@code RuntimeAgent} in that loader. The
+ * output of a case is captured per thread.
+ *
+ * <p>Runs that need the agent itself are left to the forked harness: lazy instrumentation
+ * retransforms classes, and the site profile is dumped by a shutdown hook of the agent JVM. Enable
+ * the harness with {@code -Druntime.test.inProcess=true}.
+ */
+final class InProcessTestHarness {
+
+  static final String ENABLED_PROPERTY = "runtime.test.inProcess";
+
+  private static final String AGENT_CLASS = "io.github.eisop.runtimeframework.agent.RuntimeAgent";
+  private static final String FRAMEWORK_PACKAGE = "io.github.eisop.runtimeframework.";
+  private static final long TIMEOUT_SECONDS = 10;
+
+  /** Properties {@code premain} acts on, which a run without the agent would ignore. */
+  private static final List<String> AGENT_PROPERTIES =
+      List.of(RuntimeOptions.LAZY_INSTRUMENTATION_PROPERTY, RuntimeOptions.SITE_PROFILE_PROPERTY);
+
+  /** Serializes compilation and the system properties the runtime reads while a directory runs. */
+  private static final Object LOCK = new Object();
+
+  private static final ThreadLocal<ByteArrayOutputStream> CAPTURED_OUT = new ThreadLocal<>();
+  private static final ThreadLocal<ByteArrayOutputStream> CAPTURED_ERR = new ThreadLocal<>();
+
+  private static JavaCompiler compiler;
+  private static StandardJavaFileManager fileManager;
+  private static boolean captureInstalled;
+
+  private InProcessTestHarness() {}
+
+  static boolean enabled() {
+    return Boolean.getBoolean(ENABLED_PROPERTY);
+  }
+
+  /** Returns whether a run with {@code agentArgs} can do without the agent. */
+  static boolean supports(List<String> agentArgs) {
+    for (String arg : agentArgs) {
+      if (!arg.startsWith("-D")) {
+        return false;
+      }
+      for (String property : AGENT_PROPERTIES) {
+        if (arg.startsWith("-D" + property + "=")) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compiles {@code sources} against {@code compileClasspath}, then runs each of {@code
+   * mainClasses} concurrently with {@code runtimeClasspath} and the {@code -D} properties of {@code
+   * agentArgs}, and returns the result of each by main class. Each case is given {@value
+   * #TIMEOUT_SECONDS} seconds.
+   */
+  static Map<String, TestResult> run(
+      List<Path> sources,
+      List<String> mainClasses,
+      List<Path> compileClasspath,
+      List<Path> runtimeClasspath,
+      List<String> agentArgs)
+      throws Exception {
+    synchronized (LOCK) {
+      Map<String, byte[]> classes = compile(sources, compileClasspath);
+      if (mainClasses.isEmpty()) {
+        return Map.of();
+      }
+      installCapture();
+      URL[] urls = urls(runtimeClasspath);
+      Map<String, String> previous = setProperties(agentArgs);
+      ExecutorService executor = Executors.newFixedThreadPool(mainClasses.size());
+      try {
+        Map<String, Future<TestResult>> futures = new LinkedHashMap<>();
+        for (String mainClass : mainClasses) {
+          futures.put(mainClass, executor.submit(() -> runCase(mainClass, classes, urls)));
+        }
+        Map<String, TestResult> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<TestResult>> entry : futures.entrySet()) {
+          try {
+            results.put(entry.getKey(), entry.getValue().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+          } catch (TimeoutException e) {
+            throw new RuntimeException("Agent Execution timed out: " + entry.getKey(), e);
+          }
+        }
+        return results;
+      } finally {
+        executor.shutdownNow();
+        restoreProperties(previous);
+      }
+    }
+  }
+
+  private static TestResult runCase(String mainClass, Map<String, byte[]> classes, URL[] urls)
+      throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    CAPTURED_OUT.set(out);
+    CAPTURED_ERR.set(err);
+    Thread thread = Thread.currentThread();
+    ClassLoader contextLoader = thread.getContextClassLoader();
+    int exitCode = 0;
+    try (CaseClassLoader loader = new CaseClassLoader(urls, classes)) {
+      thread.setContextClassLoader(loader);
+      Object transformer =
+          Class.forName(AGENT_CLASS, true, loader).getMethod("createTransformer").invoke(null);
+      if (transformer == null) {
+        exitCode = 1;
+      } else {
+        loader.transformer = (ClassFileTransformer) transformer;
+        Class.forName(mainClass, true, loader)
+            .getMethod("main", String[].class)
+            .invoke(null, (Object) new String[0]);
+      }
+    } catch (InvocationTargetException | ExceptionInInitializerError e) {
+      e.getCause().printStackTrace(System.err);
+      exitCode = 1;
+    } catch (LinkageError e) {
+      // A class of the case failed to load or verify, as it would fail the forked JVM.
+      e.printStackTrace(System.err);
+      exitCode = 1;
+    } finally {
+      thread.setContextClassLoader(contextLoader);
+      CAPTURED_OUT.remove();
+      CAPTURED_ERR.remove();
+    }
+    return new TestResult(
+        exitCode, out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8));
+  }
+
+  private static Map<String, byte[]> compile(List<Path> sources, List<Path> classpath)
+      throws Exception {
+    if (compiler == null) {
+      compiler = ToolProvider.getSystemJavaCompiler();
+      fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+    }
+    fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, classpath);
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    MemoryFileManager memory = new MemoryFileManager(fileManager);
+    boolean compiled =
+        compiler
+            .getTask(
+                null,
+                memory,
+                diagnostics,
+                List.of("-g"),
+                null,
+                fileManager.getJavaFileObjectsFromPaths(sources))
+            .call();
+    if (!compiled) {
+      throw new RuntimeException(
+          "Compilation Failed:\n"
+              + diagnostics.getDiagnostics().stream()
+                  .map(Object::toString)
+                  .collect(Collectors.joining("\n")));
+    }
+    return memory.classes();
+  }
+
+  private static URL[] urls(List<Path> classpath) throws MalformedURLException {
+    List<URL> urls = new ArrayList<>();
+    for (Path path : classpath) {
+      urls.add(path.toUri().toURL());
+    }
+    return urls.toArray(URL[]::new);
+  }
+
+  private static Map<String, String> setProperties(List<String> agentArgs) {
+    Map<String, String> previous = new HashMap<>();
+    for (String arg : agentArgs) {
+      String property = arg.substring(2);
+      int separator = property.indexOf('=');
+      String name = separator < 0 ? property : property.substring(0, separator);
+      String value = separator < 0 ? "" : property.substring(separator + 1);
+      previous.putIfAbsent(name, System.getProperty(name));
+      System.setProperty(name, value);
+    }
+    return previous;
+  }
+
+  private static void restoreProperties(Map<String, String> previous) {
+    for (Map.Entry<String, String> entry : previous.entrySet()) {
+      if (entry.getValue() == null) {
+        System.clearProperty(entry.getKey());
+      } else {
+        System.setProperty(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /** Routes {@code System.out} and {@code System.err} of case threads into their buffers. */
+  private static void installCapture() {
+    if (!captureInstalled) {
+      System.setOut(capturing(System.out, CAPTURED_OUT));
+      System.setErr(capturing(System.err, CAPTURED_ERR));
+      captureInstalled = true;
+    }
+  }
+
+  private static PrintStream capturing(
+      PrintStream original, ThreadLocal<ByteArrayOutputStream> captured) {
+    return new PrintStream(
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            target().write(b);
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+          }
+
+          @Override
+          public void flush() {
+            original.flush();
+          }
+
+          private OutputStream target() {
+            ByteArrayOutputStream buffer = captured.get();
+            return buffer != null ? buffer : original;
+          }
+        },
+        true,
+        StandardCharsets.UTF_8);
+  }
+
+  /** Keeps the class files the compiler writes in memory, by binary name. */
+  private static final class MemoryFileManager
+      extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    private final Map<String, ByteArrayOutputStream> outputs = new ConcurrentHashMap<>();
+
+    MemoryFileManager(StandardJavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+        Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+      URI uri = URI.create("memory:///" + className.replace('.', '/') + kind.extension);
+      return new SimpleJavaFileObject(uri, kind) {
+        @Override
+        public OutputStream openOutputStream() {
+          ByteArrayOutputStream output = new ByteArrayOutputStream();
+          outputs.put(className, output);
+          return output;
+        }
+      };
+    }
+
+    Map<String, byte[]> classes() {
+      Map<String, byte[]> classes = new HashMap<>();
+      outputs.forEach((name, output) -> classes.put(name, output.toByteArray()));
+      return classes;
+    }
+  }
+
+  /**
+   * Loads the framework, the checkers and the compiled test classes of one test case, and passes
+   * the test classes through the transformer of the case.
+   */
+  private static final class CaseClassLoader extends URLClassLoader {
+
+    static {
+      registerAsParallelCapable();
+    }
+
+    private final Map<String, byte[]> testClasses;
+    private volatile ClassFileTransformer transformer;
+
+    CaseClassLoader(URL[] urls, Map<String, byte[]> testClasses) {
+      super("runtime-test-case", urls, ClassLoader.getPlatformClassLoader());
+      this.testClasses = testClasses;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      byte[] bytes = testClasses.get(name);
+      if (bytes == null) {
+        return super.findClass(name);
+      }
+      ClassFileTransformer current = transformer;
+      if (current != null && !name.startsWith(FRAMEWORK_PACKAGE)) {
+        try {
+          byte[] transformed =
+              current.transform(
+                  getUnnamedModule(), this, name.replace('.', '/'), null, null, bytes);
+          if (transformed != null) {
+            bytes = transformed;
+          }
+        } catch (IllegalClassFormatException e) {
+          throw new ClassNotFoundException(name, e);
+        }
+      }
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    /** Serves the untransformed test classes to the resolution of the runtime. */
+    @Override
+    public InputStream getResourceAsStream(String name) {
+      if (name.endsWith(".class")) {
+        byte[] bytes =
+            testClasses.get(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+        if (bytes != null) {
+          return new ByteArrayInputStream(bytes);
+        }
+      }
+      return super.getResourceAsStream(name);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package io.github.eisop.testutils;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * A minimal timing loop for the benchmarks run by {@code ./gradlew benchmark}.
+ *
+ * <p>An operation runs for a number of warm-up rounds so the JIT compiles it, then for measured
+ * rounds whose best time is reported. The values the operation returns are folded into a sink so
+ * the JIT cannot drop the work. The numbers are for comparing variants on one machine, not a
+ * substitute for JMH.
+ */
+public final class MicroBenchmark {
+
+  public static final String TAG = "benchmark";
+
+  private static final int WARMUP_ROUNDS = 10;
+  private static final int MEASURED_ROUNDS = 10;
+
+  /** Read by nothing; written so the measured work stays observable. */
+  static volatile long sink;
+
+  private MicroBenchmark() {}
+
+  /**
+   * Returns the best time per operation, in nanoseconds, of running {@code op} {@code ops} times.
+   */
+  public static double nanosPerOp(long ops, LongSupplier op) {
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      run(ops, op);
+    }
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < MEASURED_ROUNDS; round++) {
+      best = Math.min(best, run(ops, op));
+    }
+    return (double) best / ops;
+  }
+
+  /** Prints one result line to the test output. */
+  public static void report(String name, double nanosPerOp) {
+    System.out.println(
+        String.format(Locale.ROOT, "[BENCHMARK] %-48s %12.1f ns/op", name, nanosPerOp));
+  }
+
+  private static long run(long ops, LongSupplier op) {
+    long accumulated = 0;
+    long start = System.nanoTime();
+    for (long i = 0; i < ops; i++) {
+      accumulated += op.getAsLong();
+    }
+    long elapsed = System.nanoTime() - start;
+    sink += accumulated;
+    return elapsed;
+  }
+}
@@ -6,7 +6,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -18,6 +20,12 @@ public class RuntimeTestRunner extends AgentTestHarness {
   private static final Pattern PACKAGE_PATTERN =
       Pattern.compile("(?m)^\\s*package\\s+([\\w.]+)\\s*;");
 
+  /** Checks the outcome of a directory test beyond its expected violations. */
+  @FunctionalInterface
+  public interface DirectoryTestCheck {
+    void check(Path workingDirectory, Map<String, TestResult> results) throws Exception;
+  }
+
   public void runDirectoryTest(String dirName, String checkerClass, boolean isGlobal)
       throws Exception {
     runDirectoryTest(dirName, checkerClass, isGlobal, List.of());
@@ -26,6 +34,21 @@ public class RuntimeTestRunner extends AgentTestHarness {
   public void runDirectoryTest(
       String dirName, String checkerClass, boolean isGlobal, List<String> extraAgentArgs)
       throws Exception {
+    runDirectoryTest(dirName, checkerClass, isGlobal, extraAgentArgs, (directory, results) -> {});
+  }
+
+  /**
+   * Runs a directory test and then hands the working directory of the runs and the result of each
+   * test case, by main class file name without {@code .java}, to {@code check}, for outcomes other
+   * than the expected violations.
+   */
+  public void runDirectoryTest(
+      String dirName,
+      String checkerClass,
+      boolean isGlobal,
+      List<String> extraAgentArgs,
+      DirectoryTestCheck check)
+      throws Exception {
     setup();
     try {
       String resourcePath = "test-cases/" + dirName;
@@ -46,15 +69,6 @@ public class RuntimeTestRunner extends AgentTestHarness {
 
       if (javaFiles.isEmpty()) return;
 
-      List<String> fileNames = new ArrayList<>();
-      for (Path p : javaFiles) {
-        String fname = p.getFileName().toString();
-        Files.copy(p, tempDir.resolve(fname), StandardCopyOption.REPLACE_EXISTING);
-        fileNames.add(fname);
-      }
-
-      compile(fileNames);
-
       List<Path> mainFiles = new ArrayList<>();
       List<Path> helperFiles = new ArrayList<>();
 
@@ -67,33 +81,95 @@ public class RuntimeTestRunner extends AgentTestHarness {
         }
       }
 
+      List<String> agentArgs = agentArgs(checkerClass, extraAgentArgs);
+      if (InProcessTestHarness.enabled() && InProcessTestHarness.supports(agentArgs)) {
+        check.check(tempDir, runInProcess(javaFiles, mainFiles, helperFiles, isGlobal, agentArgs));
+        return;
+      }
+
+      List<String> fileNames = new ArrayList<>();
+      for (Path p : javaFiles) {
+        String fname = p.getFileName().toString();
+        Files.copy(p, tempDir.resolve(fname), StandardCopyOption.REPLACE_EXISTING);
+        fileNames.add(fname);
+      }
+
+      compile(fileNames);
+
+      Map<String, TestResult> results = new LinkedHashMap<>();
       for (Path mainSource : mainFiles) {
-        runSingleTest(mainSource, helperFiles, checkerClass, isGlobal, extraAgentArgs);
+        results.put(
+            testName(mainSource), runSingleTest(mainSource, helperFiles, isGlobal, agentArgs));
       }
+      check.check(tempDir, results);
 
     } finally {
       cleanup();
     }
   }
 
-  private void runSingleTest(
-      Path mainSource,
+  private TestResult runSingleTest(
+      Path mainSource, List<Path> helperFiles, boolean isGlobal, List<String> agentArgs)
+      throws Exception {
+    System.out.println("Running test: " + mainSource.getFileName());
+
+    TestResult result =
+        runAgent(mainClassName(mainSource), isGlobal, agentArgs.toArray(String[]::new));
+
+    verifyErrors(
+        expectedErrors(mainSource, helperFiles),
+        result.stdout(),
+        mainSource.getFileName().toString());
+    return result;
+  }
+
+  /**
+   * Runs the test cases of a directory concurrently in this JVM, see {@link InProcessTestHarness}.
+   */
+  private Map<String, TestResult> runInProcess(
+      List<Path> javaFiles,
+      List<Path> mainFiles,
       List<Path> helperFiles,
-      String checkerClass,
       boolean isGlobal,
-      List<String> extraAgentArgs)
+      List<String> agentArgs)
       throws Exception {
-    System.out.println("Running test: " + mainSource.getFileName());
+    List<String> properties = new ArrayList<>();
+    if (isGlobal) {
+      properties.add(systemProperty(RuntimeOptions.GLOBAL_MODE_PROPERTY, true));
+    }
+    properties.addAll(agentArgs);
 
-    List<ExpectedError> expectedErrors = new ArrayList<>();
-    expectedErrors.addAll(parseExpectedErrors(mainSource));
-    for (Path helper : helperFiles) {
-      expectedErrors.addAll(parseExpectedErrors(helper));
+    List<String> mainClasses = new ArrayList<>();
+    for (Path mainSource : mainFiles) {
+      mainClasses.add(mainClassName(mainSource));
     }
 
-    String filename = mainSource.getFileName().toString();
-    String mainClass = mainClassName(mainSource);
+    Map<String, TestResult> results =
+        InProcessTestHarness.run(
+            javaFiles,
+            mainClasses,
+            List.of(findJar("checker-qual"), findJar("framework")),
+            List.of(
+                findJar("framework"),
+                findJar("checker"),
+                findJar("checker-qual"),
+                findJar("test-utils")),
+            properties);
+
+    Map<String, TestResult> byTestName = new LinkedHashMap<>();
+    for (Path mainSource : mainFiles) {
+      System.out.println("Running test: " + mainSource.getFileName());
+      TestResult result = results.get(mainClassName(mainSource));
+      verifyErrors(
+          expectedErrors(mainSource, helperFiles),
+          result.stdout(),
+          mainSource.getFileName().toString());
+      byTestName.put(testName(mainSource), result);
+    }
+    return byTestName;
+  }
 
+  private static List<String> agentArgs(String checkerClass, List<String> extraAgentArgs) {
     List<String> agentArgs = new ArrayList<>();
     agentArgs.add(systemProperty(RuntimeOptions.CHECKER_CLASS_PROPERTY, checkerClass));
     agentArgs.add(systemProperty(RuntimeOptions.TRUST_ANNOTATED_FOR_PROPERTY, true));
@@ -102,14 +178,25 @@ public class RuntimeTestRunner extends AgentTestHarness {
             RuntimeOptions.HANDLER_CLASS_PROPERTY,
             "io.github.eisop.testutils.TestViolationHandler"));
     agentArgs.addAll(extraAgentArgs);
+    return agentArgs;
+  }
 
-    TestResult result = runAgent(mainClass, isGlobal, agentArgs.toArray(String[]::new));
+  private List<ExpectedError> expectedErrors(Path mainSource, List<Path> helperFiles)
+      throws IOException {
+    List<ExpectedError> expectedErrors = new ArrayList<>();
+    expectedErrors.addAll(parseExpectedErrors(mainSource));
+    for (Path helper : helperFiles) {
+      expectedErrors.addAll(parseExpectedErrors(helper));
+    }
+    return expectedErrors;
+  }
 
-    verifyErrors(expectedErrors, result.stdout(), filename);
+  private static String testName(Path mainSource) {
+    return mainSource.getFileName().toString().replace(".java", "");
   }
 
   private String mainClassName(Path mainSource) throws IOException {
-    String simpleName = mainSource.getFileName().toString().replace(".java", "");
+    String simpleName = testName(mainSource);
     Matcher matcher = PACKAGE_PATTERN.matcher(Files.readString(mainSource));
     return matcher.find() ? matcher.group(1) + "." + simpleName : simpleName;
   }
@@ -0,0 +1,81 @@
+package io.github.eisop.testutils;
+
+import io.github.eisop.runtimeframework.contracts.PropertyId;
+import io.github.eisop.runtimeframework.contracts.PropertyRequirement;
+import io.github.eisop.runtimeframework.contracts.ValueContract;
+import io.github.eisop.runtimeframework.core.RuntimeChecker;
+import io.github.eisop.runtimeframework.planning.DiagnosticSpec;
+import io.github.eisop.runtimeframework.planning.TargetRef;
+import io.github.eisop.runtimeframework.planning.ValueAccess;
+import io.github.eisop.runtimeframework.runtime.AttributionKind;
+import io.github.eisop.runtimeframework.semantics.CheckerSemantics;
+import io.github.eisop.runtimeframework.semantics.ContractResolver;
+import io.github.eisop.runtimeframework.semantics.PropertyEmitter;
+import java.lang.classfile.CodeBuilder;
+
+/**
+ * A checker for composition tests, named {@code "strictparams"}, that requires every reference
+ * parameter to be non-null whatever its qualifiers. It emits no checks itself, so its requirements
+ * are emitted by the checker it is composed with.
+ */
+public class StrictParameterRuntimeChecker extends RuntimeChecker {
+
+  private static final ValueContract NON_NULL =
+      ValueContract.of(PropertyRequirement.of(PropertyId.NON_NULL));
+
+  private static final CheckerSemantics SEMANTICS =
+      new CheckerSemantics() {
+        private final ContractResolver contracts =
+            (target, context) -> {
+              if (target instanceof TargetRef.MethodParameter parameter
+                  && !parameter
+                      .method()
+                      .methodTypeSymbol()
+                      .parameterList()
+                      .get(parameter.parameterIndex())
+                      .isPrimitive()) {
+                return NON_NULL;
+              }
+              return ValueContract.none();
+            };
+
+        @Override
+        public ContractResolver contracts() {
+          return contracts;
+        }
+
+        @Override
+        public PropertyEmitter emitter() {
+          return NoEmitter.INSTANCE;
+        }
+      };
+
+  @Override
+  public String getName() {
+    return "strictparams";
+  }
+
+  @Override
+  public CheckerSemantics getSemantics() {
+    return SEMANTICS;
+  }
+
+  private enum NoEmitter implements PropertyEmitter {
+    INSTANCE;
+
+    @Override
+    public boolean supports(PropertyRequirement property) {
+      return false;
+    }
+
+    @Override
+    public void emitCheck(
+        CodeBuilder builder,
+        PropertyRequirement property,
+        ValueAccess access,
+        AttributionKind attribution,
+        DiagnosticSpec diagnostic) {
+      // Supports no property, so there is never a check to emit.
+    }
+  }
+}
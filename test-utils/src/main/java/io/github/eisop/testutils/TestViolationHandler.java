@@ -1,6 +1,7 @@
 package io.github.eisop.testutils;
 
 import io.github.eisop.runtimeframework.runtime.AttributionKind;
+import io.github.eisop.runtimeframework.runtime.InstrumentationNames;
 import io.github.eisop.runtimeframework.runtime.ViolationHandler;
 
 /**
@@ -24,7 +25,7 @@ public class TestViolationHandler implements ViolationHandler {
         .walk(
             stream ->
                 stream
-                    .filter(f -> !f.getClassName().startsWith("io.github.eisop.runtimeframework"))
+                    .filter(f -> !InstrumentationNames.isInstrumentationFrame(f))
                     .filter(f -> !f.getClassName().startsWith("io.github.eisop.testutils"))
                     .skip(attribution == AttributionKind.CALLER ? 1 : 0)
                     .findFirst()
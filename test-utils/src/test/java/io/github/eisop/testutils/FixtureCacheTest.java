@@ -0,0 +1,123 @@
+package io.github.eisop.testutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FixtureCacheTest {
+
+  private static final List<String> OPTIONS = List.of("-g");
+
+  @TempDir Path dir;
+
+  @Test
+  public void sameInputsHitTheCompiledEntry() throws Exception {
+    FixtureCache cache = new FixtureCache(Files.createDirectories(dir.resolve("cache")));
+    Map<String, Path> sources = Map.of("A.java", write("A.java", "class A {}"));
+    List<Path> classpath = List.of(write("lib.jar", "one"));
+    AtomicInteger compilations = new AtomicInteger();
+
+    String key = cache.key(sources, classpath, OPTIONS);
+    Path first = cache.classes(key, output -> compile(output, compilations));
+    String again = cache.key(sources, classpath, OPTIONS);
+    Path second = cache.classes(again, output -> compile(output, compilations));
+
+    assertEquals(first, second);
+    assertEquals(1, compilations.get());
+    assertTrue(Files.isRegularFile(first.resolve("A.class")));
+  }
+
+  @Test
+  public void changedSourcesOrOptionsMiss() throws Exception {
+    FixtureCache cache = new FixtureCache(Files.createDirectories(dir.resolve("cache")));
+    Path source = write("A.java", "class A {}");
+    List<Path> classpath = List.of(write("lib.jar", "one"));
+    String key = cache.key(Map.of("A.java", source), classpath, OPTIONS);
+
+    assertNotEquals(key, cache.key(Map.of("A.java", source), classpath, List.of()));
+    assertNotEquals(key, cache.key(Map.of("A.java", source), classpath, List.of("-g", "-O")));
+    assertNotEquals(key, cache.key(Map.of("B.java", source), classpath, OPTIONS));
+    Files.writeString(source, "class A { int x; }");
+    assertNotEquals(key, cache.key(Map.of("A.java", source), classpath, OPTIONS));
+  }
+
+  @Test
+  public void changedClasspathJarInvalidatesTheEntry() throws Exception {
+    FixtureCache cache = new FixtureCache(Files.createDirectories(dir.resolve("cache")));
+    Map<String, Path> sources = Map.of("A.java", write("A.java", "class A {}"));
+    Path jar = write("lib.jar", "one");
+    AtomicInteger compilations = new AtomicInteger();
+
+    String before = cache.key(sources, List.of(jar), OPTIONS);
+    cache.classes(before, output -> compile(output, compilations));
+    Files.writeString(jar, "two, rebuilt");
+    Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(5)));
+    String after = cache.key(sources, List.of(jar), OPTIONS);
+    cache.classes(after, output -> compile(output, compilations));
+
+    assertNotEquals(before, after);
+    assertEquals(2, compilations.get());
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedEntriesAndAbandonedStaging() throws Exception {
+    Path root = Files.createDirectories(dir.resolve("cache"));
+    FixtureCache cache = new FixtureCache(root);
+    Instant now = Instant.now();
+    Path oldest = entry(root, "aaaa", now.minus(Duration.ofDays(3)));
+    Path older = entry(root, "bbbb", now.minus(Duration.ofDays(2)));
+    Path newest = entry(root, "cccc", now.minus(Duration.ofDays(1)));
+    Path recent = entry(root, "dddd", now);
+    Path staging = entry(root, "eeee-123", now.minus(Duration.ofDays(1)));
+
+    cache.evict(1, now.minus(Duration.ofHours(1)));
+
+    assertFalse(Files.exists(oldest));
+    assertFalse(Files.exists(older));
+    assertFalse(Files.exists(newest));
+    assertTrue(Files.exists(recent));
+    assertFalse(Files.exists(staging));
+  }
+
+  @Test
+  public void keepsEntriesUsedWithinTheGracePeriod() throws Exception {
+    Path root = Files.createDirectories(dir.resolve("cache"));
+    FixtureCache cache = new FixtureCache(root);
+    Instant now = Instant.now();
+    Path used = entry(root, "aaaa", now.minus(Duration.ofMinutes(5)));
+    Path newer = entry(root, "bbbb", now);
+
+    cache.evict(1, now.minus(Duration.ofHours(1)));
+
+    assertTrue(Files.exists(used));
+    assertTrue(Files.exists(newer));
+  }
+
+  private Path write(String name, String content) throws Exception {
+    return Files.writeString(dir.resolve(name), content);
+  }
+
+  private static Path entry(Path root, String name, Instant lastUsed) throws Exception {
+    Path entry = Files.createDirectories(root.resolve(name));
+    Files.writeString(entry.resolve("A.class"), name);
+    Files.setLastModifiedTime(entry, FileTime.from(lastUsed));
+    return entry;
+  }
+
+  private static void compile(Path output, AtomicInteger compilations) throws Exception {
+    compilations.incrementAndGet();
+    Files.writeString(output.resolve("A.class"), "compiled");
+  }
+}